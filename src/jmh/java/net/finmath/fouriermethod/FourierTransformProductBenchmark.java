@@ -0,0 +1,94 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.fouriermethod;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.complex.Complex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.models.BatesModel;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.fouriermethod.models.HestonModel;
+import net.finmath.fouriermethod.models.VarianceGammaModel;
+import net.finmath.fouriermethod.products.EuropeanOption;
+import net.finmath.integration.SimpsonRealIntegrator;
+
+/**
+ * Benchmark of the valuation of a European option with a characteristic function model:
+ * the integrand evaluated on primitive doubles (<code>valueUsingPrimitives</code>, i.e. {@link EuropeanOption#getValue(CharacteristicFunctionModel)})
+ * versus the integrand evaluated using {@link Complex} objects (<code>valueUsingComplex</code>), and the valuation using the
+ * {@link COSMethod} (<code>valueUsingCOS</code>).
+ *
+ * Run with <code>mvn -P jmh test-compile exec:exec -Djmh.args="FourierTransformProductBenchmark -prof gc"</code>.
+ *
+ * @author Christian Fries
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FourierTransformProductBenchmark {
+
+	@Param({ "Heston", "Bates", "VarianceGamma" })
+	private String modelName;
+
+	private CharacteristicFunctionModel model;
+	private EuropeanOption product;
+	private final COSMethod cosMethod = new COSMethod();
+
+	@Setup
+	public void setup() {
+		switch(modelName) {
+		case "Heston":
+			model = new HestonModel(100.0, 0.02, 0.25, 0.01, 0.04, 1.5, 0.6, -0.7);
+			break;
+		case "Bates":
+			model = new BatesModel(100.0, 0.02, 0.25, 0.06, 1.5, 0.6, -0.7, 0.1, 0.5, -0.1, 0.2);
+			break;
+		case "VarianceGamma":
+			model = new VarianceGammaModel(100.0, 0.02, 0.01, 0.2, -0.15, 0.2);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown model " + modelName);
+		}
+		product = new EuropeanOption(1.5, 105.0);
+	}
+
+	@Benchmark
+	public double valueUsingPrimitives() throws CalculationException {
+		return product.getValue(model);
+	}
+
+	@Benchmark
+	public double valueUsingCOS() {
+		return cosMethod.getEuropeanOptionValue(model, product.getMaturity(), 105.0);
+	}
+
+	@Benchmark
+	public double valueUsingComplex() {
+		final CharacteristicFunction modelCF = model.apply(product.getMaturity());
+		final double lineOfIntegration = 0.5 * product.getIntegrationDomainImagUpperBound()+product.getIntegrationDomainImagLowerBound();
+
+		return new SimpsonRealIntegrator(-100.0, 100.0, 20000, true).integrate(real -> {
+			final Complex z = new Complex(real,lineOfIntegration);
+			return modelCF.apply(z.negate()).multiply(product.apply(z)).getReal();
+		}) / 2.0 / Math.PI;
+	}
+}
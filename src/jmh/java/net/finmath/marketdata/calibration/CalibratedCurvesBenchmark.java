@@ -0,0 +1,136 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.marketdata.calibration;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.marketdata.calibration.CalibratedCurves.CalibrationSpec;
+import net.finmath.marketdata.model.AnalyticModel;
+import net.finmath.marketdata.model.AnalyticModelFromCurvesAndVols;
+import net.finmath.marketdata.model.curves.Curve;
+import net.finmath.marketdata.model.curves.CurveInterpolation;
+import net.finmath.marketdata.model.curves.CurveInterpolation.ExtrapolationMethod;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationEntity;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationMethod;
+import net.finmath.marketdata.model.curves.DiscountCurveInterpolation;
+import net.finmath.marketdata.model.curves.ForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveFromDiscountCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.optimizer.SolverException;
+import net.finmath.time.Schedule;
+import net.finmath.time.ScheduleGenerator;
+import net.finmath.time.businessdaycalendar.BusinessdayCalendar.DateRollConvention;
+import net.finmath.time.businessdaycalendar.BusinessdayCalendarExcludingTARGETHolidays;
+
+/**
+ * Benchmark of the bootstrapping of an OIS discount curve (from deposits and swaps) and a 3M forward curve
+ * (from swaps) with {@link CalibratedCurves}.
+ *
+ * The calibration specs and the curve templates are created in the setup, such that the benchmark measures
+ * the creation of the calibration products and the calibration.
+ *
+ * The benchmarks <code>recalibrate...</code> measure the incremental recalibration of the calibrated curves to a
+ * shift of a single quote of the 3M forward curve and of the OIS discount curve, respectively
+ * (see {@link CalibratedCurves#getCloneRecalibrated(Map)}).
+ *
+ * Run with <code>mvn -P jmh test-compile exec:exec -Djmh.args="CalibratedCurvesBenchmark"</code>.
+ *
+ * @author Christian Fries
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalibratedCurvesBenchmark {
+
+	private final LocalDate referenceDate = LocalDate.of(2012, 1, 10);
+
+	private CalibrationSpec[] calibrationSpecs;
+	private AnalyticModelFromCurvesAndVols curveTemplates;
+	private CalibratedCurves calibratedCurves;
+
+	@Setup
+	public void setup() throws SolverException, CloneNotSupportedException {
+		final List<CalibrationSpec> calibrationSpecList = new ArrayList<>();
+
+		final String[] depositMaturities	= { "1D", "1W", "1M", "3M", "6M", "9M", "12M" };
+		final double[] depositRates			= { 0.202, 0.195, 0.191, 0.180, 0.156, 0.141, 0.129 };
+		for(int i=0; i<depositMaturities.length; i++) {
+			calibrationSpecList.add(getDeposit(depositMaturities[i], depositRates[i] / 100.0));
+		}
+
+		final String[] swapMaturities	= { "2Y", "3Y", "4Y", "5Y", "6Y", "7Y", "8Y", "9Y", "10Y", "12Y", "15Y", "20Y", "25Y", "30Y" };
+		final double[] swapRatesOIS		= { 0.101, 0.194, 0.346, 0.534, 0.723, 0.895, 1.054, 1.189, 1.310, 1.520, 1.723, 1.826, 1.877, 1.910 };
+		final double[] swapRates3M		= { 0.380, 0.485, 0.628, 0.812, 0.998, 1.168, 1.316, 1.442, 1.557, 1.752, 1.942, 2.029, 2.045, 2.097 };
+		for(int i=0; i<swapMaturities.length; i++) {
+			calibrationSpecList.add(getSwapOIS(swapMaturities[i], swapRatesOIS[i] / 100.0));
+		}
+		for(int i=0; i<swapMaturities.length; i++) {
+			calibrationSpecList.add(getSwap3M(swapMaturities[i], swapRates3M[i] / 100.0));
+		}
+		calibrationSpecs = calibrationSpecList.toArray(new CalibrationSpec[calibrationSpecList.size()]);
+
+		final DiscountCurveInterpolation discountCurveOIS = DiscountCurveInterpolation.createDiscountCurveFromDiscountFactors("discount-EUR-OIS", referenceDate, new double[] { 0.0 }, new double[] { 1.0 }, new boolean[] { false }, InterpolationMethod.LINEAR, ExtrapolationMethod.CONSTANT, InterpolationEntity.LOG_OF_VALUE);
+		final ForwardCurve forwardCurveOIS = new ForwardCurveFromDiscountCurve("forward-EUR-OIS", "discount-EUR-OIS", referenceDate, "3M");
+		final ForwardCurve forwardCurve3M = new ForwardCurveInterpolation("forward-EUR-3M", referenceDate, "3M", new BusinessdayCalendarExcludingTARGETHolidays(), DateRollConvention.FOLLOWING, CurveInterpolation.InterpolationMethod.LINEAR, CurveInterpolation.ExtrapolationMethod.CONSTANT, CurveInterpolation.InterpolationEntity.VALUE, ForwardCurveInterpolation.InterpolationEntityForward.FORWARD, "discount-EUR-OIS");
+
+		curveTemplates = new AnalyticModelFromCurvesAndVols(new Curve[] { discountCurveOIS, forwardCurveOIS, forwardCurve3M });
+		calibratedCurves = new CalibratedCurves(calibrationSpecs, curveTemplates, 1E-15);
+	}
+
+	@Benchmark
+	public AnalyticModel bootstrap() throws SolverException, CloneNotSupportedException {
+		return new CalibratedCurves(calibrationSpecs, curveTemplates, 1E-15).getModel();
+	}
+
+	@Benchmark
+	public AnalyticModel recalibrateForwardCurve() throws SolverException {
+		return calibratedCurves.getCloneRecalibrated(Collections.singletonMap("EUR-3M10Y", 0.0001)).getModel();
+	}
+
+	@Benchmark
+	public AnalyticModel recalibrateDiscountCurve() throws SolverException {
+		return calibratedCurves.getCloneRecalibrated(Collections.singletonMap("EUR-OIS-10Y", 0.0001)).getModel();
+	}
+
+	private CalibrationSpec getDeposit(final String maturity, final double rate) {
+		final Schedule scheduleReceiver = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "tenor", "act/360", "first", "following", new BusinessdayCalendarExcludingTARGETHolidays(), 0, 0);
+		final double calibrationTime = scheduleReceiver.getPayment(scheduleReceiver.getNumberOfPeriods() - 1);
+		return new CalibrationSpec("EUR-OIS-" + maturity, "Deposit", scheduleReceiver, "", rate, "discount-EUR-OIS", null, null, 0.0, null, "discount-EUR-OIS", calibrationTime);
+	}
+
+	private CalibrationSpec getSwapOIS(final String maturity, final double rate) {
+		final Schedule scheduleReceiver = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "annual", "act/360", "first", "modified_following", new BusinessdayCalendarExcludingTARGETHolidays(), 0, 1);
+		final Schedule schedulePayer = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "annual", "act/360", "first", "modified_following", new BusinessdayCalendarExcludingTARGETHolidays(), 0, 1);
+		final double calibrationTime = scheduleReceiver.getPayment(scheduleReceiver.getNumberOfPeriods() - 1);
+		return new CalibrationSpec("EUR-OIS-" + maturity, "Swap", scheduleReceiver, "forward-EUR-OIS", 0.0, "discount-EUR-OIS", schedulePayer, "", rate, "discount-EUR-OIS", "discount-EUR-OIS", calibrationTime);
+	}
+
+	private CalibrationSpec getSwap3M(final String maturity, final double rate) {
+		final Schedule scheduleReceiver = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "quarterly", "act/360", "first", "following", new BusinessdayCalendarExcludingTARGETHolidays(), 0, 0);
+		final Schedule schedulePayer = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "annual", "E30/360", "first", "following", new BusinessdayCalendarExcludingTARGETHolidays(), 0, 0);
+		final double calibrationTime = scheduleReceiver.getFixing(scheduleReceiver.getNumberOfPeriods() - 1);
+		return new CalibrationSpec("EUR-3M" + maturity, "Swap", scheduleReceiver, "forward-EUR-3M", 0.0, "discount-EUR-OIS", schedulePayer, "", rate, "discount-EUR-OIS", "forward-EUR-3M", calibrationTime);
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.marketdata.model.curves;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.marketdata.model.curves.CurveInterpolation.ExtrapolationMethod;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationEntity;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationMethod;
+
+/**
+ * Benchmark of the valuation of a {@link DiscountCurveInterpolation} (30 points from 1D to 50Y) at 1000 times:
+ * <ul>
+ * 	<li><code>getDiscountFactor</code>: repeated valuation of the same curve at the same times (as in a Monte-Carlo product),</li>
+ * 	<li><code>getDiscountFactorOfClone</code>: valuation of a clone for modified parameters (as in a calibration),</li>
+ * 	<li><code>getValues</code>: valuation using the bulk method.</li>
+ * </ul>
+ *
+ * Run with <code>mvn -P jmh test-compile exec:exec -Djmh.args="CurveInterpolationBenchmark"</code>.
+ *
+ * @author Christian Fries
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveInterpolationBenchmark {
+
+	private static final int numberOfTimes = 1000;
+
+	@Param({ "LINEAR", "CUBIC_SPLINE" })
+	private InterpolationMethod interpolationMethod;
+
+	private DiscountCurveInterpolation discountCurve;
+	private double[] parameters;
+	private double[] times;
+
+	@Setup
+	public void setup() {
+		final double[] curveTimes = { 1.0/365.0, 7.0/365.0, 1.0/12.0, 0.25, 0.5, 0.75, 1.0, 1.5, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0, 11.0, 12.0, 13.0, 14.0, 15.0, 17.0, 20.0, 22.0, 25.0, 30.0, 35.0, 40.0, 50.0 };
+		final double[] discountFactors = new double[curveTimes.length];
+		final boolean[] isParameter = new boolean[curveTimes.length];
+		for(int i=0; i<curveTimes.length; i++) {
+			discountFactors[i] = Math.exp(-(0.01 + 0.0005 * curveTimes[i]) * curveTimes[i]);
+			isParameter[i] = true;
+		}
+		discountCurve = DiscountCurveInterpolation.createDiscountCurveFromDiscountFactors("discountCurve", LocalDate.of(2012, 1, 10), curveTimes, discountFactors, isParameter, interpolationMethod, ExtrapolationMethod.CONSTANT, InterpolationEntity.LOG_OF_VALUE);
+		parameters = discountCurve.getParameter();
+
+		times = new double[numberOfTimes];
+		for(int i=0; i<numberOfTimes; i++) {
+			times[i] = 55.0 * i / numberOfTimes;
+		}
+	}
+
+	@Benchmark
+	public double getDiscountFactor() {
+		double sum = 0.0;
+		for(final double time : times) {
+			sum += discountCurve.getDiscountFactor(null, time);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double getDiscountFactorOfClone() throws CloneNotSupportedException {
+		final double[] parametersShifted = parameters.clone();
+		parametersShifted[parametersShifted.length/2] *= 1.0001;
+		final DiscountCurve discountCurveShifted = (DiscountCurve)discountCurve.getCloneForParameter(parametersShifted);
+
+		double sum = 0.0;
+		for(final double time : times) {
+			sum += discountCurveShifted.getDiscountFactor(null, time);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double[] getValues() {
+		return discountCurve.getValues(times);
+	}
+}
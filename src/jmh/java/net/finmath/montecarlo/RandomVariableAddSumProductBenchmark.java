@@ -0,0 +1,112 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Benchmark of the Euler step \( X + \mu \Delta t + \sum_{k} \lambda_{k} \Delta W_{k} \) using
+ * <ul>
+ * 	<li>successive (immutable) <code>addProduct</code> calls, allocating one array per factor,</li>
+ * 	<li>the fused <code>addSumProduct</code>, allocating one array for the diffusion,</li>
+ * 	<li>the in place accumulation with {@link RandomVariableAccumulatorFromDoubleArray}.</li>
+ * </ul>
+ *
+ * Run with <code>mvn -P jmh test-compile exec:exec</code>. The default <code>jmh.args</code> enable the
+ * GC profiler, which reports the allocation rate (<code>gc.alloc.rate.norm</code>). The results are written as JSON
+ * to <code>target/jmh-result.json</code>.
+ *
+ * @author Christian Fries
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomVariableAddSumProductBenchmark {
+
+	@Param({ "10000", "100000" })
+	private int numberOfPaths;
+
+	@Param({ "3", "10" })
+	private int numberOfFactors;
+
+	@Param({ "true", "false" })
+	private boolean isUseDoublePrecision;
+
+	private final double deltaT = 0.25;
+
+	private RandomVariable state;
+	private RandomVariable drift;
+	private RandomVariable[] factorLoadings;
+	private RandomVariable[] brownianIncrements;
+
+	private RandomVariableAccumulatorFromDoubleArray accumulator;
+
+	@Setup
+	public void setup() {
+		final RandomVariableFactory randomVariableFactory = new RandomVariableFromArrayFactory(isUseDoublePrecision);
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+
+		state = randomVariableFactory.createRandomVariable(0.0, getRandomRealizations(mersenneTwister));
+		drift = randomVariableFactory.createRandomVariable(0.0, getRandomRealizations(mersenneTwister));
+		factorLoadings = new RandomVariable[numberOfFactors];
+		brownianIncrements = new RandomVariable[numberOfFactors];
+		for(int factorIndex=0; factorIndex<numberOfFactors; factorIndex++) {
+			factorLoadings[factorIndex] = randomVariableFactory.createRandomVariable(0.0, getRandomRealizations(mersenneTwister));
+			brownianIncrements[factorIndex] = randomVariableFactory.createRandomVariable(deltaT, getRandomRealizations(mersenneTwister));
+		}
+
+		accumulator = new RandomVariableAccumulatorFromDoubleArray(numberOfPaths);
+	}
+
+	@Benchmark
+	public RandomVariable eulerStepSuccessiveAddProduct() {
+		RandomVariable value = state.addProduct(drift, deltaT);
+		for(int factorIndex=0; factorIndex<numberOfFactors; factorIndex++) {
+			value = value.addProduct(factorLoadings[factorIndex], brownianIncrements[factorIndex]);
+		}
+		return value;
+	}
+
+	@Benchmark
+	public RandomVariable eulerStepFusedAddSumProduct() {
+		return state.addProduct(drift, deltaT).addSumProduct(factorLoadings, brownianIncrements);
+	}
+
+	@Benchmark
+	public RandomVariable eulerStepAccumulatorInPlace() {
+		accumulator.reset();
+		accumulator.accumulate(state);
+		accumulator.accumulateProduct(drift, deltaT);
+		accumulator.accumulateSumProduct(factorLoadings, brownianIncrements);
+		return accumulator;
+	}
+
+	private double[] getRandomRealizations(final MersenneTwister mersenneTwister) {
+		final double[] realizations = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			realizations[i] = mersenneTwister.nextGaussian();
+		}
+		return realizations;
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Benchmark of the arithmetic of the implementations
+ * <ul>
+ * 	<li>{@link RandomVariableFromDoubleArray},</li>
+ * 	<li>{@link RandomVariableFromFloatArray},</li>
+ * 	<li>{@link RandomVariableLazyEvaluation},</li>
+ * 	<li>the random variables created by {@link RandomVariableVectorizedFactory} (using the Vector API if available).</li>
+ * </ul>
+ *
+ * The benchmark <code>payoff</code> evaluates the discounted payoff of a call option
+ * \( \exp(-r T) \max(S_{0} \exp(\mu T + \sigma \sqrt{T} Z) - K, 0) \), that is, a chain of unary and binary operations
+ * (each creating a new random variable) followed by a reduction. The benchmark <code>sumProduct</code> evaluates
+ * \( \sum_{i} X_{i} Y_{i} \) and <code>conditional</code> evaluates a <code>choose</code> on the sign of \( X \).
+ *
+ * Run with <code>mvn -P jmh test-compile exec:exec -Djmh.args="RandomVariableArithmeticBenchmark"</code>.
+ *
+ * @author Christian Fries
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomVariableArithmeticBenchmark {
+
+	public enum Implementation {
+		DOUBLE_ARRAY,
+		FLOAT_ARRAY,
+		LAZY_EVALUATION,
+		VECTORIZED
+	}
+
+	@Param({ "10000", "100000", "1000000" })
+	private int numberOfPaths;
+
+	@Param({ "DOUBLE_ARRAY", "FLOAT_ARRAY", "LAZY_EVALUATION", "VECTORIZED" })
+	private Implementation implementation;
+
+	private final int numberOfSummands = 8;
+
+	private final RandomVariableFactory vectorizedFactory = new RandomVariableVectorizedFactory();
+
+	private RandomVariable normal;
+	private RandomVariable[] factors;
+	private RandomVariable[] increments;
+
+	@Setup
+	public void setup() {
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+
+		normal = createRandomVariable(getRandomRealizations(mersenneTwister));
+		factors = new RandomVariable[numberOfSummands];
+		increments = new RandomVariable[numberOfSummands];
+		for(int i=0; i<numberOfSummands; i++) {
+			factors[i] = createRandomVariable(getRandomRealizations(mersenneTwister));
+			increments[i] = createRandomVariable(getRandomRealizations(mersenneTwister));
+		}
+	}
+
+	@Benchmark
+	public double payoff() {
+		final double initialValue = 100.0;
+		final double riskFreeRate = 0.05;
+		final double volatility = 0.3;
+		final double maturity = 2.0;
+		final double strike = 110.0;
+
+		final RandomVariable underlying = normal.mult(volatility * Math.sqrt(maturity))
+				.add((riskFreeRate - 0.5 * volatility * volatility) * maturity)
+				.exp()
+				.mult(initialValue);
+
+		return underlying.sub(strike).floor(0.0).mult(Math.exp(-riskFreeRate * maturity)).getAverage();
+	}
+
+	@Benchmark
+	public double sumProduct() {
+		RandomVariable sum = factors[0].mult(increments[0]);
+		for(int i=1; i<numberOfSummands; i++) {
+			sum = sum.addProduct(factors[i], increments[i]);
+		}
+		return sum.getAverage();
+	}
+
+	@Benchmark
+	public double conditional() {
+		return normal.choose(factors[0], increments[0]).squared().getAverage();
+	}
+
+	private RandomVariable createRandomVariable(final double[] realizations) {
+		switch(implementation) {
+		case DOUBLE_ARRAY:
+			return new RandomVariableFromDoubleArray(0.0, realizations);
+		case FLOAT_ARRAY:
+			return new RandomVariableFromFloatArray(0.0, realizations);
+		case LAZY_EVALUATION:
+			return new RandomVariableLazyEvaluation(0.0, realizations);
+		case VECTORIZED:
+			return vectorizedFactory.createRandomVariable(0.0, realizations);
+		default:
+			throw new IllegalArgumentException("Unknown implementation " + implementation + ".");
+		}
+	}
+
+	private double[] getRandomRealizations(final MersenneTwister mersenneTwister) {
+		final double[] realizations = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			realizations[i] = mersenneTwister.nextGaussian();
+		}
+		return realizations;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo.automaticdifferentiation.backward;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiable;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Benchmark of the forward (valuation) and backward (adjoint) sweep of {@link RandomVariableDifferentiableAAD}.
+ *
+ * The valuation is an Euler scheme of a log-normal process with differentiable initial value, drift and
+ * volatility over a number of time steps, followed by a call option payoff. The benchmark <code>forward</code>
+ * measures the valuation (including the recording of the operator tree), the benchmark <code>forwardAndBackward</code>
+ * additionally calculates the gradient with respect to all independents. The ratio of the two is the
+ * relative cost of the adjoint.
+ *
+ * Run with <code>mvn -P jmh test-compile exec:exec -Djmh.args="RandomVariableDifferentiableAADBenchmark"</code>.
+ *
+ * @author Christian Fries
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomVariableDifferentiableAADBenchmark {
+
+	@Param({ "10000", "100000" })
+	private int numberOfPaths;
+
+	@Param({ "10", "50" })
+	private int numberOfTimeSteps;
+
+	private final double deltaT = 0.1;
+
+	private RandomVariableDifferentiableAADFactory randomVariableFactory;
+	private RandomVariable[] brownianIncrements;
+
+	@Setup
+	public void setup() {
+		randomVariableFactory = new RandomVariableDifferentiableAADFactory();
+
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+		brownianIncrements = new RandomVariable[numberOfTimeSteps];
+		for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+			final double[] realizations = new double[numberOfPaths];
+			for(int i=0; i<numberOfPaths; i++) {
+				realizations[i] = mersenneTwister.nextGaussian() * Math.sqrt(deltaT);
+			}
+			brownianIncrements[timeIndex] = new RandomVariableFromDoubleArray(0.0, realizations);
+		}
+	}
+
+	@Benchmark
+	public double forward() {
+		return getValue().getAverage();
+	}
+
+	@Benchmark
+	public Map<Long, RandomVariable> forwardAndBackward() {
+		return ((RandomVariableDifferentiable)getValue()).getGradient();
+	}
+
+	private RandomVariable getValue() {
+		final RandomVariable initialValue	= randomVariableFactory.createRandomVariable(100.0);
+		final RandomVariable riskFreeRate	= randomVariableFactory.createRandomVariable(0.05);
+		final RandomVariable volatility		= randomVariableFactory.createRandomVariable(0.30);
+
+		final RandomVariable drift = riskFreeRate.sub(volatility.squared().mult(0.5)).mult(deltaT);
+
+		RandomVariable logValue = initialValue.log();
+		for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+			logValue = logValue.add(drift).addProduct(volatility, brownianIncrements[timeIndex]);
+		}
+
+		final double maturity = numberOfTimeSteps * deltaT;
+		return logValue.exp().sub(110.0).floor(0.0).mult(riskFreeRate.mult(-maturity).exp()).average();
+	}
+}
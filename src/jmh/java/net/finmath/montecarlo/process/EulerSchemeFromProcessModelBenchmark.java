@@ -0,0 +1,138 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.marketdata.model.curves.DiscountCurveFromForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.assetderivativevaluation.models.HestonModel;
+import net.finmath.montecarlo.interestrate.CalibrationProduct;
+import net.finmath.montecarlo.interestrate.models.LIBORMarketModelFromCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCorrelationModelExponentialDecay;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelFromVolatilityAndCorrelation;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORVolatilityModelFourParameterExponentialForm;
+import net.finmath.montecarlo.model.ProcessModel;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Benchmark of the simulation of {@link EulerSchemeFromProcessModel} for
+ * <ul>
+ * 	<li>a {@link BlackScholesModel} (one component, one factor),</li>
+ * 	<li>a {@link HestonModel} (two components, two factors),</li>
+ * 	<li>a {@link LIBORMarketModelFromCovarianceModel} (40 forward rates, five factors, predictor corrector).</li>
+ * </ul>
+ *
+ * The Brownian motion is created (and its increments generated) in the setup, such that the benchmark measures
+ * the Euler scheme only: each invocation creates a new process and requests the value of the first component at the last time,
+ * which triggers the simulation of all components on all time steps.
+ *
+ * Run with <code>mvn -P jmh test-compile exec:exec -Djmh.args="EulerSchemeFromProcessModelBenchmark"</code>.
+ *
+ * @author Christian Fries
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EulerSchemeFromProcessModelBenchmark {
+
+	public enum Model {
+		BLACK_SCHOLES,
+		HESTON,
+		LIBOR_MARKET_MODEL
+	}
+
+	@Param({ "BLACK_SCHOLES", "HESTON", "LIBOR_MARKET_MODEL" })
+	private Model modelType;
+
+	@Param({ "10000", "50000" })
+	private int numberOfPaths;
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 40, 0.25);
+
+	private ProcessModel model;
+	private BrownianMotion brownianMotion;
+	private EulerSchemeFromProcessModel.Scheme scheme;
+
+	@Setup
+	public void setup() throws CalculationException {
+		final int numberOfFactors;
+		switch(modelType) {
+		case BLACK_SCHOLES:
+			model = new BlackScholesModel(100.0, 0.05, 0.30);
+			scheme = EulerSchemeFromProcessModel.Scheme.EULER_FUNCTIONAL;
+			numberOfFactors = 1;
+			break;
+		case HESTON:
+			model = new HestonModel(100.0, 0.05, 0.25, 0.04, 1.0, 0.30, -0.5, HestonModel.Scheme.FULL_TRUNCATION);
+			scheme = EulerSchemeFromProcessModel.Scheme.EULER;
+			numberOfFactors = 2;		// The Heston model uses two factors (for the asset and the variance)
+			break;
+		case LIBOR_MARKET_MODEL:
+			model = createLIBORMarketModel();
+			scheme = EulerSchemeFromProcessModel.Scheme.PREDICTOR_CORRECTOR;
+			numberOfFactors = model.getNumberOfFactors();
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown model " + modelType + ".");
+		}
+
+		brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+		brownianMotion.getBrownianIncrement(0, 0);
+	}
+
+	@Benchmark
+	public RandomVariable simulation() throws CalculationException {
+		final EulerSchemeFromProcessModel process = new EulerSchemeFromProcessModel(model, brownianMotion, scheme);
+		return process.getProcessValue(timeDiscretization.getNumberOfTimeSteps(), 0);
+	}
+
+	private ProcessModel createLIBORMarketModel() throws CalculationException {
+		final double liborPeriodLength = 0.25;
+		final TimeDiscretization liborPeriodDiscretization = new TimeDiscretizationFromArray(0.0, 40, liborPeriodLength);
+
+		final ForwardCurve forwardCurve = ForwardCurveInterpolation.createForwardCurveFromForwards(
+				"forwardCurve",
+				new double[] { 0.5, 1.0, 2.0, 5.0, 40.0 },
+				new double[] { 0.05, 0.05, 0.05, 0.05, 0.05 },
+				liborPeriodLength);
+
+		final LIBORVolatilityModelFourParameterExponentialForm volatilityModel = new LIBORVolatilityModelFourParameterExponentialForm(timeDiscretization, liborPeriodDiscretization, 0.2, 0.0, 0.25, 0.3, false);
+		final LIBORCorrelationModelExponentialDecay correlationModel = new LIBORCorrelationModelExponentialDecay(timeDiscretization, liborPeriodDiscretization, 5, 0.1);
+		final LIBORCovarianceModelFromVolatilityAndCorrelation covarianceModel = new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization, volatilityModel, correlationModel);
+
+		final Map<String, String> properties = new HashMap<>();
+		properties.put("measure", LIBORMarketModelFromCovarianceModel.Measure.SPOT.name());
+		properties.put("stateSpace", LIBORMarketModelFromCovarianceModel.StateSpace.LOGNORMAL.name());
+
+		return LIBORMarketModelFromCovarianceModel.of(liborPeriodDiscretization, null, forwardCurve, new DiscountCurveFromForwardCurve(forwardCurve), new RandomVariableFromArrayFactory(), covarianceModel, new CalibrationProduct[0], properties);
+	}
+}
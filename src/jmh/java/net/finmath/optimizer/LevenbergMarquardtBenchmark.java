@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.optimizer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of a calibration with {@link LevenbergMarquardt}: the four parameters of a Nelson-Siegel
+ * curve are fitted to a given number of zero rates (generated from known parameters).
+ *
+ * Run with <code>mvn -P jmh test-compile exec:exec -Djmh.args="LevenbergMarquardtBenchmark"</code>.
+ *
+ * @author Christian Fries
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevenbergMarquardtBenchmark {
+
+	@Param({ "30", "300" })
+	private int numberOfTargetValues;
+
+	@Param({ "1", "4" })
+	private int numberOfThreads;
+
+	private double[] maturities;
+	private double[] targetValues;
+
+	@Setup
+	public void setup() {
+		final double[] parameters = { 0.03, -0.02, 0.01, 2.0 };
+
+		maturities = new double[numberOfTargetValues];
+		targetValues = new double[numberOfTargetValues];
+		for(int i=0; i<numberOfTargetValues; i++) {
+			maturities[i] = 30.0 * (i+1) / numberOfTargetValues;
+		}
+		setZeroRates(parameters, targetValues);
+	}
+
+	@Benchmark
+	public double[] calibration() throws SolverException {
+		final LevenbergMarquardt optimizer = new LevenbergMarquardt(
+				new double[] { 0.01, 0.0, 0.0, 1.0 },
+				targetValues,
+				100,
+				numberOfThreads) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void setValues(final double[] parameters, final double[] values) {
+				setZeroRates(parameters, values);
+			}
+		};
+		optimizer.run();
+
+		return optimizer.getBestFitParameters();
+	}
+
+	private void setZeroRates(final double[] parameters, final double[] values) {
+		for(int i=0; i<maturities.length; i++) {
+			final double x = maturities[i] / parameters[3];
+			final double factor = (1.0 - Math.exp(-x)) / x;
+			values[i] = parameters[0] + parameters[1] * factor + parameters[2] * (factor - Math.exp(-x));
+		}
+	}
+}
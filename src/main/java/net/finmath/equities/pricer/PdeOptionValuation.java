@@ -1,13 +1,10 @@
 package net.finmath.equities.pricer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import org.apache.commons.math3.linear.DecompositionSolver;
-import org.apache.commons.math3.linear.LUDecomposition;
-import org.apache.commons.math3.linear.MatrixUtils;
-import org.apache.commons.math3.linear.RealMatrix;
 import net.finmath.equities.marketdata.YieldCurve;
 import net.finmath.equities.models.EquityForwardStructure;
 import net.finmath.equities.models.FlatVolatilitySurface;
@@ -15,6 +12,7 @@ import net.finmath.equities.models.VolatilitySurface;
 import net.finmath.equities.pricer.EquityValuationRequest.CalculationRequestType;
 import net.finmath.equities.products.EuropeanOption;
 import net.finmath.equities.products.Option;
+import net.finmath.finitedifference.solvers.TridiagonalSolver;
 import net.finmath.rootfinder.BisectionSearch;
 import net.finmath.rootfinder.SecantMethod;
 import net.finmath.time.daycount.DayCountConvention;
@@ -27,10 +25,8 @@ import net.finmath.time.daycount.DayCountConvention;
  * Payoffs are smoothed using the modified timestepping from Rannacher's 1984 paper.
  * The American exercise feature is priced using the penalty approach from Forsyth's 2001 paper.
  *
- * TODO The linear algebra framework used (apache.commons.math3) is not optimized for the discretized PDE.
- * More performant linear algebra algorithms should be used that take account of
- * the tridiagonal matrix structure of the problem, e.g. direct diagonal operations instead of full-blown
- * matrix multiplication, and the Thomas algorithm instead of LU decomposition for solving equations.
+ * The matrices of the discretized PDE are tridiagonal. They are stored by their diagonals and the
+ * linear systems are solved with the Thomas algorithm, see {@link TridiagonalSolver}.
  *
  * @author Andreas Grotz
  */
@@ -164,26 +160,34 @@ public class PdeOptionValuation implements OptionValuation {
         var forward = forwardStructure.getForward(expiryDate);
         var fdf = forwardStructure.getFutureDividendFactor(expiryDate);
 
-        // Build matrices
-        final RealMatrix idMatrix = MatrixUtils.createRealIdentityMatrix(spaceNbOfSteps);
-        final RealMatrix tridiagMatrix = MatrixUtils.createRealMatrix(spaceNbOfSteps, spaceNbOfSteps);
+        // Build the tridiagonal matrix of the second derivative, stored by its diagonal and off-diagonal
         final double spaceStepSq = spaceStepSize * spaceStepSize;
+        final double[] tridiagDiagonal = new double[spaceNbOfSteps];
+        final double[] tridiagOffDiagonal = new double[spaceNbOfSteps];
         for (int i = 0; i < spaceNbOfSteps; i++) {
-            for (int j = 0; j < spaceNbOfSteps; j++) {
-                if (i == j) {
-                    tridiagMatrix.setEntry(i, j, Math.pow(spots.get(i), 2) / spaceStepSq);
-                } else if (i == j - 1 || i == j + 1) {
-                    tridiagMatrix.setEntry(i, j, -0.5 * Math.pow(spots.get(i), 2) / spaceStepSq);
-                } else {
-                    tridiagMatrix.setEntry(i, j, 0);
-                }
-            }
+            tridiagDiagonal[i] = Math.pow(spots.get(i), 2) / spaceStepSq;
+            tridiagOffDiagonal[i] = -0.5 * Math.pow(spots.get(i), 2) / spaceStepSq;
         }
 
+        // Allocate the diagonals of the implicit and explicit matrices and the work vectors (reused in every time step)
+        final double[] implicitDiagonal = new double[spaceNbOfSteps];
+        final double[] implicitOffDiagonal = new double[spaceNbOfSteps];
+        final double[] explicitDiagonal = new double[spaceNbOfSteps];
+        final double[] explicitOffDiagonal = new double[spaceNbOfSteps];
+        final double[] localVol = new double[spaceNbOfSteps];
+        final double[] explicitPrices = new double[spaceNbOfSteps];
+        final double[] oldPrices = new double[spaceNbOfSteps];
+        final double[] payoffs = new double[spaceNbOfSteps];
+        final double[] penalties = new double[spaceNbOfSteps];
+        final double[] oldPenalties = new double[spaceNbOfSteps];
+        final double[] penalizedDiagonal = new double[spaceNbOfSteps];
+        final double[] penalizedRightHandSide = new double[spaceNbOfSteps];
+        final TridiagonalSolver solver = new TridiagonalSolver(spaceNbOfSteps);
+
         // Set initial values
-        var prices = MatrixUtils.createRealVector(new double[spaceNbOfSteps]);
+        final double[] prices = new double[spaceNbOfSteps];
         for (int i = 0; i < spaceNbOfSteps; i++) {
-            prices.setEntry(i, option.getPayoff((forward - fdf) * spots.get(i) + fdf));
+            prices[i] = option.getPayoff((forward - fdf) * spots.get(i) + fdf);
         }
 
         // Set time intervals to evolve the PDE (i.e. from dividend to dividend)
@@ -228,7 +232,7 @@ public class PdeOptionValuation implements OptionValuation {
 
             // Evolve PDE in current time interval
             for (int i = 1; i < times.size(); i++) {
-                lastAtmPrice = prices.getEntry(spotIndex);
+                lastAtmPrice = prices[spotIndex];
                 dt = times.get(i - 1) - times.get(i);
                 double theta = 0.5;
                 if (i <= 4) {
@@ -237,89 +241,86 @@ public class PdeOptionValuation implements OptionValuation {
                 final var theta1 = 1.0 - theta;
                 final var volSq = impliedVol * impliedVol;
 
-                RealMatrix implicitMatrix, explicitMatrix;
+                // Implicit matrix I + theta dt vol^2 T and explicit matrix I - (1-theta) dt vol^2 T,
+                // where vol^2 is applied row-wise for the local volatility pricer.
                 if (isLvPricer) {
-                    implicitMatrix = tridiagMatrix.scalarMultiply(theta * dt);
-                    explicitMatrix = tridiagMatrix.scalarMultiply(-theta1 * dt);
-                    final var localVol = new double[spaceNbOfSteps];
                     for (int s = 0; s < spaceNbOfSteps; s++) {
                         final var lv = volSurface.getLocalVolatility(Math.log(spots.get(s)), times.get(i - 1),
                                 forwardStructure, spaceStepSize, dt);
                         localVol[s] = lv * lv;
                     }
-
-                    final var volaMatrix = MatrixUtils.createRealDiagonalMatrix(localVol);
-                    implicitMatrix = volaMatrix.multiply(implicitMatrix);
-                    explicitMatrix = volaMatrix.multiply(explicitMatrix);
                 } else {
-                    implicitMatrix = tridiagMatrix.scalarMultiply(theta * dt * volSq);
-                    explicitMatrix = tridiagMatrix.scalarMultiply(-theta1 * dt * volSq);
+                    Arrays.fill(localVol, volSq);
+                }
+                for (int s = 0; s < spaceNbOfSteps; s++) {
+                    implicitDiagonal[s] = 1.0 + localVol[s] * (tridiagDiagonal[s] * (theta * dt));
+                    implicitOffDiagonal[s] = localVol[s] * (tridiagOffDiagonal[s] * (theta * dt));
+                    explicitDiagonal[s] = 1.0 + localVol[s] * (tridiagDiagonal[s] * (-theta1 * dt));
+                    explicitOffDiagonal[s] = localVol[s] * (tridiagOffDiagonal[s] * (-theta1 * dt));
                 }
-
-                implicitMatrix = idMatrix.add(implicitMatrix);
-                explicitMatrix = idMatrix.add(explicitMatrix);
 
                 if (option.isAmericanOption()) {
                     // Use the penalty algorithm from Forsyth's 2001 paper to solve the
                     // linear complementary problem for the American exercise feature.
+                    // The penalty is diagonal, hence the penalized system stays tridiagonal.
                     final var penaltyFactor = 1 / Math.min(timeStepSize * timeStepSize, spaceStepSize * spaceStepSize);
                     forward = forwardStructure.getForward(times.get(i));
                     fdf = forwardStructure.getFutureDividendFactor(times.get(i));
                     final var discountFactor = discountCurve.getForwardDiscountFactor(times.get(i), expiryTime);
-                    final var payoffs = MatrixUtils.createRealVector(new double[spaceNbOfSteps]);
-                    final var penaltyMatrix = MatrixUtils.createRealMatrix(spaceNbOfSteps, spaceNbOfSteps);
+                    Arrays.fill(payoffs, 0.0);
+                    Arrays.fill(penalties, 0.0);
                     for (int j = 1; j < spaceNbOfSteps - 1; j++) {
                         final var payoff = option.getPayoff((forward - fdf) * spots.get(j) + fdf) / discountFactor;
-                        payoffs.setEntry(j, payoff);
-                        penaltyMatrix.setEntry(j, j, prices.getEntry(j) < payoff ? penaltyFactor : 0);
+                        payoffs[j] = payoff;
+                        penalties[j] = prices[j] < payoff ? penaltyFactor : 0;
                     }
 
-                    final var b = explicitMatrix.operate(prices);
-                    var oldPrices = prices.copy();
-                    final var oldPenaltyMatrix = penaltyMatrix.copy();
+                    TridiagonalSolver.multiply(explicitOffDiagonal, explicitDiagonal, explicitOffDiagonal, prices, explicitPrices);
+                    System.arraycopy(prices, 0, oldPrices, 0, spaceNbOfSteps);
+                    System.arraycopy(penalties, 0, oldPenalties, 0, spaceNbOfSteps);
                     final var tol = 1 / penaltyFactor;
                     int iterations = 0;
                     while (true) {
                         assert iterations++ < 100 : "Penalty algorithm for american exercise did not converge in 100 steps";
-                        final var c = b.add(penaltyMatrix.operate(payoffs));
-                        final var A = implicitMatrix.add(penaltyMatrix);
-                        final DecompositionSolver solver = new LUDecomposition(A).getSolver();
-                        prices = solver.solve(c);
+                        for (int j = 0; j < spaceNbOfSteps; j++) {
+                            penalizedRightHandSide[j] = explicitPrices[j] + penalties[j] * payoffs[j];
+                            penalizedDiagonal[j] = implicitDiagonal[j] + penalties[j];
+                        }
+                        solver.solve(implicitOffDiagonal, penalizedDiagonal, implicitOffDiagonal, penalizedRightHandSide, prices);
                         for (int j = 1; j < spaceNbOfSteps - 1; j++) {
-                            penaltyMatrix.setEntry(j, j, prices.getEntry(j) < payoffs.getEntry(j) ? penaltyFactor : 0);
+                            penalties[j] = prices[j] < payoffs[j] ? penaltyFactor : 0;
                         }
 
-                        if (penaltyMatrix.equals(oldPenaltyMatrix) || (prices.subtract(oldPrices).getLInfNorm())
-                                / Math.max(oldPrices.getLInfNorm(), 1.0) < tol) {
+                        if (Arrays.equals(penalties, oldPenalties)
+                                || getMaxAbsDifference(prices, oldPrices) / Math.max(getMaxAbs(oldPrices), 1.0) < tol) {
                             break;
                         }
-                        oldPrices = prices.copy();
+                        System.arraycopy(prices, 0, oldPrices, 0, spaceNbOfSteps);
                     }
 
                 } else {
                     // Solve the PDE step directly
-                    prices = explicitMatrix.operate(prices);
-                    final DecompositionSolver solver = new LUDecomposition(implicitMatrix).getSolver();
-                    prices = solver.solve(prices);
+                    TridiagonalSolver.multiply(explicitOffDiagonal, explicitDiagonal, explicitOffDiagonal, prices, explicitPrices);
+                    solver.solve(implicitOffDiagonal, implicitDiagonal, implicitOffDiagonal, explicitPrices, prices);
                 }
 
                 // Set boundary conditions
-                prices.setEntry(0, option.getPayoff((forward - fdf) * spaceMinForwardMultiple + fdf));
-                prices.setEntry(spaceNbOfSteps - 1, option.getPayoff((forward - fdf) * spaceMaxForwardMultiple + fdf));
+                prices[0] = option.getPayoff((forward - fdf) * spaceMinForwardMultiple + fdf);
+                prices[spaceNbOfSteps - 1] = option.getPayoff((forward - fdf) * spaceMaxForwardMultiple + fdf);
             }
         }
 
         final var discountFactor = discountCurve.getDiscountFactor(expiryDate);
-        final var price = discountFactor * prices.getEntry(spotIndex);
+        final var price = discountFactor * prices[spotIndex];
 
         if (calculateSensis) {
             final var dFdX = forwardStructure.getDividendAdjustedStrike(forwardStructure.getForward(expiryDate),
                     expiryDate);
             final var dFdS = forwardStructure.getGrowthDiscountFactor(valDate, expiryDate);
-            final var delta = discountFactor * 0.5 * (prices.getEntry(spotIndex + 1) - prices.getEntry(spotIndex - 1))
+            final var delta = discountFactor * 0.5 * (prices[spotIndex + 1] - prices[spotIndex - 1])
                     / spaceStepSize * dFdS / dFdX;
             final var gamma = discountFactor
-                    * (prices.getEntry(spotIndex + 1) + prices.getEntry(spotIndex - 1) - 2 * prices.getEntry(spotIndex))
+                    * (prices[spotIndex + 1] + prices[spotIndex - 1] - 2 * prices[spotIndex])
                     / spaceStepSq * dFdS * dFdS / dFdX / dFdX;
             final var discountFactorTheta = discountCurve.getDiscountFactor(expiryTime - dt);
             final var theta = (discountFactorTheta * lastAtmPrice - price) / dt;
@@ -329,6 +330,22 @@ public class PdeOptionValuation implements OptionValuation {
         }
     }
 
+    private static double getMaxAbsDifference(double[] values, double[] otherValues) {
+        var maxAbsDifference = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            maxAbsDifference = Math.max(maxAbsDifference, Math.abs(values[i] - otherValues[i]));
+        }
+        return maxAbsDifference;
+    }
+
+    private static double getMaxAbs(double[] values) {
+        var maxAbs = 0.0;
+        for (final var value : values) {
+            maxAbs = Math.max(maxAbs, Math.abs(value));
+        }
+        return maxAbs;
+    }
+
     public double getImpliedVolatility(Option option, EquityForwardStructure forwardStructure, YieldCurve discountCurve,
             double price) {
         double initialGuess = 0.25;
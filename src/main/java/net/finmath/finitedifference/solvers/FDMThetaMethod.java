@@ -2,11 +2,6 @@ package net.finmath.finitedifference.solvers;
 
 import java.util.function.DoubleUnaryOperator;
 
-import org.apache.commons.math3.linear.DecompositionSolver;
-import org.apache.commons.math3.linear.LUDecomposition;
-import org.apache.commons.math3.linear.MatrixUtils;
-import org.apache.commons.math3.linear.RealMatrix;
-
 import net.finmath.finitedifference.models.FiniteDifference1DBoundary;
 import net.finmath.finitedifference.models.FiniteDifference1DModel;
 
@@ -15,6 +10,14 @@ import net.finmath.finitedifference.models.FiniteDifference1DModel;
  * Theta method for local volatility PDE.
  * This is where the real stuff happens.
  *
+ * The matrices of the theta scheme are tridiagonal. They are stored by their diagonals (primitive arrays,
+ * allocated once per valuation) and the implicit part is solved with the Thomas algorithm (see {@link TridiagonalSolver}),
+ * such that a time step requires \( O(n) \) operations for \( n \) space steps.
+ *
+ * By default the space grid is a uniform grid spanning a given number of standard deviations around the forward.
+ * Alternatively, a (non-uniform) space grid may be provided. Early exercise may be considered by projecting the solution
+ * on the exercise value after each time step.
+ *
  * @author Ralph Rudd
  * @author Christian Fries
  * @author Jörg Kienitz
@@ -27,16 +30,66 @@ public class FDMThetaMethod {
 	private final double theta;
 	private final double center;
 	private final double timeHorizon;
+	private final double[] spaceGrid;
 
+	/**
+	 * Create the theta method solver using a uniform space grid derived from the model.
+	 *
+	 * @param model The model.
+	 * @param boundaryCondition The boundary condition.
+	 * @param timeHorizon The time horizon.
+	 * @param center The center of the grid.
+	 * @param theta The parameter theta of the theta method (0 = explicit, 1 = implicit, 0.5 = Crank-Nicolson).
+	 */
 	public FDMThetaMethod(FiniteDifference1DModel model, FiniteDifference1DBoundary boundaryCondition, double timeHorizon, double center, double theta) {
+		this(model, boundaryCondition, timeHorizon, center, theta, null);
+	}
+
+	/**
+	 * Create the theta method solver using a given (possibly non-uniform) space grid.
+	 *
+	 * @param model The model.
+	 * @param boundaryCondition The boundary condition.
+	 * @param timeHorizon The time horizon.
+	 * @param center The center of the grid.
+	 * @param theta The parameter theta of the theta method (0 = explicit, 1 = implicit, 0.5 = Crank-Nicolson).
+	 * @param spaceGrid The strictly increasing space grid, including the lower and upper boundary, or null to use a uniform grid derived from the model.
+	 */
+	public FDMThetaMethod(FiniteDifference1DModel model, FiniteDifference1DBoundary boundaryCondition, double timeHorizon, double center, double theta, double[] spaceGrid) {
+		if(spaceGrid != null) {
+			if(spaceGrid.length < 3) {
+				throw new IllegalArgumentException("Space grid requires at least three points.");
+			}
+			for(int i=1; i<spaceGrid.length; i++) {
+				if(!(spaceGrid[i] > spaceGrid[i-1])) {
+					throw new IllegalArgumentException("Space grid has to be strictly increasing.");
+				}
+			}
+		}
 		this.model = model;
 		this.boundaryCondition = boundaryCondition;
 		this.timeHorizon = timeHorizon;
 		this.center = center;
 		this.theta = theta;
+		this.spaceGrid = spaceGrid != null ? spaceGrid.clone() : null;
 	}
 
 	public double[][] getValue(double evaluationTime, double time, DoubleUnaryOperator valueAtMaturity) {
+		return getValue(evaluationTime, time, valueAtMaturity, null);
+	}
+
+	/**
+	 * Returns the value of a product with given payoff at maturity and (optional) early exercise value.
+	 * If an exercise value is given, the solution is projected on the exercise value after each time step,
+	 * i.e., the value is floored at the exercise value (early exercise at the time steps).
+	 *
+	 * @param evaluationTime The evaluation time (only 0 is supported).
+	 * @param time The maturity (has to agree with the time horizon).
+	 * @param valueAtMaturity The payoff at maturity as a function of the underlying.
+	 * @param exerciseValue The exercise value as a function of the underlying or null if there is no early exercise.
+	 * @return A two dimensional array, where the first element is the vector of the values of the underlying and the second is the corresponding vector of values of the product.
+	 */
+	public double[][] getValue(double evaluationTime, double time, DoubleUnaryOperator valueAtMaturity, DoubleUnaryOperator exerciseValue) {
 		if(evaluationTime != 0) {
 			throw new IllegalArgumentException("Evaluation time != 0 not supported.");
 		}
@@ -44,20 +97,35 @@ public class FDMThetaMethod {
 			throw new IllegalArgumentException("Given time != timeHorizon not supported.");
 		}
 
+		final double riskFreeRate = model.getRiskFreeRate();
+
 		// Grid Generation
-		final double maximumStockPriceOnGrid = model.getForwardValue(timeHorizon)
-				+ model.getNumStandardDeviations() * Math.sqrt(model.varianceOfStockPrice(timeHorizon));
-		final double minimumStockPriceOnGrid = Math.max(model.getForwardValue(timeHorizon)
-				- model.getNumStandardDeviations() * Math.sqrt(model.varianceOfStockPrice(timeHorizon)), 0);
-		final double deltaStock = (maximumStockPriceOnGrid - minimumStockPriceOnGrid) / model.getNumSpacesteps();
-		final double deltaTau = timeHorizon / model.getNumTimesteps();
+		final double maximumStockPriceOnGrid;
+		final double minimumStockPriceOnGrid;
+		final int spaceLength;
+		final double[] stock;
+		if(spaceGrid == null) {
+			maximumStockPriceOnGrid = model.getForwardValue(timeHorizon)
+					+ model.getNumStandardDeviations() * Math.sqrt(model.varianceOfStockPrice(timeHorizon));
+			minimumStockPriceOnGrid = Math.max(model.getForwardValue(timeHorizon)
+					- model.getNumStandardDeviations() * Math.sqrt(model.varianceOfStockPrice(timeHorizon)), 0);
+			final double deltaStock = (maximumStockPriceOnGrid - minimumStockPriceOnGrid) / model.getNumSpacesteps();
 
-		// Create interior spatial array of stock prices
-		final int spaceLength = model.getNumSpacesteps() - 1;
-		final double[] stock = new double[spaceLength];
-		for (int i= 0; i < spaceLength; i++) {
-			stock[i] = minimumStockPriceOnGrid + (i + 1) * deltaStock;
+			// Create interior spatial array of stock prices
+			spaceLength = model.getNumSpacesteps() - 1;
+			stock = new double[spaceLength];
+			for (int i= 0; i < spaceLength; i++) {
+				stock[i] = minimumStockPriceOnGrid + (i + 1) * deltaStock;
+			}
+		}
+		else {
+			maximumStockPriceOnGrid = spaceGrid[spaceGrid.length-1];
+			minimumStockPriceOnGrid = spaceGrid[0];
+			spaceLength = spaceGrid.length - 2;
+			stock = new double[spaceLength];
+			System.arraycopy(spaceGrid, 1, stock, 0, spaceLength);
 		}
+		final double deltaTau = timeHorizon / model.getNumTimesteps();
 
 		// Create time-reversed tau array
 		final int timeLength = model.getNumTimesteps() + 1;
@@ -66,94 +134,115 @@ public class FDMThetaMethod {
 			tau[i] = i * deltaTau;
 		}
 
-		// Create constant matrices
-		final RealMatrix eye = MatrixUtils.createRealIdentityMatrix(spaceLength);
-		final RealMatrix D1 = MatrixUtils.createRealMatrix(spaceLength, spaceLength);
-		final RealMatrix D2 = MatrixUtils.createRealMatrix(spaceLength, spaceLength);
-		final RealMatrix T1 = MatrixUtils.createRealMatrix(spaceLength, spaceLength);
-		final RealMatrix T2 = MatrixUtils.createRealMatrix(spaceLength, spaceLength);
-		for (int i = 0; i < spaceLength; i++) {
-			for (int j = 0; j < spaceLength; j++) {
-				if (i == j) {
-					D1.setEntry(i, j, minimumStockPriceOnGrid / deltaStock + (i + 1));
-					D2.setEntry(i, j, Math.pow(minimumStockPriceOnGrid / deltaStock + (i + 1), 2));
-					T2.setEntry(i, j, -2);
-				} else if (i == j - 1) {
-					T1.setEntry(i, j, 1);
-					T2.setEntry(i, j, 1);
-				} else if (i == j + 1) {
-					T1.setEntry(i, j, -1);
-					T2.setEntry(i, j, 1);
-				} else {
-					D1.setEntry(i, j, 0);
-					D2.setEntry(i, j, 0);
-					T1.setEntry(i, j, 0);
-					T2.setEntry(i, j, 0);
-				}
+		/*
+		 * Coefficients of the discretized operator L U = r S U' + 1/2 sigma^2 S^2 U'' - r U (times deltaTau):
+		 * the part from the drift (first derivative), from the diffusion (second derivative, to be multiplied with sigma^2).
+		 */
+		final double[] driftLower = new double[spaceLength];
+		final double[] driftDiagonal = new double[spaceLength];
+		final double[] driftUpper = new double[spaceLength];
+		final double[] diffusionLower = new double[spaceLength];
+		final double[] diffusionDiagonal = new double[spaceLength];
+		final double[] diffusionUpper = new double[spaceLength];
+		if(spaceGrid == null) {
+			final double deltaStock = (maximumStockPriceOnGrid - minimumStockPriceOnGrid) / model.getNumSpacesteps();
+			for (int i = 0; i < spaceLength; i++) {
+				final double stockInUnitsOfDeltaStock = minimumStockPriceOnGrid / deltaStock + (i + 1);
+				driftLower[i] = -0.5 * riskFreeRate * deltaTau * stockInUnitsOfDeltaStock;
+				driftDiagonal[i] = 0.0;
+				driftUpper[i] = 0.5 * riskFreeRate * deltaTau * stockInUnitsOfDeltaStock;
+				diffusionLower[i] = 0.5 * deltaTau * stockInUnitsOfDeltaStock * stockInUnitsOfDeltaStock;
+				diffusionDiagonal[i] = -2 * 0.5 * deltaTau * stockInUnitsOfDeltaStock * stockInUnitsOfDeltaStock;
+				diffusionUpper[i] = 0.5 * deltaTau * stockInUnitsOfDeltaStock * stockInUnitsOfDeltaStock;
+			}
+		}
+		else {
+			for (int i = 0; i < spaceLength; i++) {
+				final double stockPrice = spaceGrid[i+1];
+				final double deltaStockDown = spaceGrid[i+1] - spaceGrid[i];
+				final double deltaStockUp = spaceGrid[i+2] - spaceGrid[i+1];
+				final double deltaStockTotal = deltaStockDown + deltaStockUp;
+				driftLower[i] = riskFreeRate * deltaTau * stockPrice * (-deltaStockUp / (deltaStockDown * deltaStockTotal));
+				driftDiagonal[i] = riskFreeRate * deltaTau * stockPrice * ((deltaStockUp - deltaStockDown) / (deltaStockDown * deltaStockUp));
+				driftUpper[i] = riskFreeRate * deltaTau * stockPrice * (deltaStockDown / (deltaStockUp * deltaStockTotal));
+				diffusionLower[i] = 0.5 * deltaTau * stockPrice * stockPrice * (2.0 / (deltaStockDown * deltaStockTotal));
+				diffusionDiagonal[i] = 0.5 * deltaTau * stockPrice * stockPrice * (-2.0 / (deltaStockDown * deltaStockUp));
+				diffusionUpper[i] = 0.5 * deltaTau * stockPrice * stockPrice * (2.0 / (deltaStockUp * deltaStockTotal));
 			}
 		}
-		final RealMatrix F1 = eye.scalarMultiply(1 - model.getRiskFreeRate() * deltaTau);
-		final RealMatrix F2 = D1.scalarMultiply(0.5 * model.getRiskFreeRate() * deltaTau).multiply(T1);
-		final RealMatrix F3 = D2.scalarMultiply(0.5 * deltaTau).multiply(T2);
-		final RealMatrix G1 = eye.scalarMultiply(1 + model.getRiskFreeRate() * deltaTau);
-		final RealMatrix G2 = F2.scalarMultiply(-1);
-		final RealMatrix G3 = F3.scalarMultiply(-1);
-
-		// Initialize boundary and solution vectors
-		final RealMatrix b = MatrixUtils.createRealMatrix(spaceLength, 1);
-		final RealMatrix b2 = MatrixUtils.createRealMatrix(spaceLength, 1);
-		RealMatrix U = MatrixUtils.createRealMatrix(spaceLength, 1);
+
+		// Buffers for the explicit matrix F, the implicit matrix H, the right hand side and the solution (reused across time steps)
+		final double[] explicitLower = new double[spaceLength];
+		final double[] explicitDiagonal = new double[spaceLength];
+		final double[] explicitUpper = new double[spaceLength];
+		final double[] implicitLower = new double[spaceLength];
+		final double[] implicitDiagonal = new double[spaceLength];
+		final double[] implicitUpper = new double[spaceLength];
+		final double[] rightHandSide = new double[spaceLength];
+		final TridiagonalSolver solver = new TridiagonalSolver(spaceLength);
+
+		double[] U = new double[spaceLength];
+		for (int i = 0; i < spaceLength; i++) {
+			U[i] = valueAtMaturity.applyAsDouble(stock[i]);
+		}
+
+		// Local variances at the start and end of the time step
+		double[] sigma = new double[spaceLength];
+		double[] sigma2 = new double[spaceLength];
 		for (int i = 0; i < spaceLength; i++) {
-			b.setEntry(i, 0, 0);
-			b2.setEntry(i, 0, 0);
-			U.setEntry(i, 0, valueAtMaturity.applyAsDouble(stock[i]));
+			sigma2[i] = Math.pow(model.getLocalVolatility(stock[i], timeHorizon), 2);
 		}
 
 		// Theta finite difference method
 		for (int m = 0; m < model.getNumTimesteps(); m++) {
-			final double[] sigma = new double[spaceLength];
-			final double[] sigma2 = new double[spaceLength];
+			final double[] sigmaPrevious = sigma;
+			sigma = sigma2;
+			sigma2 = sigmaPrevious;
+			for (int i = 0; i < spaceLength; i++) {
+				sigma2[i] = Math.pow(model.getLocalVolatility(stock[i], timeHorizon - (m + 1) * deltaTau), 2);
+			}
+
+			/*
+			 * Explicit part F = (1 - r dt) I + dt L_drift + Sigma dt L_diffusion,
+			 * implicit part H = theta G + (1-theta) I with G = (1 + r dt) I - dt L_drift - Sigma2 dt L_diffusion.
+			 */
 			for (int i = 0; i < spaceLength; i++) {
-				sigma[i] = Math.pow(model.getLocalVolatility(minimumStockPriceOnGrid + (i + 1) * deltaStock,
-						timeHorizon - m * deltaTau), 2);
-				sigma2[i] = Math.pow(model.getLocalVolatility(minimumStockPriceOnGrid + (i + 1) * deltaStock,
-						timeHorizon - (m + 1) * deltaTau), 2);
+				explicitLower[i] = driftLower[i] + sigma[i] * diffusionLower[i];
+				explicitDiagonal[i] = (1 - riskFreeRate * deltaTau) + driftDiagonal[i] + sigma[i] * diffusionDiagonal[i];
+				explicitUpper[i] = driftUpper[i] + sigma[i] * diffusionUpper[i];
+
+				implicitLower[i] = theta * (-driftLower[i] - sigma2[i] * diffusionLower[i]);
+				implicitDiagonal[i] = theta * ((1 + riskFreeRate * deltaTau) - driftDiagonal[i] - sigma2[i] * diffusionDiagonal[i]) + (1 - theta);
+				implicitUpper[i] = theta * (-driftUpper[i] - sigma2[i] * diffusionUpper[i]);
+			}
+
+			// Right hand side: (1-theta) F U + theta U + (1-theta) b + theta b2, where b, b2 are the contributions of the boundary values
+			TridiagonalSolver.multiply(explicitLower, explicitDiagonal, explicitUpper, U, rightHandSide);
+			for (int i = 0; i < spaceLength; i++) {
+				rightHandSide[i] = (1 - theta) * rightHandSide[i] + theta * U[i];
+			}
+
+			final int last = spaceLength - 1;
+			final double bLower = explicitLower[0] * timeReversedLowerBoundary(minimumStockPriceOnGrid, tau[m]);
+			final double b2Lower = (driftLower[0] + sigma2[0] * diffusionLower[0]) * timeReversedLowerBoundary(minimumStockPriceOnGrid, tau[m + 1]);
+			final double bUpper = explicitUpper[last] * timeReversedUpperBoundary(maximumStockPriceOnGrid, tau[m]);
+			final double b2Upper = (driftUpper[last] + sigma2[last] * diffusionUpper[last]) * timeReversedUpperBoundary(maximumStockPriceOnGrid, tau[m + 1]);
+			rightHandSide[0] += (1 - theta) * bLower + theta * b2Lower;
+			rightHandSide[last] += (1 - theta) * bUpper + theta * b2Upper;
+
+			U = solver.solve(implicitLower, implicitDiagonal, implicitUpper, rightHandSide, U);
+
+			// Early exercise: projection on the exercise value
+			if(exerciseValue != null) {
+				for (int i = 0; i < spaceLength; i++) {
+					U[i] = Math.max(U[i], exerciseValue.applyAsDouble(stock[i]));
+				}
 			}
-			final RealMatrix Sigma = MatrixUtils.createRealDiagonalMatrix(sigma);
-			final RealMatrix Sigma2 = MatrixUtils.createRealDiagonalMatrix(sigma2);
-			final RealMatrix F = F1.add(F2).add(Sigma.multiply(F3));
-			final RealMatrix G = G1.add(G2).add(Sigma2.multiply(G3));
-			final RealMatrix H = G.scalarMultiply(theta).add(eye.scalarMultiply(1 - theta));
-			final DecompositionSolver solver = new LUDecomposition(H).getSolver();
-
-			final double Sl = (minimumStockPriceOnGrid / deltaStock + 1);
-			final double Su = (maximumStockPriceOnGrid / deltaStock - 1);
-			final double vl = Math.pow(model.getLocalVolatility(minimumStockPriceOnGrid + deltaStock,
-					timeHorizon - m * deltaTau), 2);
-			final double vu = Math.pow(model.getLocalVolatility(maximumStockPriceOnGrid - deltaStock,
-					timeHorizon - m * deltaTau), 2);
-			final double vl2 = Math.pow(model.getLocalVolatility(minimumStockPriceOnGrid + deltaStock,
-					timeHorizon - (m + 1) * deltaTau), 2);
-			final double vu2 = Math.pow(model.getLocalVolatility(maximumStockPriceOnGrid - deltaStock,
-					timeHorizon - (m + 1) * deltaTau), 2);
-
-			final double test = timeReversedUpperBoundary(maximumStockPriceOnGrid, tau[m]);
-			b.setEntry(0, 0,
-					0.5 * deltaTau * Sl * (vl * Sl - model.getRiskFreeRate()) * timeReversedLowerBoundary(minimumStockPriceOnGrid, tau[m]));
-			b.setEntry(spaceLength - 1, 0,
-					0.5 * deltaTau * Su * (vu * Su + model.getRiskFreeRate()) * timeReversedUpperBoundary(maximumStockPriceOnGrid, tau[m]));
-			b2.setEntry(0, 0,
-					0.5 * deltaTau * Sl * (vl2 * Sl - model.getRiskFreeRate()) * timeReversedLowerBoundary(minimumStockPriceOnGrid, tau[m + 1]));
-			b2.setEntry(spaceLength - 1, 0,
-					0.5 * deltaTau * Su * (vu2 * Su + model.getRiskFreeRate()) * timeReversedUpperBoundary(maximumStockPriceOnGrid, tau[m + 1]));
-			final RealMatrix U1 = (F.scalarMultiply(1 - theta).add(eye.scalarMultiply(theta))).multiply(U);
-			final RealMatrix U2 = b.scalarMultiply(1 - theta).add(b2.scalarMultiply(theta));
-			U = solver.solve(U1.add(U2));
 		}
-		final double[] optionPrice = U.getColumn(0);
+
 		final double[][] stockAndOptionPrice = new double[2][spaceLength];
 		stockAndOptionPrice[0] = stock;
-		stockAndOptionPrice[1] = optionPrice;
+		stockAndOptionPrice[1] = U;
 		return stockAndOptionPrice;
 	}
 
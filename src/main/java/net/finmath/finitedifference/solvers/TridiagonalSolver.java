@@ -0,0 +1,110 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.finitedifference.solvers;
+
+/**
+ * Solver for tridiagonal linear systems \( A x = d \) using the Thomas algorithm.
+ *
+ * The matrix \( A \) is given by its three diagonals: <code>lower[i]</code> = \( A_{i,i-1} \),
+ * <code>diagonal[i]</code> = \( A_{i,i} \) and <code>upper[i]</code> = \( A_{i,i+1} \)
+ * (<code>lower[0]</code> and <code>upper[n-1]</code> are not used).
+ *
+ * The algorithm requires \( O(n) \) operations. It is stable if the matrix is diagonally dominant,
+ * which is the case for the matrices of the implicit part of a theta scheme of a parabolic PDE with sufficiently small time steps.
+ *
+ * The solver holds the working buffers, such that repeated calls (e.g., one per time step) do not allocate memory.
+ * For this reason, an instance is not thread safe.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class TridiagonalSolver {
+
+	private final double[] upperModified;
+	private final double[] rightHandSideModified;
+
+	/**
+	 * Create a solver for tridiagonal systems of a given size.
+	 *
+	 * @param size The size of the system.
+	 */
+	public TridiagonalSolver(final int size) {
+		super();
+		upperModified = new double[size];
+		rightHandSideModified = new double[size];
+	}
+
+	/**
+	 * Solve the tridiagonal system \( A x = d \).
+	 *
+	 * @param lower The lower diagonal, <code>lower[i]</code> = \( A_{i,i-1} \).
+	 * @param diagonal The diagonal, <code>diagonal[i]</code> = \( A_{i,i} \).
+	 * @param upper The upper diagonal, <code>upper[i]</code> = \( A_{i,i+1} \).
+	 * @param rightHandSide The right hand side d.
+	 * @param solution Array receiving the solution x (may be identical to <code>rightHandSide</code>).
+	 * @return The array <code>solution</code>.
+	 */
+	public double[] solve(final double[] lower, final double[] diagonal, final double[] upper, final double[] rightHandSide, final double[] solution) {
+		final int size = upperModified.length;
+
+		// Forward sweep
+		double pivot = diagonal[0];
+		if(pivot == 0) {
+			throw new ArithmeticException("Tridiagonal system is singular (zero pivot in row 0).");
+		}
+		upperModified[0] = upper[0] / pivot;
+		rightHandSideModified[0] = rightHandSide[0] / pivot;
+		for(int i=1; i<size; i++) {
+			pivot = diagonal[i] - lower[i] * upperModified[i-1];
+			if(pivot == 0) {
+				throw new ArithmeticException("Tridiagonal system is singular (zero pivot in row " + i + ").");
+			}
+			upperModified[i] = i < size-1 ? upper[i] / pivot : 0.0;
+			rightHandSideModified[i] = (rightHandSide[i] - lower[i] * rightHandSideModified[i-1]) / pivot;
+		}
+
+		// Backward substitution
+		solution[size-1] = rightHandSideModified[size-1];
+		for(int i=size-2; i>=0; i--) {
+			solution[i] = rightHandSideModified[i] - upperModified[i] * solution[i+1];
+		}
+
+		return solution;
+	}
+
+	/**
+	 * Calculates the product \( y = A x \) of a tridiagonal matrix and a vector.
+	 *
+	 * @param lower The lower diagonal, <code>lower[i]</code> = \( A_{i,i-1} \).
+	 * @param diagonal The diagonal, <code>diagonal[i]</code> = \( A_{i,i} \).
+	 * @param upper The upper diagonal, <code>upper[i]</code> = \( A_{i,i+1} \).
+	 * @param vector The vector x.
+	 * @param result Array receiving the result y (must not be identical to <code>vector</code>).
+	 * @return The array <code>result</code>.
+	 */
+	public static double[] multiply(final double[] lower, final double[] diagonal, final double[] upper, final double[] vector, final double[] result) {
+		final int size = vector.length;
+		for(int i=0; i<size; i++) {
+			double value = diagonal[i] * vector[i];
+			if(i > 0) {
+				value += lower[i] * vector[i-1];
+			}
+			if(i < size-1) {
+				value += upper[i] * vector[i+1];
+			}
+			result[i] = value;
+		}
+		return result;
+	}
+
+	/**
+	 * @return The size of the system.
+	 */
+	public int getSize() {
+		return upperModified.length;
+	}
+}
@@ -0,0 +1,555 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.fouriermethod;
+
+import java.util.function.DoubleUnaryOperator;
+
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+
+/**
+ * Valuation of European, digital and Bermudan options using the COS method of Fang and Oosterlee (2008, 2009),
+ * i.e., the expansion of the density of \( X = \log(S(T)) \) into a Fourier-cosine series on a truncated domain \( [a,b] \),
+ * \[
+ * 	V = \sum_{k=0}^{N-1}{}^{'} \mathrm{Re}\left( \phi\left(\frac{k \pi}{b-a}\right) e^{-i k \pi \frac{a}{b-a}} \right) V_{k} ,
+ * \]
+ * where \( \phi \) is the (discounted) characteristic function of the model, \( V_{k} \) are the cosine coefficients of the payoff
+ * (given in closed form) and the first term of the sum is weighted by one half.
+ *
+ * The method works with any {@link CharacteristicFunctionModel}. The truncation domain is
+ * \( [c_{1} - L \sqrt{c_{2}}, c_{1} + L \sqrt{c_{2}}] \), where \( c_{1} \), \( c_{2} \) are the first two cumulants of \( X \)
+ * (obtained by numerical differentiation of the characteristic function) and \( L \) is the truncation width.
+ * Typically 64 to 256 terms give an accuracy comparable to the integration used in
+ * {@link net.finmath.fouriermethod.products.EuropeanOption}, which uses 20000 evaluations of the characteristic function.
+ *
+ * The values of calls and digitals are calculated from the values of the corresponding puts using the put-call parity
+ * (which is less sensitive to the truncation of the domain). For a given maturity, the characteristic function is evaluated
+ * only once for all strikes, see {@link #getEuropeanOptionValueFunction(CharacteristicFunctionModel, double)}.
+ *
+ * Bermudan options are valued by backward recursion on the cosine coefficients of the value function,
+ * see {@link #getBermudanOptionValue(CharacteristicFunctionModel, double[], double, boolean)}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class COSMethod {
+
+	private static final int		DEFAULT_NUMBER_OF_TERMS		= 256;
+	private static final double		DEFAULT_TRUNCATION_WIDTH	= 16.0;
+
+	// Step size used to calculate the cumulants by finite differences of the log of the characteristic function
+	private static final double		CUMULANT_STEP_SIZE			= 1E-4;
+
+	// Tolerance used to check that the characteristic function of the increments does not depend on the time (Bermudan options)
+	private static final double		INDEPENDENT_INCREMENTS_TOLERANCE	= 1E-8;
+
+	private static final int		NUMBER_OF_BISECTION_STEPS	= 50;
+
+	private final int		numberOfTerms;
+	private final double	truncationWidth;
+
+	/**
+	 * Create the COS method.
+	 *
+	 * @param numberOfTerms The number of terms N of the cosine series.
+	 * @param truncationWidth The truncation width L, the domain is the mean of log(S(T)) plus/minus L standard deviations.
+	 */
+	public COSMethod(final int numberOfTerms, final double truncationWidth) {
+		super();
+		if(numberOfTerms < 2) {
+			throw new IllegalArgumentException("Number of terms must be at least 2.");
+		}
+		if(truncationWidth <= 0) {
+			throw new IllegalArgumentException("Truncation width must be positive.");
+		}
+		this.numberOfTerms = numberOfTerms;
+		this.truncationWidth = truncationWidth;
+	}
+
+	/**
+	 * Create the COS method with 256 terms and a truncation width of 16 standard deviations
+	 * (which is sufficient for the fat tails of stochastic volatility models, e.g. Heston with strong negative correlation).
+	 */
+	public COSMethod() {
+		this(DEFAULT_NUMBER_OF_TERMS, DEFAULT_TRUNCATION_WIDTH);
+	}
+
+	/**
+	 * Returns the value of a European call option, paying max(S(T)-K,0) in T.
+	 *
+	 * @param model The model.
+	 * @param maturity The maturity T.
+	 * @param strike The strike K.
+	 * @return The value of the option.
+	 */
+	public double getEuropeanOptionValue(final CharacteristicFunctionModel model, final double maturity, final double strike) {
+		return getEuropeanOptionValueFunction(model, maturity).applyAsDouble(strike);
+	}
+
+	/**
+	 * Returns the values of European call options with a common maturity, paying max(S(T)-K,0) in T.
+	 * The characteristic function is evaluated once for all strikes.
+	 *
+	 * @param model The model.
+	 * @param maturity The maturity T.
+	 * @param strikes The strikes K.
+	 * @return The values of the options, where the i-th value corresponds to the i-th strike.
+	 */
+	public double[] getEuropeanOptionValues(final CharacteristicFunctionModel model, final double maturity, final double[] strikes) {
+		final DoubleUnaryOperator valuePerStrike = getEuropeanOptionValueFunction(model, maturity);
+
+		final double[] values = new double[strikes.length];
+		for(int i=0; i<strikes.length; i++) {
+			values[i] = valuePerStrike.applyAsDouble(strikes[i]);
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the function mapping a strike K to the value of the European call option, paying max(S(T)-K,0) in T.
+	 * The characteristic function is evaluated when this method is called, such that the evaluation of the function is
+	 * of order N (the number of terms) per strike.
+	 *
+	 * @param model The model.
+	 * @param maturity The maturity T.
+	 * @return The function mapping a strike to the value of the call option.
+	 */
+	public DoubleUnaryOperator getEuropeanOptionValueFunction(final CharacteristicFunctionModel model, final double maturity) {
+		final CosineSeries series = new CosineSeries(model.apply(maturity));
+
+		return strike -> {
+			final double logStrike = Math.log(strike);
+			final double upperBound = Math.min(logStrike, series.upperBound);
+
+			// Put, payoff K - e^x on [a, min(log(K),b)]
+			double value = 0.0;
+			if(upperBound > series.lowerBound) {
+				final double length = upperBound - series.lowerBound;
+				final double expLowerBound = Math.exp(series.lowerBound);
+				final double expUpperBound = Math.exp(upperBound);
+				for(int k=0; k<numberOfTerms; k++) {
+					final double u = k * series.frequency;
+					final double cos = Math.cos(u * length);
+					final double sin = Math.sin(u * length);
+					final double chi = (cos * expUpperBound - expLowerBound + u * sin * expUpperBound) / (1 + u*u);
+					final double psi = k == 0 ? length : sin / u;
+					value += series.coefficients[k] * (strike * psi - chi);
+				}
+				value *= 2.0 / (series.upperBound - series.lowerBound);
+			}
+
+			// Put-call parity
+			return value + series.discountedForward - strike * series.discountFactor;
+		};
+	}
+
+	/**
+	 * Returns the function mapping a strike K to the value of the digital option, paying 1 if S(T) &gt; K in T.
+	 * The characteristic function is evaluated when this method is called, such that the evaluation of the function is
+	 * of order N (the number of terms) per strike.
+	 *
+	 * @param model The model.
+	 * @param maturity The maturity T.
+	 * @return The function mapping a strike to the value of the digital option.
+	 */
+	public DoubleUnaryOperator getDigitalOptionValueFunction(final CharacteristicFunctionModel model, final double maturity) {
+		final CosineSeries series = new CosineSeries(model.apply(maturity));
+
+		return strike -> {
+			final double upperBound = Math.min(Math.log(strike), series.upperBound);
+
+			// Digital put, payoff 1 on [a, min(log(K),b)]
+			double value = 0.0;
+			if(upperBound > series.lowerBound) {
+				final double length = upperBound - series.lowerBound;
+				value = series.coefficients[0] * length;
+				for(int k=1; k<numberOfTerms; k++) {
+					final double u = k * series.frequency;
+					value += series.coefficients[k] * Math.sin(u * length) / u;
+				}
+				value *= 2.0 / (series.upperBound - series.lowerBound);
+			}
+
+			// Parity
+			return series.discountFactor - value;
+		};
+	}
+
+	/**
+	 * Returns the value of the digital option, paying 1 if S(T) &gt; K in T.
+	 *
+	 * @param model The model.
+	 * @param maturity The maturity T.
+	 * @param strike The strike K.
+	 * @return The value of the option.
+	 */
+	public double getDigitalOptionValue(final CharacteristicFunctionModel model, final double maturity, final double strike) {
+		return getDigitalOptionValueFunction(model, maturity).applyAsDouble(strike);
+	}
+
+	/**
+	 * Returns the value of a Bermudan option, which may be exercised at one of the given exercise times \( t_{i} \), paying
+	 * max(S(t<sub>i</sub>)-K,0) (call) or max(K-S(t<sub>i</sub>),0) (put) upon exercise.
+	 *
+	 * The value is calculated by backward recursion on the cosine coefficients of the value function in \( x = \log(S/K) \):
+	 * at each exercise time the early exercise point \( x^{*} \) (where continuation value and exercise value agree) is determined
+	 * by bisection, and the coefficients of the value function are given by the coefficients of the payoff on the exercise region
+	 * (in closed form) and the coefficients of the continuation value on the continuation region (of order N<sup>2</sup>).
+	 *
+	 * The recursion requires the characteristic function of the increment \( \log(S(t+\Delta t)) - \log(S(t)) \), which is obtained
+	 * as \( \phi_{\Delta t}(u) e^{-i u \log(S(0))} \), where \( \phi_{\Delta t} \) is the model's characteristic function for time
+	 * \( \Delta t \). This is valid for exponential Lévy models with constant rates, e.g.,
+	 * {@link net.finmath.fouriermethod.models.BlackScholesModel}, {@link net.finmath.fouriermethod.models.MertonModel} and
+	 * {@link net.finmath.fouriermethod.models.VarianceGammaModel}. It is not valid for stochastic volatility models
+	 * (e.g. Heston or Bates), where the increments depend on the state of the variance process.
+	 *
+	 * The method checks that \( \phi_{t_{i}}(u) = \phi_{t_{i-1}}(u) \phi_{t_{i}-t_{i-1}}(u) e^{-i u \log(S(0))} \) holds for the frequencies
+	 * of the cosine series, which is the case for independent and identically distributed increments (and constant rates).
+	 *
+	 * @param model The model (an exponential Lévy model with constant rates).
+	 * @param exerciseTimes The exercise times (strictly increasing and positive).
+	 * @param strike The strike K.
+	 * @param isCall If true, the option is a call, otherwise a put.
+	 * @return The value of the option.
+	 * @throws IllegalArgumentException Thrown if the model does not have independent and identically distributed increments of log(S) (for more than one exercise time), or if its characteristic function for time 0 does not provide log(S(0)).
+	 */
+	public double getBermudanOptionValue(final CharacteristicFunctionModel model, final double[] exerciseTimes, final double strike, final boolean isCall) {
+		if(exerciseTimes.length == 0 || exerciseTimes[0] <= 0) {
+			throw new IllegalArgumentException("Exercise times must be positive.");
+		}
+		for(int i=1; i<exerciseTimes.length; i++) {
+			if(exerciseTimes[i] <= exerciseTimes[i-1]) {
+				throw new IllegalArgumentException("Exercise times must be strictly increasing.");
+			}
+		}
+
+		final double logStrike = Math.log(strike);
+
+		// log(S(0)) from the characteristic function for time 0, being E(S(0)) for the argument -i.
+		final double[] value = new double[2];
+		evaluate(model.apply(0.0), new double[] { 0.0 }, new double[] { -1.0 }, value);
+		final double logInitialValue = Math.log(value[0]);
+		if(!Double.isFinite(logInitialValue)) {
+			throw new IllegalArgumentException("The characteristic function of the model " + model.getClass().getSimpleName() + " for time 0 does not provide log(S(0)).");
+		}
+
+		// Truncation domain for x = log(S/K), covering the distribution at the last exercise time and the initial value.
+		final CosineSeries seriesAtMaturity = new CosineSeries(model.apply(exerciseTimes[exerciseTimes.length-1]));
+		final double halfWidth = (seriesAtMaturity.upperBound - seriesAtMaturity.lowerBound) / 2.0;
+		final double lowerBound = Math.min(seriesAtMaturity.lowerBound - logStrike, logInitialValue - logStrike - halfWidth);
+		final double upperBound = Math.max(seriesAtMaturity.upperBound - logStrike, logInitialValue - logStrike + halfWidth);
+		final double frequency = Math.PI / (upperBound - lowerBound);
+
+		// Coefficients of the value function at the last exercise time
+		double[] coefficients = new double[numberOfTerms];
+		addPayoffCoefficients(coefficients, isCall, strike, lowerBound, upperBound, isCall ? Math.max(0.0, lowerBound) : lowerBound, isCall ? upperBound : Math.min(0.0, upperBound));
+
+		final double[] weightsReal = new double[numberOfTerms];
+		final double[] weightsImag = new double[numberOfTerms];
+		for(int exerciseIndex = exerciseTimes.length-1; exerciseIndex >= 0; exerciseIndex--) {
+			final double previousTime = exerciseIndex > 0 ? exerciseTimes[exerciseIndex-1] : 0.0;
+
+			/*
+			 * The continuation value at the previous time is c(x) = Re( sum_j W_j e^{i u_j (x-a)} ),
+			 * with W_j = phi_dt(u_j) e^{-i u_j log(S(0))} V_j (the first term weighted by one half).
+			 */
+			getIncrementCharacteristicFunction(model, exerciseTimes[exerciseIndex] - previousTime, logInitialValue, frequency, weightsReal, weightsImag);
+			if(exerciseIndex > 0) {
+				validateIndependentIncrements(model, previousTime, exerciseTimes[exerciseIndex], logInitialValue, frequency, weightsReal, weightsImag);
+			}
+			for(int j=0; j<numberOfTerms; j++) {
+				final double weight = (j == 0 ? 0.5 : 1.0) * coefficients[j];
+				weightsReal[j] *= weight;
+				weightsImag[j] *= weight;
+			}
+
+			if(exerciseIndex == 0) {
+				return getContinuationValue(weightsReal, weightsImag, frequency, logInitialValue - logStrike - lowerBound);
+			}
+
+			// Early exercise point x*, exercise region is x > x* for a call and x < x* for a put.
+			final double exerciseBoundary = getExerciseBoundary(weightsReal, weightsImag, frequency, lowerBound, upperBound, strike, isCall);
+
+			coefficients = new double[numberOfTerms];
+			if(isCall) {
+				addPayoffCoefficients(coefficients, true, strike, lowerBound, upperBound, exerciseBoundary, upperBound);
+				addContinuationCoefficients(coefficients, weightsReal, weightsImag, frequency, 0.0, exerciseBoundary - lowerBound);
+			}
+			else {
+				addPayoffCoefficients(coefficients, false, strike, lowerBound, upperBound, lowerBound, exerciseBoundary);
+				addContinuationCoefficients(coefficients, weightsReal, weightsImag, frequency, exerciseBoundary - lowerBound, upperBound - lowerBound);
+			}
+		}
+
+		throw new IllegalStateException("Backward recursion did not reach time 0.");
+	}
+
+	/**
+	 * Returns the number of terms N of the cosine series.
+	 *
+	 * @return The number of terms.
+	 */
+	public int getNumberOfTerms() {
+		return numberOfTerms;
+	}
+
+	/**
+	 * Returns the truncation width L.
+	 *
+	 * @return The truncation width.
+	 */
+	public double getTruncationWidth() {
+		return truncationWidth;
+	}
+
+	/**
+	 * The truncation domain of log(S(T)) and the coefficients Re( phi(u_k) e^{-i u_k a} ) (the first weighted by one half).
+	 */
+	private class CosineSeries {
+
+		private final double	lowerBound;
+		private final double	upperBound;
+		private final double	frequency;
+		private final double[]	coefficients;
+
+		private final double	discountFactor;		// phi(0)
+		private final double	discountedForward;	// phi(-i)
+
+		CosineSeries(final CharacteristicFunction characteristicFunction) {
+			// Cumulants by finite differences of log(phi)
+			final double[] valueReal = new double[4];
+			final double[] valueImag = new double[4];
+			characteristicFunction.apply(
+					new double[] { CUMULANT_STEP_SIZE, -CUMULANT_STEP_SIZE, 0.0, 0.0 },
+					new double[] { 0.0, 0.0, 0.0, -1.0 },
+					valueReal, valueImag);
+
+			final double[] logValueUp = new double[2];
+			final double[] logValueDown = new double[2];
+			ComplexArithmetic.log(valueReal[0], valueImag[0], logValueUp);
+			ComplexArithmetic.log(valueReal[1], valueImag[1], logValueDown);
+			final double logValueAtZero = Math.log(valueReal[2]);
+
+			final double mean = (logValueUp[1] - logValueDown[1]) / (2 * CUMULANT_STEP_SIZE);
+			final double variance = -(logValueUp[0] + logValueDown[0] - 2 * logValueAtZero) / (CUMULANT_STEP_SIZE * CUMULANT_STEP_SIZE);
+			final double standardDeviation = Math.sqrt(Math.max(variance, 1E-8));
+
+			lowerBound = mean - truncationWidth * standardDeviation;
+			upperBound = mean + truncationWidth * standardDeviation;
+			frequency = Math.PI / (upperBound - lowerBound);
+
+			discountFactor = valueReal[2];
+			discountedForward = valueReal[3];
+
+			// Coefficients
+			final double[] argumentReal = new double[numberOfTerms];
+			final double[] argumentImag = new double[numberOfTerms];
+			for(int k=0; k<numberOfTerms; k++) {
+				argumentReal[k] = k * frequency;
+			}
+			final double[] characteristicFunctionReal = new double[numberOfTerms];
+			final double[] characteristicFunctionImag = new double[numberOfTerms];
+			characteristicFunction.apply(argumentReal, argumentImag, characteristicFunctionReal, characteristicFunctionImag);
+
+			coefficients = new double[numberOfTerms];
+			for(int k=0; k<numberOfTerms; k++) {
+				final double phase = argumentReal[k] * lowerBound;
+				coefficients[k] = characteristicFunctionReal[k] * Math.cos(phase) + characteristicFunctionImag[k] * Math.sin(phase);
+			}
+			coefficients[0] *= 0.5;
+		}
+	}
+
+	/**
+	 * Calculates phi_dt(u_k) e^{-i u_k log(S(0))} for u_k = k frequency.
+	 */
+	private void getIncrementCharacteristicFunction(final CharacteristicFunctionModel model, final double timeStep, final double logInitialValue, final double frequency, final double[] valueReal, final double[] valueImag) {
+		final double[] argumentReal = new double[numberOfTerms];
+		final double[] argumentImag = new double[numberOfTerms];
+		for(int k=0; k<numberOfTerms; k++) {
+			argumentReal[k] = k * frequency;
+		}
+		model.apply(timeStep).apply(argumentReal, argumentImag, valueReal, valueImag);
+
+		for(int k=0; k<numberOfTerms; k++) {
+			final double phase = -argumentReal[k] * logInitialValue;
+			final double cos = Math.cos(phase);
+			final double sin = Math.sin(phase);
+			final double real = valueReal[k] * cos - valueImag[k] * sin;
+			valueImag[k] = valueReal[k] * sin + valueImag[k] * cos;
+			valueReal[k] = real;
+		}
+	}
+
+	/**
+	 * Checks that phi_t(u_k) e^{-i u_k log(S(0))} = phi_s(u_k) e^{-i u_k log(S(0))} phi_{t-s}(u_k) e^{-i u_k log(S(0))} for u_k = k frequency,
+	 * where the last factor is given, i.e., that the increment from s to t has the distribution of the increment from 0 to t-s
+	 * and is independent of the value at s.
+	 */
+	private void validateIndependentIncrements(final CharacteristicFunctionModel model, final double previousTime, final double time, final double logInitialValue, final double frequency,
+			final double[] incrementReal, final double[] incrementImag) {
+		final double[] valueReal = new double[numberOfTerms];
+		final double[] valueImag = new double[numberOfTerms];
+		getIncrementCharacteristicFunction(model, time, logInitialValue, frequency, valueReal, valueImag);
+
+		final double[] previousValueReal = new double[numberOfTerms];
+		final double[] previousValueImag = new double[numberOfTerms];
+		getIncrementCharacteristicFunction(model, previousTime, logInitialValue, frequency, previousValueReal, previousValueImag);
+
+		for(int k=0; k<numberOfTerms; k++) {
+			final double productReal = previousValueReal[k] * incrementReal[k] - previousValueImag[k] * incrementImag[k];
+			final double productImag = previousValueReal[k] * incrementImag[k] + previousValueImag[k] * incrementReal[k];
+			if(!(Math.hypot(valueReal[k] - productReal, valueImag[k] - productImag) <= INDEPENDENT_INCREMENTS_TOLERANCE)) {
+				throw new IllegalArgumentException("The model " + model.getClass().getSimpleName() + " does not have independent and identically distributed increments of log(S) "
+						+ "(e.g. a stochastic volatility model or time dependent rates), as required for the valuation of Bermudan options.");
+			}
+		}
+	}
+
+	/**
+	 * Calculates Re( sum_j W_j e^{i j frequency y} ), using the rotation e^{i frequency y}.
+	 */
+	private double getContinuationValue(final double[] weightsReal, final double[] weightsImag, final double frequency, final double y) {
+		final double rotationReal = Math.cos(frequency * y);
+		final double rotationImag = Math.sin(frequency * y);
+
+		double factorReal = 1.0;
+		double factorImag = 0.0;
+		double value = 0.0;
+		for(int j=0; j<numberOfTerms; j++) {
+			value += weightsReal[j] * factorReal - weightsImag[j] * factorImag;
+
+			final double nextFactorReal = factorReal * rotationReal - factorImag * rotationImag;
+			factorImag = factorReal * rotationImag + factorImag * rotationReal;
+			factorReal = nextFactorReal;
+		}
+		return value;
+	}
+
+	/**
+	 * Determines the point x* where the continuation value equals the exercise value, by bisection.
+	 * If there is no such point, the boundary of the domain is returned, such that the exercise region is empty.
+	 */
+	private double getExerciseBoundary(final double[] weightsReal, final double[] weightsImag, final double frequency,
+			final double lowerBound, final double upperBound, final double strike, final boolean isCall) {
+
+		// The exercise value is positive on [0,b] for a call and on [a,0] for a put
+		double left		= isCall ? Math.max(0.0, lowerBound) : lowerBound;
+		double right	= isCall ? upperBound : Math.min(0.0, upperBound);
+		if(left >= right) {
+			return isCall ? upperBound : lowerBound;
+		}
+
+		final double exerciseGainLeft = getExerciseGain(weightsReal, weightsImag, frequency, lowerBound, strike, isCall, left);
+		final double exerciseGainRight = getExerciseGain(weightsReal, weightsImag, frequency, lowerBound, strike, isCall, right);
+		if(isCall && exerciseGainRight <= 0) {
+			return upperBound;
+		}
+		if(!isCall && exerciseGainLeft <= 0) {
+			return lowerBound;
+		}
+		if(exerciseGainLeft > 0 && exerciseGainRight > 0) {
+			return isCall ? left : right;
+		}
+
+		for(int i=0; i<NUMBER_OF_BISECTION_STEPS; i++) {
+			final double middle = 0.5 * (left + right);
+			final boolean isExercise = getExerciseGain(weightsReal, weightsImag, frequency, lowerBound, strike, isCall, middle) > 0;
+			if(isExercise == isCall) {
+				right = middle;
+			}
+			else {
+				left = middle;
+			}
+		}
+		return 0.5 * (left + right);
+	}
+
+	private double getExerciseGain(final double[] weightsReal, final double[] weightsImag, final double frequency,
+			final double lowerBound, final double strike, final boolean isCall, final double x) {
+		final double exerciseValue = isCall ? strike * (Math.exp(x) - 1.0) : strike * (1.0 - Math.exp(x));
+		return exerciseValue - getContinuationValue(weightsReal, weightsImag, frequency, x - lowerBound);
+	}
+
+	/**
+	 * Adds the cosine coefficients (2/(b-a)) int_{x1}^{x2} g(x) cos(u_k (x-a)) dx of the payoff g(x) = K (e^x - 1) (call) or
+	 * g(x) = K (1 - e^x) (put) on [x1, x2].
+	 */
+	private void addPayoffCoefficients(final double[] coefficients, final boolean isCall, final double strike, final double lowerBound, final double upperBound, final double x1, final double x2) {
+		if(x2 <= x1) {
+			return;
+		}
+		final double frequency = Math.PI / (upperBound - lowerBound);
+		final double scaling = (isCall ? 1.0 : -1.0) * 2.0 / (upperBound - lowerBound) * strike;
+		for(int k=0; k<numberOfTerms; k++) {
+			final double u = k * frequency;
+			coefficients[k] += scaling * (chi(u, lowerBound, x1, x2) - psi(u, lowerBound, x1, x2));
+		}
+	}
+
+	/**
+	 * Adds the cosine coefficients (2/(b-a)) int_{y1}^{y2} c(y) cos(u_k y) dy of the continuation value
+	 * c(y) = Re( sum_j W_j e^{i u_j y} ) on [y1, y2] (where y = x-a). This is
+	 * (1/(b-a)) Re( sum_j W_j (I_{j+k} + I_{j-k}) ) with I_m = int_{y1}^{y2} e^{i m frequency y} dy.
+	 */
+	private void addContinuationCoefficients(final double[] coefficients, final double[] weightsReal, final double[] weightsImag, final double frequency, final double y1, final double y2) {
+		if(y2 <= y1) {
+			return;
+		}
+
+		final int numberOfIntegrals = 2 * numberOfTerms - 1;
+		final double[] integralReal = new double[numberOfIntegrals];
+		final double[] integralImag = new double[numberOfIntegrals];
+		integralReal[0] = y2 - y1;
+		for(int m=1; m<numberOfIntegrals; m++) {
+			final double w = m * frequency;
+			integralReal[m] = (Math.sin(w * y2) - Math.sin(w * y1)) / w;
+			integralImag[m] = (Math.cos(w * y1) - Math.cos(w * y2)) / w;
+		}
+
+		final double scaling = frequency / Math.PI;
+		for(int k=0; k<numberOfTerms; k++) {
+			double sum = 0.0;
+			for(int j=0; j<numberOfTerms; j++) {
+				// I_{j-k} = conj(I_{k-j}) for j < k
+				final double differenceReal = integralReal[Math.abs(j-k)];
+				final double differenceImag = j >= k ? integralImag[j-k] : -integralImag[k-j];
+				sum += weightsReal[j] * (integralReal[j+k] + differenceReal) - weightsImag[j] * (integralImag[j+k] + differenceImag);
+			}
+			coefficients[k] += scaling * sum;
+		}
+	}
+
+	/**
+	 * Evaluates a characteristic function for the given arguments (real and imaginary parts), writing the value of the first argument to value.
+	 */
+	private static void evaluate(final CharacteristicFunction characteristicFunction, final double[] argumentReal, final double[] argumentImag, final double[] value) {
+		final double[] valueReal = new double[argumentReal.length];
+		final double[] valueImag = new double[argumentReal.length];
+		characteristicFunction.apply(argumentReal, argumentImag, valueReal, valueImag);
+		value[0] = valueReal[0];
+		value[1] = valueImag[0];
+	}
+
+	/**
+	 * Calculates int_{x1}^{x2} e^x cos(u (x-a)) dx.
+	 */
+	private static double chi(final double u, final double a, final double x1, final double x2) {
+		final double expX1 = Math.exp(x1);
+		final double expX2 = Math.exp(x2);
+		return (Math.cos(u * (x2-a)) * expX2 - Math.cos(u * (x1-a)) * expX1 + u * Math.sin(u * (x2-a)) * expX2 - u * Math.sin(u * (x1-a)) * expX1) / (1 + u*u);
+	}
+
+	/**
+	 * Calculates int_{x1}^{x2} cos(u (x-a)) dx.
+	 */
+	private static double psi(final double u, final double a, final double x1, final double x2) {
+		if(u == 0) {
+			return x2 - x1;
+		}
+		return (Math.sin(u * (x2-a)) - Math.sin(u * (x1-a))) / u;
+	}
+}
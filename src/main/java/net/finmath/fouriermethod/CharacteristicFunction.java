@@ -22,4 +22,25 @@ import org.apache.commons.math3.complex.Complex;
 @FunctionalInterface
 public interface CharacteristicFunction extends Function<Complex, Complex> {
 
+	/**
+	 * Evaluates the characteristic function for a vector of arguments, given by their real and imaginary parts.
+	 * The values are written to the arrays <code>valueReal</code> and <code>valueImag</code>, which have to be of
+	 * the same length as the arguments.
+	 *
+	 * The default implementation calls {@link #apply(Object)} for each argument. Implementations may override this
+	 * method with an implementation on primitive doubles (see {@link ComplexArithmetic}),
+	 * avoiding the allocation of {@link Complex} objects.
+	 *
+	 * @param argumentReal The real parts of the arguments.
+	 * @param argumentImag The imaginary parts of the arguments.
+	 * @param valueReal Array receiving the real parts of the values.
+	 * @param valueImag Array receiving the imaginary parts of the values.
+	 */
+	default void apply(final double[] argumentReal, final double[] argumentImag, final double[] valueReal, final double[] valueImag) {
+		for(int i=0; i<argumentReal.length; i++) {
+			final Complex value = apply(new Complex(argumentReal[i], argumentImag[i]));
+			valueReal[i] = value.getReal();
+			valueImag[i] = value.getImaginary();
+		}
+	}
 }
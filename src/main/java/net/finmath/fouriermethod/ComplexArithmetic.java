@@ -0,0 +1,129 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.fouriermethod;
+
+/**
+ * Complex functions operating on primitive doubles (real and imaginary part).
+ *
+ * The methods are allocation free alternatives to the corresponding methods of
+ * {@link org.apache.commons.math3.complex.Complex}. They are used by the implementations of
+ * {@link CharacteristicFunction#apply(double[], double[], double[], double[])}.
+ * The result is written to an array <code>result</code> of length two, where
+ * <code>result[0]</code> is the real part and <code>result[1]</code> is the imaginary part.
+ * Addition and multiplication are not provided, they are written inline.
+ *
+ * Different from {@link org.apache.commons.math3.complex.Complex}, there is no special treatment of NaN
+ * or infinite arguments.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public final class ComplexArithmetic {
+
+	private ComplexArithmetic() {
+		// This is a utility class, it should not be instantiated.
+	}
+
+	/**
+	 * Calculates \( (a_{r} + i a_{i}) / (b_{r} + i b_{i}) \) (using Smith's algorithm).
+	 *
+	 * @param dividendReal The real part of the dividend.
+	 * @param dividendImag The imaginary part of the dividend.
+	 * @param divisorReal The real part of the divisor.
+	 * @param divisorImag The imaginary part of the divisor.
+	 * @param result Array of length two receiving the real and imaginary part of the result.
+	 */
+	public static void divide(final double dividendReal, final double dividendImag, final double divisorReal, final double divisorImag, final double[] result) {
+		if(Math.abs(divisorReal) < Math.abs(divisorImag)) {
+			final double ratio = divisorReal / divisorImag;
+			final double denominator = divisorReal * ratio + divisorImag;
+			result[0] = (dividendReal * ratio + dividendImag) / denominator;
+			result[1] = (dividendImag * ratio - dividendReal) / denominator;
+		}
+		else {
+			final double ratio = divisorImag / divisorReal;
+			final double denominator = divisorImag * ratio + divisorReal;
+			result[0] = (dividendImag * ratio + dividendReal) / denominator;
+			result[1] = (dividendImag - dividendReal * ratio) / denominator;
+		}
+	}
+
+	/**
+	 * Calculates \( \exp(z) \).
+	 *
+	 * @param real The real part of z.
+	 * @param imag The imaginary part of z.
+	 * @param result Array of length two receiving the real and imaginary part of the result.
+	 */
+	public static void exp(final double real, final double imag, final double[] result) {
+		final double expReal = Math.exp(real);
+		result[0] = expReal * Math.cos(imag);
+		result[1] = expReal * Math.sin(imag);
+	}
+
+	/**
+	 * Calculates the principal value of \( \log(z) \).
+	 *
+	 * @param real The real part of z.
+	 * @param imag The imaginary part of z.
+	 * @param result Array of length two receiving the real and imaginary part of the result.
+	 */
+	public static void log(final double real, final double imag, final double[] result) {
+		result[0] = Math.log(abs(real, imag));
+		result[1] = Math.atan2(imag, real);
+	}
+
+	/**
+	 * Calculates the principal value of \( \sqrt{z} \).
+	 *
+	 * @param real The real part of z.
+	 * @param imag The imaginary part of z.
+	 * @param result Array of length two receiving the real and imaginary part of the result.
+	 */
+	public static void sqrt(final double real, final double imag, final double[] result) {
+		if(real == 0.0 && imag == 0.0) {
+			result[0] = 0.0;
+			result[1] = 0.0;
+			return;
+		}
+
+		final double t = Math.sqrt((Math.abs(real) + abs(real, imag)) / 2.0);
+		if(real >= 0.0) {
+			result[0] = t;
+			result[1] = imag / (2.0 * t);
+		}
+		else {
+			result[0] = Math.abs(imag) / (2.0 * t);
+			result[1] = Math.copySign(1.0, imag) * t;
+		}
+	}
+
+	/**
+	 * Calculates \( |z| \), avoiding overflow and underflow (different from <code>Math.hypot</code> this
+	 * is not required to be exact up to one ulp, but is considerably faster).
+	 *
+	 * @param real The real part of z.
+	 * @param imag The imaginary part of z.
+	 * @return The absolute value of z.
+	 */
+	public static double abs(final double real, final double imag) {
+		if(Math.abs(real) < Math.abs(imag)) {
+			if(imag == 0.0) {
+				return Math.abs(real);
+			}
+			final double ratio = real / imag;
+			return Math.abs(imag) * Math.sqrt(1 + ratio * ratio);
+		}
+		else {
+			if(real == 0.0) {
+				return Math.abs(imag);
+			}
+			final double ratio = imag / real;
+			return Math.abs(real) * Math.sqrt(1 + ratio * ratio);
+		}
+	}
+}
@@ -33,6 +33,10 @@ import net.finmath.optimizer.SolverException;
  * <li> Normal implied volatilities.
  * </ul>
  *
+ * The model prices are calculated per maturity by a {@link EuropeanOptionSmile} (e.g. {@link net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByCarrMadan}
+ * or {@link net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByLewis}), which evaluates the characteristic function of the model once
+ * for all strikes of that maturity. Hence the cost of an evaluation of the objective function scales with the number of maturities.
+ *
  * To change the calibration entity please change the convention in the option surface.
  * The calibration entity (i.e. price/vol/normal vol) is directly detected from market data.
  *
@@ -105,7 +109,8 @@ public class CalibratedModel {
 					final EuropeanOptionSmile newPricer = pricer.getCloneWithModifiedParameters(mats[t],currentStrikes);
 
 					try {
-						final Map<String, Function<Double, Double>> currentModelPrices = newPricer.getValue(0.0, newModelFourier);
+						// The pricer values all strikes of a maturity from a single evaluation of the characteristic function
+						final Function<Double, Double> valuePerStrike = newPricer.getValue(0.0, newModelFourier).get("valuePerStrike");
 
 						for(int i = 0; i<currentStrikes.length;i++) {
 
@@ -115,7 +120,7 @@ public class CalibratedModel {
 								final double optionMaturity =mats[t];
 								final double optionStrike = currentStrikes[i];
 								final double payoffUnit = surface.getDiscountCurve().getDiscountFactor(mats[t]);
-								final double optionValue = currentModelPrices.get("valuePerStrike").apply(optionStrike);
+								final double optionValue = valuePerStrike.apply(optionStrike);
 								vals.add(net.finmath.functions.AnalyticFormulas.blackScholesOptionImpliedVolatility(forward, optionMaturity, optionStrike, payoffUnit, optionValue));
 
 
@@ -125,11 +130,11 @@ public class CalibratedModel {
 								final double optionMaturity =mats[t];
 								final double optionStrike = currentStrikes[i];
 								final double payoffUnit = surface.getDiscountCurve().getDiscountFactor(mats[t]);
-								final double optionValue = currentModelPrices.get("valuePerStrike").apply(optionStrike);
+								final double optionValue = valuePerStrike.apply(optionStrike);
 								vals.add(net.finmath.functions.AnalyticFormulas.bachelierOptionImpliedVolatility(forward, optionMaturity, optionStrike, payoffUnit, optionValue));
 							}else {
 								//just output the prices
-								vals.add(currentModelPrices.get("valuePerStrike").apply(currentStrikes[i]));
+								vals.add(valuePerStrike.apply(currentStrikes[i]));
 							}
 
 						}
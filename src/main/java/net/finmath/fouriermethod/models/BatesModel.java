@@ -11,6 +11,7 @@ import java.util.Arrays;
 import org.apache.commons.math3.complex.Complex;
 
 import net.finmath.fouriermethod.CharacteristicFunction;
+import net.finmath.fouriermethod.ComplexArithmetic;
 import net.finmath.marketdata.model.curves.DiscountCurve;
 
 /**
@@ -358,6 +359,76 @@ public class BatesModel implements CharacteristicFunctionModel {
 
 				return characteristicFunction;
 			}
+
+			@Override
+			public void apply(final double[] argumentReal, final double[] argumentImag, final double[] valueReal, final double[] valueImag) {
+				final double logForward = Math.log(initialValue) - logDiscountFactorForForward;
+				final double logOnePlusK = Math.log(1+k);
+				final double[] z = new double[2];
+				for(int i=0; i<argumentReal.length; i++) {
+					final double iargumentReal = -argumentImag[i];
+					final double iargumentImag = argumentReal[i];
+
+					// iargument^2 - iargument
+					final double quadraticReal = iargumentReal * iargumentReal - iargumentImag * iargumentImag - iargumentReal;
+					final double quadraticImag = 2.0 * iargumentReal * iargumentImag - iargumentImag;
+
+					// c = exp(0.5 delta^2 (iargument^2 - iargument)) (1+k)^iargument - 1 - k iargument
+					ComplexArithmetic.exp(
+							0.5*delta*delta * quadraticReal + logOnePlusK * iargumentReal,
+							0.5*delta*delta * quadraticImag + logOnePlusK * iargumentImag, z);
+					final double cReal = z[0] - 1 - k * iargumentReal;
+					final double cImag = z[1] - k * iargumentImag;
+
+					double exponentReal = cReal * time*lambda[0] + iargumentReal * logForward + logDiscountFactorForDiscounting;
+					double exponentImag = cImag * time*lambda[0] + iargumentImag * logForward;
+					for(int factorIndex = 0; factorIndex < numberOfFactors; factorIndex++) {
+						// 0.5 (iargument^2 - iargument) + c lambda
+						final double hReal = 0.5 * quadraticReal + cReal * lambda[factorIndex+1];
+						final double hImag = 0.5 * quadraticImag + cImag * lambda[factorIndex+1];
+
+						// rho sigma iargument - beta
+						final double driftReal = rho[factorIndex]*sigma[factorIndex] * iargumentReal - beta[factorIndex];
+						final double driftImag = rho[factorIndex]*sigma[factorIndex] * iargumentImag;
+
+						// gamma = sqrt((rho sigma iargument - beta)^2 - 2 sigma^2 h)
+						ComplexArithmetic.sqrt(
+								driftReal * driftReal - driftImag * driftImag - 2*sigma[factorIndex]*sigma[factorIndex] * hReal,
+								2.0 * driftReal * driftImag - 2*sigma[factorIndex]*sigma[factorIndex] * hImag, z);
+						final double gammaReal = z[0];
+						final double gammaImag = z[1];
+
+						// exp(-gamma t)
+						ComplexArithmetic.exp(-gammaReal * time, -gammaImag * time, z);
+						final double expReal = z[0];
+						final double expImag = z[1];
+
+						// a
+						final double driftMinusGammaReal = driftReal - gammaReal;
+						final double driftMinusGammaImag = driftImag - gammaImag;
+						ComplexArithmetic.divide(expReal - 1.0, expImag, gammaReal, gammaImag, z);
+						ComplexArithmetic.log(
+								0.5 * (driftMinusGammaReal * z[0] - driftMinusGammaImag * z[1]) + expReal,
+								0.5 * (driftMinusGammaReal * z[1] + driftMinusGammaImag * z[0]) + expImag, z);
+						final double factorA = (-alpha[factorIndex]*time)/(sigma[factorIndex]*sigma[factorIndex]);
+						final double factorLog = (2*alpha[factorIndex])/(sigma[factorIndex]*sigma[factorIndex]);
+						exponentReal += driftMinusGammaReal * factorA - (z[0] + gammaReal * time) * factorLog;
+						exponentImag += driftMinusGammaImag * factorA - (z[1] + gammaImag * time) * factorLog;
+
+						// b = -2 h / (rho sigma iargument - beta + gamma (exp(-gamma t) + 1) / (exp(-gamma t) - 1))
+						ComplexArithmetic.divide(expReal + 1.0, expImag, expReal - 1.0, expImag, z);
+						ComplexArithmetic.divide(-2 * hReal, -2 * hImag,
+								driftReal + gammaReal * z[0] - gammaImag * z[1],
+								driftImag + gammaReal * z[1] + gammaImag * z[0], z);
+						exponentReal += z[0] * volatility[factorIndex];
+						exponentImag += z[1] * volatility[factorIndex];
+					}
+
+					ComplexArithmetic.exp(exponentReal, exponentImag, z);
+					valueReal[i] = z[0];
+					valueImag[i] = z[1];
+				}
+			}
 		};
 	}
 
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 import org.apache.commons.math3.complex.Complex;
 
 import net.finmath.fouriermethod.CharacteristicFunction;
+import net.finmath.fouriermethod.ComplexArithmetic;
 import net.finmath.marketdata.model.curves.DiscountCurve;
 
 /**
@@ -103,6 +104,26 @@ public class BlackScholesModel implements CharacteristicFunctionModel {
 						.add(logDiscountFactorForDiscounting)
 						.exp();
 			}
+
+			@Override
+			public void apply(final double[] argumentReal, final double[] argumentImag, final double[] valueReal, final double[] valueImag) {
+				final double drift = Math.log(initialValue)-0.5*volatility*volatility*time-logDiscountFactorForForward;
+				final double[] z = new double[2];
+				for(int i=0; i<argumentReal.length; i++) {
+					final double iargumentReal = -argumentImag[i];
+					final double iargumentImag = argumentReal[i];
+
+					// iargument (0.5 sigma^2 t iargument + drift)
+					final double factorReal = iargumentReal * 0.5*volatility*volatility*time + drift;
+					final double factorImag = iargumentImag * 0.5*volatility*volatility*time;
+
+					ComplexArithmetic.exp(
+							iargumentReal * factorReal - iargumentImag * factorImag + logDiscountFactorForDiscounting,
+							iargumentReal * factorImag + iargumentImag * factorReal, z);
+					valueReal[i] = z[0];
+					valueImag[i] = z[1];
+				}
+			}
 		};
 	}
 
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 import org.apache.commons.math3.complex.Complex;
 
 import net.finmath.fouriermethod.CharacteristicFunction;
+import net.finmath.fouriermethod.ComplexArithmetic;
 import net.finmath.marketdata.model.curves.DiscountCurve;
 
 /**
@@ -183,6 +184,60 @@ public class HestonModel implements CharacteristicFunctionModel {
 
 				return a.add(b.multiply(volatility*volatility)).add(iargument.multiply(Math.log(initialValue) - logDiscountFactorForForward)).add(logDiscountFactorForDiscounting).exp();
 			}
+
+			@Override
+			public void apply(final double[] argumentReal, final double[] argumentImag, final double[] valueReal, final double[] valueImag) {
+				final double logForward = Math.log(initialValue) - logDiscountFactorForForward;
+				final double[] z = new double[2];
+				for(int i=0; i<argumentReal.length; i++) {
+					final double iargumentReal = -argumentImag[i];
+					final double iargumentImag = argumentReal[i];
+
+					// iargument^2 - iargument
+					final double quadraticReal = iargumentReal * iargumentReal - iargumentImag * iargumentImag - iargumentReal;
+					final double quadraticImag = 2.0 * iargumentReal * iargumentImag - iargumentImag;
+
+					// beta = rho xi iargument - kappa
+					final double betaReal = rho * xi * iargumentReal - kappa;
+					final double betaImag = rho * xi * iargumentImag;
+
+					// gamma = sqrt(beta^2 - xi^2 (iargument^2 - iargument))
+					ComplexArithmetic.sqrt(
+							betaReal * betaReal - betaImag * betaImag - xi * xi * quadraticReal,
+							2.0 * betaReal * betaImag - xi * xi * quadraticImag, z);
+					final double gammaReal = z[0];
+					final double gammaImag = z[1];
+
+					// exp(-gamma t)
+					ComplexArithmetic.exp(-gammaReal * time, -gammaImag * time, z);
+					final double expReal = z[0];
+					final double expImag = z[1];
+
+					// a = (beta - gamma) (-theta kappa t / xi^2) - (log(0.5 (beta - gamma) (exp(-gamma t) - 1) / gamma + exp(-gamma t)) + gamma t) (2 theta kappa / xi^2)
+					final double betaMinusGammaReal = betaReal - gammaReal;
+					final double betaMinusGammaImag = betaImag - gammaImag;
+					ComplexArithmetic.divide(expReal - 1.0, expImag, gammaReal, gammaImag, z);
+					ComplexArithmetic.log(
+							0.5 * (betaMinusGammaReal * z[0] - betaMinusGammaImag * z[1]) + expReal,
+							0.5 * (betaMinusGammaReal * z[1] + betaMinusGammaImag * z[0]) + expImag, z);
+					final double aReal = betaMinusGammaReal * (-theta*kappa * time) / (xi * xi) - (z[0] + gammaReal * time) * (2 * theta*kappa) / (xi * xi);
+					final double aImag = betaMinusGammaImag * (-theta*kappa * time) / (xi * xi) - (z[1] + gammaImag * time) * (2 * theta*kappa) / (xi * xi);
+
+					// b = -(iargument^2 - iargument) / (beta + gamma (exp(-gamma t) + 1) / (exp(-gamma t) - 1))
+					ComplexArithmetic.divide(expReal + 1.0, expImag, expReal - 1.0, expImag, z);
+					ComplexArithmetic.divide(-quadraticReal, -quadraticImag,
+							betaReal + gammaReal * z[0] - gammaImag * z[1],
+							betaImag + gammaReal * z[1] + gammaImag * z[0], z);
+					final double bReal = z[0];
+					final double bImag = z[1];
+
+					ComplexArithmetic.exp(
+							aReal + bReal * volatility*volatility + iargumentReal * logForward + logDiscountFactorForDiscounting,
+							aImag + bImag * volatility*volatility + iargumentImag * logForward, z);
+					valueReal[i] = z[0];
+					valueImag[i] = z[1];
+				}
+			}
 		};
 	}
 
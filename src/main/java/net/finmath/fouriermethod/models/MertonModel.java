@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import org.apache.commons.math3.complex.Complex;
 
 import net.finmath.fouriermethod.CharacteristicFunction;
+import net.finmath.fouriermethod.ComplexArithmetic;
 import net.finmath.marketdata.model.curves.DiscountCurve;
 
 /**
@@ -141,6 +142,36 @@ public class MertonModel implements CharacteristicFunctionModel{
 						.add(logDiscountFactorForDiscounting).add(jumpTransform.subtract(jumpTransformCompensator))
 						.exp();
 			}
+
+			@Override
+			public void apply(final double[] argumentReal, final double[] argumentImag, final double[] valueReal, final double[] valueImag) {
+				final double drift = Math.log(initialValue)-0.5*volatility*volatility*time-logDiscountFactorForForward;
+				final double jumpTransformCompensator = jumpIntensity*time*(Math.exp(transformedMean+jumpSizeStdDev*jumpSizeStdDev/2.0)-1.0);
+				final double[] z = new double[2];
+				for(int i=0; i<argumentReal.length; i++) {
+					final double iargumentReal = -argumentImag[i];
+					final double iargumentImag = argumentReal[i];
+					final double iargumentSquaredReal = iargumentReal * iargumentReal - iargumentImag * iargumentImag;
+					final double iargumentSquaredImag = 2.0 * iargumentReal * iargumentImag;
+
+					// jumpTransform = (exp(iargument m + iargument^2 s^2 / 2) - 1) lambda t
+					ComplexArithmetic.exp(
+							iargumentReal * transformedMean + iargumentSquaredReal * jumpSizeStdDev*jumpSizeStdDev/2.0,
+							iargumentImag * transformedMean + iargumentSquaredImag * jumpSizeStdDev*jumpSizeStdDev/2.0, z);
+					final double jumpTransformReal = (z[0] - 1.0) * jumpIntensity*time;
+					final double jumpTransformImag = z[1] * jumpIntensity*time;
+
+					// iargument (0.5 sigma^2 t iargument + drift)
+					final double factorReal = iargumentReal * 0.5*volatility*volatility*time + drift;
+					final double factorImag = iargumentImag * 0.5*volatility*volatility*time;
+
+					ComplexArithmetic.exp(
+							iargumentReal * factorReal - iargumentImag * factorImag + logDiscountFactorForDiscounting + jumpTransformReal - jumpTransformCompensator,
+							iargumentReal * factorImag + iargumentImag * factorReal + jumpTransformImag, z);
+					valueReal[i] = z[0];
+					valueImag[i] = z[1];
+				}
+			}
 		};
 
 	}
@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import org.apache.commons.math3.complex.Complex;
 
 import net.finmath.fouriermethod.CharacteristicFunction;
+import net.finmath.fouriermethod.ComplexArithmetic;
 import net.finmath.marketdata.model.curves.DiscountCurve;
 import net.finmath.time.FloatingpointDate;
 
@@ -100,6 +101,33 @@ public class VarianceGammaModel implements CharacteristicFunctionModel {
 						.add(logDiscountFactorForDiscounting))
 						.exp();
 			}
+
+			@Override
+			public void apply(final double[] argumentReal, final double[] argumentImag, final double[] valueReal, final double[] valueImag) {
+				final double logForward = Math.log(initialValue) - logDiscountFactorForForward;
+				final double compensatorFactor = time/nu * Math.log(1/(1.0-theta*nu-0.5*sigma*sigma*nu));
+				final double[] z = new double[2];
+				for(int i=0; i<argumentReal.length; i++) {
+					final double real = argumentReal[i];
+					final double imag = argumentImag[i];
+					final double iargumentReal = -imag;
+					final double iargumentImag = real;
+
+					// denominator = 1 - theta nu iargument + 0.5 sigma^2 nu argument^2
+					final double denominatorReal = 1.0 - theta*nu * iargumentReal + 0.5*sigma*sigma*nu * (real * real - imag * imag);
+					final double denominatorImag = - theta*nu * iargumentImag + 0.5*sigma*sigma*nu * (2.0 * real * imag);
+
+					// firstLevyExponent = log(1 / denominator) t / nu
+					ComplexArithmetic.divide(1.0, 0.0, denominatorReal, denominatorImag, z);
+					ComplexArithmetic.log(z[0], z[1], z);
+
+					ComplexArithmetic.exp(
+							z[0] * time/nu - iargumentReal * compensatorFactor + iargumentReal * logForward + logDiscountFactorForDiscounting,
+							z[1] * time/nu - iargumentImag * compensatorFactor + iargumentImag * logForward, z);
+					valueReal[i] = z[0];
+					valueImag[i] = z[1];
+				}
+			}
 		};
 	}
 
@@ -6,16 +6,14 @@
 
 package net.finmath.fouriermethod.products;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.DoubleUnaryOperator;
-
-import org.apache.commons.math3.complex.Complex;
+import java.util.stream.IntStream;
 
 import net.finmath.exception.CalculationException;
 import net.finmath.fouriermethod.CharacteristicFunction;
 import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
-import net.finmath.integration.RealIntegral;
 import net.finmath.integration.SimpsonRealIntegrator;
 import net.finmath.modelling.Model;
 
@@ -26,6 +24,11 @@ import net.finmath.modelling.Model;
  */
 public abstract class AbstractFourierTransformProduct implements CharacteristicFunction, FourierTransformProduct {
 
+	private static final double	INTEGRATION_DOMAIN_REAL_LOWER_BOUND	= -100.0;
+	private static final double	INTEGRATION_DOMAIN_REAL_UPPER_BOUND	= 100.0;
+	private static final int	NUMBER_OF_EVALUATION_POINTS			= 20000;
+	private static final int	BLOCK_SIZE							= 1024;
+
 	/* (non-Javadoc)
 	 * @see net.finmath.fouriermethod.products.FourierTransformProduct#getValue(double, net.finmath.modelling.Model)
 	 */
@@ -66,17 +69,46 @@ public abstract class AbstractFourierTransformProduct implements CharacteristicF
 		final CharacteristicFunction modelCF = model.apply(getMaturity());
 
 		final double lineOfIntegration = 0.5 * getIntegrationDomainImagUpperBound()+getIntegrationDomainImagLowerBound();
-		final DoubleUnaryOperator integrand = new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double real) {
-				final Complex z = new Complex(real,lineOfIntegration);
-				return modelCF.apply(z.negate()).multiply(AbstractFourierTransformProduct.this.apply(z)).getReal();
+
+		/*
+		 * Integration using Simpson's rule. The integrand is evaluated in blocks of arguments, using the
+		 * implementations of the characteristic functions on primitive doubles, such that no Complex objects
+		 * are allocated per evaluation point.
+		 */
+		final SimpsonRealIntegrator integrator = new SimpsonRealIntegrator(INTEGRATION_DOMAIN_REAL_LOWER_BOUND, INTEGRATION_DOMAIN_REAL_UPPER_BOUND, NUMBER_OF_EVALUATION_POINTS);
+		final double[] evaluationPoints = integrator.getEvaluationPoints();
+		final double[] weights = integrator.getWeights();
+
+		final int numberOfBlocks = (evaluationPoints.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		final double sum = IntStream.range(0, numberOfBlocks).parallel().mapToDouble(blockIndex -> {
+			final int start = blockIndex * BLOCK_SIZE;
+			final int length = Math.min(BLOCK_SIZE, evaluationPoints.length - start);
+
+			final double[] argumentReal = Arrays.copyOfRange(evaluationPoints, start, start + length);
+			final double[] argumentImag = new double[length];
+			final double[] negatedArgumentReal = new double[length];
+			final double[] negatedArgumentImag = new double[length];
+			for(int i=0; i<length; i++) {
+				argumentImag[i] = lineOfIntegration;
+				negatedArgumentReal[i] = -argumentReal[i];
+				negatedArgumentImag[i] = -lineOfIntegration;
 			}
-		};
 
-		final RealIntegral integrator = new SimpsonRealIntegrator(-100.0, 100.0, 20000, true);
+			final double[] modelValueReal = new double[length];
+			final double[] modelValueImag = new double[length];
+			modelCF.apply(negatedArgumentReal, negatedArgumentImag, modelValueReal, modelValueImag);
+
+			// The arrays of the arguments are re-used for the values of the payoff transform
+			apply(argumentReal, argumentImag, negatedArgumentReal, negatedArgumentImag);
+
+			double blockSum = 0.0;
+			for(int i=0; i<length; i++) {
+				blockSum += weights[start + i] * (modelValueReal[i] * negatedArgumentReal[i] - modelValueImag[i] * negatedArgumentImag[i]);
+			}
+			return blockSum;
+		}).sum();
 
-		return integrator.integrate(integrand) / 2.0 / Math.PI;
+		return sum / 2.0 / Math.PI;
 	}
 
 	/* (non-Javadoc)
@@ -7,6 +7,8 @@ package net.finmath.fouriermethod.products;
 
 import org.apache.commons.math3.complex.Complex;
 
+import net.finmath.fouriermethod.ComplexArithmetic;
+
 /**
  * Implements valuation of a European option on a single asset.
  *
@@ -53,6 +55,29 @@ public class DigitalOption extends AbstractFourierTransformProduct {
 		return numerator.divide(denominator);
 	}
 
+	@Override
+	public void apply(final double[] argumentReal, final double[] argumentImag, final double[] valueReal, final double[] valueImag) {
+		final double logStrike = Math.log(strike);
+		final double[] z = new double[2];
+		for(int i=0; i<argumentReal.length; i++) {
+			final double real = argumentReal[i];
+			final double imag = argumentImag[i];
+
+			// numerator = strike^(i argument) (i argument + 1)
+			ComplexArithmetic.exp(-imag * logStrike, real * logStrike, z);
+			final double numeratorReal = z[0] * (1.0 - imag) - z[1] * real;
+			final double numeratorImag = z[0] * real + z[1] * (1.0 - imag);
+
+			// denominator = argument^2 - i argument
+			final double denominatorReal = real * real - imag * imag + imag;
+			final double denominatorImag = 2.0 * real * imag - real;
+
+			ComplexArithmetic.divide(numeratorReal, numeratorImag, denominatorReal, denominatorImag, z);
+			valueReal[i] = z[0];
+			valueImag[i] = z[1];
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.finmath.fouriermethod.products.AbstractProductFourierTransform#getMaturity()
 	 */
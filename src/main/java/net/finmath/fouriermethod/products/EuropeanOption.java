@@ -7,6 +7,8 @@ package net.finmath.fouriermethod.products;
 
 import org.apache.commons.math3.complex.Complex;
 
+import net.finmath.fouriermethod.ComplexArithmetic;
+
 /**
  * Implements valuation of a European option on a single asset.
  *
@@ -55,6 +57,29 @@ public class EuropeanOption extends AbstractFourierTransformProduct {
 		return numerator.divide(denominator).negate();
 	}
 
+	@Override
+	public void apply(final double[] argumentReal, final double[] argumentImag, final double[] valueReal, final double[] valueImag) {
+		final double logStrike = Math.log(strike);
+		final double[] z = new double[2];
+		for(int i=0; i<argumentReal.length; i++) {
+			final double real = argumentReal[i];
+			final double imag = argumentImag[i];
+
+			// numerator = strike^(i argument + 1)
+			ComplexArithmetic.exp((1.0 - imag) * logStrike, real * logStrike, z);
+			final double numeratorReal = z[0];
+			final double numeratorImag = z[1];
+
+			// denominator = argument^2 - i argument
+			final double denominatorReal = real * real - imag * imag + imag;
+			final double denominatorImag = 2.0 * real * imag - real;
+
+			ComplexArithmetic.divide(numeratorReal, numeratorImag, denominatorReal, denominatorImag, z);
+			valueReal[i] = -z[0];
+			valueImag[i] = -z[1];
+		}
+	}
+
 	@Override
 	public double getMaturity() {
 		return maturity;
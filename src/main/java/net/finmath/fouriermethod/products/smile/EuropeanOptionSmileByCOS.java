@@ -0,0 +1,72 @@
+package net.finmath.fouriermethod.products.smile;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.COSMethod;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+
+/**
+ * This class computes the prices of a collection of call options for a fixed maturity and a family of strikes.
+ *
+ * The pricing method is the COS method of Fang and Oosterlee (2008), see {@link COSMethod}.
+ * The characteristic function of the model is evaluated once (at N points, with N the number of terms) for all strikes.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class EuropeanOptionSmileByCOS extends EuropeanOptionSmile {
+
+	private final COSMethod cosMethod;
+
+	/**
+	 * Create the valuation of a smile of call options.
+	 *
+	 * @param underlyingName Name of the underlying.
+	 * @param maturity The maturity.
+	 * @param strikes The strikes.
+	 * @param cosMethod The COS method (specifying the number of terms and the truncation of the domain).
+	 */
+	public EuropeanOptionSmileByCOS(final String underlyingName, final double maturity, final double[] strikes, final COSMethod cosMethod) {
+		super(underlyingName, maturity, strikes);
+		this.cosMethod = cosMethod;
+	}
+
+	/**
+	 * Create the valuation of a smile of call options using the COS method with its default number of terms and truncation.
+	 *
+	 * @param underlyingName Name of the underlying.
+	 * @param maturity The maturity.
+	 * @param strikes The strikes.
+	 */
+	public EuropeanOptionSmileByCOS(final String underlyingName, final double maturity, final double[] strikes) {
+		this(underlyingName, maturity, strikes, new COSMethod());
+	}
+
+	/**
+	 * Create the valuation of a smile of call options using the COS method with its default number of terms and truncation.
+	 *
+	 * @param maturity The maturity.
+	 * @param strikes The strikes.
+	 */
+	public EuropeanOptionSmileByCOS(final double maturity, final double[] strikes) {
+		this(null, maturity, strikes);
+	}
+
+	@Override
+	public Map<String, Function<Double, Double>> getValue(final double evaluationTime, final CharacteristicFunctionModel model) throws CalculationException {
+		final DoubleUnaryOperator valuePerStrike = cosMethod.getEuropeanOptionValueFunction(model, getMaturity());
+
+		final HashMap<String, Function<Double, Double>> results = new HashMap<>();
+		results.put("valuePerStrike", valuePerStrike::applyAsDouble);
+		return results;
+	}
+
+	@Override
+	public EuropeanOptionSmile getCloneWithModifiedParameters(final double maturity, final double[] strikes) {
+		return new EuropeanOptionSmileByCOS(getUnderlyingName(), maturity, strikes, cosMethod);
+	}
+}
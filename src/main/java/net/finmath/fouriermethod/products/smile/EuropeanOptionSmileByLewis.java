@@ -0,0 +1,200 @@
+package net.finmath.fouriermethod.products.smile;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.CharacteristicFunction;
+import net.finmath.fouriermethod.ComplexArithmetic;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.integration.SimpsonRealIntegrator;
+
+/**
+ * This class computes the prices of a collection of call options for a fixed maturity and a family of strikes.
+ *
+ * The pricing method is the generalized Fourier transform of Lewis (2001), i.e., the value is given by
+ * \[
+ * 	\frac{1}{2\pi} \int \mathrm{Re}\left( \phi(-z) \hat{f}_{K}(z) \right) \mathrm{d}x , \quad z = x + i c,
+ * \]
+ * where \( \phi \) is the (discounted) characteristic function of the model, \( \hat{f}_{K} \) is the Fourier transform of the call payoff
+ * with strike \( K \) and the integral is calculated using Simpson's rule. This is the valuation of
+ * {@link net.finmath.fouriermethod.products.EuropeanOption}, but the characteristic function is evaluated only once for all strikes:
+ * since \( \hat{f}_{K}(z) = - K^{1-c} e^{i x \log(K)} / (z^2 - i z) \), the integrand factors into a strike independent part
+ * (calculated once) and \( K^{1-c} e^{i x \log(K)} \).
+ *
+ * Different from the FFT method ({@link EuropeanOptionSmileByCarrMadan}) the values are calculated for the given strikes, without interpolation.
+ * The additional cost per strike is a small fraction of the cost of a single evaluation of {@link net.finmath.fouriermethod.products.EuropeanOption}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class EuropeanOptionSmileByLewis extends EuropeanOptionSmile {
+
+	private static final double	DEFAULT_INTEGRATION_DOMAIN_REAL_LOWER_BOUND	= -100.0;
+	private static final double	DEFAULT_INTEGRATION_DOMAIN_REAL_UPPER_BOUND	= 100.0;
+	private static final int	DEFAULT_NUMBER_OF_EVALUATION_POINTS			= 20000;
+
+	// Number of evaluation points for which e^{i x log(K)} is calculated by a recursion (rotation) between exact evaluations
+	private static final int	ROTATION_BLOCK_SIZE = 64;
+
+	private final double	integrationDomainRealLowerBound;
+	private final double	integrationDomainRealUpperBound;
+	private final int		numberOfEvaluationPoints;
+
+	/**
+	 * Create the valuation of a smile of call options.
+	 *
+	 * @param underlyingName Name of the underlying.
+	 * @param maturity The maturity.
+	 * @param strikes The strikes.
+	 * @param integrationDomainRealLowerBound The lower bound of the integration (real part of z).
+	 * @param integrationDomainRealUpperBound The upper bound of the integration (real part of z).
+	 * @param numberOfEvaluationPoints The number of evaluation points of Simpson's rule.
+	 */
+	public EuropeanOptionSmileByLewis(final String underlyingName, final double maturity, final double[] strikes,
+			final double integrationDomainRealLowerBound, final double integrationDomainRealUpperBound, final int numberOfEvaluationPoints) {
+		super(underlyingName, maturity, strikes);
+		this.integrationDomainRealLowerBound = integrationDomainRealLowerBound;
+		this.integrationDomainRealUpperBound = integrationDomainRealUpperBound;
+		this.numberOfEvaluationPoints = numberOfEvaluationPoints;
+	}
+
+	/**
+	 * Create the valuation of a smile of call options using the integration domain and evaluation points of
+	 * {@link net.finmath.fouriermethod.products.EuropeanOption}.
+	 *
+	 * @param underlyingName Name of the underlying.
+	 * @param maturity The maturity.
+	 * @param strikes The strikes.
+	 */
+	public EuropeanOptionSmileByLewis(final String underlyingName, final double maturity, final double[] strikes) {
+		this(underlyingName, maturity, strikes, DEFAULT_INTEGRATION_DOMAIN_REAL_LOWER_BOUND, DEFAULT_INTEGRATION_DOMAIN_REAL_UPPER_BOUND, DEFAULT_NUMBER_OF_EVALUATION_POINTS);
+	}
+
+	/**
+	 * Create the valuation of a smile of call options using the integration domain and evaluation points of
+	 * {@link net.finmath.fouriermethod.products.EuropeanOption}.
+	 *
+	 * @param maturity The maturity.
+	 * @param strikes The strikes.
+	 */
+	public EuropeanOptionSmileByLewis(final double maturity, final double[] strikes) {
+		this(null, maturity, strikes);
+	}
+
+	@Override
+	public Map<String, Function<Double, Double>> getValue(final double evaluationTime, final CharacteristicFunctionModel model) throws CalculationException {
+		final StrikeIndependentIntegrand integrand = new StrikeIndependentIntegrand(model);
+
+		final HashMap<String, Function<Double, Double>> results = new HashMap<>();
+		results.put("valuePerStrike", integrand::getValue);
+		return results;
+	}
+
+	/**
+	 * Returns the values of the options for the strikes of this smile ({@link #getStrikes()}).
+	 *
+	 * @param model The model.
+	 * @return The values, where the i-th value corresponds to the i-th strike.
+	 * @throws CalculationException Thrown if the valuation failed.
+	 */
+	public double[] getValuesPerStrike(final CharacteristicFunctionModel model) throws CalculationException {
+		final StrikeIndependentIntegrand integrand = new StrikeIndependentIntegrand(model);
+		final double[] strikes = getStrikes();
+
+		return IntStream.range(0, strikes.length).parallel().mapToDouble(i -> integrand.getValue(strikes[i])).toArray();
+	}
+
+	@Override
+	public EuropeanOptionSmile getCloneWithModifiedParameters(final double maturity, final double[] strikes) {
+		return new EuropeanOptionSmileByLewis(getUnderlyingName(), maturity, strikes, integrationDomainRealLowerBound, integrationDomainRealUpperBound, numberOfEvaluationPoints);
+	}
+
+	@Override
+	public double getIntegrationDomainImagLowerBound() {
+		return 0.5;
+	}
+
+	@Override
+	public double getIntegrationDomainImagUpperBound() {
+		return 2.5;
+	}
+
+	/**
+	 * The strike independent part of the integrand, \( w_{j} \phi(-z_{j}) / (z_{j}^2 - i z_{j}) \), on the evaluation points \( z_{j} \).
+	 */
+	private class StrikeIndependentIntegrand {
+
+		private final double	lineOfIntegration;
+		private final double[]	evaluationPoints;
+		private final double[]	integrandReal;
+		private final double[]	integrandImag;
+
+		StrikeIndependentIntegrand(final CharacteristicFunctionModel model) {
+			final CharacteristicFunction modelCF = model.apply(getMaturity());
+
+			// Same line of integration as in EuropeanOption
+			lineOfIntegration = 0.5 * getIntegrationDomainImagUpperBound()+getIntegrationDomainImagLowerBound();
+
+			final SimpsonRealIntegrator integrator = new SimpsonRealIntegrator(integrationDomainRealLowerBound, integrationDomainRealUpperBound, numberOfEvaluationPoints);
+			evaluationPoints = integrator.getEvaluationPoints();
+			final double[] weights = integrator.getWeights();
+
+			final int numberOfPoints = evaluationPoints.length;
+			final double[] negatedArgumentReal = new double[numberOfPoints];
+			final double[] negatedArgumentImag = new double[numberOfPoints];
+			for(int j=0; j<numberOfPoints; j++) {
+				negatedArgumentReal[j] = -evaluationPoints[j];
+				negatedArgumentImag[j] = -lineOfIntegration;
+			}
+
+			integrandReal = new double[numberOfPoints];
+			integrandImag = new double[numberOfPoints];
+			modelCF.apply(negatedArgumentReal, negatedArgumentImag, integrandReal, integrandImag);
+
+			final double[] z = new double[2];
+			for(int j=0; j<numberOfPoints; j++) {
+				final double real = evaluationPoints[j];
+				final double imag = lineOfIntegration;
+
+				// z^2 - i z
+				final double denominatorReal = real * real - imag * imag + imag;
+				final double denominatorImag = 2.0 * real * imag - real;
+
+				ComplexArithmetic.divide(integrandReal[j], integrandImag[j], denominatorReal, denominatorImag, z);
+				integrandReal[j] = weights[j] * z[0];
+				integrandImag[j] = weights[j] * z[1];
+			}
+		}
+
+		double getValue(final double strike) {
+			final double logStrike = Math.log(strike);
+
+			/*
+			 * Sum of Re(integrand * e^{i x log(K)}). The factors e^{i x log(K)} are calculated by rotating with e^{i h log(K)},
+			 * where h is the distance of the evaluation points, re-starting with an exact evaluation every ROTATION_BLOCK_SIZE points.
+			 */
+			final double stepSize = evaluationPoints.length > 1 ? evaluationPoints[1] - evaluationPoints[0] : 0.0;
+			final double rotationReal = Math.cos(stepSize * logStrike);
+			final double rotationImag = Math.sin(stepSize * logStrike);
+
+			double sum = 0.0;
+			for(int start=0; start<evaluationPoints.length; start += ROTATION_BLOCK_SIZE) {
+				double factorReal = Math.cos(evaluationPoints[start] * logStrike);
+				double factorImag = Math.sin(evaluationPoints[start] * logStrike);
+				final int end = Math.min(start + ROTATION_BLOCK_SIZE, evaluationPoints.length);
+				for(int j=start; j<end; j++) {
+					sum += integrandReal[j] * factorReal - integrandImag[j] * factorImag;
+
+					final double nextFactorReal = factorReal * rotationReal - factorImag * rotationImag;
+					factorImag = factorReal * rotationImag + factorImag * rotationReal;
+					factorReal = nextFactorReal;
+				}
+			}
+
+			return -Math.exp((1.0 - lineOfIntegration) * logStrike) * sum / 2.0 / Math.PI;
+		}
+	}
+}
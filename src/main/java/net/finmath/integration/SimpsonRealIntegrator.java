@@ -73,4 +73,57 @@ public class SimpsonRealIntegrator extends AbstractRealIntegral{
 
 		return (integrand.applyAsDouble(lowerBound) + 2.0 * sum + integrand.applyAsDouble(upperBound)) / 3.0 * singleInterval;
 	}
+
+	/**
+	 * Returns the evaluation points \( x_{j} \) of the integration rule, such that
+	 * {@link #integrate(DoubleUnaryOperator)} equals \( \sum_{j} w_{j} f(x_{j}) \) (up to rounding),
+	 * where \( w_{j} \) are the weights returned by {@link #getWeights()}.
+	 *
+	 * This allows integrands which can be evaluated more efficiently for a vector of arguments
+	 * (or integrals of several integrands sharing a common factor) to be integrated with the same rule.
+	 *
+	 * @return The evaluation points (a new array).
+	 */
+	public double[] getEvaluationPoints() {
+		final double	lowerBound			= getLowerBound();
+		final double	upperBound			= getUpperBound();
+		final double	range				= upperBound-lowerBound;
+
+		final int		numberOfDoubleSizeIntervals	= (int) ((numberOfEvaluationPoints-1) / 2.0);
+
+		final double doubleInterval = range / numberOfDoubleSizeIntervals;
+		final double singleInterval = 0.5 * doubleInterval;
+
+		final double[] evaluationPoints = new double[2 * numberOfDoubleSizeIntervals + 1];
+		for(int i=0; i<numberOfDoubleSizeIntervals; i++) {
+			evaluationPoints[2*i]	= lowerBound + i * doubleInterval;
+			evaluationPoints[2*i+1]	= lowerBound + i * doubleInterval + singleInterval;
+		}
+		evaluationPoints[2 * numberOfDoubleSizeIntervals] = upperBound;
+
+		return evaluationPoints;
+	}
+
+	/**
+	 * Returns the weights \( w_{j} \) of the integration rule corresponding to the evaluation points
+	 * returned by {@link #getEvaluationPoints()}.
+	 *
+	 * @return The weights (a new array).
+	 */
+	public double[] getWeights() {
+		final double	range				= getUpperBound()-getLowerBound();
+
+		final int		numberOfDoubleSizeIntervals	= (int) ((numberOfEvaluationPoints-1) / 2.0);
+
+		final double doubleInterval = range / numberOfDoubleSizeIntervals;
+		final double singleInterval = 0.5 * doubleInterval;
+
+		final double[] weights = new double[2 * numberOfDoubleSizeIntervals + 1];
+		for(int j=0; j<weights.length; j++) {
+			final double factor = (j == 0 || j == weights.length-1) ? 1.0 : (j % 2 == 1 ? 4.0 : 2.0);
+			weights[j] = factor / 3.0 * singleInterval;
+		}
+
+		return weights;
+	}
 }
@@ -29,6 +29,10 @@ import net.finmath.functions.LinearAlgebra;
  * This setup comprises linear interpolation (for which the function is C<sup>0</sup>) and
  * cubic spline interpolation (for which the function is C<sup>1</sup>).
  *
+ * The interpolating functions are created lazily (without locking) upon the first call of
+ * {@link #getValue(double)} and stored as a flat table of the polynomial coefficients of each interval.
+ * The interval of a given argument is found in constant time via a uniform grid of buckets.
+ *
  * @author Christian Fries
  * @version 1.3
  */
@@ -74,68 +78,125 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 	private InterpolationMethod	interpolationMethod = InterpolationMethod.LINEAR;
 	private ExtrapolationMethod	extrapolationMethod = ExtrapolationMethod.DEFAULT;
 
-	private static class RationalFunction implements Serializable {
+	/**
+	 * The interpolating functions in a flat table: the interpolating function of the interval
+	 * [x<sub>i</sub>, x<sub>i+1</sub>] is the polynomial with the coefficients
+	 * <code>coefficients[i*numberOfCoefficients + j]</code>, j = 0, ..., numberOfCoefficients-1 (in increasing order),
+	 * evaluated at x - x<sub>i</sub>.
+	 *
+	 * The interval of a given x is found in O(1) by a lookup on a uniform grid of buckets covering
+	 * [x<sub>0</sub>, x<sub>n</sub>], storing the interval of the left end point of each bucket.
+	 *
+	 * Objects of this class are immutable.
+	 */
+	private static final class InterpolatingFunctions {
 
-		private static final long serialVersionUID = -1596026703859403853L;
+		// Maximum number of buckets per interval, limiting the size of the bucket grid for very non-uniform points
+		private static final int MAX_NUMBER_OF_BUCKETS_PER_INTERVAL = 8;
 
-		private final double[] coefficientsNumerator;
-		private final double[] coefficientsDenominator;
+		private final double[]	points;
+		private final double[]	coefficients;
+		private final int		numberOfCoefficients;
+
+		private final int[]		intervalIndexOfBucket;
+		private final double	bucketsPerUnit;
 
 		/**
-		 * Create a rational interpolation function.
+		 * Create the table of the interpolating functions.
 		 *
-		 * @param coefficientsNumerator The coefficients of the polynomial of the numerator, in increasing order.
-		 * @param coefficientsDenominator The coefficients of the polynomial of the denominator, in increasing order.
+		 * @param points The sample points (sorted).
+		 * @param polynomialCoefficients For each interval the coefficients of the interpolating polynomial, in increasing order.
 		 */
-		RationalFunction(final double[] coefficientsNumerator, final double[] coefficientsDenominator) {
-			super();
-			this.coefficientsNumerator = coefficientsNumerator;
-			this.coefficientsDenominator = coefficientsDenominator;
+		InterpolatingFunctions(final double[] points, final double[][] polynomialCoefficients) {
+			this.points = points;
+
+			final int numberOfIntervals = polynomialCoefficients.length;
+			numberOfCoefficients = numberOfIntervals > 0 ? polynomialCoefficients[0].length : 0;
+			coefficients = new double[numberOfIntervals * numberOfCoefficients];
+			for(int intervalIndex = 0; intervalIndex < numberOfIntervals; intervalIndex++) {
+				System.arraycopy(polynomialCoefficients[intervalIndex], 0, coefficients, intervalIndex * numberOfCoefficients, numberOfCoefficients);
+			}
+
+			// Create the bucket grid, with (if possible) at most one sample point per bucket
+			final double range = numberOfIntervals > 0 ? points[numberOfIntervals] - points[0] : 0.0;
+			double stepMin = Double.POSITIVE_INFINITY;
+			for(int intervalIndex = 0; intervalIndex < numberOfIntervals; intervalIndex++) {
+				final double step = points[intervalIndex+1] - points[intervalIndex];
+				if(step > 0) {
+					stepMin = Math.min(stepMin, step);
+				}
+			}
+			final int numberOfBuckets = range > 0 ? (int)Math.max(Math.min(Math.ceil(range / stepMin), (double)MAX_NUMBER_OF_BUCKETS_PER_INTERVAL * numberOfIntervals), 1) : 1;
+			bucketsPerUnit = range > 0 ? numberOfBuckets / range : 0.0;
+
+			intervalIndexOfBucket = new int[numberOfBuckets];
+			int intervalIndex = 0;
+			for(int bucketIndex = 0; bucketIndex < numberOfBuckets; bucketIndex++) {
+				final double bucketStart = points[0] + bucketIndex / bucketsPerUnit;
+				while(intervalIndex < numberOfIntervals-1 && points[intervalIndex+1] <= bucketStart) {
+					intervalIndex++;
+				}
+				intervalIndexOfBucket[bucketIndex] = intervalIndex;
+			}
 		}
 
 		/**
-		 * Create a polynomial interpolation function.
+		 * Returns the index i of the interval [x<sub>i</sub>, x<sub>i+1</sub>) containing x.
 		 *
-		 * @param coefficients The coefficients of the polynomial, in increasing order.
+		 * @param x Given argument with x<sub>0</sub> &le; x &lt; x<sub>n</sub>.
+		 * @return The index of the interval containing x.
 		 */
-		RationalFunction(final double[] coefficients) {
-			this(coefficients, null);
+		int getIntervalIndex(final double x) {
+			final int bucketIndex = Math.min((int)((x - points[0]) * bucketsPerUnit), intervalIndexOfBucket.length-1);
+			int intervalIndex = intervalIndexOfBucket[bucketIndex];
+
+			// Correct for rounding in the calculation of the bucket and move to the interval containing x
+			while(intervalIndex > 0 && x < points[intervalIndex]) {
+				intervalIndex--;
+			}
+			while(x >= points[intervalIndex+1]) {
+				intervalIndex++;
+			}
+			return intervalIndex;
 		}
 
 		/**
-		 * Returns the value for a given arguments.
+		 * Returns the value of the interpolating function of a given interval.
 		 *
-		 * @param x Given argument.
-		 * @return Returns the value for the given argument.
+		 * @param intervalIndex The index i of the interval.
+		 * @param x Given argument, relative to the left end point x<sub>i</sub> of the interval.
+		 * @return The value of the interpolating function.
 		 */
-		public double getValue(final double x)
-		{
-			double valueNumerator	= 0.0;
-			double valueDenominator	= 0.0;
-			double powerOfX	= 1.0;
+		double getValue(final int intervalIndex, final double x) {
+			final int offset = intervalIndex * numberOfCoefficients;
 
-			for (final double polynomialCoefficient : coefficientsNumerator) {
-				valueNumerator += polynomialCoefficient * powerOfX;
+			double value	= 0.0;
+			double powerOfX	= 1.0;
+			for(int coefficientIndex = offset; coefficientIndex < offset + numberOfCoefficients; coefficientIndex++) {
+				value += coefficients[coefficientIndex] * powerOfX;
 				powerOfX *= x;
 			}
+			return value;
+		}
+	}
 
-			if(coefficientsDenominator == null) {
-				return valueNumerator;
-			}
+	// The interpolated curve - a polynomial for each interval (one less than number of points), created lazily
+	private transient volatile InterpolatingFunctions interpolatingFunctions;
 
-			powerOfX	= 1.0;
-			for (final double polynomialCoefficient : coefficientsDenominator) {
-				valueDenominator += polynomialCoefficient * powerOfX;
-				powerOfX *= x;
-			}
+	/**
+	 * The interpolating function of an interval as stored by earlier versions of this class.
+	 * It is only kept such that objects serialized by these versions can be deserialized.
+	 */
+	private static class RationalFunction implements Serializable {
 
-			return valueNumerator/valueDenominator;
-		}
+		private static final long serialVersionUID = -1596026703859403853L;
+
+		private double[] coefficientsNumerator;
+		private double[] coefficientsDenominator;
 	}
 
-	// The interpolated curve - a rational function for each interval (one less than number of points)
+	// The interpolated curve of earlier versions of this class, discarded upon deserialization (the curve is re-created lazily)
 	private RationalFunction[]	interpolatingRationalFunctions;
-	private transient Object		interpolatingRationalFunctionsLazyInitLock = new Object();
 
 	/**
 	 * Generate a rational function interpolation from a given set of points.
@@ -183,22 +244,32 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 	 */
 	public double getValue(final double x)
 	{
-		synchronized(interpolatingRationalFunctionsLazyInitLock) {
-			if(interpolatingRationalFunctions == null) {
-				doCreateRationalFunctions();
-			}
-		}
+		return getValue(getInterpolatingFunctions(), x);
+	}
 
-		// Get interpolating rational function for the given point x
-		final int pointIndex = java.util.Arrays.binarySearch(points, x);
-		if(pointIndex >= 0) {
-			return values[pointIndex];
+	/**
+	 * Get interpolated values for a given vector of arguments x.
+	 *
+	 * @param x The abscissas at which the interpolation should be performed.
+	 * @return The interpolated values (ordinates).
+	 */
+	public double[] getValues(final double[] x)
+	{
+		final InterpolatingFunctions functions = getInterpolatingFunctions();
+
+		final double[] values = new double[x.length];
+		for(int i=0; i<x.length; i++) {
+			values[i] = getValue(functions, x[i]);
 		}
+		return values;
+	}
 
-		int intervalIndex = -pointIndex-2;
+	private double getValue(final InterpolatingFunctions functions, final double x)
+	{
+		final int lastPointIndex = points.length-1;
 
-		// Check for extrapolation
-		if(intervalIndex < 0) {
+		int intervalIndex;
+		if(x < points[0]) {
 			// Extrapolation
 			if(extrapolationMethod == ExtrapolationMethod.CONSTANT) {
 				return values[0];
@@ -208,60 +279,74 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 				intervalIndex = 0;
 			}
 		}
-		else if(intervalIndex > points.length-2) {
-			// Extrapolation
+		else if(!(x <= points[lastPointIndex])) {
+			// Extrapolation (also applied to NaN)
 			if(extrapolationMethod == ExtrapolationMethod.CONSTANT) {
-				return values[points.length-1];
+				return values[lastPointIndex];
 			} else if(extrapolationMethod == ExtrapolationMethod.LINEAR) {
-				return values[points.length-1]+(values[points.length-2]-values[points.length-1])/(points[points.length-2]-points[points.length-1])*(x-points[points.length-1]);
+				return values[lastPointIndex]+(values[lastPointIndex-1]-values[lastPointIndex])/(points[lastPointIndex-1]-points[lastPointIndex])*(x-points[lastPointIndex]);
 			} else {
-				intervalIndex = points.length-2;
+				intervalIndex = lastPointIndex-1;
+			}
+		}
+		else if(x == points[lastPointIndex]) {
+			return values[lastPointIndex];
+		}
+		else {
+			intervalIndex = functions.getIntervalIndex(x);
+			if(x == points[intervalIndex]) {
+				return values[intervalIndex];
 			}
 		}
-
-		final RationalFunction rationalFunction = interpolatingRationalFunctions[intervalIndex];
 
 		// Calculate interpolating value
-		return rationalFunction.getValue(x-points[intervalIndex]);
+		return functions.getValue(intervalIndex, x-points[intervalIndex]);
+	}
+
+	private InterpolatingFunctions getInterpolatingFunctions()
+	{
+		/*
+		 * Lazy initialization without lock: the functions depend only on the (final) points and values,
+		 * concurrent initializations create identical (immutable) objects.
+		 */
+		InterpolatingFunctions functions = interpolatingFunctions;
+		if(functions == null) {
+			functions = new InterpolatingFunctions(points, createPolynomialCoefficients());
+			interpolatingFunctions = functions;
+		}
+		return functions;
 	}
 
-	private void doCreateRationalFunctions()
+	private double[][] createPolynomialCoefficients()
 	{
 		switch(interpolationMethod)
 		{
 		case PIECEWISE_CONSTANT:
 		case PIECEWISE_CONSTANT_LEFTPOINT:
 		case PIECEWISE_CONSTANT_RIGHTPOINT:
-			doCreateRationalFunctionsForPiecewiseConstantInterpolation();
-			break;
+			return createPolynomialCoefficientsForPiecewiseConstantInterpolation();
 		case LINEAR:
 		default:
-			doCreateRationalFunctionsForLinearInterpolation();
-			break;
+			return createPolynomialCoefficientsForLinearInterpolation();
 		case CUBIC_SPLINE:
-			doCreateRationalFunctionsForCubicSplineInterpolation();
-			break;
+			return createPolynomialCoefficientsForCubicSplineInterpolation();
 		case AKIMA:
-			doCreateRationalFunctionsForAkimaInterpolation();
-			break;
+			return createPolynomialCoefficientsForAkimaInterpolation();
 		case AKIMA_CONTINUOUS:
-			doCreateRationalFunctionsForAkimaInterpolation(1E-02);
-			break;
+			return createPolynomialCoefficientsForAkimaInterpolation(1E-02);
 		case HARMONIC_SPLINE:
-			doCreateRationalFunctionsForHarmonicSplineInterpolation();
-			break;
+			return createPolynomialCoefficientsForHarmonicSplineInterpolation();
 		case HARMONIC_SPLINE_WITH_MONOTONIC_FILTERING:
-			doCreateRationalFunctionsForHarmonicSplineInterpolation();
-			break;
+			return createPolynomialCoefficientsForHarmonicSplineInterpolation();
 		}
 	}
 
-	private void doCreateRationalFunctionsForPiecewiseConstantInterpolation()
+	private double[][] createPolynomialCoefficientsForPiecewiseConstantInterpolation()
 	{
 		/*
 		 * Generate a rational function for each given interval
 		 */
-		interpolatingRationalFunctions = new RationalFunction[points.length-1];
+		final double[][] polynomialCoefficients = new double[points.length-1][];
 
 		// create numerator polynomials (constant)
 		for(int pointIndex = 0; pointIndex < points.length-1; pointIndex++ ) {
@@ -271,11 +356,12 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 			} else {
 				numeratorPolynomCoeff = new double[] {values[pointIndex]};
 			}
-			interpolatingRationalFunctions[pointIndex] = new RationalFunction(numeratorPolynomCoeff);
+			polynomialCoefficients[pointIndex] = numeratorPolynomCoeff;
 		}
+		return polynomialCoefficients;
 	}
 
-	private void doCreateRationalFunctionsForLinearInterpolation()
+	private double[][] createPolynomialCoefficientsForLinearInterpolation()
 	{
 		if(points.length == 0) {
 			throw new IllegalArgumentException("Interpolation requested on curve with no points.");
@@ -284,7 +370,7 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 		/*
 		 * Generate a rational function for each given interval
 		 */
-		interpolatingRationalFunctions = new RationalFunction[points.length-1];
+		final double[][] polynomialCoefficients = new double[points.length-1][];
 
 		// create numerator polynomials (linear)
 		for(int pointIndex = 0; pointIndex < points.length-1; pointIndex++ ) {
@@ -299,11 +385,12 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 			numeratorPolynomCoeff[1] = (fr-fl) / (xr-xl);
 			numeratorPolynomCoeff[0] = fl;
 
-			interpolatingRationalFunctions[pointIndex] = new RationalFunction(numeratorPolynomCoeff);
+			polynomialCoefficients[pointIndex] = numeratorPolynomCoeff;
 		}
+		return polynomialCoefficients;
 	}
 
-	private void doCreateRationalFunctionsForCubicSplineInterpolation()
+	private double[][] createPolynomialCoefficientsForCubicSplineInterpolation()
 	{
 		final int numberOfPoints = points.length;
 
@@ -348,7 +435,7 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 		/*
 		 * Generate a rational function for each given interval
 		 */
-		interpolatingRationalFunctions = new RationalFunction[numberOfPoints-1];
+		final double[][] polynomialCoefficients = new double[numberOfPoints-1][];
 
 		// create numerator polynomials (third order polynomial)
 		for(int i = 0; i < numberOfPoints-1; i++ ) {
@@ -359,22 +446,23 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 			numeratortorPolynomCoeff[2] = secondDerivativeVector[i] / 2;
 			numeratortorPolynomCoeff[3] = (secondDerivativeVector[i+1] - secondDerivativeVector[i]) / (6*step[i]);
 
-			interpolatingRationalFunctions[i] = new RationalFunction(numeratortorPolynomCoeff);
+			polynomialCoefficients[i] = numeratortorPolynomCoeff;
 		}
+		return polynomialCoefficients;
 	}
 
-	private void doCreateRationalFunctionsForAkimaInterpolation()
+	private double[][] createPolynomialCoefficientsForAkimaInterpolation()
 	{
-		doCreateRationalFunctionsForAkimaInterpolation(0.0);
+		return createPolynomialCoefficientsForAkimaInterpolation(0.0);
 	}
 
-	private void doCreateRationalFunctionsForAkimaInterpolation(final double minSlopeDifferenceWeight)
+	private double[][] createPolynomialCoefficientsForAkimaInterpolation(final double minSlopeDifferenceWeight)
 	{
 		final int numberOfPoints = points.length;
 
 		if(numberOfPoints < 4) {
 			// Akima interpolation not possible
-			doCreateRationalFunctionsForCubicSplineInterpolation();
+			return createPolynomialCoefficientsForCubicSplineInterpolation();
 		}
 		else {
 			// Calculate slopes
@@ -435,7 +523,7 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 			/*
 			 * Generate a rational function for each given interval
 			 */
-			interpolatingRationalFunctions = new RationalFunction[numberOfPoints-1];
+			final double[][] polynomialCoefficients = new double[numberOfPoints-1][];
 
 			// create numerator polynomials (third order polynomial)
 			for(int i = 0; i < numberOfPoints-1; i++ ) {
@@ -446,12 +534,13 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 				numeratorPolynomCoeff[2] = (3*slope[i] - 2*derivative[i] - derivative[i+1]) / step[i];
 				numeratorPolynomCoeff[3] = (derivative[i] + derivative[i+1] - 2*slope[i]) / (step[i] * step[i]);
 
-				interpolatingRationalFunctions[i] = new RationalFunction(numeratorPolynomCoeff);
+				polynomialCoefficients[i] = numeratorPolynomCoeff;
 			}
+			return polynomialCoefficients;
 		}
 	}
 
-	private void doCreateRationalFunctionsForHarmonicSplineInterpolation(){
+	private double[][] createPolynomialCoefficientsForHarmonicSplineInterpolation(){
 		final int numberOfPoints = points.length;
 
 		// Calculate parameters
@@ -512,7 +601,7 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 		/*
 		 * Generate a rational function for each given interval
 		 */
-		interpolatingRationalFunctions = new RationalFunction[numberOfPoints-1];
+		final double[][] polynomialCoefficients = new double[numberOfPoints-1][];
 
 		// create numerator polynomials (third order polynomial)
 		for(int i = 0; i < numberOfPoints-1; i++ ) {
@@ -523,9 +612,10 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 			numeratortorPolynomCoeff[2] = (3*slope[i] - 2*derivative[i] - derivative[i+1]) / step[i];
 			numeratortorPolynomCoeff[3] = (derivative[i] + derivative[i+1] - 2*slope[i]) / (step[i] * step[i]);
 
-			interpolatingRationalFunctions[i] = new RationalFunction(numeratortorPolynomCoeff);
+			polynomialCoefficients[i] = numeratortorPolynomCoeff;
 		}
 
+		return polynomialCoefficients;
 	}
 
 
@@ -607,7 +697,7 @@ public class RationalFunctionInterpolation implements DoubleUnaryOperator, Seria
 
 	private void readObject(final java.io.ObjectInputStream in) throws ClassNotFoundException, IOException {
 		in.defaultReadObject();
-		// initialization of transients
-		interpolatingRationalFunctionsLazyInitLock = new Object();
+		// the interpolated curve of earlier versions is not used
+		interpolatingRationalFunctions = null;
 	}
 }
@@ -7,6 +7,7 @@ package net.finmath.marketdata.calibration;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,9 @@ import net.finmath.marketdata.products.Deposit;
 import net.finmath.marketdata.products.ForwardRateAgreement;
 import net.finmath.marketdata.products.Swap;
 import net.finmath.marketdata.products.SwapLeg;
+import net.finmath.optimizer.LevenbergMarquardt;
+import net.finmath.optimizer.OptimizerFactory;
+import net.finmath.optimizer.OptimizerFactoryLevenbergMarquardt;
 import net.finmath.optimizer.SolverException;
 import net.finmath.time.RegularSchedule;
 import net.finmath.time.Schedule;
@@ -83,6 +87,10 @@ import net.finmath.time.TimeDiscretizationFromArray;
  * 	</tr>
  * </table>
  *
+ * For a recalibration to (a few) changed quotes, e.g., on a market data tick, use {@link #getCloneRecalibrated(Map)}:
+ * it starts the solver from the calibrated curves, reuses the calibration products of the unchanged quotes and
+ * recalibrates only the curves depending on the changed quotes.
+ *
  * For a demo spreadsheet using this class see <a href="http://finmath.net/topics/curvecalibration/">finmath.net/topics/curvecalibration/</a>.
  *
  * @author Christian Fries
@@ -90,6 +98,13 @@ import net.finmath.time.TimeDiscretizationFromArray;
  */
 public class CalibratedCurves {
 
+	/*
+	 * Settings of the Levenberg-Marquardt solver used in getCloneRecalibrated: the solver starts from the
+	 * calibrated curves, hence a small regularization parameter is used.
+	 */
+	private static final double	RECALIBRATION_LAMBDA			= 1E-8;
+	private static final int	RECALIBRATION_MAX_ITERATIONS	= 1000;
+
 	private static final boolean isUseForwardCurve;
 	private static final boolean isCreateDefaultCurvesForMissingCurves;
 	static {
@@ -439,6 +454,82 @@ public class CalibratedCurves {
 		this(calibrationSpecs, null, 0.0);
 	}
 
+	/**
+	 * Recalibrate given calibrated curves to shifted quotes, starting from the calibrated curves.
+	 *
+	 * Only the curves depending on the shifted quotes are recalibrated, i.e., the calibration curves of the
+	 * shifted calibration specs and (recursively) the calibration curves of calibration specs using one of these curves.
+	 * The calibration products of the other calibration specs are reused.
+	 *
+	 * @param calibratedCurves The calibrated curves.
+	 * @param shifts A map of shifts associating each symbol with a shifts. If symbols are not part of this map, they remain unshifted.
+	 * @throws SolverException May be thrown if the solver does not cannot find a solution of the calibration problem.
+	 */
+	private CalibratedCurves(final CalibratedCurves calibratedCurves, final Map<String,Double> shifts) throws SolverException {
+		model = calibratedCurves.model;
+		evaluationTime = calibratedCurves.evaluationTime;
+		calibrationAccuracy = calibratedCurves.calibrationAccuracy;
+
+		// Shift the calibration specs, creating the calibration products of the shifted specs only
+		final Set<String> curvesToRecalibrate = new LinkedHashSet<>();
+		for(int i=0; i<calibratedCurves.calibrationSpecs.size(); i++) {
+			final CalibrationSpec calibrationSpec = calibratedCurves.calibrationSpecs.get(i);
+			final Double shift = shifts.get(calibrationSpec.symbol);
+			if(shift != null) {
+				final CalibrationSpec calibrationSpecShifted = calibrationSpec.getCloneShifted(shift);
+				calibrationSpecs.add(calibrationSpecShifted);
+				calibrationProducts.add(getCalibrationProductForSpec(calibrationSpecShifted));
+				curvesToRecalibrate.add(calibrationSpec.calibrationCurveName);
+			}
+			else {
+				calibrationSpecs.add(calibrationSpec);
+				calibrationProducts.add(calibratedCurves.calibrationProducts.get(i));
+			}
+			calibrationProductsSymbols.add(calibrationSpec.symbol);
+		}
+
+		// Add the curves calibrated to products which depend on a curve to recalibrate
+		boolean isCurveAdded = !curvesToRecalibrate.isEmpty();
+		while(isCurveAdded) {
+			isCurveAdded = false;
+			for(final CalibrationSpec calibrationSpec : calibrationSpecs) {
+				if(!curvesToRecalibrate.contains(calibrationSpec.calibrationCurveName) && !Collections.disjoint(getCurveNamesForSpec(calibrationSpec), curvesToRecalibrate)) {
+					curvesToRecalibrate.add(calibrationSpec.calibrationCurveName);
+					isCurveAdded = true;
+				}
+			}
+		}
+
+		final Vector<AnalyticProduct> calibrationProductsToRecalibrate = new Vector<>();
+		for(int i=0; i<calibrationSpecs.size(); i++) {
+			if(curvesToRecalibrate.contains(calibrationSpecs.get(i).calibrationCurveName)) {
+				calibrationProductsToRecalibrate.add(calibrationProducts.get(i));
+			}
+		}
+
+		final Set<ParameterObject> objectsToRecalibrate = new LinkedHashSet<>();
+		for(final String curveName : curvesToRecalibrate) {
+			objectsToRecalibrate.add(model.getCurve(curveName));
+		}
+
+		if(objectsToRecalibrate.isEmpty()) {
+			lastNumberOfInterations = 0;
+			lastAccuracy = calibratedCurves.lastAccuracy;
+		}
+		else {
+			// Starting from the calibrated curves, the solver may take (almost) Gauss-Newton steps
+			final int maxThreads = 2 * Math.max(Runtime.getRuntime().availableProcessors(), 1);
+			final OptimizerFactory optimizerFactory = new OptimizerFactoryLevenbergMarquardt(LevenbergMarquardt.RegularizationMethod.LEVENBERG_MARQUARDT, RECALIBRATION_LAMBDA, RECALIBRATION_MAX_ITERATIONS, calibrationAccuracy, maxThreads);
+			final Solver solver = new Solver(model, calibrationProductsToRecalibrate, null, null, evaluationTime, optimizerFactory);
+			lastNumberOfInterations = calibrate(solver, objectsToRecalibrate);
+		}
+
+		// The calibrated objects are the curves of the recalibrated model
+		for(final ParameterObject objectToCalibrate : calibratedCurves.objectsToCalibrate) {
+			objectsToCalibrate.add(objectToCalibrate instanceof Curve ? model.getCurve(((Curve)objectToCalibrate).getName()) : objectToCalibrate);
+		}
+	}
+
 	public AnalyticProduct getCalibrationProductForSpec(final CalibrationSpec calibrationSpec) {
 		String forwardCurveReceiverName = calibrationSpec.forwardCurveReceiverName;
 		String forwardCurvePayerName	= calibrationSpec.forwardCurvePayerName;
@@ -592,8 +683,8 @@ public class CalibratedCurves {
 		// Clone calibration specs, shifting the desired symbol
 		final List<CalibrationSpec> calibrationSpecsShifted = new ArrayList<>();
 		for(final CalibrationSpec calibrationSpec : calibrationSpecs) {
-			if(shifts.containsKey(calibrationSpec)) {
-				calibrationSpecsShifted.add(calibrationSpec.getCloneShifted(shifts.get(calibrationSpec)));
+			if(shifts.containsKey(calibrationSpec.symbol)) {
+				calibrationSpecsShifted.add(calibrationSpec.getCloneShifted(shifts.get(calibrationSpec.symbol)));
 			}
 			else {
 				calibrationSpecsShifted.add(calibrationSpec);
@@ -603,6 +694,29 @@ public class CalibratedCurves {
 		return new CalibratedCurves(calibrationSpecsShifted, model, evaluationTime, calibrationAccuracy);
 	}
 
+	/**
+	 * Returns the set curves recalibrated to "shifted" market data, that is,
+	 * the market date of <code>this</code> object, modified by the shifts
+	 * provided to this methods.
+	 *
+	 * In contrast to {@link #getCloneShifted(Map)} this method performs an incremental recalibration:
+	 * the solver starts from the curves calibrated in <code>this</code> object, the calibration products
+	 * (and their schedules) of unshifted symbols are reused and only the curves depending on the shifted
+	 * symbols are recalibrated, that is, the calibration curves of the shifted symbols and the calibration
+	 * curves of all calibration products which (recursively) use one of these curves. All other curves
+	 * remain unchanged.
+	 *
+	 * The dependency of a calibration product on a curve is determined from the curve names of its
+	 * <code>CalibrationSpec</code> (resolving forward curves given by a {@link ForwardCurveFromDiscountCurve}).
+	 *
+	 * @param shifts A map of shifts associating each symbol with a shifts. If symbols are not part of this map, they remain unshifted.
+	 * @return A new set of calibrated curves, calibrated to shifted market data.
+	 * @throws SolverException The likely cause of this exception is a failure of the solver used in the calibration.
+	 */
+	public CalibratedCurves getCloneRecalibrated(final Map<String,Double> shifts) throws SolverException {
+		return new CalibratedCurves(this, shifts);
+	}
+
 	/**
 	 * Returns the set curves calibrated to "shifted" market data, that is,
 	 * the market date of <code>this</code> object, modified by the shifts
@@ -690,6 +804,10 @@ public class CalibratedCurves {
 
 	private int calibrate(final double accuracy) throws SolverException {
 		final Solver solver = new Solver(model, calibrationProducts, evaluationTime, accuracy);
+		return calibrate(solver, objectsToCalibrate);
+	}
+
+	private int calibrate(final Solver solver, final Set<ParameterObject> objectsToCalibrate) throws SolverException {
 		model = solver.getCalibratedModel(objectsToCalibrate);
 
 		lastAccuracy = solver.getAccuracy();
@@ -749,6 +867,29 @@ public class CalibratedCurves {
 		return calibrationSpec.type;
 	}
 
+	/**
+	 * Returns the names of the curves used by the calibration product of a calibration spec.
+	 * For a forward curve given by a {@link ForwardCurveFromDiscountCurve} the name of its reference discount curve is added.
+	 *
+	 * @param calibrationSpec The spec of the calibration product.
+	 * @return The names of the curves used by the calibration product.
+	 */
+	private Set<String> getCurveNamesForSpec(final CalibrationSpec calibrationSpec) {
+		final Set<String> curveNames = new LinkedHashSet<>();
+		for(final String curveName : new String[] { calibrationSpec.discountCurveReceiverName, calibrationSpec.forwardCurveReceiverName, calibrationSpec.discountCurvePayerName, calibrationSpec.forwardCurvePayerName }) {
+			if(curveName == null || curveName.isEmpty()) {
+				continue;
+			}
+			curveNames.add(curveName);
+
+			final Curve curve = model.getCurve(curveName);
+			if(curve instanceof ForwardCurveFromDiscountCurve) {
+				curveNames.add(((ForwardCurveFromDiscountCurve)curve).getReferenceDiscountCurveForForwardsName());
+			}
+		}
+		return curveNames;
+	}
+
 	/**
 	 * Get a discount curve from the model, if not existing create a discount curve.
 	 *
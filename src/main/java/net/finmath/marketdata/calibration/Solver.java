@@ -5,13 +5,22 @@
  */
 package net.finmath.marketdata.calibration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Vector;
 
 import net.finmath.marketdata.model.AnalyticModel;
+import net.finmath.marketdata.model.curves.DiscountCurve;
+import net.finmath.marketdata.model.curves.ForwardCurve;
 import net.finmath.marketdata.products.AnalyticProduct;
+import net.finmath.marketdata.products.AnalyticProductWithCurveSensitivities;
 import net.finmath.optimizer.Optimizer;
 import net.finmath.optimizer.OptimizerFactory;
 import net.finmath.optimizer.OptimizerFactoryLevenbergMarquardt;
@@ -28,11 +37,28 @@ import net.finmath.optimizer.SolverException;
  * The calibration is performed as a multi-threaded global optimization.
  * I will greatly profit from a multi-core architecture.
  *
+ * If all calibration products implement {@link AnalyticProductWithCurveSensitivities} (and no parameter
+ * transformation is used), the Jacobian of the calibration products' values with respect to the parameters
+ * is calculated from the analytic sensitivities of the products with respect to the curve values
+ * (discount factors and forwards), such that the optimizer does not need to re-value the products for each parameter.
+ * This can be disabled by setting the system property
+ * <code>net.finmath.marketdata.calibration.Solver.isUseCurveSensitivities</code> to <code>false</code>.
+ *
  * @author Christian Fries
  * @version 1.0
  */
 public class Solver {
 
+	private static final boolean isUseCurveSensitivities;
+	static {
+		// Default value is true
+		isUseCurveSensitivities = Boolean.parseBoolean(System.getProperty("net.finmath.marketdata.calibration.Solver.isUseCurveSensitivities","true"));
+	}
+
+	private static final double GOLDEN_RATIO_CONJUGATE = 0.6180339887498949;
+	// Relative shift of a parameter used to detect dependencies of curve values below the precision of the finite differences
+	private static final double DEPENDENCY_DETECTION_SHIFT = 1E-4;
+
 	private final AnalyticModel			model;
 	private final List<AnalyticProduct>	calibrationProducts;
 	private final List<Double>						calibrationTargetValues;
@@ -161,32 +187,29 @@ public class Solver {
 		java.util.Arrays.fill(ones, 1.0);
 		java.util.Arrays.fill(lowerBound, Double.NEGATIVE_INFINITY);
 		java.util.Arrays.fill(upperBound, Double.POSITIVE_INFINITY);
-		final Optimizer.ObjectiveFunction objectiveFunction = new Optimizer.ObjectiveFunction() {
-			@Override
-			public void setValues(final double[] parameters, final double[] values) throws SolverException {
-				double[] modelParameters = parameters;
-				try {
-					if(parameterTransformation != null) {
-						modelParameters = parameterTransformation.getParameter(parameters);
-						// Copy back the parameter constrain to inform the optimizer
-						System.arraycopy(parameterTransformation.getSolverParameter(modelParameters), 0, parameters, 0, parameters.length);
-					}
+		final Optimizer.ObjectiveFunction objectiveFunction;
+		if(isUseCurveSensitivities && parameterTransformation == null && isCurveSensitivitiesSupported()) {
+			final JacobianFromCurveSensitivities jacobian = new JacobianFromCurveSensitivities(objectsToCalibrate, parameterAggregate);
+			objectiveFunction = new Optimizer.DerivativeObjectiveFunction() {
+				@Override
+				public void setValues(final double[] parameters, final double[] values) throws SolverException {
+					Solver.this.setValues(parameterAggregate, parameters, values);
+				}
 
-					final Map<ParameterObject, double[]> curvesParameterPairs = parameterAggregate.getObjectsToModifyForParameter(modelParameters);
-					final AnalyticModel modelClone = model.getCloneForParameter(curvesParameterPairs);
-					for(int i=0; i<calibrationProducts.size(); i++) {
-						values[i] = calibrationProducts.get(i).getValue(evaluationTime, modelClone);
-					}
-					if(calibrationTargetValues != null) {
-						for(int i=0; i<calibrationTargetValues.size(); i++) {
-							values[i] -= calibrationTargetValues.get(i);
-						}
-					}
-				} catch (final CloneNotSupportedException e) {
-					throw new SolverException(e);
+				@Override
+				public void setDerivatives(final double[] parameters, final double[][] derivatives) throws SolverException {
+					jacobian.setDerivatives(parameters, derivatives);
 				}
-			}
-		};
+			};
+		}
+		else {
+			objectiveFunction = new Optimizer.ObjectiveFunction() {
+				@Override
+				public void setValues(final double[] parameters, final double[] values) throws SolverException {
+					Solver.this.setValues(parameterAggregate, parameters, values);
+				}
+			};
+		}
 
 		if(optimizerFactory == null) {
 			final int maxThreads		= Math.min(2 * Math.max(Runtime.getRuntime().availableProcessors(), 1), initialParameters.length);
@@ -225,6 +248,39 @@ public class Solver {
 		return calibratedModel;
 	}
 
+	private void setValues(final ParameterAggregation<ParameterObject> parameterAggregate, final double[] parameters, final double[] values) throws SolverException {
+		double[] modelParameters = parameters;
+		try {
+			if(parameterTransformation != null) {
+				modelParameters = parameterTransformation.getParameter(parameters);
+				// Copy back the parameter constrain to inform the optimizer
+				System.arraycopy(parameterTransformation.getSolverParameter(modelParameters), 0, parameters, 0, parameters.length);
+			}
+
+			final Map<ParameterObject, double[]> curvesParameterPairs = parameterAggregate.getObjectsToModifyForParameter(modelParameters);
+			final AnalyticModel modelClone = model.getCloneForParameter(curvesParameterPairs);
+			for(int i=0; i<calibrationProducts.size(); i++) {
+				values[i] = calibrationProducts.get(i).getValue(evaluationTime, modelClone);
+			}
+			if(calibrationTargetValues != null) {
+				for(int i=0; i<calibrationTargetValues.size(); i++) {
+					values[i] -= calibrationTargetValues.get(i);
+				}
+			}
+		} catch (final CloneNotSupportedException e) {
+			throw new SolverException(e);
+		}
+	}
+
+	private boolean isCurveSensitivitiesSupported() {
+		for(final AnalyticProduct calibrationProduct : calibrationProducts) {
+			if(!(calibrationProduct instanceof AnalyticProductWithCurveSensitivities) || !((AnalyticProductWithCurveSensitivities)calibrationProduct).isCurveSensitivitiesSupported()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Returns the number of iterations required in the last solver step.
 	 *
@@ -242,4 +298,354 @@ public class Solver {
 	public double getAccuracy() {
 		return accuracy;
 	}
+
+	/**
+	 * Calculates the derivatives of the calibration products' values with respect to the parameters as
+	 * the product of the (analytic) sensitivities of the products with respect to the curve values q
+	 * (discount factors and forwards) and the derivatives dq/dp of the curve values with respect to the parameters.
+	 * The latter are calculated by finite differences, valuing only the (distinct) curve values instead of the products.
+	 *
+	 * The matrix dq/dp is sparse: a curve value depends only on the parameters of the curves it is calculated from and,
+	 * for local interpolation methods, only on the parameters close to its time. In the first calculation, the curve values
+	 * depending on a parameter object are determined from a shift of all its parameters and each parameter is shifted individually
+	 * (where a curve value depending on the parameter object is not changed by the finite difference, the parameter is shifted again by a larger amount).
+	 * From the resulting sparsity pattern, the parameters are grouped such that the parameters of a group do not share a curve value.
+	 * Subsequent calculations shift all parameters of a group at once (column compression of the sparse Jacobian),
+	 * as long as the products use the same curve values. If the shift of a group does not change a curve value which depends
+	 * on it (e.g. since the curve value became flat in a parameter), the sparsity pattern may have changed and it is determined anew.
+	 */
+	private class JacobianFromCurveSensitivities {
+
+		private final Set<ParameterObject>						objectsToCalibrate;
+		private final ParameterAggregation<ParameterObject>	parameterAggregate;
+
+		// The parameter object and the index within the parameter object for each parameter
+		private final ParameterObject[]	parameterObjectOfParameter;
+		private final int[]				indexInParameterObjectOfParameter;
+
+		// The curve values for which the parameter groups have been determined
+		private CurveValue[]	curveValuesOfParameterGroups;
+		// parameterGroups[g] are the parameters of group g
+		private int[][]			parameterGroups;
+		// curveValuesOfGroup[g][k] depends on the parameter parametersOfCurveValuesOfGroup[g][k] of group g
+		private int[][]			curveValuesOfGroup;
+		private int[][]			parametersOfCurveValuesOfGroup;
+
+		JacobianFromCurveSensitivities(final Set<ParameterObject> objectsToCalibrate, final ParameterAggregation<ParameterObject> parameterAggregate) {
+			this.objectsToCalibrate = objectsToCalibrate;
+			this.parameterAggregate = parameterAggregate;
+
+			final int numberOfParameters = parameterAggregate.getParameter().length;
+			parameterObjectOfParameter = new ParameterObject[numberOfParameters];
+			indexInParameterObjectOfParameter = new int[numberOfParameters];
+			int parameterIndex = 0;
+			for(final ParameterObject parameterObject : objectsToCalibrate) {
+				final double[] objectParameters = parameterObject.getParameter();
+				if(objectParameters == null) {
+					continue;
+				}
+				for(int i=0; i<objectParameters.length; i++) {
+					parameterObjectOfParameter[parameterIndex] = parameterObject;
+					indexInParameterObjectOfParameter[parameterIndex] = i;
+					parameterIndex++;
+				}
+			}
+		}
+
+		void setDerivatives(final double[] parameters, final double[][] derivatives) throws SolverException {
+			try {
+				final Map<ParameterObject, double[]> curvesParameterPairs = parameterAggregate.getObjectsToModifyForParameter(parameters);
+				final AnalyticModel modelClone = model.getCloneForParameter(curvesParameterPairs);
+
+				// Sensitivities of the products with respect to the curve values
+				final CurveValueSensitivities curveValueSensitivities = new CurveValueSensitivities(calibrationProducts.size());
+				for(int productIndex=0; productIndex<calibrationProducts.size(); productIndex++) {
+					curveValueSensitivities.productIndex = productIndex;
+					((AnalyticProductWithCurveSensitivities)calibrationProducts.get(productIndex)).addCurveSensitivities(evaluationTime, modelClone, 1.0, curveValueSensitivities);
+				}
+				final CurveValue[] curveValues = curveValueSensitivities.sensitivities.keySet().toArray(new CurveValue[0]);
+				final double[][] sensitivities = curveValueSensitivities.sensitivities.values().toArray(new double[0][]);
+
+				final double[] curveValuesCurrent = new double[curveValues.length];
+				for(int curveValueIndex=0; curveValueIndex<curveValues.length; curveValueIndex++) {
+					curveValuesCurrent[curveValueIndex] = curveValues[curveValueIndex].getValue(modelClone);
+				}
+
+				final double[] parameterFiniteDifferences = new double[parameters.length];
+				for(int parameterIndex=0; parameterIndex<parameters.length; parameterIndex++) {
+					parameterFiniteDifferences[parameterIndex] = (Math.abs(parameters[parameterIndex]) + 1) * 1E-8;
+				}
+
+				for(final double[] derivative : derivatives) {
+					Arrays.fill(derivative, 0.0);
+				}
+
+				boolean isSparsityPatternValid = false;
+				if(Arrays.equals(curveValues, curveValuesOfParameterGroups)) {
+					isSparsityPatternValid = setDerivatives(curvesParameterPairs, modelClone, curveValues, curveValuesCurrent, sensitivities, parameterFiniteDifferences,
+							parameterGroups, curveValuesOfGroup, parametersOfCurveValuesOfGroup, null, derivatives);
+					if(!isSparsityPatternValid) {
+						for(final double[] derivative : derivatives) {
+							Arrays.fill(derivative, 0.0);
+						}
+					}
+				}
+
+				if(!isSparsityPatternValid) {
+					// Shift each parameter individually, considering only the curve values depending on its parameter object
+					final int[][] parameterGroupsOfSingleParameters = new int[parameters.length][];
+					final int[][] curveValuesOfSingleParameters = new int[parameters.length][];
+					final int[][] parametersOfCurveValuesOfSingleParameters = new int[parameters.length][];
+					int parameterIndex = 0;
+					for(final ParameterObject parameterObject : objectsToCalibrate) {
+						final double[] objectParameters = curvesParameterPairs.get(parameterObject);
+						if(objectParameters == null) {
+							continue;
+						}
+
+						/*
+						 * Determine the curve values depending on this parameter object. The shifts of the parameters are
+						 * irregular, since a uniform shift may not change some curve values (e.g. forwards from a log-linear discount curve).
+						 */
+						final double[] objectParametersShifted = objectParameters.clone();
+						for(int i=0; i<objectParameters.length; i++) {
+							objectParametersShifted[i] += parameterFiniteDifferences[parameterIndex + i] * (1.0 + (i * GOLDEN_RATIO_CONJUGATE) % 1.0);
+						}
+						final AnalyticModel modelShifted = modelClone.getCloneForParameter(Collections.singletonMap(parameterObject, objectParametersShifted));
+						final int[] dependentCurveValues = new int[curveValues.length];
+						int numberOfDependentCurveValues = 0;
+						for(int curveValueIndex=0; curveValueIndex<curveValues.length; curveValueIndex++) {
+							if(!(curveValues[curveValueIndex].getValue(modelShifted) == curveValuesCurrent[curveValueIndex])) {
+								dependentCurveValues[numberOfDependentCurveValues++] = curveValueIndex;
+							}
+						}
+
+						for(int i=0; i<objectParameters.length; i++) {
+							parameterGroupsOfSingleParameters[parameterIndex] = new int[] { parameterIndex };
+							curveValuesOfSingleParameters[parameterIndex] = Arrays.copyOf(dependentCurveValues, numberOfDependentCurveValues);
+							parametersOfCurveValuesOfSingleParameters[parameterIndex] = new int[numberOfDependentCurveValues];
+							Arrays.fill(parametersOfCurveValuesOfSingleParameters[parameterIndex], parameterIndex);
+							parameterIndex++;
+						}
+					}
+
+					final boolean[][] isDependent = new boolean[parameters.length][curveValues.length];
+					setDerivatives(curvesParameterPairs, modelClone, curveValues, curveValuesCurrent, sensitivities, parameterFiniteDifferences,
+							parameterGroupsOfSingleParameters, curveValuesOfSingleParameters, parametersOfCurveValuesOfSingleParameters, isDependent, derivatives);
+					addDependenciesBelowFiniteDifference(curvesParameterPairs, modelClone, curveValues, curveValuesCurrent, curveValuesOfSingleParameters, isDependent);
+
+					setParameterGroups(curveValues, isDependent);
+				}
+			} catch (final CloneNotSupportedException e) {
+				throw new SolverException(e);
+			}
+		}
+
+		/**
+		 * Adds the derivatives, shifting the parameters of each group at once.
+		 *
+		 * @return False, if the sparsity pattern is used (<code>isDependent</code> is null) and the shift of a group did not change a curve value depending on it.
+		 */
+		private boolean setDerivatives(final Map<ParameterObject, double[]> curvesParameterPairs, final AnalyticModel modelClone,
+				final CurveValue[] curveValues, final double[] curveValuesCurrent, final double[][] sensitivities, final double[] parameterFiniteDifferences,
+				final int[][] parameterGroups, final int[][] curveValuesOfGroup, final int[][] parametersOfCurveValuesOfGroup,
+				final boolean[][] isDependent, final double[][] derivatives) throws CloneNotSupportedException {
+			for(int groupIndex=0; groupIndex<parameterGroups.length; groupIndex++) {
+				final Map<ParameterObject, double[]> curvesParameterPairsShifted = new HashMap<>();
+				for(final int parameterIndex : parameterGroups[groupIndex]) {
+					final double[] objectParametersShifted = curvesParameterPairsShifted.computeIfAbsent(parameterObjectOfParameter[parameterIndex], parameterObject -> curvesParameterPairs.get(parameterObject).clone());
+					objectParametersShifted[indexInParameterObjectOfParameter[parameterIndex]] += parameterFiniteDifferences[parameterIndex];
+				}
+				final AnalyticModel modelShifted = modelClone.getCloneForParameter(curvesParameterPairsShifted);
+
+				for(int k=0; k<curveValuesOfGroup[groupIndex].length; k++) {
+					final int curveValueIndex = curveValuesOfGroup[groupIndex][k];
+					final int parameterIndex = parametersOfCurveValuesOfGroup[groupIndex][k];
+
+					final double curveValueShift = curveValues[curveValueIndex].getValue(modelShifted) - curveValuesCurrent[curveValueIndex];
+					if(curveValueShift == 0.0) {
+						if(isDependent == null) {
+							// The sparsity pattern may have changed (other curve values may depend on the parameter now)
+							return false;
+						}
+						continue;
+					}
+					if(isDependent != null) {
+						isDependent[parameterIndex][curveValueIndex] = true;
+					}
+
+					final double curveValueDerivative = curveValueShift / parameterFiniteDifferences[parameterIndex];
+					if(Double.isNaN(curveValueDerivative)) {
+						continue;
+					}
+
+					final double[] sensitivity = sensitivities[curveValueIndex];
+					final double[] derivative = derivatives[parameterIndex];
+					for(int productIndex=0; productIndex<sensitivity.length; productIndex++) {
+						derivative[productIndex] += sensitivity[productIndex] * curveValueDerivative;
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Adds the dependencies of the curve values on single parameters which have not been detected by the finite difference,
+		 * since the shift of the curve value is below its precision, using a larger shift.
+		 * Otherwise the corresponding derivatives would be missing as long as the sparsity pattern is used.
+		 */
+		private void addDependenciesBelowFiniteDifference(final Map<ParameterObject, double[]> curvesParameterPairs, final AnalyticModel modelClone,
+				final CurveValue[] curveValues, final double[] curveValuesCurrent, final int[][] curveValuesOfParameter, final boolean[][] isDependent) throws CloneNotSupportedException {
+			for(int parameterIndex=0; parameterIndex<isDependent.length; parameterIndex++) {
+				boolean isDependencyUndetected = false;
+				for(final int curveValueIndex : curveValuesOfParameter[parameterIndex]) {
+					isDependencyUndetected = isDependencyUndetected || !isDependent[parameterIndex][curveValueIndex];
+				}
+				if(!isDependencyUndetected) {
+					continue;
+				}
+
+				final ParameterObject parameterObject = parameterObjectOfParameter[parameterIndex];
+				final double[] objectParametersShifted = curvesParameterPairs.get(parameterObject).clone();
+				final int indexInParameterObject = indexInParameterObjectOfParameter[parameterIndex];
+				objectParametersShifted[indexInParameterObject] += (Math.abs(objectParametersShifted[indexInParameterObject]) + 1) * DEPENDENCY_DETECTION_SHIFT;
+				final AnalyticModel modelShifted = modelClone.getCloneForParameter(Collections.singletonMap(parameterObject, objectParametersShifted));
+
+				for(final int curveValueIndex : curveValuesOfParameter[parameterIndex]) {
+					if(!isDependent[parameterIndex][curveValueIndex] && !(curveValues[curveValueIndex].getValue(modelShifted) == curveValuesCurrent[curveValueIndex])) {
+						isDependent[parameterIndex][curveValueIndex] = true;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Groups the parameters (greedily) such that the parameters of a group do not share a dependent curve value.
+		 */
+		private void setParameterGroups(final CurveValue[] curveValues, final boolean[][] isDependent) {
+			final List<List<Integer>> groups = new ArrayList<>();
+			final List<boolean[]> isCurveValueOfGroup = new ArrayList<>();
+			for(int parameterIndex=0; parameterIndex<isDependent.length; parameterIndex++) {
+				final boolean[] isDependentOnParameter = isDependent[parameterIndex];
+
+				int groupIndex = 0;
+				for(; groupIndex<groups.size(); groupIndex++) {
+					final boolean[] isCurveValueOfThisGroup = isCurveValueOfGroup.get(groupIndex);
+					boolean isDisjoint = true;
+					for(int curveValueIndex=0; curveValueIndex<curveValues.length && isDisjoint; curveValueIndex++) {
+						isDisjoint = !(isDependentOnParameter[curveValueIndex] && isCurveValueOfThisGroup[curveValueIndex]);
+					}
+					if(isDisjoint) {
+						break;
+					}
+				}
+				if(groupIndex == groups.size()) {
+					groups.add(new ArrayList<>());
+					isCurveValueOfGroup.add(new boolean[curveValues.length]);
+				}
+
+				groups.get(groupIndex).add(parameterIndex);
+				final boolean[] isCurveValueOfThisGroup = isCurveValueOfGroup.get(groupIndex);
+				for(int curveValueIndex=0; curveValueIndex<curveValues.length; curveValueIndex++) {
+					isCurveValueOfThisGroup[curveValueIndex] |= isDependentOnParameter[curveValueIndex];
+				}
+			}
+
+			parameterGroups = new int[groups.size()][];
+			curveValuesOfGroup = new int[groups.size()][];
+			parametersOfCurveValuesOfGroup = new int[groups.size()][];
+			for(int groupIndex=0; groupIndex<groups.size(); groupIndex++) {
+				parameterGroups[groupIndex] = groups.get(groupIndex).stream().mapToInt(Integer::intValue).toArray();
+
+				final List<Integer> curveValuesOfThisGroup = new ArrayList<>();
+				final List<Integer> parametersOfCurveValuesOfThisGroup = new ArrayList<>();
+				for(final int parameterIndex : parameterGroups[groupIndex]) {
+					for(int curveValueIndex=0; curveValueIndex<curveValues.length; curveValueIndex++) {
+						if(isDependent[parameterIndex][curveValueIndex]) {
+							curveValuesOfThisGroup.add(curveValueIndex);
+							parametersOfCurveValuesOfThisGroup.add(parameterIndex);
+						}
+					}
+				}
+				curveValuesOfGroup[groupIndex] = curveValuesOfThisGroup.stream().mapToInt(Integer::intValue).toArray();
+				parametersOfCurveValuesOfGroup[groupIndex] = parametersOfCurveValuesOfThisGroup.stream().mapToInt(Integer::intValue).toArray();
+			}
+			curveValuesOfParameterGroups = curveValues;
+		}
+	}
+
+	/**
+	 * A curve value (discount factor or forward) used in the valuation of a calibration product.
+	 */
+	private static final class CurveValue {
+		private final String	curveName;
+		private final boolean	isForward;
+		private final double	time;
+		private final double	paymentOffset;
+
+		CurveValue(final String curveName, final boolean isForward, final double time, final double paymentOffset) {
+			this.curveName = curveName;
+			this.isForward = isForward;
+			this.time = time;
+			this.paymentOffset = paymentOffset;
+		}
+
+		double getValue(final AnalyticModel model) {
+			if(isForward) {
+				final ForwardCurve forwardCurve = model.getForwardCurve(curveName);
+				if(forwardCurve == null) {
+					throw new IllegalArgumentException("No forward curve with name '" + curveName + "' was found in the model:\n" + model.toString());
+				}
+				return forwardCurve.getForward(model, time, paymentOffset);
+			}
+			else {
+				final DiscountCurve discountCurve = model.getDiscountCurve(curveName);
+				if(discountCurve == null) {
+					throw new IllegalArgumentException("No discount curve with name '" + curveName + "' was found in the model:\n" + model.toString());
+				}
+				return discountCurve.getDiscountFactor(model, time);
+			}
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if(this == other) {
+				return true;
+			}
+			if(!(other instanceof CurveValue)) {
+				return false;
+			}
+			final CurveValue curveValue = (CurveValue)other;
+			return isForward == curveValue.isForward && time == curveValue.time && paymentOffset == curveValue.paymentOffset && curveName.equals(curveValue.curveName);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(curveName, isForward, time, paymentOffset);
+		}
+	}
+
+	/**
+	 * Collects the sensitivities of the calibration products with respect to the curve values,
+	 * where sensitivities.get(curveValue)[productIndex] is the sensitivity of the product with respect to the curve value.
+	 */
+	private static final class CurveValueSensitivities implements AnalyticProductWithCurveSensitivities.CurveSensitivities {
+		private final int						numberOfProducts;
+		private final Map<CurveValue, double[]>	sensitivities = new LinkedHashMap<>();
+		private int								productIndex;
+
+		CurveValueSensitivities(final int numberOfProducts) {
+			this.numberOfProducts = numberOfProducts;
+		}
+
+		@Override
+		public void addDiscountFactorSensitivity(final String discountCurveName, final double maturity, final double sensitivity) {
+			sensitivities.computeIfAbsent(new CurveValue(discountCurveName, false, maturity, 0.0), curveValue -> new double[numberOfProducts])[productIndex] += sensitivity;
+		}
+
+		@Override
+		public void addForwardSensitivity(final String forwardCurveName, final double fixingTime, final double paymentOffset, final double sensitivity) {
+			sensitivities.computeIfAbsent(new CurveValue(forwardCurveName, true, fixingTime, paymentOffset), curveValue -> new double[numberOfProducts])[productIndex] += sensitivity;
+		}
+	}
 }
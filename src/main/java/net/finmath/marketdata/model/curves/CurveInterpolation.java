@@ -5,9 +5,7 @@
  */
 package net.finmath.marketdata.model.curves;
 
-import java.io.IOException;
 import java.io.Serializable;
-import java.lang.ref.SoftReference;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.time.LocalDate;
@@ -16,8 +14,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import net.finmath.interpolation.RationalFunctionInterpolation;
 import net.finmath.marketdata.model.AnalyticModel;
@@ -43,6 +39,10 @@ import net.finmath.time.FloatingpointDate;
  * For the extrapolation methods provided see {@link net.finmath.marketdata.model.curves.CurveInterpolation.ExtrapolationMethod}.
  * For the possible interpolation entities see {@link net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationEntity}.
  *
+ * The values of the curve are cached in an open addressing hash table of (immutable) pairs of time and value.
+ * The cache does not require a lock: concurrent modifications may lose an entry, which results in a recalculation
+ * of the value. A lookup does not allocate an object. The size of the table is bounded, a full table is discarded.
+ *
  * To construct the curve, please use the inner class CurveBuilder (a builder pattern).
  *
  * For a demo on how to construct and/or calibrate a curve see, e.g.
@@ -256,15 +256,31 @@ public class CurveInterpolation extends AbstractCurve implements Serializable, C
 		}
 	}
 
+	/**
+	 * Entry of the value cache: a time (as bits) and the corresponding value of the curve.
+	 */
+	private static final class CachedValue {
+		private final long timeBits;
+		private final double value;
+
+		CachedValue(final long timeBits, final double value) {
+			this.timeBits = timeBits;
+			this.value = value;
+		}
+	}
+
+	private static final int VALUE_CACHE_INITIAL_CAPACITY	= 64;
+	private static final int VALUE_CACHE_MAXIMUM_CAPACITY	= 1 << 16;
+	private static final int VALUE_CACHE_MAXIMUM_PROBES		= 8;
+
 	private ArrayList<Point>	points					= new ArrayList<>();
 	private ArrayList<Point>	pointsBeingParameters	= new ArrayList<>();
 	private InterpolationMethod	interpolationMethod	= InterpolationMethod.CUBIC_SPLINE;
 	private ExtrapolationMethod	extrapolationMethod = ExtrapolationMethod.CONSTANT;
 	private InterpolationEntity interpolationEntity = InterpolationEntity.LOG_OF_VALUE;
 
-	private RationalFunctionInterpolation	rationalFunctionInterpolation =  null;
-	private transient Object					rationalFunctionInterpolationLazyInitLock = new Object();
-	private transient SoftReference<Map<Double, Double>> curveCacheReference = null;
+	private transient volatile RationalFunctionInterpolation	rationalFunctionInterpolation =  null;
+	private transient volatile CachedValue[]					valueCache = null;
 
 	private static final long serialVersionUID = -4126228588123963885L;
 	private static NumberFormat	formatterReal = NumberFormat.getInstance(Locale.US);
@@ -332,41 +348,166 @@ public class CurveInterpolation extends AbstractCurve implements Serializable, C
 	@Override
 	public double getValue(final AnalyticModel model, final double time)
 	{
-		Map<Double, Double> curveCache = curveCacheReference != null ? curveCacheReference.get() : null;
-		if(curveCache == null) {
-			curveCache = new ConcurrentHashMap<>();
-			curveCacheReference = new SoftReference<>(curveCache);
-		}
-		final Double valueFromCache = curveCache.get(time);
-		if(valueFromCache != null) {
-			return valueFromCache.doubleValue();
+		final long timeBits = Double.doubleToRawLongBits(time);
+
+		final CachedValue cachedValue = getValueCache(timeBits);
+		if(cachedValue != null) {
+			return cachedValue.value;
 		}
 
-		final double value = valueFromInterpolationEntity(getInterpolationEntityValue(time), time);
-		curveCache.put(time, value);
+		final double value = valueFromInterpolationEntity(getRationalFunctionInterpolation().getValue(time), time);
+		putValueCache(new CachedValue(timeBits, value));
 		return value;
 	}
 
-	private double getInterpolationEntityValue(final double time)
+	/*
+	 * The value cache is an open addressing table, where an entry is found within VALUE_CACHE_MAXIMUM_PROBES slots of its index.
+	 * The table is not locked: a concurrent update may be lost, which only costs a recalculation of the value.
+	 * If an entry does not fit into the table, the table is grown (or discarded, if it has its maximum capacity).
+	 */
+	private CachedValue getValueCache(final long timeBits)
+	{
+		final CachedValue[] cache = valueCache;
+		if(cache == null) {
+			return null;
+		}
+
+		final int mask = cache.length-1;
+		final int index = getValueCacheIndex(timeBits, cache.length);
+		for(int probe=0; probe<VALUE_CACHE_MAXIMUM_PROBES; probe++) {
+			final CachedValue cachedValue = cache[(index + probe) & mask];
+			if(cachedValue == null) {
+				return null;
+			}
+			if(cachedValue.timeBits == timeBits) {
+				return cachedValue;
+			}
+		}
+		return null;
+	}
+
+	private void putValueCache(final CachedValue cachedValue)
 	{
-		synchronized(rationalFunctionInterpolationLazyInitLock) {
-			// Lazy initialization of interpolation function
-			if(rationalFunctionInterpolation == null) {
-				final double[] pointsArray = new double[points.size()];
-				final double[] valuesArray = new double[points.size()];
-				for(int i=0; i<points.size(); i++) {
-					pointsArray[i] = points.get(i).time;
-					valuesArray[i] = points.get(i).value;
+		final CachedValue[] cache = valueCache;
+		if(cache != null && putValueCache(cache, cachedValue)) {
+			return;
+		}
+
+		// Grow (or discard) the table
+		final CachedValue[] newCache;
+		if(cache == null) {
+			newCache = new CachedValue[VALUE_CACHE_INITIAL_CAPACITY];
+		}
+		else if(cache.length < VALUE_CACHE_MAXIMUM_CAPACITY) {
+			newCache = new CachedValue[2 * cache.length];
+			for(final CachedValue oldCachedValue : cache) {
+				if(oldCachedValue != null) {
+					putValueCache(newCache, oldCachedValue);
 				}
-				rationalFunctionInterpolation = new RationalFunctionInterpolation(
-						pointsArray,
-						valuesArray,
-						RationalFunctionInterpolation.InterpolationMethod.valueOf(interpolationMethod.toString()),
-						RationalFunctionInterpolation.ExtrapolationMethod.valueOf(extrapolationMethod.toString())
-						);
 			}
 		}
-		return rationalFunctionInterpolation.getValue(time);
+		else {
+			newCache = new CachedValue[cache.length];
+		}
+		putValueCache(newCache, cachedValue);
+		valueCache = newCache;
+	}
+
+	/*
+	 * Put an entry into the given table. Returns false if the entry does not fit into the table (within the maximum number of probes).
+	 */
+	private static boolean putValueCache(final CachedValue[] cache, final CachedValue cachedValue)
+	{
+		final int mask = cache.length-1;
+		final int index = getValueCacheIndex(cachedValue.timeBits, cache.length);
+		for(int probe=0; probe<VALUE_CACHE_MAXIMUM_PROBES; probe++) {
+			final CachedValue otherCachedValue = cache[(index + probe) & mask];
+			if(otherCachedValue == null) {
+				cache[(index + probe) & mask] = cachedValue;
+				return true;
+			}
+			if(otherCachedValue.timeBits == cachedValue.timeBits) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int getValueCacheIndex(final long timeBits, final int capacity)
+	{
+		// Fibonacci hashing: the upper bits of the product depend on all bits of the time (the lower bits of the mantissa are often zero)
+		return (int)((timeBits * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - Integer.numberOfTrailingZeros(capacity)));
+	}
+
+	/**
+	 * Return a vector of values corresponding to a given vector of times.
+	 *
+	 * The values are taken from the value cache, if available. The remaining values are calculated
+	 * from the interpolation function in bulk and added to the cache.
+	 *
+	 * @param times A given vector of times.
+	 * @return A vector of values corresponding to the given vector of times.
+	 */
+	@Override
+	public double[] getValues(final double[] times) {
+		final double[] values = new double[times.length];
+
+		// Take the values from the cache and collect the times which are not cached
+		int[] indicesNotCached = null;
+		int numberOfTimesNotCached = 0;
+		for(int i=0; i<times.length; i++) {
+			final CachedValue cachedValue = getValueCache(Double.doubleToRawLongBits(times[i]));
+			if(cachedValue != null) {
+				values[i] = cachedValue.value;
+			}
+			else {
+				if(indicesNotCached == null) {
+					indicesNotCached = new int[times.length-i];
+				}
+				indicesNotCached[numberOfTimesNotCached++] = i;
+			}
+		}
+
+		if(numberOfTimesNotCached > 0) {
+			final double[] timesNotCached = new double[numberOfTimesNotCached];
+			for(int j=0; j<numberOfTimesNotCached; j++) {
+				timesNotCached[j] = times[indicesNotCached[j]];
+			}
+
+			final double[] interpolationEntityValues = getRationalFunctionInterpolation().getValues(timesNotCached);
+			for(int j=0; j<numberOfTimesNotCached; j++) {
+				final double value = valueFromInterpolationEntity(interpolationEntityValues[j], timesNotCached[j]);
+				values[indicesNotCached[j]] = value;
+				putValueCache(new CachedValue(Double.doubleToRawLongBits(timesNotCached[j]), value));
+			}
+		}
+
+		return values;
+	}
+
+	private RationalFunctionInterpolation getRationalFunctionInterpolation()
+	{
+		/*
+		 * Lazy initialization of interpolation function. This does not require a lock: the points are not modified
+		 * after construction of the curve and concurrent initializations create identical interpolation functions.
+		 */
+		RationalFunctionInterpolation interpolation = rationalFunctionInterpolation;
+		if(interpolation == null) {
+			final double[] pointsArray = new double[points.size()];
+			final double[] valuesArray = new double[points.size()];
+			for(int i=0; i<points.size(); i++) {
+				pointsArray[i] = points.get(i).time;
+				valuesArray[i] = points.get(i).value;
+			}
+			interpolation = new RationalFunctionInterpolation(
+					pointsArray,
+					valuesArray,
+					RationalFunctionInterpolation.InterpolationMethod.valueOf(interpolationMethod.toString()),
+					RationalFunctionInterpolation.ExtrapolationMethod.valueOf(extrapolationMethod.toString())
+					);
+			rationalFunctionInterpolation = interpolation;
+		}
+		return interpolation;
 	}
 
 	/**
@@ -378,44 +519,42 @@ public class CurveInterpolation extends AbstractCurve implements Serializable, C
 	 * @param isParameter If true, then this point is served via {@link #getParameter()} and changed via {@link #getCloneForParameter(double[])}, i.e., it can be calibrated.
 	 */
 	protected void addPoint(final double time, final double value, final boolean isParameter) {
-		synchronized (rationalFunctionInterpolationLazyInitLock) {
-			if(interpolationEntity == InterpolationEntity.LOG_OF_VALUE_PER_TIME && time == 0) {
-				if(value == 1.0 && isParameter == false) {
-					return;
-				} else {
-					throw new IllegalArgumentException("The interpolation method LOG_OF_VALUE_PER_TIME does not allow to add a value at time = 0 other than 1.0 (received " + value + ").");
-				}
+		if(interpolationEntity == InterpolationEntity.LOG_OF_VALUE_PER_TIME && time == 0) {
+			if(value == 1.0 && isParameter == false) {
+				return;
+			} else {
+				throw new IllegalArgumentException("The interpolation method LOG_OF_VALUE_PER_TIME does not allow to add a value at time = 0 other than 1.0 (received " + value + ").");
 			}
+		}
 
-			final double interpolationEntityValue = interpolationEntityFromValue(value, time);
+		final double interpolationEntityValue = interpolationEntityFromValue(value, time);
 
-			final int index = getTimeIndex(time);
-			if(index >= 0) {
-				if(points.get(index).value == interpolationEntityValue) {
-					return;			// Already in list
-				} else if(isParameter) {
-					return;
-				} else {
-					throw new RuntimeException("Trying to add a value for a time for which another value already exists.");
-				}
+		final int index = getTimeIndex(time);
+		if(index >= 0) {
+			if(points.get(index).value == interpolationEntityValue) {
+				return;			// Already in list
+			} else if(isParameter) {
+				return;
+			} else {
+				throw new RuntimeException("Trying to add a value for a time for which another value already exists.");
 			}
-			else {
-				// Insert the new point, retain ordering.
-				final Point point = new Point(time, interpolationEntityValue, isParameter);
-				points.add(-index-1, point);
-
-				if(isParameter) {
-					// Add this point also to the list of parameters
-					final int parameterIndex = getParameterIndex(time);
-					if(parameterIndex >= 0) {
-						new RuntimeException("CurveFromInterpolationPoints inconsistent.");
-					}
-					pointsBeingParameters.add(-parameterIndex-1, point);
+		}
+		else {
+			// Insert the new point, retain ordering.
+			final Point point = new Point(time, interpolationEntityValue, isParameter);
+			points.add(-index-1, point);
+
+			if(isParameter) {
+				// Add this point also to the list of parameters
+				final int parameterIndex = getParameterIndex(time);
+				if(parameterIndex >= 0) {
+					new RuntimeException("CurveFromInterpolationPoints inconsistent.");
 				}
+				pointsBeingParameters.add(-parameterIndex-1, point);
 			}
-			rationalFunctionInterpolation = null;
-			curveCacheReference = null;
 		}
+		rationalFunctionInterpolation = null;
+		valueCache = null;
 	}
 
 	/**
@@ -498,7 +637,7 @@ public class CurveInterpolation extends AbstractCurve implements Serializable, C
 			pointsBeingParameters.get(i).value = interpolationEntityFromValue(parameter[i], pointsBeingParameters.get(i).time);
 		}
 		rationalFunctionInterpolation = null;
-		curveCacheReference = null;
+		valueCache = null;
 	}
 
 	private double interpolationEntityFromValue(final double value, final double time) {
@@ -536,7 +675,7 @@ public class CurveInterpolation extends AbstractCurve implements Serializable, C
 		newCurve.points					= new ArrayList<>();
 		newCurve.pointsBeingParameters	= new ArrayList<>();
 		newCurve.rationalFunctionInterpolation = null;
-		newCurve.curveCacheReference = null;
+		newCurve.valueCache = null;
 		for(final Point point : points) {
 			final Point newPoint = (Point) point.clone();
 			newCurve.points.add(newPoint);
@@ -583,10 +722,4 @@ public class CurveInterpolation extends AbstractCurve implements Serializable, C
 		+ interpolationEntity + ", rationalFunctionInterpolation=" + rationalFunctionInterpolation
 		+ ", toString()=" + super.toString() + ",\n" + curveTableString + "]";
 	}
-
-	private void readObject(final java.io.ObjectInputStream in) throws ClassNotFoundException, IOException {
-		in.defaultReadObject();
-		// initialization of transients
-		rationalFunctionInterpolationLazyInitLock = new Object();
-	}
 }
@@ -209,6 +209,15 @@ public class ForwardCurveFromDiscountCurve extends AbstractForwardCurve implemen
 		return null;
 	}
 
+	/**
+	 * Returns the name of the (pseudo-)discount curve that the forwards are calculated from.
+	 *
+	 * @return The name of the reference discount curve for the forwards.
+	 */
+	public String getReferenceDiscountCurveForForwardsName() {
+		return referenceDiscountCurveForForwardsName;
+	}
+
 	@Override
 	public String toString() {
 		return "ForwardCurveFromDiscountCurve [" + super.toString() + ", referenceDiscountCurveForForwardsName=" + referenceDiscountCurveForForwardsName + ", daycountScaling=" + daycountScaling + ", periodOffset=" + periodOffset + "]";
@@ -0,0 +1,71 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.marketdata.products;
+
+import net.finmath.marketdata.model.AnalyticModel;
+
+/**
+ * Interface implemented by products which provide the partial derivatives of their value
+ * with respect to the curve values (discount factors and forwards) used in their valuation.
+ *
+ * The sensitivities are calculated analytically. Together with the sensitivities of the curve values
+ * with respect to the curve parameters, they give the derivative of the value with respect to the curve parameters,
+ * see {@link net.finmath.marketdata.calibration.Solver}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public interface AnalyticProductWithCurveSensitivities extends AnalyticProduct {
+
+	/**
+	 * Receiver of the partial derivatives of a value with respect to curve values.
+	 * Multiple calls for the same curve value are summed up.
+	 *
+	 * @author Christian Fries
+	 */
+	interface CurveSensitivities {
+
+		/**
+		 * Add the partial derivative with respect to the value <code>discountCurve.getDiscountFactor(model, maturity)</code>.
+		 *
+		 * @param discountCurveName The name of the discount curve.
+		 * @param maturity The maturity of the discount factor.
+		 * @param sensitivity The partial derivative.
+		 */
+		void addDiscountFactorSensitivity(String discountCurveName, double maturity, double sensitivity);
+
+		/**
+		 * Add the partial derivative with respect to the value <code>forwardCurve.getForward(model, fixingTime, paymentOffset)</code>.
+		 *
+		 * @param forwardCurveName The name of the forward curve.
+		 * @param fixingTime The fixing time of the forward.
+		 * @param paymentOffset The payment offset of the forward.
+		 * @param sensitivity The partial derivative.
+		 */
+		void addForwardSensitivity(String forwardCurveName, double fixingTime, double paymentOffset, double sensitivity);
+	}
+
+	/**
+	 * Add the partial derivatives of the value <code>getValue(evaluationTime, model)</code>, multiplied
+	 * by <code>weight</code>, with respect to the curve values used in the valuation.
+	 *
+	 * @param evaluationTime The evaluation time as double. Cash flows prior and including this time are not considered.
+	 * @param model The model under which the product is valued.
+	 * @param weight A factor applied to the sensitivities (e.g. -1 for a payer leg).
+	 * @param sensitivities The receiver of the sensitivities.
+	 */
+	void addCurveSensitivities(double evaluationTime, AnalyticModel model, double weight, CurveSensitivities sensitivities);
+
+	/**
+	 * Returns true if this product provides its curve sensitivities. A composite product
+	 * may return false if one of its parts does not provide its curve sensitivities.
+	 *
+	 * @return True if {@link #addCurveSensitivities(double, AnalyticModel, double, CurveSensitivities)} is supported.
+	 */
+	default boolean isCurveSensitivitiesSupported() {
+		return true;
+	}
+}
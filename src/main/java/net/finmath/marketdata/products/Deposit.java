@@ -24,7 +24,7 @@ import net.finmath.time.Schedule;
  * @author Christian Fries
  * @version 1.0
  */
-public class Deposit extends AbstractAnalyticProduct implements AnalyticProduct{
+public class Deposit extends AbstractAnalyticProduct implements AnalyticProductWithCurveSensitivities {
 
 	private final Schedule	schedule;
 	private final double				rate;
@@ -77,6 +77,23 @@ public class Deposit extends AbstractAnalyticProduct implements AnalyticProduct{
 		}
 	}
 
+	@Override
+	public void addCurveSensitivities(final double evaluationTime, final AnalyticModel model, final double weight, final CurveSensitivities sensitivities) {
+		final double maturity = schedule.getPayment(0);
+
+		if (evaluationTime > maturity) {
+			return; // after maturity the contract is worth nothing
+		}
+
+		final double payoutDate	= schedule.getPeriodStart(0);
+		final double periodLength = schedule.getPeriodLength(0);
+
+		sensitivities.addDiscountFactorSensitivity(discountCurveName, maturity, weight * (1.0 + rate * periodLength));
+		if (evaluationTime <= payoutDate) {
+			sensitivities.addDiscountFactorSensitivity(discountCurveName, payoutDate, -weight);
+		}
+	}
+
 	/**
 	 * Return the deposit rate implied by the given model's curve.
 	 *
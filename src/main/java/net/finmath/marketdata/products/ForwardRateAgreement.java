@@ -20,7 +20,7 @@ import net.finmath.time.Schedule;
  * @author Christian Fries
  * @version 1.0
  */
-public class ForwardRateAgreement extends AbstractAnalyticProduct implements AnalyticProduct {
+public class ForwardRateAgreement extends AbstractAnalyticProduct implements AnalyticProductWithCurveSensitivities {
 
 	private final Schedule					schedule;
 	private final String						forwardCurveName;
@@ -94,6 +94,46 @@ public class ForwardRateAgreement extends AbstractAnalyticProduct implements Ana
 		return notional * (forward - spread) / (1.0 + forward * periodLength) * discountFactorFixingDate * periodLength;
 	}
 
+	@Override
+	public void addCurveSensitivities(final double evaluationTime, final AnalyticModel model, final double weight, final CurveSensitivities sensitivities) {
+		if(model==null) {
+			throw new IllegalArgumentException("model==null");
+		}
+
+		final DiscountCurve discountCurve = model.getDiscountCurve(discountCurveName);
+		if(discountCurve==null) {
+			throw new IllegalArgumentException("No discount curve with name '" + discountCurveName + "' was found in the model:\n" + model.toString());
+		}
+
+		final ForwardCurve forwardCurve = model.getForwardCurve(forwardCurveName);
+		if(forwardCurve==null && forwardCurveName!=null && forwardCurveName.length()>0) {
+			throw new IllegalArgumentException("No forward curve with name '" + forwardCurveName + "' was found in the model:\n" + model.toString());
+		}
+
+		final double fixingDate = schedule.getFixing(0);
+		final double paymentDate = schedule.getPayment(0);
+		final double periodLength = schedule.getPeriodLength(0);
+
+		if(fixingDate <= evaluationTime) {
+			return;
+		}
+
+		double forward = 0.0;
+		if(forwardCurve != null) {
+			forward += forwardCurve.getForward(model, fixingDate, paymentDate-fixingDate);
+		}
+
+		final double notional = isPayer ? 1.0 : -1.0;
+		final double discountFactorFixingDate = discountCurve.getDiscountFactor(model, fixingDate);
+		final double compounding = 1.0 + forward * periodLength;
+
+		// d/dF (F-K)/(1+F T) = (1+K T)/(1+F T)^2
+		if(forwardCurve != null) {
+			sensitivities.addForwardSensitivity(forwardCurveName, fixingDate, paymentDate-fixingDate, weight * notional * (1.0 + spread * periodLength) / (compounding * compounding) * discountFactorFixingDate * periodLength);
+		}
+		sensitivities.addDiscountFactorSensitivity(discountCurveName, fixingDate, weight * notional * (forward - spread) / compounding * periodLength);
+	}
+
 	/**
 	 * Return the par FRA rate for a given curve.
 	 *
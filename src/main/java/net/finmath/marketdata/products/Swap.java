@@ -32,7 +32,7 @@ import net.finmath.time.TimeDiscretization;
  * @author Christian Fries
  * @version 1.0
  */
-public class Swap extends AbstractAnalyticProduct implements AnalyticProduct, DescribedProduct<InterestRateSwapProductDescriptor>, Serializable {
+public class Swap extends AbstractAnalyticProduct implements AnalyticProductWithCurveSensitivities, DescribedProduct<InterestRateSwapProductDescriptor>, Serializable {
 
 	private static final long serialVersionUID = 6546984174616265190L;
 
@@ -127,6 +127,22 @@ public class Swap extends AbstractAnalyticProduct implements AnalyticProduct, De
 		return valueReceiverLeg - valuePayerLeg;
 	}
 
+	@Override
+	public void addCurveSensitivities(final double evaluationTime, final AnalyticModel model, final double weight, final CurveSensitivities sensitivities) {
+		if(!isCurveSensitivitiesSupported()) {
+			throw new UnsupportedOperationException("The legs of this swap do not provide curve sensitivities.");
+		}
+
+		((AnalyticProductWithCurveSensitivities)legReceiver).addCurveSensitivities(evaluationTime, model, weight, sensitivities);
+		((AnalyticProductWithCurveSensitivities)legPayer).addCurveSensitivities(evaluationTime, model, -weight, sensitivities);
+	}
+
+	@Override
+	public boolean isCurveSensitivitiesSupported() {
+		return legReceiver instanceof AnalyticProductWithCurveSensitivities && ((AnalyticProductWithCurveSensitivities)legReceiver).isCurveSensitivitiesSupported()
+				&& legPayer instanceof AnalyticProductWithCurveSensitivities && ((AnalyticProductWithCurveSensitivities)legPayer).isCurveSensitivitiesSupported();
+	}
+
 	public static double getForwardSwapRate(final TimeDiscretization fixTenor, final TimeDiscretization floatTenor, final ForwardCurve forwardCurve) {
 		return getForwardSwapRate(new RegularSchedule(fixTenor), new RegularSchedule(floatTenor), forwardCurve);
 	}
@@ -32,7 +32,7 @@ import net.finmath.time.Schedule;
  * @author Christian Fries
  * @version 1.0
  */
-public class SwapLeg extends AbstractAnalyticProduct implements AnalyticProduct, DescribedProduct<InterestRateSwapLegProductDescriptor>, Serializable {
+public class SwapLeg extends AbstractAnalyticProduct implements AnalyticProductWithCurveSensitivities, DescribedProduct<InterestRateSwapLegProductDescriptor>, Serializable {
 
 	private static final long serialVersionUID = 8311623431369392396L;
 
@@ -183,6 +183,129 @@ public class SwapLeg extends AbstractAnalyticProduct implements AnalyticProduct,
 
 	@Override
 	public double getValue(final double evaluationTime, final AnalyticModel model) {
+		final ValuationCurves curves = getValuationCurves(evaluationTime, model);
+		final DiscountCurve discountCurve = curves.discountCurve;
+		final DiscountCurve discountCurveForNotionalReset = curves.discountCurveForNotionalReset;
+		final ForwardCurve forwardCurve = curves.forwardCurve;
+		final double productToModelTimeOffset = curves.productToModelTimeOffset;
+		final double cashFlowEffectiveTime = curves.cashFlowEffectiveTime;
+
+		double value = 0.0;
+		for(int periodIndex=0; periodIndex<legSchedule.getNumberOfPeriods(); periodIndex++) {
+			final double fixingDate	= productToModelTimeOffset + legSchedule.getFixing(periodIndex);
+			final double periodStart	= productToModelTimeOffset + legSchedule.getPeriodStart(periodIndex);
+			final double periodEnd	= productToModelTimeOffset + legSchedule.getPeriodEnd(periodIndex);
+			final double paymentDate	= productToModelTimeOffset + legSchedule.getPayment(periodIndex);
+			final double periodLength	= legSchedule.getPeriodLength(periodIndex);
+
+			double forward = spreads[periodIndex];
+			if(forwardCurve != null) {
+				forward += forwardCurve.getForward(model, fixingDate, paymentDate-fixingDate);
+			}
+
+			/*
+			 * Set the notional.
+			 * If discountCurveForNotionalReset is given and different from discountCurve, we perform a notional reset.
+			 */
+			double notional = notionals != null ? notionals[periodIndex] : 1.0;
+			if(discountCurveForNotionalReset != null && discountCurveForNotionalReset != discountCurve) {
+				notional *= discountCurveForNotionalReset.getDiscountFactor(model,periodStart) / discountCurve.getDiscountFactor(model,periodStart);
+			}
+
+			final double discountFactor = paymentDate > cashFlowEffectiveTime ? discountCurve.getDiscountFactor(model, paymentDate) : 0.0;
+			value += notional * forward * periodLength * discountFactor;
+
+			// Consider notional payments if required
+			if(isNotionalExchanged) {
+				value += periodEnd > cashFlowEffectiveTime ? notional * discountCurve.getDiscountFactor(model, periodEnd) : 0.0;
+				value -= periodStart > cashFlowEffectiveTime ? notional * discountCurve.getDiscountFactor(model, periodStart) : 0.0;
+			}
+		}
+
+		return value / discountCurve.getDiscountFactor(model, evaluationTime);
+	}
+
+	@Override
+	public void addCurveSensitivities(final double evaluationTime, final AnalyticModel model, final double weight, final CurveSensitivities sensitivities) {
+		final ValuationCurves curves = getValuationCurves(evaluationTime, model);
+		final DiscountCurve discountCurve = curves.discountCurve;
+		final DiscountCurve discountCurveForNotionalReset = curves.discountCurveForNotionalReset;
+		final ForwardCurve forwardCurve = curves.forwardCurve;
+		final double productToModelTimeOffset = curves.productToModelTimeOffset;
+		final double cashFlowEffectiveTime = curves.cashFlowEffectiveTime;
+
+		final boolean isNotionalReset = discountCurveForNotionalReset != null && discountCurveForNotionalReset != discountCurve;
+
+		// The value is divided by the discount factor of the evaluation time, which is applied to all sensitivities
+		final double discountFactorEvaluation = discountCurve.getDiscountFactor(model, evaluationTime);
+		final double weightDiscounted = weight / discountFactorEvaluation;
+
+		double value = 0.0;
+		for(int periodIndex=0; periodIndex<legSchedule.getNumberOfPeriods(); periodIndex++) {
+			final double fixingDate	= productToModelTimeOffset + legSchedule.getFixing(periodIndex);
+			final double periodStart	= productToModelTimeOffset + legSchedule.getPeriodStart(periodIndex);
+			final double periodEnd	= productToModelTimeOffset + legSchedule.getPeriodEnd(periodIndex);
+			final double paymentDate	= productToModelTimeOffset + legSchedule.getPayment(periodIndex);
+			final double periodLength	= legSchedule.getPeriodLength(periodIndex);
+
+			double forward = spreads[periodIndex];
+			if(forwardCurve != null) {
+				forward += forwardCurve.getForward(model, fixingDate, paymentDate-fixingDate);
+			}
+
+			final double notionalWithoutReset = notionals != null ? notionals[periodIndex] : 1.0;
+			double notional = notionalWithoutReset;
+			double discountFactorForNotionalReset = 1.0;
+			double discountFactorPeriodStart = 1.0;
+			if(isNotionalReset) {
+				discountFactorForNotionalReset = discountCurveForNotionalReset.getDiscountFactor(model,periodStart);
+				discountFactorPeriodStart = discountCurve.getDiscountFactor(model,periodStart);
+				notional *= discountFactorForNotionalReset / discountFactorPeriodStart;
+			}
+
+			// The value of the period per unit notional
+			double valuePerNotional = 0.0;
+			if(paymentDate > cashFlowEffectiveTime) {
+				final double discountFactor = discountCurve.getDiscountFactor(model, paymentDate);
+				valuePerNotional += forward * periodLength * discountFactor;
+
+				if(forwardCurve != null) {
+					sensitivities.addForwardSensitivity(forwardCurveName, fixingDate, paymentDate-fixingDate, weightDiscounted * notional * periodLength * discountFactor);
+				}
+				sensitivities.addDiscountFactorSensitivity(discountCurveName, paymentDate, weightDiscounted * notional * forward * periodLength);
+			}
+
+			if(isNotionalExchanged) {
+				if(periodEnd > cashFlowEffectiveTime) {
+					valuePerNotional += discountCurve.getDiscountFactor(model, periodEnd);
+					sensitivities.addDiscountFactorSensitivity(discountCurveName, periodEnd, weightDiscounted * notional);
+				}
+				if(periodStart > cashFlowEffectiveTime) {
+					valuePerNotional -= discountCurve.getDiscountFactor(model, periodStart);
+					sensitivities.addDiscountFactorSensitivity(discountCurveName, periodStart, -weightDiscounted * notional);
+				}
+			}
+
+			if(isNotionalReset) {
+				// The notional is notionalWithoutReset * discountFactorForNotionalReset / discountFactorPeriodStart
+				sensitivities.addDiscountFactorSensitivity(discountCurveForNotionalResetName, periodStart, weightDiscounted * notionalWithoutReset / discountFactorPeriodStart * valuePerNotional);
+				sensitivities.addDiscountFactorSensitivity(discountCurveName, periodStart, -weightDiscounted * notional / discountFactorPeriodStart * valuePerNotional);
+			}
+
+			value += notional * valuePerNotional;
+		}
+
+		sensitivities.addDiscountFactorSensitivity(discountCurveName, evaluationTime, -weightDiscounted * value / discountFactorEvaluation);
+	}
+
+	/**
+	 * Resolves the curves of this leg in the given model and the times used by the valuation.
+	 *
+	 * @param evaluationTime The evaluation time.
+	 * @param model The model.
+	 * @return The curves and times used by the valuation.
+	 */
+	private ValuationCurves getValuationCurves(final double evaluationTime, final AnalyticModel model) {
 		if(model==null) {
 			throw new IllegalArgumentException("model==null");
 		}
@@ -216,39 +339,26 @@ public class SwapLeg extends AbstractAnalyticProduct implements AnalyticProduct,
 
 		final double cashFlowEffectiveTime = cashFlowEffectiveDate != null ? FloatingpointDate.getFloatingPointDateFromDate(LocalDateTime.of(modelReferenceDate, LocalTime.of(0,0)), cashFlowEffectiveDate) : evaluationTime;
 
-		double value = 0.0;
-		for(int periodIndex=0; periodIndex<legSchedule.getNumberOfPeriods(); periodIndex++) {
-			final double fixingDate	= productToModelTimeOffset + legSchedule.getFixing(periodIndex);
-			final double periodStart	= productToModelTimeOffset + legSchedule.getPeriodStart(periodIndex);
-			final double periodEnd	= productToModelTimeOffset + legSchedule.getPeriodEnd(periodIndex);
-			final double paymentDate	= productToModelTimeOffset + legSchedule.getPayment(periodIndex);
-			final double periodLength	= legSchedule.getPeriodLength(periodIndex);
-
-			double forward = spreads[periodIndex];
-			if(forwardCurve != null) {
-				forward += forwardCurve.getForward(model, fixingDate, paymentDate-fixingDate);
-			}
-
-			/*
-			 * Set the notional.
-			 * If discountCurveForNotionalReset is given and different from discountCurve, we perform a notional reset.
-			 */
-			double notional = notionals != null ? notionals[periodIndex] : 1.0;
-			if(discountCurveForNotionalReset != null && discountCurveForNotionalReset != discountCurve) {
-				notional *= discountCurveForNotionalReset.getDiscountFactor(model,periodStart) / discountCurve.getDiscountFactor(model,periodStart);
-			}
-
-			final double discountFactor = paymentDate > cashFlowEffectiveTime ? discountCurve.getDiscountFactor(model, paymentDate) : 0.0;
-			value += notional * forward * periodLength * discountFactor;
+		return new ValuationCurves(discountCurve, discountCurveForNotionalReset, forwardCurve, productToModelTimeOffset, cashFlowEffectiveTime);
+	}
 
-			// Consider notional payments if required
-			if(isNotionalExchanged) {
-				value += periodEnd > cashFlowEffectiveTime ? notional * discountCurve.getDiscountFactor(model, periodEnd) : 0.0;
-				value -= periodStart > cashFlowEffectiveTime ? notional * discountCurve.getDiscountFactor(model, periodStart) : 0.0;
-			}
+	/**
+	 * The curves and times used by the valuation of the leg, see {@link #getValue(double, AnalyticModel)}.
+	 */
+	private static class ValuationCurves {
+		private final DiscountCurve	discountCurve;
+		private final DiscountCurve	discountCurveForNotionalReset;
+		private final ForwardCurve	forwardCurve;
+		private final double		productToModelTimeOffset;
+		private final double		cashFlowEffectiveTime;
+
+		ValuationCurves(final DiscountCurve discountCurve, final DiscountCurve discountCurveForNotionalReset, final ForwardCurve forwardCurve, final double productToModelTimeOffset, final double cashFlowEffectiveTime) {
+			this.discountCurve = discountCurve;
+			this.discountCurveForNotionalReset = discountCurveForNotionalReset;
+			this.forwardCurve = forwardCurve;
+			this.productToModelTimeOffset = productToModelTimeOffset;
+			this.cashFlowEffectiveTime = cashFlowEffectiveTime;
 		}
-
-		return value / discountCurve.getDiscountFactor(model, evaluationTime);
 	}
 
 	public Schedule getSchedule() {
@@ -7,6 +7,7 @@ package net.finmath.montecarlo;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.Validate;
 
@@ -34,14 +35,22 @@ import net.finmath.time.TimeDiscretization;
  * there parameters agree, generate the same random numbers.
  *
  * The class is immutable and thread safe. It uses lazy initialization.
+ * For a large number of random numbers, the increments are generated concurrently on blocks of paths,
+ * using substreams of the Mersenne Twister (see {@link MersenneTwister#getSubstream(long)}). The generated
+ * increments are identical to those generated by a single thread.
  *
  * @author Christian Fries
- * @version 1.6
+ * @version 1.7
  */
 public class BrownianMotionFromMersenneRandomNumbers implements BrownianMotion, Serializable {
 
 	private static final long serialVersionUID = -5430067621669213475L;
 
+	/*
+	 * Minimum number of random numbers generated by a single thread.
+	 */
+	private static final long minimumNumberOfRandomNumbersPerPathBlock = 1L << 23;
+
 	private final TimeDiscretization						timeDiscretization;
 
 	private final int			numberOfFactors;
@@ -143,9 +152,6 @@ public class BrownianMotionFromMersenneRandomNumbers implements BrownianMotion,
 			return;	// Nothing to do
 		}
 
-		// Create random number sequence generator
-		final MersenneTwister mersenneTwister = new MersenneTwister(seed);
-
 		// Allocate memory
 		final double[][][] brownianIncrementsArray = new double[timeDiscretization.getNumberOfTimeSteps()][numberOfFactors][numberOfPaths];
 
@@ -163,19 +169,37 @@ public class BrownianMotionFromMersenneRandomNumbers implements BrownianMotion,
 
 		 * MersenneTwister is known to generate "independent" increments in 623 dimensions.
 		 * Since we want to generate samples of that vector, the loop over path is the outer loop.
+		 *
+		 * For a large number of random numbers, the paths are split into blocks which are generated concurrently.
+		 * Each block uses a substream of the random number sequence (starting at the first random number of the block),
+		 * such that the generated increments do not depend on the number of blocks.
 		 */
-		for(int path=0; path<numberOfPaths; path++) {
-			for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
-				final double sqrtDeltaT = sqrtOfTimeStep[timeIndex];
-				// Generate uncorrelated Brownian increment
-				for(int factor=0; factor<numberOfFactors; factor++) {
-					// Get uniform random number
-					final double uniformIncrement = mersenneTwister.nextDoubleFast();
-					// Transform uniform to normal using ICDF method
-					brownianIncrementsArray[timeIndex][factor][path] = NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+		final long numberOfRandomNumbersPerPath = (long)timeDiscretization.getNumberOfTimeSteps() * numberOfFactors;
+		final int numberOfPathBlocks = (int)Math.max(Math.min(Runtime.getRuntime().availableProcessors(), numberOfPaths * numberOfRandomNumbersPerPath / minimumNumberOfRandomNumbersPerPathBlock), 1);
+		final int numberOfPathsPerBlock = (numberOfPaths + numberOfPathBlocks - 1) / numberOfPathBlocks;
+		IntStream.range(0, numberOfPathBlocks).parallel().forEach(pathBlock -> {
+			final int firstPath = pathBlock * numberOfPathsPerBlock;
+			final int lastPath = Math.min(firstPath + numberOfPathsPerBlock, numberOfPaths);
+			if(firstPath >= lastPath) {
+				return;
+			}
+
+			// Create random number sequence generator
+			final MersenneTwister mersenneTwister = new MersenneTwister(seed).getSubstream(firstPath * numberOfRandomNumbersPerPath);
+
+			for(int path=firstPath; path<lastPath; path++) {
+				for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+					final double sqrtDeltaT = sqrtOfTimeStep[timeIndex];
+					// Generate uncorrelated Brownian increment
+					for(int factor=0; factor<numberOfFactors; factor++) {
+						// Get uniform random number
+						final double uniformIncrement = mersenneTwister.nextDoubleFast();
+						// Transform uniform to normal using ICDF method
+						brownianIncrementsArray[timeIndex][factor][path] = NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+					}
 				}
 			}
-		}
+		});
 
 		// Allocate memory for RandomVariableFromDoubleArray wrapper objects.
 		brownianIncrements = new RandomVariable[timeDiscretization.getNumberOfTimeSteps()][numberOfFactors];
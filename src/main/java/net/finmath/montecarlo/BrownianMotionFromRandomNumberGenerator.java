@@ -7,6 +7,7 @@ package net.finmath.montecarlo;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.Validate;
 
@@ -34,6 +35,12 @@ import net.finmath.time.TimeDiscretization;
  *
  * The class is immutable and thread safe. It uses lazy initialization.
  *
+ * If the random number generator supports substreams (see {@link RandomNumberGenerator#isSubstreamSupported()}),
+ * the increments are generated concurrently on blocks of paths, each block using a substream of the generator.
+ * The substreams start at the current position of the generator and the generator is advanced by the number of paths
+ * (see {@link RandomNumberGenerator#skip(long)}), such that the generated increments are identical to those generated by a single thread,
+ * also if the generator is shared with other objects.
+ *
  * @author Christian Fries
  * @version 1.6
  */
@@ -156,16 +163,23 @@ public class BrownianMotionFromRandomNumberGenerator implements BrownianMotion,
 		 * 
 		 * Since we want to generate samples of that vector, the loop over path is the outer loop.
 		 */
-		for(int path=0; path<numberOfPaths; path++) {
-			final double[] randomNumbers = randomNumberGenerator.getNext();
-			for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
-				final double sqrtDeltaT = sqrtOfTimeStep[timeIndex];
-				// Generate uncorrelated Brownian increment
-				for(int factor=0; factor<numberOfFactors; factor++) {
-					final double uniformIncrement = randomNumbers[timeIndex * numberOfFactors + factor];
-					brownianIncrementsArray[timeIndex][factor][path] = net.finmath.functions.NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+		if(randomNumberGenerator.isSubstreamSupported()) {
+			// Reserve the sample vectors of all paths at the current position of the generator
+			final long firstSample = randomNumberGenerator.skip(numberOfPaths);
+
+			// Generate blocks of paths concurrently, each from a substream starting at the first path of the block
+			final int numberOfPathBlocks = Math.min(Runtime.getRuntime().availableProcessors(), numberOfPaths);
+			final int numberOfPathsPerBlock = (numberOfPaths + numberOfPathBlocks - 1) / numberOfPathBlocks;
+			IntStream.range(0, numberOfPathBlocks).parallel().forEach(pathBlock -> {
+				final int firstPath = pathBlock * numberOfPathsPerBlock;
+				final int lastPath = Math.min(firstPath + numberOfPathsPerBlock, numberOfPaths);
+				if(firstPath < lastPath) {
+					generateBrownianIncrements(randomNumberGenerator.getSubstream(firstSample + firstPath), firstPath, lastPath, sqrtOfTimeStep, brownianIncrementsArray);
 				}
-			}
+			});
+		}
+		else {
+			generateBrownianIncrements(randomNumberGenerator, 0, numberOfPaths, sqrtOfTimeStep, brownianIncrementsArray);
 		}
 
 		// Allocate memory for RandomVariableFromDoubleArray wrapper objects.
@@ -181,6 +195,20 @@ public class BrownianMotionFromRandomNumberGenerator implements BrownianMotion,
 		}
 	}
 
+	private void generateBrownianIncrements(final RandomNumberGenerator randomNumberGenerator, final int firstPath, final int lastPath, final double[] sqrtOfTimeStep, final double[][][] brownianIncrementsArray) {
+		for(int path=firstPath; path<lastPath; path++) {
+			final double[] randomNumbers = randomNumberGenerator.getNext();
+			for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+				final double sqrtDeltaT = sqrtOfTimeStep[timeIndex];
+				// Generate uncorrelated Brownian increment
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					final double uniformIncrement = randomNumbers[timeIndex * numberOfFactors + factor];
+					brownianIncrementsArray[timeIndex][factor][path] = net.finmath.functions.NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+				}
+			}
+		}
+	}
+
 	@Override
 	public TimeDiscretization getTimeDiscretization() {
 		return timeDiscretization;
@@ -0,0 +1,326 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.Validate;
+
+import net.finmath.functions.NormalDistribution;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Implementation of a time-discrete n-dimensional Brownian motion
+ * <i>W = (W<sub>1</sub>,...,W<sub>n</sub>)</i> where <i>W<sub>i</sub></i> is
+ * a Brownian motion and <i>W<sub>i</sub></i>, <i>W<sub>j</sub></i> are
+ * independent for <i>i</i> not equal <i>j</i>, generating its increments on demand.
+ *
+ * In contrast to {@link BrownianMotionFromMersenneRandomNumbers}, which generates (and retains) the increments of all time steps
+ * at once, this class generates the increments of a single time step (a time slice) when it is requested and retains only
+ * the most recently requested time slice. If the increments are consumed time step by time step
+ * (as done by {@link net.finmath.montecarlo.process.EulerSchemeFromProcessModel}), the memory requirement of the stochastic driver is that of a
+ * single time slice, i.e., it is bounded by the memory requirement of the process state.
+ *
+ * The paths are split into blocks of <code>pathBlockSize</code> paths. The increments of a time step on a block of paths
+ * are generated from a Mersenne Twister substream initialized from the triple (seed, time index, block index). Hence, the increments of any
+ * time step and block can be generated independently of all others (in any order, concurrently, and again after they have been released),
+ * always giving the same numbers. Within a block, the loop over paths is the outer loop and the loop over factors is the inner loop.
+ *
+ * The numbers generated differ from those of {@link BrownianMotionFromMersenneRandomNumbers} for the same seed.
+ *
+ * The tuple (time discretization, number of factors, number of paths, seed, path block size)
+ * defines the state of an object of this class, i.e., objects for which
+ * these parameters agree, generate the same random numbers.
+ *
+ * The parameters defining the random numbers are immutable. The most recently requested time slice is cached,
+ * the cache is guarded by a lock, hence the class is thread safe. Note that consumers requesting different time steps
+ * concurrently replace each other's time slice, such that time slices may be generated more than once.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class BrownianMotionStreaming implements BrownianMotion, Serializable {
+
+	private static final long serialVersionUID = 4125346498211416393L;
+
+	private static final int defaultPathBlockSize = 4096;
+
+	private final TimeDiscretization	timeDiscretization;
+
+	private final int			numberOfFactors;
+	private final int			numberOfPaths;
+	private final int			seed;
+	private final int			pathBlockSize;
+
+	private final RandomVariableFactory randomVariableFactory;
+
+	/*
+	 * The most recently requested time slice (released once another time slice is requested).
+	 */
+	private transient	int					timeIndexOfTimeSlice = -1;
+	private transient	RandomVariable[]	timeSlice;
+	private transient 	Object				timeSliceLock = new Object();
+
+	/**
+	 * Construct a Brownian motion generating its increments on demand.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param pathBlockSize The number of paths generated from a single random number substream.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionStreaming(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final int pathBlockSize,
+			final RandomVariableFactory randomVariableFactory) {
+		super();
+		Validate.isTrue(numberOfFactors > 0, "Number of factors must be greater or equal 1 (given %d).", numberOfFactors);
+		Validate.isTrue(numberOfPaths > 0, "Number of paths must be greater or equal 1 (given %d).", numberOfPaths);
+		Validate.isTrue(pathBlockSize > 0, "Path block size must be greater or equal 1 (given %d).", pathBlockSize);
+
+		this.timeDiscretization = timeDiscretization;
+		this.numberOfFactors	= numberOfFactors;
+		this.numberOfPaths		= numberOfPaths;
+		this.seed				= seed;
+		this.pathBlockSize		= pathBlockSize;
+
+		this.randomVariableFactory = randomVariableFactory;
+	}
+
+	/**
+	 * Construct a Brownian motion generating its increments on demand.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionStreaming(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final RandomVariableFactory randomVariableFactory) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, defaultPathBlockSize, randomVariableFactory);
+	}
+
+	/**
+	 * Construct a Brownian motion generating its increments on demand.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 */
+	public BrownianMotionStreaming(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, new RandomVariableFromArrayFactory());
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
+		return new BrownianMotionStreaming(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, pathBlockSize, randomVariableFactory);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		return new BrownianMotionStreaming(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), pathBlockSize, randomVariableFactory);
+	}
+
+	@Override
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+		synchronized(timeSliceLock) {
+			if(timeIndexOfTimeSlice != timeIndex) {
+				// Release the previous time slice before generating the new one
+				timeIndexOfTimeSlice = -1;
+				timeSlice = null;
+				timeSlice = getTimeSlice(timeIndex, 0, numberOfPaths);
+				timeIndexOfTimeSlice = timeIndex;
+			}
+			return timeSlice[factor];
+		}
+	}
+
+	@Override
+	public RandomVariable[] getIncrement(final int timeIndex) {
+		synchronized(timeSliceLock) {
+			getBrownianIncrement(timeIndex, 0);
+			return timeSlice.clone();
+		}
+	}
+
+	/**
+	 * Returns the Brownian increments (all factors) of a given time step restricted to the paths
+	 * <code>firstPath</code> (inclusive) to <code>lastPath</code> (exclusive). Only the path blocks
+	 * intersecting the given paths are generated and the increments are not retained.
+	 *
+	 * The realization of path <code>k</code> of the returned random variable for factor <code>i</code> is the realization of path <code>firstPath + k</code>
+	 * of <code>getBrownianIncrement(timeIndex, i)</code>.
+	 *
+	 * @param timeIndex The time index (corresponding to the this class's time discretization).
+	 * @param firstPath The index of the first path (inclusive).
+	 * @param lastPath The index of the last path (exclusive).
+	 * @return Array of the Brownian increments on the given paths, one for each factor.
+	 */
+	public RandomVariable[] getIncrement(final int timeIndex, final int firstPath, final int lastPath) {
+		synchronized(timeSliceLock) {
+			if(timeIndexOfTimeSlice == timeIndex && firstPath == 0 && lastPath == numberOfPaths) {
+				return timeSlice.clone();
+			}
+		}
+		return getTimeSlice(timeIndex, firstPath, lastPath);
+	}
+
+	/**
+	 * Generate the Brownian increments of a given time step (all factors) on the paths <code>firstPath</code> (inclusive) to <code>lastPath</code> (exclusive).
+	 *
+	 * @param timeIndex The time index.
+	 * @param firstPath The index of the first path (inclusive).
+	 * @param lastPath The index of the last path (exclusive).
+	 * @return Array of the Brownian increments, one for each factor.
+	 */
+	private RandomVariable[] getTimeSlice(final int timeIndex, final int firstPath, final int lastPath) {
+		if(timeIndex < 0 || timeIndex >= timeDiscretization.getNumberOfTimeSteps()) {
+			throw new ArrayIndexOutOfBoundsException("Time index " + timeIndex + " out of range [0," + timeDiscretization.getNumberOfTimeSteps() + ").");
+		}
+		if(firstPath < 0 || lastPath > numberOfPaths || firstPath >= lastPath) {
+			throw new IllegalArgumentException("Invalid path range [" + firstPath + "," + lastPath + ") for " + numberOfPaths + " paths.");
+		}
+
+		final double sqrtDeltaT = Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+		final int numberOfPathsOfSlice = lastPath - firstPath;
+		final double[][] brownianIncrementsArray = new double[numberOfFactors][numberOfPathsOfSlice];
+
+		final int firstBlock	= firstPath / pathBlockSize;
+		final int lastBlock		= (lastPath - 1) / pathBlockSize;
+		IntStream.rangeClosed(firstBlock, lastBlock).parallel().forEach(blockIndex -> {
+			// Substream of the block
+			final org.apache.commons.math3.random.MersenneTwister mersenneTwister = new org.apache.commons.math3.random.MersenneTwister(new int[] { seed, timeIndex, blockIndex });
+
+			final int firstPathOfBlock	= blockIndex * pathBlockSize;
+			final int lastPathOfBlock	= Math.min(firstPathOfBlock + pathBlockSize, lastPath);
+
+			// Skip the paths of the block before firstPath
+			for(int path=firstPathOfBlock; path<firstPath; path++) {
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					mersenneTwister.nextDouble();
+				}
+			}
+
+			for(int path=Math.max(firstPathOfBlock, firstPath); path<lastPathOfBlock; path++) {
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					// Transform uniform to normal using ICDF method
+					final double uniformIncrement = mersenneTwister.nextDouble();
+					brownianIncrementsArray[factor][path-firstPath] = NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+				}
+			}
+		});
+
+		final double time = timeDiscretization.getTime(timeIndex+1);
+		final RandomVariable[] brownianIncrements = new RandomVariable[numberOfFactors];
+		for(int factor=0; factor<numberOfFactors; factor++) {
+			brownianIncrements[factor] = randomVariableFactory.createRandomVariable(time, brownianIncrementsArray[factor]);
+		}
+
+		return brownianIncrements;
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return numberOfFactors;
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return randomVariableFactory.createRandomVariable(value);
+	}
+
+	/**
+	 * @return Returns the seed.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return The number of paths generated from a single random number substream.
+	 */
+	public int getPathBlockSize() {
+		return pathBlockSize;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [timeDiscretization=" + timeDiscretization + ", numberOfFactors="
+				+ numberOfFactors + ", numberOfPaths=" + numberOfPaths + ", seed=" + seed
+				+ ", pathBlockSize=" + pathBlockSize + ", randomVariableFactory=" + randomVariableFactory + "]";
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		final BrownianMotionStreaming that = (BrownianMotionStreaming) o;
+
+		if (numberOfFactors != that.numberOfFactors) {
+			return false;
+		}
+		if (numberOfPaths != that.numberOfPaths) {
+			return false;
+		}
+		if (seed != that.seed) {
+			return false;
+		}
+		if (pathBlockSize != that.pathBlockSize) {
+			return false;
+		}
+		return timeDiscretization.equals(that.timeDiscretization);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = timeDiscretization.hashCode();
+		result = 31 * result + numberOfFactors;
+		result = 31 * result + numberOfPaths;
+		result = 31 * result + seed;
+		result = 31 * result + pathBlockSize;
+		return result;
+	}
+
+	private void readObject(final java.io.ObjectInputStream in) throws ClassNotFoundException, IOException {
+		in.defaultReadObject();
+		// initialization of transients
+		timeIndexOfTimeSlice = -1;
+		timeSliceLock = new Object();
+	}
+}
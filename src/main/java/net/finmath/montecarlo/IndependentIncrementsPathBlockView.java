@@ -0,0 +1,156 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.montecarlo;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Independent increments which are defined by a block of paths of given independent increments,
+ * i.e., for given increments \( \Delta X \) with <code>n</code> paths, this object provides
+ * the increments \( \Delta X(\omega_{k}) \) for \( k = \mathrm{firstPath}, \ldots, \mathrm{lastPath}-1 \).
+ *
+ * You may use this class to evolve a process on disjoint blocks of paths, e.g., to
+ * evolve the blocks concurrently.
+ *
+ * The realizations of the block are copied on each call. Random variables backed
+ * by a <code>float[]</code> are sliced into {@link RandomVariableFromFloatArray}, all other
+ * stochastic random variables are sliced into {@link RandomVariableFromDoubleArray}, preserving
+ * the filtration time and the type priority. Deterministic random variables are returned as they are.
+ * If the given increments are a {@link BrownianMotionStreaming}, only the paths of the block are generated
+ * (all factors of a time step at once) and the most recently requested time step is retained, such that
+ * requesting the factors of a time step one by one generates the time step only once.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class IndependentIncrementsPathBlockView implements IndependentIncrements {
+
+	private final IndependentIncrements	increments;
+	private final int					firstPath;
+	private final int					lastPath;
+
+	/*
+	 * The most recently requested time slice of the block (only used if the given increments are a BrownianMotionStreaming).
+	 */
+	private int					timeIndexOfTimeSlice = -1;
+	private RandomVariable[]	timeSlice;
+
+	/**
+	 * Create a view on the paths <code>firstPath</code> (inclusive) to <code>lastPath</code> (exclusive)
+	 * of given independent increments.
+	 *
+	 * @param increments The given independent increments.
+	 * @param firstPath The index of the first path of the block (inclusive).
+	 * @param lastPath The index of the last path of the block (exclusive).
+	 */
+	public IndependentIncrementsPathBlockView(final IndependentIncrements increments, final int firstPath, final int lastPath) {
+		super();
+		if(firstPath < 0 || lastPath > increments.getNumberOfPaths() || firstPath >= lastPath) {
+			throw new IllegalArgumentException("Invalid path block [" + firstPath + "," + lastPath + ") for increments with " + increments.getNumberOfPaths() + " paths.");
+		}
+		this.increments = increments;
+		this.firstPath = firstPath;
+		this.lastPath = lastPath;
+	}
+
+	@Override
+	public RandomVariable getIncrement(final int timeIndex, final int factor) {
+		if(increments instanceof BrownianMotionStreaming) {
+			return getTimeSlice(timeIndex)[factor];
+		}
+		return getRandomVariableOnPathBlock(increments.getIncrement(timeIndex, factor));
+	}
+
+	@Override
+	public RandomVariable[] getIncrement(final int timeIndex) {
+		if(increments instanceof BrownianMotionStreaming) {
+			return getTimeSlice(timeIndex).clone();
+		}
+		return IndependentIncrements.super.getIncrement(timeIndex);
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return increments.getTimeDiscretization();
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return increments.getNumberOfFactors();
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return lastPath - firstPath;
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return increments.getRandomVariableForConstant(value);
+	}
+
+	@Override
+	public IndependentIncrements getCloneWithModifiedSeed(final int seed) {
+		return new IndependentIncrementsPathBlockView(increments.getCloneWithModifiedSeed(seed), firstPath, lastPath);
+	}
+
+	@Override
+	public IndependentIncrements getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		return new IndependentIncrementsPathBlockView(increments.getCloneWithModifiedTimeDiscretization(newTimeDiscretization), firstPath, lastPath);
+	}
+
+	/**
+	 * @return The index of the first path of the block (inclusive).
+	 */
+	public int getFirstPath() {
+		return firstPath;
+	}
+
+	/**
+	 * @return The index of the last path of the block (exclusive).
+	 */
+	public int getLastPath() {
+		return lastPath;
+	}
+
+	/*
+	 * Returns the increments of all factors of a time step on the paths of the block, generating only the paths of the block.
+	 * The most recently requested time slice is retained (released once another time slice is requested).
+	 */
+	private synchronized RandomVariable[] getTimeSlice(final int timeIndex) {
+		if(timeIndexOfTimeSlice != timeIndex) {
+			timeIndexOfTimeSlice = -1;
+			timeSlice = null;
+			timeSlice = ((BrownianMotionStreaming)increments).getIncrement(timeIndex, firstPath, lastPath);
+			timeIndexOfTimeSlice = timeIndex;
+		}
+		return timeSlice;
+	}
+
+	private RandomVariable getRandomVariableOnPathBlock(final RandomVariable randomVariable) {
+		if(randomVariable == null || randomVariable.isDeterministic()) {
+			return randomVariable;
+		}
+
+		final double[] realizations = new double[lastPath - firstPath];
+		for(int path=firstPath; path<lastPath; path++) {
+			realizations[path-firstPath] = randomVariable.get(path);
+		}
+		if(randomVariable instanceof RandomVariableFromFloatArray) {
+			return new RandomVariableFromFloatArray(randomVariable.getFiltrationTime(), realizations);
+		}
+		else {
+			return new RandomVariableFromDoubleArray(randomVariable.getFiltrationTime(), realizations, randomVariable.getTypePriority());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [increments=" + increments + ", firstPath=" + firstPath + ", lastPath=" + lastPath + "]";
+	}
+}
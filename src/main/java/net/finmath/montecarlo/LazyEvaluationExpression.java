@@ -0,0 +1,809 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A node of the expression graph (a directed acyclic graph) of a {@link RandomVariableLazyEvaluation}.
+ *
+ * An expression is either a leaf (the realizations of a random variable, a function of the path index or a constant)
+ * or an operator applied to one to three other expressions. The expression is evaluated by {@link #evaluate(int)}, which
+ * <ul>
+ * 	<li>compiles the graph into a sequence of instructions, where identical sub-expressions (same operator applied to
+ * 	the same arguments) are evaluated only once (common sub-expression elimination),</li>
+ * 	<li>evaluates the instructions block-wise in a single (fused) loop over the paths, where the intermediate results
+ * 	of a block are kept in small (cache resident) buffers, constants are filled into a buffer only once and each operator
+ * 	is a simple loop over a block (which can be inlined and vectorized by the JIT),</li>
+ * 	<li>distributes the blocks across the cores of the common fork join pool if the number of paths is large.</li>
+ * </ul>
+ *
+ * Expressions are immutable. Sub-expressions may be shared among random variables.
+ *
+ * @author Christian Fries
+ */
+final class LazyEvaluationExpression {
+
+	/**
+	 * The number of paths evaluated in one block.
+	 */
+	private static final int BLOCK_SIZE = 1024;
+
+	/**
+	 * The number of blocks evaluated by one task of a multi-threaded evaluation.
+	 */
+	private static final int NUMBER_OF_BLOCKS_PER_TASK = 16;
+
+	private static final boolean isUseMultiThreadding = Boolean.parseBoolean(System.getProperty("net.finmath.montecarlo.RandomVariableLazyEvaluation.isUseMultiThreadding","true"));
+
+	/**
+	 * The operators of an expression. The element-wise operations are identical to those of {@link RandomVariableFromDoubleArray}.
+	 */
+	enum Operator {
+		/** Leaf: the realizations of a random variable. */
+		VALUE(0),
+		/** Leaf: a function of the path index. */
+		FUNCTION(0),
+		/** Leaf: a constant. */
+		CONSTANT(0),
+
+		SQUARED(1) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x * x;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					final double value = x[xOffset+i];
+					result[resultOffset+i] = value * value;
+				}
+			}
+		},
+		SQRT(1) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return Math.sqrt(x);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = Math.sqrt(x[xOffset+i]);
+				}
+			}
+		},
+		EXP(1) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return Math.exp(x);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = Math.exp(x[xOffset+i]);
+				}
+			}
+		},
+		LOG(1) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return Math.log(x);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = Math.log(x[xOffset+i]);
+				}
+			}
+		},
+		SIN(1) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return Math.sin(x);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = Math.sin(x[xOffset+i]);
+				}
+			}
+		},
+		COS(1) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return Math.cos(x);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = Math.cos(x[xOffset+i]);
+				}
+			}
+		},
+		INVERT(1) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return 1.0 / x;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = 1.0 / x[xOffset+i];
+				}
+			}
+		},
+		ABS(1) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return Math.abs(x);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = Math.abs(x[xOffset+i]);
+				}
+			}
+		},
+		UNARY_FUNCTION(1) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return ((DoubleUnaryOperator)function).applyAsDouble(x);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				final DoubleUnaryOperator operator = (DoubleUnaryOperator)function;
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = operator.applyAsDouble(x[xOffset+i]);
+				}
+			}
+		},
+
+		ADD(2) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x + y;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = x[xOffset+i] + y[yOffset+i];
+				}
+			}
+		},
+		SUB(2) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x - y;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = x[xOffset+i] - y[yOffset+i];
+				}
+			}
+		},
+		MULT(2) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x * y;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = x[xOffset+i] * y[yOffset+i];
+				}
+			}
+		},
+		DIV(2) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x / y;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = x[xOffset+i] / y[yOffset+i];
+				}
+			}
+		},
+		CAP(2) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return Math.min(x, y);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = Math.min(x[xOffset+i], y[yOffset+i]);
+				}
+			}
+		},
+		FLOOR(2) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return Math.max(x, y);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = Math.max(x[xOffset+i], y[yOffset+i]);
+				}
+			}
+		},
+		POW(2) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return Math.pow(x, y);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = Math.pow(x[xOffset+i], y[yOffset+i]);
+				}
+			}
+		},
+		BINARY_FUNCTION(2) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return ((DoubleBinaryOperator)function).applyAsDouble(x, y);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				final DoubleBinaryOperator operator = (DoubleBinaryOperator)function;
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = operator.applyAsDouble(x[xOffset+i], y[yOffset+i]);
+				}
+			}
+		},
+
+		ADD_PRODUCT(3) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x + y * z;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = x[xOffset+i] + y[yOffset+i] * z[zOffset+i];
+				}
+			}
+		},
+		ADD_RATIO(3) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x + y / z;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = x[xOffset+i] + y[yOffset+i] / z[zOffset+i];
+				}
+			}
+		},
+		SUB_RATIO(3) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x - y / z;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = x[xOffset+i] - y[yOffset+i] / z[zOffset+i];
+				}
+			}
+		},
+		ACCRUE(3) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x * (1.0 + y * z);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = x[xOffset+i] * (1.0 + y[yOffset+i] * z[zOffset+i]);
+				}
+			}
+		},
+		DISCOUNT(3) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x / (1.0 + y * z);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = x[xOffset+i] / (1.0 + y[yOffset+i] * z[zOffset+i]);
+				}
+			}
+		},
+		CHOOSE(3) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return x >= 0 ? y : z;
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				for(int i=0; i<length; i++) {
+					// Select the bits by a mask (the JIT compiles the ternary operator to a badly predictable branch)
+					final long mask = -(long)(x[xOffset+i] >= 0 ? 1 : 0);
+					final long valueIfTriggerNonNegative = Double.doubleToRawLongBits(y[yOffset+i]);
+					final long valueIfTriggerNegative = Double.doubleToRawLongBits(z[zOffset+i]);
+					result[resultOffset+i] = Double.longBitsToDouble((valueIfTriggerNonNegative & mask) | (valueIfTriggerNegative & ~mask));
+				}
+			}
+		},
+		TERNARY_FUNCTION(3) {
+			@Override
+			double apply(final double x, final double y, final double z, final Object function) {
+				return ((DoubleTernaryOperator)function).applyAsDouble(x, y, z);
+			}
+
+			@Override
+			void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+				final DoubleTernaryOperator operator = (DoubleTernaryOperator)function;
+				for(int i=0; i<length; i++) {
+					result[resultOffset+i] = operator.applyAsDouble(x[xOffset+i], y[yOffset+i], z[zOffset+i]);
+				}
+			}
+		};
+
+		private final int numberOfArguments;
+
+		Operator(final int numberOfArguments) {
+			this.numberOfArguments = numberOfArguments;
+		}
+
+		int getNumberOfArguments() {
+			return numberOfArguments;
+		}
+
+		/**
+		 * Apply the operator to scalar arguments (used if all arguments are deterministic).
+		 *
+		 * @param x The first argument.
+		 * @param y The second argument (if any).
+		 * @param z The third argument (if any).
+		 * @param function The function object of the operators <code>*_FUNCTION</code>.
+		 * @return The result.
+		 */
+		double apply(final double x, final double y, final double z, final Object function) {
+			throw new UnsupportedOperationException("Operator " + this + " is a leaf.");
+		}
+
+		/**
+		 * Apply the operator to a block of realizations.
+		 *
+		 * @param length The length of the block.
+		 * @param result The array receiving the result.
+		 * @param resultOffset The offset of the block in <code>result</code>.
+		 * @param x The first argument.
+		 * @param xOffset The offset of the block in <code>x</code>.
+		 * @param y The second argument (if any).
+		 * @param yOffset The offset of the block in <code>y</code>.
+		 * @param z The third argument (if any).
+		 * @param zOffset The offset of the block in <code>z</code>.
+		 * @param function The function object of the operators <code>*_FUNCTION</code>.
+		 */
+		void apply(final int length, final double[] result, final int resultOffset, final double[] x, final int xOffset, final double[] y, final int yOffset, final double[] z, final int zOffset, final Object function) {
+			throw new UnsupportedOperationException("Operator " + this + " is a leaf.");
+		}
+	}
+
+	private final Operator operator;
+	private final LazyEvaluationExpression[] arguments;
+
+	// Data of the leafs and function operators (otherwise null or NaN)
+	private final Object function;
+	private final RandomVariable randomVariable;
+	private final double[] values;
+	private final double constant;
+
+	private final int numberOfNodes;
+
+	private LazyEvaluationExpression(final Operator operator, final LazyEvaluationExpression[] arguments, final Object function, final RandomVariable randomVariable, final double[] values, final double constant) {
+		super();
+		this.operator = operator;
+		this.arguments = arguments;
+		this.function = function;
+		this.randomVariable = randomVariable;
+		this.values = values;
+		this.constant = constant;
+
+		int numberOfNodes = 1;
+		for(final LazyEvaluationExpression argument : arguments) {
+			numberOfNodes += argument.numberOfNodes;
+		}
+		this.numberOfNodes = numberOfNodes;
+	}
+
+	/**
+	 * Create a leaf representing the realizations of a (stochastic) random variable.
+	 * The realizations are requested (via {@link RandomVariable#getRealizations()}) upon evaluation.
+	 *
+	 * @param randomVariable The random variable.
+	 * @return The expression.
+	 */
+	static LazyEvaluationExpression of(final RandomVariable randomVariable) {
+		return new LazyEvaluationExpression(Operator.VALUE, new LazyEvaluationExpression[0], null, randomVariable, null, Double.NaN);
+	}
+
+	/**
+	 * Create a leaf representing given realizations.
+	 *
+	 * @param values The realizations.
+	 * @return The expression.
+	 */
+	static LazyEvaluationExpression of(final double[] values) {
+		return new LazyEvaluationExpression(Operator.VALUE, new LazyEvaluationExpression[0], null, null, values, Double.NaN);
+	}
+
+	/**
+	 * Create a leaf representing a function of the path index.
+	 *
+	 * @param function The function.
+	 * @return The expression.
+	 */
+	static LazyEvaluationExpression of(final IntToDoubleFunction function) {
+		return new LazyEvaluationExpression(Operator.FUNCTION, new LazyEvaluationExpression[0], function, null, null, Double.NaN);
+	}
+
+	/**
+	 * Create a leaf representing a constant.
+	 *
+	 * @param constant The constant.
+	 * @return The expression.
+	 */
+	static LazyEvaluationExpression of(final double constant) {
+		return new LazyEvaluationExpression(Operator.CONSTANT, new LazyEvaluationExpression[0], null, null, null, constant);
+	}
+
+	/**
+	 * Create an expression applying an operator to given arguments. If all arguments are constants, the result is a constant.
+	 *
+	 * @param operator The operator.
+	 * @param function The function object of the operators <code>*_FUNCTION</code> (otherwise null).
+	 * @param arguments The arguments.
+	 * @return The expression.
+	 */
+	static LazyEvaluationExpression of(final Operator operator, final Object function, final LazyEvaluationExpression... arguments) {
+		if(arguments.length != operator.getNumberOfArguments()) {
+			throw new IllegalArgumentException("Operator " + operator + " requires " + operator.getNumberOfArguments() + " arguments.");
+		}
+
+		boolean isConstant = true;
+		for(final LazyEvaluationExpression argument : arguments) {
+			isConstant &= argument.operator == Operator.CONSTANT;
+		}
+		if(isConstant) {
+			return of(operator.apply(getConstant(arguments, 0), getConstant(arguments, 1), getConstant(arguments, 2), function));
+		}
+
+		return new LazyEvaluationExpression(operator, arguments, function, null, null, Double.NaN);
+	}
+
+	/**
+	 * Returns the number of nodes of this expression, counting shared sub-expression multiple times.
+	 *
+	 * @return The number of nodes of this expression.
+	 */
+	int getNumberOfNodes() {
+		return numberOfNodes;
+	}
+
+	/**
+	 * Evaluate the expression.
+	 *
+	 * @param size The number of paths.
+	 * @return The realizations.
+	 */
+	double[] evaluate(final int size) {
+		final Program program = new Program(this);
+		final double[] result = new double[size];
+
+		final int numberOfBlocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		final int numberOfTasks = (numberOfBlocks + NUMBER_OF_BLOCKS_PER_TASK - 1) / NUMBER_OF_BLOCKS_PER_TASK;
+		if(isUseMultiThreadding && numberOfTasks > 1) {
+			IntStream.range(0, numberOfTasks).parallel().forEach(task -> program.evaluate(result, size, task * NUMBER_OF_BLOCKS_PER_TASK, Math.min((task+1) * NUMBER_OF_BLOCKS_PER_TASK, numberOfBlocks)));
+		}
+		else {
+			program.evaluate(result, size, 0, numberOfBlocks);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Evaluate the sum of the realizations of the expression. The realizations are not stored (only the blocks are).
+	 *
+	 * @param size The number of paths.
+	 * @return The sum of the realizations.
+	 */
+	double sum(final int size) {
+		final Program program = new Program(this);
+
+		final int numberOfBlocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		final int numberOfTasks = (numberOfBlocks + NUMBER_OF_BLOCKS_PER_TASK - 1) / NUMBER_OF_BLOCKS_PER_TASK;
+		if(isUseMultiThreadding && numberOfTasks > 1) {
+			return IntStream.range(0, numberOfTasks).parallel().mapToDouble(task -> program.evaluate(null, size, task * NUMBER_OF_BLOCKS_PER_TASK, Math.min((task+1) * NUMBER_OF_BLOCKS_PER_TASK, numberOfBlocks))).sum();
+		}
+		else {
+			return program.evaluate(null, size, 0, numberOfBlocks);
+		}
+	}
+
+	private static double getConstant(final LazyEvaluationExpression[] arguments, final int index) {
+		return index < arguments.length ? arguments[index].constant : Double.NaN;
+	}
+
+	/**
+	 * The key identifying an expression in the common sub-expression elimination: two expressions are identical if they
+	 * apply the same operator (with the same function object) to the same compiled arguments, or if they are leafs
+	 * referring to the same object (or constant).
+	 */
+	private static final class Key {
+		private final Operator operator;
+		private final Object object;
+		private final long constantBits;
+		private final int[] arguments;
+
+		Key(final Operator operator, final Object object, final double constant, final int[] arguments) {
+			this.operator = operator;
+			this.object = object;
+			this.constantBits = Double.doubleToLongBits(constant);
+			this.arguments = arguments;
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if(!(other instanceof Key)) {
+				return false;
+			}
+			final Key key = (Key)other;
+			return operator == key.operator && object == key.object && constantBits == key.constantBits && Arrays.equals(arguments, key.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return ((operator.hashCode() * 31 + System.identityHashCode(object)) * 31 + Long.hashCode(constantBits)) * 31 + Arrays.hashCode(arguments);
+		}
+	}
+
+	/**
+	 * The compiled expression: a sequence of instructions operating on block buffers.
+	 *
+	 * Each (distinct) node of the graph is an operand. An operand is either an array of realizations (a leaf, accessed at the
+	 * offset of the block) or a buffer holding the values of the current block (constants and results of instructions).
+	 * Buffers are re-used once their value is no longer needed.
+	 */
+	private static final class Program {
+
+		private final List<double[]> operandArrays = new ArrayList<>();		// Realizations of leafs (otherwise null)
+		private final List<Integer> operandBuffers = new ArrayList<>();		// Buffer index (otherwise -1)
+
+		private final List<Operator> instructionOperators = new ArrayList<>();
+		private final List<Object> instructionFunctions = new ArrayList<>();
+		private final List<int[]> instructionArguments = new ArrayList<>();
+		private final List<Integer> instructionResults = new ArrayList<>();
+
+		private final Map<Integer, Double> constantBuffers = new HashMap<>();
+
+		private int numberOfBuffers;
+
+		Program(final LazyEvaluationExpression expression) {
+			final Map<Key, Integer> operandOfKey = new HashMap<>();
+			final IdentityHashMap<LazyEvaluationExpression, Integer> operandOfExpression = new IdentityHashMap<>();
+
+			final int result = compile(expression, operandOfKey, operandOfExpression);
+			if(operandArrays.get(result) != null || instructionResults.isEmpty() || instructionResults.get(instructionResults.size()-1) != result) {
+				// The result is not calculated by the last instruction (e.g. a leaf): copy it
+				final int copy = addInstruction(Operator.UNARY_FUNCTION, DoubleUnaryOperator.identity(), new int[] { result });
+				allocateBuffers(copy);
+			}
+			else {
+				allocateBuffers(result);
+			}
+		}
+
+		private int compile(final LazyEvaluationExpression expression, final Map<Key, Integer> operandOfKey, final IdentityHashMap<LazyEvaluationExpression, Integer> operandOfExpression) {
+			final Integer compiled = operandOfExpression.get(expression);
+			if(compiled != null) {
+				return compiled;
+			}
+
+			final int[] arguments = new int[expression.arguments.length];
+			for(int i=0; i<arguments.length; i++) {
+				arguments[i] = compile(expression.arguments[i], operandOfKey, operandOfExpression);
+			}
+
+			final Object object;
+			switch(expression.operator) {
+			case VALUE:
+				object = expression.values != null ? expression.values : expression.randomVariable;
+				break;
+			default:
+				object = expression.function;
+			}
+
+			final Key key = new Key(expression.operator, object, expression.constant, arguments);
+			Integer operand = operandOfKey.get(key);
+			if(operand == null) {
+				switch(expression.operator) {
+				case VALUE:
+					operand = addOperand(expression.values != null ? expression.values : expression.randomVariable.getRealizations());
+					break;
+				case CONSTANT:
+					operand = addOperand(null);
+					constantBuffers.put(operand, expression.constant);
+					break;
+				default:
+					operand = addInstruction(expression.operator, expression.function, arguments);
+				}
+				operandOfKey.put(key, operand);
+			}
+			operandOfExpression.put(expression, operand);
+			return operand;
+		}
+
+		private int addOperand(final double[] array) {
+			operandArrays.add(array);
+			operandBuffers.add(-1);
+			return operandArrays.size()-1;
+		}
+
+		private int addInstruction(final Operator operator, final Object function, final int[] arguments) {
+			final int result = addOperand(null);
+			instructionOperators.add(operator);
+			instructionFunctions.add(function);
+			instructionArguments.add(arguments);
+			instructionResults.add(result);
+			return result;
+		}
+
+		/**
+		 * Assign buffers to operands. Constants have their own buffer. The buffer of an instruction result is released after its last use.
+		 * The final result is written directly to the result array (buffer index -1).
+		 */
+		private void allocateBuffers(final int result) {
+			for(final Integer operand : constantBuffers.keySet()) {
+				operandBuffers.set(operand, numberOfBuffers++);
+			}
+
+			final int[] lastUse = new int[operandArrays.size()];
+			Arrays.fill(lastUse, -1);
+			for(int instruction=0; instruction<instructionArguments.size(); instruction++) {
+				for(final int argument : instructionArguments.get(instruction)) {
+					lastUse[argument] = instruction;
+				}
+			}
+
+			final Deque<Integer> freeBuffers = new ArrayDeque<>();
+			for(int instruction=0; instruction<instructionArguments.size(); instruction++) {
+				for(final int argument : instructionArguments.get(instruction)) {
+					if(lastUse[argument] == instruction && operandArrays.get(argument) == null && !constantBuffers.containsKey(argument)) {
+						// Operations are element-wise, hence the result may overwrite an argument
+						freeBuffers.push(operandBuffers.get(argument));
+						lastUse[argument] = -1;
+					}
+				}
+				final int operand = instructionResults.get(instruction);
+				if(operand != result) {
+					operandBuffers.set(operand, freeBuffers.isEmpty() ? numberOfBuffers++ : freeBuffers.pop());
+				}
+			}
+		}
+
+		/**
+		 * Evaluate a range of blocks.
+		 *
+		 * @param result The result array or null, if only the sum of the realizations is required.
+		 * @param size The number of paths.
+		 * @param firstBlock The index of the first block.
+		 * @param lastBlock The index of the last block (exclusive).
+		 * @return The sum of the realizations of the blocks, if <code>result</code> is null (otherwise 0).
+		 */
+		double evaluate(final double[] result, final int size, final int firstBlock, final int lastBlock) {
+			final double[][] buffers = new double[numberOfBuffers][BLOCK_SIZE];
+			final double[] resultBlock = result != null ? result : new double[BLOCK_SIZE];
+			for(final Map.Entry<Integer, Double> constant : constantBuffers.entrySet()) {
+				Arrays.fill(buffers[operandBuffers.get(constant.getKey())], constant.getValue());
+			}
+
+			// Resolve operands (arrays or buffers) once
+			final int numberOfInstructions = instructionOperators.size();
+			final Operator[] operators = instructionOperators.toArray(new Operator[numberOfInstructions]);
+			final Object[] functions = instructionFunctions.toArray();
+			final double[][][] argumentArrays = new double[numberOfInstructions][3][];
+			final boolean[][] isArgumentBuffer = new boolean[numberOfInstructions][3];
+			final double[][] resultArrays = new double[numberOfInstructions][];
+			for(int instruction=0; instruction<numberOfInstructions; instruction++) {
+				final int[] arguments = instructionArguments.get(instruction);
+				for(int i=0; i<arguments.length; i++) {
+					final double[] array = operandArrays.get(arguments[i]);
+					isArgumentBuffer[instruction][i] = array == null;
+					argumentArrays[instruction][i] = array != null ? array : buffers[operandBuffers.get(arguments[i])];
+				}
+				final int resultBuffer = operandBuffers.get(instructionResults.get(instruction));
+				resultArrays[instruction] = resultBuffer >= 0 ? buffers[resultBuffer] : resultBlock;
+			}
+
+			// Kahan summation of the blocks (if result is null)
+			double sum = 0.0;
+			double error = 0.0;
+			for(int block=firstBlock; block<lastBlock; block++) {
+				final int start = block * BLOCK_SIZE;
+				final int length = Math.min(BLOCK_SIZE, size - start);
+				for(int instruction=0; instruction<numberOfInstructions; instruction++) {
+					final double[][] arguments = argumentArrays[instruction];
+					final boolean[] isBuffer = isArgumentBuffer[instruction];
+					final double[] resultArray = resultArrays[instruction];
+					if(operators[instruction] == Operator.FUNCTION) {
+						final IntToDoubleFunction function = (IntToDoubleFunction)functions[instruction];
+						final int resultOffset = resultArray == result ? start : 0;
+						for(int i=0; i<length; i++) {
+							resultArray[resultOffset+i] = function.applyAsDouble(start+i);
+						}
+					}
+					else {
+						operators[instruction].apply(length,
+								resultArray, resultArray == result ? start : 0,
+								arguments[0], isBuffer[0] ? 0 : start,
+								arguments[1], isBuffer[1] ? 0 : start,
+								arguments[2], isBuffer[2] ? 0 : start,
+								functions[instruction]);
+					}
+				}
+
+				if(result == null) {
+					for(int i=0; i<length; i++) {
+						final double value = resultBlock[i] - error;
+						final double newSum = sum + value;
+						error = (newSum - sum) - value;
+						sum = newSum;
+					}
+				}
+			}
+
+			return sum;
+		}
+	}
+}
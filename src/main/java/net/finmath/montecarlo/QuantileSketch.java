@@ -0,0 +1,338 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A streaming approximation of the quantiles of a distribution (a merging t-digest).
+ *
+ * The sketch summarizes the values added to it by a small number of centroids (mean and weight), where
+ * the size of the centroids is bounded by the scale function
+ * \( k(q) = \frac{\delta}{2 \pi} \arcsin(2q-1) \) (with \( \delta \) being the compression),
+ * such that the centroids are small in the tails. The memory is O(&delta;), independent of the number of values,
+ * and the approximation is most accurate for extreme quantile levels (as required for VaR and expected shortfall).
+ *
+ * The sketch allows to aggregate the quantiles of a random variable which is calculated on blocks of paths,
+ * e.g., the value of a {@link RandomVariableAccumulatorFromDoubleArray} for each path block:
+ * the realizations of each block are added via {@link RandomVariableAccumulatorFromDoubleArray#addTo(QuantileSketch)}
+ * (or {@link #add(RandomVariable)}), and sketches of blocks processed in parallel can be combined via {@link #add(QuantileSketch)}.
+ *
+ * This class is not thread safe.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class QuantileSketch implements Serializable {
+
+	private static final long serialVersionUID = 2313040389374547712L;
+
+	private static final double DEFAULT_COMPRESSION = 200;
+
+	private final double compression;
+
+	// Centroids, sorted by their means
+	private double[]	means;
+	private double[]	weights;
+	private int			numberOfCentroids = 0;
+
+	// Values not yet merged into the centroids
+	private final double[]	buffer;
+	private int				numberOfBufferedValues = 0;
+
+	private double totalWeight = 0.0;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Create a sketch with a given compression. The number of centroids is bounded by (approximately) the compression.
+	 *
+	 * @param compression The compression &delta;, e.g. 100 or 200. Larger values give more accurate quantiles.
+	 */
+	public QuantileSketch(final double compression) {
+		super();
+		if(compression < 10) {
+			throw new IllegalArgumentException("Compression must be at least 10.");
+		}
+		this.compression = compression;
+
+		final int maximumNumberOfCentroids = (int)Math.ceil(compression) + 8;
+		means = new double[maximumNumberOfCentroids];
+		weights = new double[maximumNumberOfCentroids];
+		buffer = new double[5 * maximumNumberOfCentroids];
+	}
+
+	/**
+	 * Create a sketch with a compression of 200.
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Add a value to the sketch. NaN values are ignored.
+	 *
+	 * @param value The value.
+	 */
+	public void add(final double value) {
+		if(Double.isNaN(value)) {
+			return;
+		}
+		if(numberOfBufferedValues == buffer.length) {
+			compress();
+		}
+		buffer[numberOfBufferedValues++] = value;
+		totalWeight += 1.0;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Add all realizations of a random variable to the sketch, each with weight one.
+	 * A deterministic random variable adds one value.
+	 *
+	 * @param randomVariable The random variable.
+	 */
+	public void add(final RandomVariable randomVariable) {
+		if(randomVariable.isDeterministic()) {
+			add(randomVariable.doubleValue());
+		}
+		else {
+			for(int i=0; i<randomVariable.size(); i++) {
+				add(randomVariable.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Add all values summarized by another sketch (e.g. of another block of paths) to this sketch.
+	 *
+	 * @param sketch The other sketch. It is not modified.
+	 */
+	public void add(final QuantileSketch sketch) {
+		if(sketch.totalWeight == 0) {
+			return;
+		}
+
+		compress();
+
+		final QuantileSketch other = sketch.clone();
+		other.compress();
+
+		// Merge the two sorted lists of centroids, then compress
+		final int numberOfMergedCentroids = numberOfCentroids + other.numberOfCentroids;
+		final double[] mergedMeans = new double[numberOfMergedCentroids];
+		final double[] mergedWeights = new double[numberOfMergedCentroids];
+		int i = 0;
+		int j = 0;
+		for(int k=0; k<numberOfMergedCentroids; k++) {
+			if(j >= other.numberOfCentroids || (i < numberOfCentroids && means[i] <= other.means[j])) {
+				mergedMeans[k] = means[i];
+				mergedWeights[k] = weights[i++];
+			}
+			else {
+				mergedMeans[k] = other.means[j];
+				mergedWeights[k] = other.weights[j++];
+			}
+		}
+
+		totalWeight += other.totalWeight;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		compress(mergedMeans, mergedWeights, numberOfMergedCentroids);
+	}
+
+	/**
+	 * Returns the approximation of the quantile value for the given quantile level, that is a value x such that
+	 * the fraction of values less than x is (approximately) the quantile level.
+	 * The quantile level 0 gives the smallest, the quantile level 1 gives the largest value.
+	 *
+	 * @param quantile The quantile level in [0,1].
+	 * @return The approximate quantile value or NaN if the sketch is empty.
+	 */
+	public double getQuantile(final double quantile) {
+		if(quantile < 0 || quantile > 1) {
+			throw new IllegalArgumentException("Quantile level must be in [0,1].");
+		}
+		if(totalWeight == 0) {
+			return Double.NaN;
+		}
+
+		compress();
+
+		if(numberOfCentroids == 1) {
+			return means[0];
+		}
+
+		/*
+		 * Linear interpolation of the means, where a centroid i is located at the center of its cumulated weight,
+		 * and the min and max value are located at the boundaries.
+		 */
+		final double index = quantile * totalWeight;
+		if(index < weights[0] / 2.0) {
+			return min + (means[0] - min) * index / (weights[0] / 2.0);
+		}
+
+		double weightSoFar = weights[0] / 2.0;
+		for(int i=0; i<numberOfCentroids-1; i++) {
+			final double distance = (weights[i] + weights[i+1]) / 2.0;
+			if(weightSoFar + distance > index) {
+				return means[i] + (means[i+1] - means[i]) * (index - weightSoFar) / distance;
+			}
+			weightSoFar += distance;
+		}
+
+		final double fractionToMax = (index - weightSoFar) / (weights[numberOfCentroids-1] / 2.0);
+		return fractionToMax >= 1.0 ? max : means[numberOfCentroids-1] + (max - means[numberOfCentroids-1]) * fractionToMax;
+	}
+
+	/**
+	 * Returns the approximations of the quantile values for the given quantile levels, see {@link #getQuantile(double)}.
+	 *
+	 * @param quantiles The quantile levels in [0,1].
+	 * @return The approximate quantile values.
+	 */
+	public double[] getQuantiles(final double[] quantiles) {
+		final double[] quantileValues = new double[quantiles.length];
+		for(int i=0; i<quantiles.length; i++) {
+			quantileValues[i] = getQuantile(quantiles[i]);
+		}
+		return quantileValues;
+	}
+
+	/**
+	 * Returns the number of values added to this sketch.
+	 *
+	 * @return The number of values.
+	 */
+	public long getNumberOfValues() {
+		return (long)totalWeight;
+	}
+
+	/**
+	 * Returns the smallest value added to this sketch.
+	 *
+	 * @return The smallest value.
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * Returns the largest value added to this sketch.
+	 *
+	 * @return The largest value.
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns the compression of this sketch.
+	 *
+	 * @return The compression.
+	 */
+	public double getCompression() {
+		return compression;
+	}
+
+	@Override
+	public QuantileSketch clone() {
+		final QuantileSketch clone = new QuantileSketch(compression);
+		clone.means = means.clone();
+		clone.weights = weights.clone();
+		clone.numberOfCentroids = numberOfCentroids;
+		System.arraycopy(buffer, 0, clone.buffer, 0, numberOfBufferedValues);
+		clone.numberOfBufferedValues = numberOfBufferedValues;
+		clone.totalWeight = totalWeight;
+		clone.min = min;
+		clone.max = max;
+		return clone;
+	}
+
+	/**
+	 * Merges the buffered values into the centroids.
+	 */
+	private void compress() {
+		if(numberOfBufferedValues == 0) {
+			return;
+		}
+
+		Arrays.sort(buffer, 0, numberOfBufferedValues);
+
+		// Merge the sorted buffer (weights one) and the sorted centroids, then compress
+		final int numberOfMergedCentroids = numberOfCentroids + numberOfBufferedValues;
+		final double[] mergedMeans = new double[numberOfMergedCentroids];
+		final double[] mergedWeights = new double[numberOfMergedCentroids];
+		int i = 0;
+		int j = 0;
+		for(int k=0; k<numberOfMergedCentroids; k++) {
+			if(j >= numberOfBufferedValues || (i < numberOfCentroids && means[i] <= buffer[j])) {
+				mergedMeans[k] = means[i];
+				mergedWeights[k] = weights[i++];
+			}
+			else {
+				mergedMeans[k] = buffer[j++];
+				mergedWeights[k] = 1.0;
+			}
+		}
+		numberOfBufferedValues = 0;
+
+		compress(mergedMeans, mergedWeights, numberOfMergedCentroids);
+	}
+
+	/**
+	 * Compresses the given centroids (sorted by their means) into the centroids of this sketch, such that
+	 * each centroid spans at most one unit of the scale function k.
+	 */
+	private void compress(final double[] sortedMeans, final double[] sortedWeights, final int length) {
+		numberOfCentroids = 0;
+
+		double weightSoFar = 0.0;
+		double currentMean = sortedMeans[0];
+		double currentWeight = sortedWeights[0];
+		double kLowerBound = getScale(0.0);
+		for(int i=1; i<length; i++) {
+			final double proposedWeight = currentWeight + sortedWeights[i];
+			if(getScale((weightSoFar + proposedWeight) / totalWeight) - kLowerBound <= 1.0) {
+				// Merge into the current centroid
+				currentMean += (sortedMeans[i] - currentMean) * sortedWeights[i] / proposedWeight;
+				currentWeight = proposedWeight;
+			}
+			else {
+				addCentroid(currentMean, currentWeight);
+				weightSoFar += currentWeight;
+				kLowerBound = getScale(weightSoFar / totalWeight);
+				currentMean = sortedMeans[i];
+				currentWeight = sortedWeights[i];
+			}
+		}
+		addCentroid(currentMean, currentWeight);
+	}
+
+	private void addCentroid(final double mean, final double weight) {
+		if(numberOfCentroids == means.length) {
+			means = Arrays.copyOf(means, 2 * means.length);
+			weights = Arrays.copyOf(weights, 2 * weights.length);
+		}
+		means[numberOfCentroids] = mean;
+		weights[numberOfCentroids] = weight;
+		numberOfCentroids++;
+	}
+
+	private double getScale(final double quantile) {
+		return compression / (2 * Math.PI) * Math.asin(2 * Math.min(quantile, 1.0) - 1);
+	}
+
+	@Override
+	public String toString() {
+		return "QuantileSketch [compression=" + compression + ", numberOfValues=" + getNumberOfValues()
+		+ ", numberOfCentroids=" + numberOfCentroids + ", min=" + min + ", max=" + max + "]";
+	}
+}
@@ -0,0 +1,525 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+
+import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.RandomVariableAccumulator;
+
+/**
+ * A mutable accumulator of random variables, represented by a <code>double[]</code> buffer.
+ *
+ * The methods {@link #accumulate(RandomVariable)}, {@link #accumulateProduct(RandomVariable, double)},
+ * {@link #accumulateProduct(RandomVariable, RandomVariable)} and {@link #accumulateSumProduct(RandomVariable[], RandomVariable[])}
+ * update the buffer in place, i.e., they do not allocate intermediate random variables.
+ * The values are identical to those of the corresponding sequence of <code>add</code> and <code>addProduct</code>
+ * calls on {@link RandomVariableFromDoubleArray}.
+ *
+ * The accumulator only accepts arguments with a type priority not greater than that of {@link RandomVariableFromDoubleArray},
+ * i.e., it cannot be used with differentiable random variables (which would lose their dependency information).
+ *
+ * All other methods of {@link RandomVariable} are applied to an immutable copy of the current state, obtained via {@link #get()}.
+ * In particular, {@link #cache()} returns such a copy, such that the result may be stored while the accumulator is reused.
+ *
+ * This class is not thread safe.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableAccumulatorFromDoubleArray implements RandomVariableAccumulator {
+
+	private static final long serialVersionUID = -2378364458209516406L;
+
+	private static final int typePriorityDefault = 1;
+
+	private double			time;				// Time (filtration)
+	private final double[]	realizations;		// Realizations (the buffer)
+
+	/**
+	 * Create an accumulator with value zero on the given number of paths.
+	 *
+	 * @param numberOfPaths The number of paths (size of the buffer).
+	 */
+	public RandomVariableAccumulatorFromDoubleArray(final int numberOfPaths) {
+		super();
+		this.time = Double.NEGATIVE_INFINITY;
+		this.realizations = new double[numberOfPaths];
+	}
+
+	/**
+	 * Create an accumulator with a given initial value on the given number of paths.
+	 *
+	 * @param initialValue The initial value.
+	 * @param numberOfPaths The number of paths (size of the buffer).
+	 */
+	public RandomVariableAccumulatorFromDoubleArray(final RandomVariable initialValue, final int numberOfPaths) {
+		this(numberOfPaths);
+		accumulate(initialValue);
+	}
+
+	/**
+	 * Reset the accumulator to zero (with a filtration time of \( -\infty \)), keeping the buffer.
+	 */
+	public void reset() {
+		time = Double.NEGATIVE_INFINITY;
+		Arrays.fill(realizations, 0.0);
+	}
+
+	@Override
+	public void accumulate(final RandomVariable randomVariable) {
+		checkTypePriority(randomVariable);
+
+		time = Math.max(time, randomVariable.getFiltrationTime());
+		if(randomVariable.isDeterministic()) {
+			final double value = randomVariable.doubleValue();
+			for(int i=0; i<realizations.length; i++) {
+				realizations[i] += value;
+			}
+		}
+		else {
+			for(int i=0; i<realizations.length; i++) {
+				realizations[i] += randomVariable.get(i);
+			}
+		}
+	}
+
+	/**
+	 * Accumulates the given random variable. The time argument is ignored, i.e., this is identical to
+	 * {@link #accumulate(RandomVariable)}, since this accumulator does not keep track of the individual times.
+	 *
+	 * @param time The time of the accumulated random variable (ignored).
+	 * @param randomVariable The random variable to accumulate.
+	 */
+	@Override
+	public void accumulate(final double time, final RandomVariable randomVariable) {
+		accumulate(randomVariable);
+	}
+
+	@Override
+	public void accumulateProduct(final RandomVariable factor1, final double factor2) {
+		checkTypePriority(factor1);
+
+		time = Math.max(time, factor1.getFiltrationTime());
+		if(factor1.isDeterministic()) {
+			final double value = factor1.doubleValue() * factor2;
+			for(int i=0; i<realizations.length; i++) {
+				realizations[i] += value;
+			}
+		}
+		else {
+			for(int i=0; i<realizations.length; i++) {
+				realizations[i] += factor1.get(i) * factor2;
+			}
+		}
+	}
+
+	@Override
+	public void accumulateProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		checkTypePriority(factor1);
+		checkTypePriority(factor2);
+
+		if(factor2.isDeterministic()) {
+			accumulateProduct(factor1, factor2.doubleValue());
+		}
+		else if(factor1.isDeterministic()) {
+			accumulateProduct(factor2, factor1.doubleValue());
+		}
+		else {
+			time = Math.max(Math.max(time, factor1.getFiltrationTime()), factor2.getFiltrationTime());
+			for(int i=0; i<realizations.length; i++) {
+				realizations[i] += factor1.get(i) * factor2.get(i);
+			}
+		}
+	}
+
+	@Override
+	public void accumulateSumProduct(final RandomVariable[] factor1, final RandomVariable[] factor2) {
+		for(int factorIndex=0; factorIndex<factor1.length; factorIndex++) {
+			checkTypePriority(factor1[factorIndex]);
+			checkTypePriority(factor2[factorIndex]);
+			time = Math.max(Math.max(time, factor1[factorIndex].getFiltrationTime()), factor2[factorIndex].getFiltrationTime());
+		}
+
+		for(int factorIndex=0; factorIndex<factor1.length; factorIndex++) {
+			final RandomVariable factor1OfIndex = factor1[factorIndex];
+			final RandomVariable factor2OfIndex = factor2[factorIndex];
+			for(int i=0; i<realizations.length; i++) {
+				realizations[i] += factor1OfIndex.get(i) * factor2OfIndex.get(i);
+			}
+		}
+	}
+
+	/**
+	 * Adds the realizations of the current state of the accumulator to a quantile sketch, reading the buffer in place (without a copy).
+	 *
+	 * This allows to estimate the quantiles of a value which is accumulated on blocks of paths with a single buffer: accumulate the value
+	 * on a block, add it to the sketch and {@link #reset()} the accumulator for the next block.
+	 *
+	 * @param sketch The quantile sketch to which the realizations are added.
+	 */
+	public void addTo(final QuantileSketch sketch) {
+		for(int i=0; i<realizations.length; i++) {
+			sketch.add(realizations[i]);
+		}
+	}
+
+	/**
+	 * Returns an immutable copy of the current state of the accumulator.
+	 *
+	 * @return An immutable copy of the current state of the accumulator.
+	 */
+	@Override
+	public RandomVariable get() {
+		return new RandomVariableFromDoubleArray(time, realizations.clone());
+	}
+
+	/**
+	 * This accumulator does not keep track of the times of the accumulated random variables.
+	 *
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public RandomVariable get(final double fromTime, final double toTime) {
+		throw new UnsupportedOperationException("The accumulator " + getClass().getSimpleName() + " does not keep track of the times of the accumulated random variables.");
+	}
+
+	private void checkTypePriority(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > typePriorityDefault) {
+			throw new IllegalArgumentException("Random variable of type " + randomVariable.getClass().getSimpleName() + " cannot be accumulated in place (type priority " + randomVariable.getTypePriority() + ").");
+		}
+	}
+
+	@Override
+	public boolean equals(final RandomVariable randomVariable) {
+		return get().equals(randomVariable);
+	}
+
+	@Override
+	public double getFiltrationTime() {
+		return time;
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriorityDefault;
+	}
+
+	@Override
+	public double get(final int pathOrState) {
+		return realizations[pathOrState];
+	}
+
+	@Override
+	public int size() {
+		return realizations.length;
+	}
+
+	@Override
+	public boolean isDeterministic() {
+		return false;
+	}
+
+	@Override
+	public RandomVariable getValues() {
+		return get();
+	}
+
+	@Override
+	public double[] getRealizations() {
+		return realizations.clone();
+	}
+
+	@Override
+	public RandomVariable cache() {
+		return get();
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		return get().addProduct(factor1, factor2);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		return get().addProduct(factor1, factor2);
+	}
+
+	@Override
+	public Double doubleValue() {
+		return get().doubleValue();
+	}
+
+	@Override
+	public IntToDoubleFunction getOperator() {
+		return get().getOperator();
+	}
+
+	@Override
+	public DoubleStream getRealizationsStream() {
+		return get().getRealizationsStream();
+	}
+
+	@Override
+	public double getMin() {
+		return get().getMin();
+	}
+
+	@Override
+	public double getMax() {
+		return get().getMax();
+	}
+
+	@Override
+	public double getAverage() {
+		return get().getAverage();
+	}
+
+	@Override
+	public double getAverage(final RandomVariable probabilities) {
+		return get().getAverage(probabilities);
+	}
+
+	@Override
+	public double getVariance() {
+		return get().getVariance();
+	}
+
+	@Override
+	public double getVariance(final RandomVariable probabilities) {
+		return get().getVariance(probabilities);
+	}
+
+	@Override
+	public double getSampleVariance() {
+		return get().getSampleVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return get().getStandardDeviation();
+	}
+
+	@Override
+	public double getStandardDeviation(final RandomVariable probabilities) {
+		return get().getStandardDeviation(probabilities);
+	}
+
+	@Override
+	public double getStandardError() {
+		return get().getStandardError();
+	}
+
+	@Override
+	public double getStandardError(final RandomVariable probabilities) {
+		return get().getStandardError(probabilities);
+	}
+
+	@Override
+	public double getQuantile(final double quantile) {
+		return get().getQuantile(quantile);
+	}
+
+	@Override
+	public double getQuantile(final double quantile, final RandomVariable probabilities) {
+		return get().getQuantile(quantile, probabilities);
+	}
+
+	@Override
+	public double[] getQuantiles(final double[] quantiles) {
+		return get().getQuantiles(quantiles);
+	}
+
+	@Override
+	public double getQuantileExpectation(final double quantileStart, final double quantileEnd) {
+		return get().getQuantileExpectation(quantileStart, quantileEnd);
+	}
+
+	@Override
+	public double[] getHistogram(final double[] intervalPoints) {
+		return get().getHistogram(intervalPoints);
+	}
+
+	@Override
+	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
+		return get().getHistogram(numberOfPoints, standardDeviations);
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleUnaryOperator operator) {
+		return get().apply(operator);
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
+		return get().apply(operator, argument);
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		return get().apply(operator, argument1, argument2);
+	}
+
+	@Override
+	public RandomVariable cap(final double cap) {
+		return get().cap(cap);
+	}
+
+	@Override
+	public RandomVariable floor(final double floor) {
+		return get().floor(floor);
+	}
+
+	@Override
+	public RandomVariable add(final double value) {
+		return get().add(value);
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		return get().sub(value);
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		return get().mult(value);
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		return get().div(value);
+	}
+
+	@Override
+	public RandomVariable pow(final double exponent) {
+		return get().pow(exponent);
+	}
+
+	@Override
+	public RandomVariable average() {
+		return get().average();
+	}
+
+	@Override
+	public RandomVariable squared() {
+		return get().squared();
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		return get().sqrt();
+	}
+
+	@Override
+	public RandomVariable exp() {
+		return get().exp();
+	}
+
+	@Override
+	public RandomVariable log() {
+		return get().log();
+	}
+
+	@Override
+	public RandomVariable sin() {
+		return get().sin();
+	}
+
+	@Override
+	public RandomVariable cos() {
+		return get().cos();
+	}
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		return get().add(randomVariable);
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		return get().sub(randomVariable);
+	}
+
+	@Override
+	public RandomVariable bus(final RandomVariable randomVariable) {
+		return get().bus(randomVariable);
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		return get().mult(randomVariable);
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		return get().div(randomVariable);
+	}
+
+	@Override
+	public RandomVariable vid(final RandomVariable randomVariable) {
+		return get().vid(randomVariable);
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable cap) {
+		return get().cap(cap);
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable floor) {
+		return get().floor(floor);
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		return get().accrue(rate, periodLength);
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		return get().discount(rate, periodLength);
+	}
+
+	@Override
+	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
+		return get().choose(valueIfTriggerNonNegative, valueIfTriggerNegative);
+	}
+
+	@Override
+	public RandomVariable invert() {
+		return get().invert();
+	}
+
+	@Override
+	public RandomVariable abs() {
+		return get().abs();
+	}
+
+	@Override
+	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		return get().addRatio(numerator, denominator);
+	}
+
+	@Override
+	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		return get().subRatio(numerator, denominator);
+	}
+
+	@Override
+	public RandomVariable isNaN() {
+		return get().isNaN();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [time=" + time + ", size=" + realizations.length + "]";
+	}
+}
@@ -5,6 +5,7 @@
  */
 package net.finmath.montecarlo;
 
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.DoubleBinaryOperator;
@@ -52,6 +53,9 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 	// Data model for the non-stochastic case (if realizations==null)
 	private final double      valueIfNonStochastic;
 
+	// Sorted copy of the realizations, used by quantiles and histograms (may be released by the garbage collector)
+	private transient volatile SoftReference<double[]> realizationsSortedCache = null;
+
 	/**
 	 * Create a random variable from a given other implementation of <code>RandomVariable</code>.
 	 *
@@ -451,12 +455,39 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final double[] realizationsSorted = realizations.clone();
-		java.util.Arrays.sort(realizationsSorted);
+		final int indexOfQuantileValue = getIndexOfQuantileValue(quantile);
+
+		// Use the sorted realizations if available, otherwise select the value in O(n)
+		final SoftReference<double[]> realizationsSortedReference = realizationsSortedCache;
+		final double[] realizationsSorted = realizationsSortedReference != null ? realizationsSortedReference.get() : null;
+		if(realizationsSorted != null) {
+			return realizationsSorted[indexOfQuantileValue];
+		}
+		else {
+			return select(realizations.clone(), indexOfQuantileValue);
+		}
+	}
 
-		final int indexOfQuantileValue = Math.min(Math.max((int)Math.round((size()+1) * quantile - 1), 0), size()-1);
+	/**
+	 * Returns the quantile values for a given array of quantile levels, see {@link #getQuantile(double)}.
+	 * The realizations are sorted only once (and the sorted realizations are cached for subsequent calls).
+	 *
+	 * @param quantiles The quantile levels.
+	 * @return The quantile values assuming equi-distribution.
+	 */
+	@Override
+	public double[] getQuantiles(final double[] quantiles) {
+		final double[] quantileValues = new double[quantiles.length];
+		if(isDeterministic() || size() == 0) {
+			Arrays.fill(quantileValues, isDeterministic() ? valueIfNonStochastic : Double.NaN);
+			return quantileValues;
+		}
 
-		return realizationsSorted[indexOfQuantileValue];
+		final double[] realizationsSorted = getRealizationsSorted();
+		for(int i=0; i<quantiles.length; i++) {
+			quantileValues[i] = realizationsSorted[getIndexOfQuantileValue(quantiles[i])];
+		}
+		return quantileValues;
 	}
 
 	@Override
@@ -483,11 +514,10 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 			return getQuantileExpectation(quantileEnd, quantileStart);
 		}
 
-		final double[] realizationsSorted = realizations.clone();
-		java.util.Arrays.sort(realizationsSorted);
+		final double[] realizationsSorted = getRealizationsSorted();
 
-		final int indexOfQuantileValueStart	= Math.min(Math.max((int)Math.round((size()+1) * quantileStart - 1), 0), size()-1);
-		final int indexOfQuantileValueEnd		= Math.min(Math.max((int)Math.round((size()+1) * quantileEnd - 1), 0), size()-1);
+		final int indexOfQuantileValueStart	= getIndexOfQuantileValue(quantileStart);
+		final int indexOfQuantileValueEnd		= getIndexOfQuantileValue(quantileEnd);
 
 		double quantileExpectation = 0.0;
 		for (int i=indexOfQuantileValueStart; i<=indexOfQuantileValueEnd;i++) {
@@ -525,8 +555,7 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 			 * There is one exception:
 			 * If the size of the random variable is 0, all entries will be zero.
 			 */
-			final double[] realizationsSorted = realizations.clone();
-			java.util.Arrays.sort(realizationsSorted);
+			final double[] realizationsSorted = getRealizationsSorted();
 
 			int sampleIndex=0;
 			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
@@ -574,6 +603,93 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 		return result;
 	}
 
+	private int getIndexOfQuantileValue(final double quantile) {
+		return Math.min(Math.max((int)Math.round((size()+1) * quantile - 1), 0), size()-1);
+	}
+
+	/**
+	 * Returns the sorted realizations. The array is cached and must not be modified.
+	 *
+	 * @return The sorted realizations.
+	 */
+	private double[] getRealizationsSorted() {
+		final SoftReference<double[]> realizationsSortedReference = realizationsSortedCache;
+		double[] realizationsSorted = realizationsSortedReference != null ? realizationsSortedReference.get() : null;
+		if(realizationsSorted == null) {
+			realizationsSorted = realizations.clone();
+			java.util.Arrays.sort(realizationsSorted);
+			realizationsSortedCache = new SoftReference<>(realizationsSorted);
+		}
+		return realizationsSorted;
+	}
+
+	/**
+	 * Returns the k-th smallest value (in the order of {@link java.util.Arrays#sort(double[])}), i.e.,
+	 * the value <code>sorted[k]</code>, using a quickselect in expected O(n). The array is reordered.
+	 *
+	 * @param values The values (will be reordered).
+	 * @param k The index of the value in the sorted values.
+	 * @return The k-th smallest value.
+	 */
+	private static double select(final double[] values, final int k) {
+		int left = 0;
+		int right = values.length-1;
+
+		// Fall back to sorting if the pivots are bad (guarantees O(n log(n)) in the worst case)
+		int remainingPartitions = 2 * (32 - Integer.numberOfLeadingZeros(values.length));
+		while(right > left) {
+			if(remainingPartitions-- == 0) {
+				Arrays.sort(values, left, right+1);
+				return values[k];
+			}
+
+			// Median of three as pivot
+			final int middle = (left + right) >>> 1;
+			if(Double.compare(values[middle], values[left]) < 0) {
+				swap(values, left, middle);
+			}
+			if(Double.compare(values[right], values[left]) < 0) {
+				swap(values, left, right);
+			}
+			if(Double.compare(values[right], values[middle]) < 0) {
+				swap(values, middle, right);
+			}
+			final double pivot = values[middle];
+
+			int i = left;
+			int j = right;
+			while(i <= j) {
+				while(Double.compare(values[i], pivot) < 0) {
+					i++;
+				}
+				while(Double.compare(values[j], pivot) > 0) {
+					j--;
+				}
+				if(i <= j) {
+					swap(values, i++, j--);
+				}
+			}
+
+			if(k <= j) {
+				right = j;
+			}
+			else if(k >= i) {
+				left = i;
+			}
+			else {
+				// Values between j and i are equal to the pivot
+				return values[k];
+			}
+		}
+		return values[k];
+	}
+
+	private static void swap(final double[] values, final int i, final int j) {
+		final double value = values[i];
+		values[i] = values[j];
+		values[j] = value;
+	}
+
 	@Override
 	public boolean isDeterministic() {
 		return realizations == null;
@@ -1426,6 +1542,55 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 		}
 	}
 
+	/**
+	 * Applies \( x \mapsto x + \sum_{i=0}^{n-1} factor1_{i} * factor2_{i} \).
+	 *
+	 * If all arguments have a type priority not greater than this random variable,
+	 * the sum is calculated in a single pass, allocating only the array of the result.
+	 * The result is identical to successive calls of {@link #addProduct(RandomVariable, RandomVariable)}.
+	 *
+	 * @param factor1 The factor 1. A list of random variables (compatible with this random variable).
+	 * @param factor2 The factor 2. A list of random variables (compatible with this random variable).
+	 * @return New random variable with the result of the function.
+	 */
+	@Override
+	public RandomVariable addSumProduct(final RandomVariable[] factor1, final RandomVariable[] factor2)
+	{
+		// The intermediate results of successive addProduct calls carry the default type priority
+		final int typePriorityOfSum = Math.min(getTypePriority(), typePriorityDefault);
+
+		double newTime = time;
+		int newSize = size();
+		boolean isResultDeterministic = isDeterministic();
+		for(int factorIndex=0; factorIndex<factor1.length; factorIndex++) {
+			if(factor1[factorIndex].getTypePriority() > typePriorityOfSum || factor2[factorIndex].getTypePriority() > typePriorityOfSum) {
+				// Check type priority - fall back to successive addProduct
+				return RandomVariable.super.addSumProduct(factor1, factor2);
+			}
+			newTime = Math.max(Math.max(newTime, factor1[factorIndex].getFiltrationTime()), factor2[factorIndex].getFiltrationTime());
+			newSize = Math.max(Math.max(newSize, factor1[factorIndex].size()), factor2[factorIndex].size());
+			isResultDeterministic = isResultDeterministic && factor1[factorIndex].isDeterministic() && factor2[factorIndex].isDeterministic();
+		}
+
+		if(isResultDeterministic) {
+			return RandomVariable.super.addSumProduct(factor1, factor2);
+		}
+
+		final double[] newRealizations = new double[newSize];
+		for(int i=0; i<newRealizations.length; i++) {
+			newRealizations[i] = get(i);
+		}
+		// Loop over factors outside, such that each inner loop is a simple (monomorphic) loop over paths
+		for(int factorIndex=0; factorIndex<factor1.length; factorIndex++) {
+			final RandomVariable factor1OfIndex = factor1[factorIndex];
+			final RandomVariable factor2OfIndex = factor2[factorIndex];
+			for(int i=0; i<newRealizations.length; i++) {
+				newRealizations[i] += factor1OfIndex.get(i) * factor2OfIndex.get(i);
+			}
+		}
+		return new RandomVariableFromDoubleArray(newTime, newRealizations);
+	}
+
 	@Override
 	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2)
 	{
@@ -1418,6 +1418,52 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 	}
 
+	/**
+	 * Applies \( x \mapsto x + \sum_{i=0}^{n-1} factor1_{i} * factor2_{i} \).
+	 *
+	 * If this random variable is stochastic and all arguments have a type priority not greater than this random variable,
+	 * the sum is calculated in a single pass, allocating only the array of the result.
+	 * The result is identical to successive calls of {@link #addProduct(RandomVariable, RandomVariable)}.
+	 *
+	 * @param factor1 The factor 1. A list of random variables (compatible with this random variable).
+	 * @param factor2 The factor 2. A list of random variables (compatible with this random variable).
+	 * @return New random variable with the result of the function.
+	 */
+	@Override
+	public RandomVariable addSumProduct(final RandomVariable[] factor1, final RandomVariable[] factor2)
+	{
+		if(isDeterministic()) {
+			return RandomVariable.super.addSumProduct(factor1, factor2);
+		}
+
+		// The intermediate results of successive addProduct calls carry the default type priority
+		final int typePriorityOfSum = Math.min(getTypePriority(), typePriorityDefault);
+
+		double newTime = time;
+		for(int factorIndex=0; factorIndex<factor1.length; factorIndex++) {
+			if(factor1[factorIndex].getTypePriority() > typePriorityOfSum || factor2[factorIndex].getTypePriority() > typePriorityOfSum) {
+				// Check type priority - fall back to successive addProduct
+				return RandomVariable.super.addSumProduct(factor1, factor2);
+			}
+			if(factor1[factorIndex].isDeterministic() && factor2[factorIndex].isDeterministic()) {
+				// The product of two deterministic factors is rounded differently - fall back to successive addProduct
+				return RandomVariable.super.addSumProduct(factor1, factor2);
+			}
+			newTime = Math.max(Math.max(newTime, factor1[factorIndex].getFiltrationTime()), factor2[factorIndex].getFiltrationTime());
+		}
+
+		final float[] newRealizations = realizations.clone();
+		// Loop over factors outside, such that each inner loop is a simple (monomorphic) loop over paths
+		for(int factorIndex=0; factorIndex<factor1.length; factorIndex++) {
+			final RandomVariable factor1OfIndex = factor1[factorIndex];
+			final RandomVariable factor2OfIndex = factor2[factorIndex];
+			for(int i=0; i<newRealizations.length; i++) {
+				newRealizations[i] = newRealizations[i] + (float)factor1OfIndex.get(i) * (float)factor2OfIndex.get(i);
+			}
+		}
+		return new RandomVariableFromFloatArray(newTime, newRealizations);
+	}
+
 	@Override
 	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2)
 	{
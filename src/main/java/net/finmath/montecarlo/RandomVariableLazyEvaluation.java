@@ -14,7 +14,9 @@ import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 
 import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.montecarlo.LazyEvaluationExpression.Operator;
 import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
 
 /**
  * Implements a Monte-Carlo random variable (like <code>RandomVariableFromDoubleArray</code> using
@@ -25,7 +27,14 @@ import net.finmath.stochastic.RandomVariable;
  *
  * The implementation require Java 8 or better.
  *
- * @TODO The implementation of getAverage does not use a Kahan summation, while <code>RandomVariableFromDoubleArray</code> does.
+ * Operations are recorded as an expression graph (see <code>LazyEvaluationExpression</code>), where deterministic
+ * arguments are folded into constants. Upon the first access to the realizations, the expression is evaluated
+ * in a single fused (block-wise and multi-threaded) loop with common sub-expressions evaluated only once.
+ * Operations applied to large expressions trigger the evaluation of their arguments first, such that shared
+ * sub-expressions are not re-evaluated repeatedly.
+ *
+ * The average of an expression which has not been evaluated yet is calculated block-wise without storing the realizations,
+ * using a Kahan summation per task (the sums of the tasks and of evaluated realizations use the compensated summation of <code>DoubleStream</code>).
  *
  * @author Christian Fries
  * @author OSC
@@ -48,6 +57,14 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 
 	private transient double[] realizationsArray = null;
 
+	// Expression evaluated upon cache() (otherwise null)
+	private transient LazyEvaluationExpression expression = null;
+
+	/**
+	 * The maximum number of nodes of an expression used as an argument of another expression.
+	 */
+	private static final int MAX_NUMBER_OF_NODES = 256;
+
 	/**
 	 * Create a random variable from a given other implementation of <code>RandomVariable</code>.
 	 *
@@ -158,6 +175,27 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 		valueIfNonStochastic = Double.NaN;
 	}
 
+	/**
+	 * Create a stochastic random variable given by an expression.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param expression The expression.
+	 * @param size The number of path/state of the associated Monte-Carlo simulation or lattice.
+	 */
+	private RandomVariableLazyEvaluation(final double time, final LazyEvaluationExpression expression, final int size) {
+		super();
+		this.time = time;
+		this.expression = expression;
+		this.size = size;
+		realizations = new IntToDoubleFunction() {
+			@Override
+			public double applyAsDouble(final int i) {
+				return get(i);
+			}
+		};
+		valueIfNonStochastic = Double.NaN;
+	}
+
 	/* (non-Javadoc)
 	 * @see net.finmath.stochastic.RandomVariable#equals(net.finmath.montecarlo.RandomVariableFromDoubleArray)
 	 */
@@ -248,6 +286,12 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 			return Double.NaN;
 		}
 
+		// If not evaluated yet, the expression is reduced block-wise without storing its realizations
+		final LazyEvaluationExpression expression = this.expression;
+		if(expression != null) {
+			return expression.sum(size())/size();
+		}
+
 		return getRealizationsStream().sum()/size();
 	}
 
@@ -601,25 +645,20 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 			});
 		}
 		else {
+			if(expression != null) {
+				cache();
+			}
+			final double[] realizationsArray = this.realizationsArray;
+			if(realizationsArray != null) {
+				return Arrays.stream(realizationsArray).parallel();
+			}
 			return IntStream.range(0,size()).mapToDouble(realizations).parallel();
 		}
 	}
 
 	@Override
 	public RandomVariable apply(final DoubleUnaryOperator operator) {
-		if(isDeterministic()) {
-			return new RandomVariableLazyEvaluation(time, operator.applyAsDouble(valueIfNonStochastic));
-		}
-		else
-		{
-			final IntToDoubleFunction newRealizations = new IntToDoubleFunction() {
-				@Override
-				public double applyAsDouble(final int i) {
-					return operator.applyAsDouble(realizations.applyAsDouble(i));
-				}
-			};
-			return new RandomVariableLazyEvaluation(time, newRealizations, size());
-		}
+		return apply(Operator.UNARY_FUNCTION, operator);
 	}
 
 	@Override
@@ -627,7 +666,8 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 		synchronized (this)
 		{
 			if(realizationsArray == null) {
-				realizationsArray = getRealizationsStream().toArray();
+				realizationsArray = expression != null ? expression.evaluate(size()) : getRealizationsStream().toArray();
+				expression = null;
 				realizations = new IntToDoubleFunction() {
 					@Override
 					public double applyAsDouble(final int i) {
@@ -641,277 +681,35 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 
 	@Override
 	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
-
-		final double      newTime           = Math.max(time, argument.getFiltrationTime());
-
-		if(isDeterministic() && argument.isDeterministic()) {
-			return new RandomVariableLazyEvaluation(newTime, operator.applyAsDouble(valueIfNonStochastic, argument.get(0)));
-		}
-		else if(!isDeterministic() && argument.isDeterministic()) {
-			final IntToDoubleFunction newRealizations = new IntToDoubleFunction() {
-				@Override
-				public double applyAsDouble(final int i) {
-					return operator.applyAsDouble(realizations.applyAsDouble(i), argument.get(0));
-				}
-			};
-			return new RandomVariableLazyEvaluation(newTime, newRealizations, size());
-		}
-		else if(isDeterministic() && !argument.isDeterministic()) {
-			if(false) {
-				final IntToDoubleFunction argumentRealizations = argument.getOperator();
-				final IntToDoubleFunction newRealizations = new IntToDoubleFunction() {
-					@Override
-					public double applyAsDouble(final int i) {
-						return operator.applyAsDouble(valueIfNonStochastic, argumentRealizations.applyAsDouble(i));
-					}
-				};
-				return new RandomVariableLazyEvaluation(newTime, newRealizations, argument.size());
-			}
-			else {
-				final double[] argumentRealizations = argument.getRealizations();
-				final IntToDoubleFunction newRealizations = new IntToDoubleFunction() {
-					@Override
-					public double applyAsDouble(final int i) {
-						return operator.applyAsDouble(valueIfNonStochastic, argumentRealizations[i]);
-					}
-				};
-				return new RandomVariableLazyEvaluation(newTime, newRealizations, argument.size());
-			}
-		}
-		else
-		{
-			if(false) {
-				final IntToDoubleFunction argumentRealizations = argument.getOperator();
-				final IntToDoubleFunction newRealizations = new IntToDoubleFunction() {
-					@Override
-					public double applyAsDouble(final int i) {
-						return operator.applyAsDouble(realizations.applyAsDouble(i), argumentRealizations.applyAsDouble(i));
-					}
-				};
-				return new RandomVariableLazyEvaluation(newTime, newRealizations, size());
-			}
-			else {
-				final double[] argumentRealizations = argument.getRealizations();
-				final IntToDoubleFunction newRealizations = new IntToDoubleFunction() {
-					@Override
-					public double applyAsDouble(final int i) {
-						return operator.applyAsDouble(realizations.applyAsDouble(i), argumentRealizations[i]);
-					}
-				};
-				return new RandomVariableLazyEvaluation(newTime, newRealizations, size());
-			}
-		}
-
+		return apply(Operator.BINARY_FUNCTION, operator, argument);
 	}
 
 	public RandomVariable apply(final DoubleBinaryOperator operatorOuter, final DoubleBinaryOperator operatorInner, final RandomVariable argument1, final RandomVariable argument2)
 	{
-		double newTime = Math.max(time, argument1.getFiltrationTime());
-		newTime = Math.max(newTime, argument2.getFiltrationTime());
-
-		if(this.isDeterministic() && argument1.isDeterministic() && argument2.isDeterministic()) {
-			return new RandomVariableLazyEvaluation(newTime, operatorOuter.applyAsDouble(valueIfNonStochastic, operatorInner.applyAsDouble(argument1.get(0), argument2.get(0))));
-		}
-		else {
-			final int newSize = Math.max(Math.max(this.size(), argument1.size()), argument2.size());
-
-			if(false) {
-				if(argument1.isDeterministic() && argument2.isDeterministic()) {
-					final double	argument1Realization = argument1.get(0);
-					final double	argument2Realization = argument2.get(0);
-					final double	innerResult = operatorInner.applyAsDouble(argument1Realization, argument2Realization);
-					return new RandomVariableLazyEvaluation(newTime,new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operatorOuter.applyAsDouble(realizations.applyAsDouble(i), innerResult);
-						}
-					}, newSize);
-				}
-				else {
-					return new RandomVariableLazyEvaluation(newTime,new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operatorOuter.applyAsDouble(realizations.applyAsDouble(i), operatorInner.applyAsDouble(argument1.get(i), argument2.get(i)));
-						}
-					}, newSize);
-				}
-			}
-			else {
-				IntToDoubleFunction innerResult;
-				if(argument1.isDeterministic() && argument2.isDeterministic()) {
-					final double	argument1Realization = argument1.get(0);
-					final double	argument2Realization = argument2.get(0);
-					innerResult = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operatorInner.applyAsDouble(argument1Realization, argument2Realization);
-						}
-					};
-				}
-				else if(argument1.isDeterministic() && !argument2.isDeterministic()) {
-					final double	argument1Realization	= argument1.get(0);
-					final double[]	argument2Realizations	= argument2.getRealizations();
-					innerResult = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operatorInner.applyAsDouble(argument1Realization, argument2Realizations[i]);
-						}
-					};
-				}
-				else if(!argument1.isDeterministic() && argument2.isDeterministic()) {
-					final double[]	argument1Realizations	= argument1.getRealizations();
-					final double	argument2Realization	= argument2.get(0);
-					innerResult = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operatorInner.applyAsDouble(argument1Realizations[i], argument2Realization);
-						}
-					};
-				}
-				else {// if(!argument1.isDeterministic() && !argument2.isDeterministic()) {
-					final double[]	argument1Realizations	= argument1.getRealizations();
-					final double[]	argument2Realizations	= argument2.getRealizations();
-					innerResult = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operatorInner.applyAsDouble(argument1Realizations[i], argument2Realizations[i]);
-						}
-					};
-				}
-
-				if(isDeterministic()) {
-					return new RandomVariableLazyEvaluation(newTime,new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operatorOuter.applyAsDouble(valueIfNonStochastic,          innerResult.applyAsDouble(i));
-						}
-					}, newSize);
-				}
-				else {
-					return new RandomVariableLazyEvaluation(newTime,new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operatorOuter.applyAsDouble(realizations.applyAsDouble(i), innerResult.applyAsDouble(i));
-						}
-					}, newSize);
-				}
-
+		return apply(new DoubleTernaryOperator() {
+			@Override
+			public double applyAsDouble(final double x, final double y, final double z) {
+				return operatorOuter.applyAsDouble(x, operatorInner.applyAsDouble(y, z));
 			}
-		}
+		}, argument1, argument2);
 	}
 
 	@Override
 	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2)
 	{
-		double newTime = Math.max(time, argument1.getFiltrationTime());
-		newTime = Math.max(newTime, argument2.getFiltrationTime());
-
-		if(this.isDeterministic() && argument1.isDeterministic() && argument2.isDeterministic()) {
-			return new RandomVariableLazyEvaluation(newTime, operator.applyAsDouble(valueIfNonStochastic, argument1.get(0), argument2.get(0)));
-		}
-		else {
-			final int newSize = Math.max(Math.max(this.size(), argument1.size()), argument2.size());
-			IntToDoubleFunction result;
-			if(argument1.isDeterministic() && argument2.isDeterministic()) {
-				final double	argument1Realization = argument1.get(0);
-				final double	argument2Realization = argument2.get(0);
-				if(isDeterministic()) {
-					result = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operator.applyAsDouble(valueIfNonStochastic, argument1Realization, argument2Realization);
-						}
-					};
-				}
-				else {
-					result = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operator.applyAsDouble(realizations.applyAsDouble(i), argument1Realization, argument2Realization);
-						}
-					};
-
-				}
-			}
-			else if(argument1.isDeterministic() && !argument2.isDeterministic()) {
-				final double	argument1Realization	= argument1.get(0);
-				final double[]	argument2Realizations	= argument2.getRealizations();
-				if(isDeterministic()) {
-					result = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operator.applyAsDouble(valueIfNonStochastic, argument1Realization, argument2Realizations[i]);
-						}
-					};
-				}
-				else {
-					result = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operator.applyAsDouble(realizations.applyAsDouble(i), argument1Realization, argument2Realizations[i]);
-						}
-					};
-
-				}
-			}
-			else if(!argument1.isDeterministic() && argument2.isDeterministic()) {
-				final double[]	argument1Realizations	= argument1.getRealizations();
-				final double	argument2Realization	= argument2.get(0);
-				if(isDeterministic()) {
-					result = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operator.applyAsDouble(valueIfNonStochastic, argument1Realizations[i], argument2Realization);
-						}
-					};
-				}
-				else {
-					result = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operator.applyAsDouble(realizations.applyAsDouble(i), argument1Realizations[i], argument2Realization);
-						}
-					};
-
-				}
-			}
-			else {// if(!argument1.isDeterministic() && !argument2.isDeterministic()) {
-				final double[]	argument1Realizations	= argument1.getRealizations();
-				final double[]	argument2Realizations	= argument2.getRealizations();
-				if(isDeterministic()) {
-					result = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operator.applyAsDouble(valueIfNonStochastic, argument1Realizations[i], argument2Realizations[i]);
-						}
-					};
-				}
-				else {
-					result = new IntToDoubleFunction() {
-						@Override
-						public double applyAsDouble(final int i) {
-							return operator.applyAsDouble(realizations.applyAsDouble(i), argument1Realizations[i], argument2Realizations[i]);
-						}
-					};
-
-				}
-			}
-
-			return new RandomVariableLazyEvaluation(newTime, result, newSize);
-		}
+		return apply(Operator.TERNARY_FUNCTION, operator, argument1, argument2);
 	}
 
+	/*
+	 * The operations are recorded as an expression (see LazyEvaluationExpression), which is evaluated upon cache().
+	 */
+
 	/* (non-Javadoc)
 	 * @see net.finmath.stochastic.RandomVariable#cap(double)
 	 */
 	@Override
 	public RandomVariable cap(final double cap) {
-		return apply(new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double x) {
-				return Math.min(x, cap);
-			}
-		});
+		return apply(Operator.CAP, null, new Scalar(cap));
 	}
 
 	/* (non-Javadoc)
@@ -919,12 +717,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable floor(final double floor) {
-		return apply(new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double x) {
-				return Math.max(x, floor);
-			}
-		});
+		return apply(Operator.FLOOR, null, new Scalar(floor));
 	}
 
 	/* (non-Javadoc)
@@ -932,12 +725,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable add(final double value) {
-		return apply(new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double x) {
-				return x + value;
-			}
-		});
+		return apply(Operator.ADD, null, new Scalar(value));
 	}
 
 	/* (non-Javadoc)
@@ -945,12 +733,10 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable sub(final double value) {
-		return apply(new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double x) {
-				return x - value;
-			}
-		});
+		if(value == 0.0) {
+			return this;
+		}
+		return apply(Operator.SUB, null, new Scalar(value));
 	}
 
 	/* (non-Javadoc)
@@ -958,12 +744,10 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable mult(final double value) {
-		return apply(new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double x) {
-				return x * value;
-			}
-		});
+		if(value == 1.0) {
+			return this;
+		}
+		return apply(Operator.MULT, null, new Scalar(value));
 	}
 
 	/* (non-Javadoc)
@@ -971,12 +755,10 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable div(final double value) {
-		return apply(new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double x) {
-				return x / value;
-			}
-		});
+		if(value == 1.0) {
+			return this;
+		}
+		return apply(Operator.DIV, null, new Scalar(value));
 	}
 
 	/* (non-Javadoc)
@@ -984,12 +766,10 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable pow(final double exponent) {
-		return apply(new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double x) {
-				return Math.pow(x, exponent);
-			}
-		});
+		if(exponent == 1.0) {
+			return this;
+		}
+		return apply(Operator.POW, null, new Scalar(exponent));
 	}
 
 	/* (non-Javadoc)
@@ -1005,12 +785,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable squared() {
-		return apply(new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double x) {
-				return x * x;
-			}
-		});
+		return apply(Operator.SQUARED, null);
 	}
 
 	/* (non-Javadoc)
@@ -1018,7 +793,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable sqrt() {
-		return apply(Math::sqrt);
+		return apply(Operator.SQRT, null);
 	}
 
 	/* (non-Javadoc)
@@ -1026,7 +801,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable exp() {
-		return apply(Math::exp);
+		return apply(Operator.EXP, null);
 	}
 
 	/* (non-Javadoc)
@@ -1034,7 +809,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable log() {
-		return apply(Math::log);
+		return apply(Operator.LOG, null);
 	}
 
 	/* (non-Javadoc)
@@ -1042,7 +817,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable sin() {
-		return apply(Math::sin);
+		return apply(Operator.SIN, null);
 	}
 
 	/* (non-Javadoc)
@@ -1050,7 +825,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable cos() {
-		return apply(Math::cos);
+		return apply(Operator.COS, null);
 	}
 
 	/* (non-Javadoc)
@@ -1058,13 +833,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable add(final RandomVariable randomVariable) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x + y;
-			}
-		}, randomVariable);
-
+		return apply(Operator.ADD, null, randomVariable);
 	}
 
 	/* (non-Javadoc)
@@ -1072,22 +841,13 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable sub(final RandomVariable randomVariable) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x - y;
-			}
-		}, randomVariable);
+		return apply(Operator.SUB, null, randomVariable);
 	}
 
 	@Override
 	public RandomVariable bus(final RandomVariable randomVariable) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return -x + y;
-			}
-		}, randomVariable);
+		// -x + y is identical to y - x
+		return applyOperator(Operator.SUB, null, randomVariable, this);
 	}
 
 	/* (non-Javadoc)
@@ -1095,82 +855,47 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable mult(final RandomVariable randomVariable) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x * y;
-			}
-		}, randomVariable);
+		return apply(Operator.MULT, null, randomVariable);
 	}
 
 	@Override
 	public RandomVariable div(final RandomVariable randomVariable) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x / y;
-			}
-		}, randomVariable);
+		return apply(Operator.DIV, null, randomVariable);
 	}
 
 	@Override
 	public RandomVariable vid(final RandomVariable randomVariable) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return y / x;
-			}
-		}, randomVariable);
+		return applyOperator(Operator.DIV, null, randomVariable, this);
 	}
 
 	@Override
 	public RandomVariable cap(final RandomVariable cap) {
-		return apply(Math::min, cap);
+		return apply(Operator.CAP, null, cap);
 	}
 
 	@Override
 	public RandomVariable floor(final RandomVariable floor) {
-		return apply(Math::max, floor);
+		return apply(Operator.FLOOR, null, floor);
 	}
 
 	@Override
 	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x * (1.0 + y * periodLength);
-			}
-		}, rate);
+		return apply(Operator.ACCRUE, null, rate, new Scalar(periodLength));
 	}
 
 	@Override
 	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x / (1.0 + y * periodLength);
-			}
-		}, rate);
+		return apply(Operator.DISCOUNT, null, rate, new Scalar(periodLength));
 	}
 
 	@Override
 	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
-		return apply(new DoubleTernaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y, final double z) {
-				return (x >= 0 ? y : z);
-			}
-		}, valueIfTriggerNonNegative, valueIfTriggerNegative);
+		return apply(Operator.CHOOSE, null, valueIfTriggerNonNegative, valueIfTriggerNegative);
 	}
 
 	@Override
 	public RandomVariable invert() {
-		return apply(new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double x) {
-				return 1.0 / x;
-			}
-		});
+		return apply(Operator.INVERT, null);
 	}
 
 	/* (non-Javadoc)
@@ -1178,7 +903,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable abs() {
-		return apply(Math::abs);
+		return apply(Operator.ABS, null);
 	}
 
 	/* (non-Javadoc)
@@ -1186,12 +911,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x + y * factor2;
-			}
-		}, factor1);
+		return apply(Operator.ADD_PRODUCT, null, factor1, new Scalar(factor2));
 	}
 
 
@@ -1200,17 +920,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x + y;
-			}
-		}, new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x * y;
-			}
-		}, factor1, factor2);
+		return apply(Operator.ADD_PRODUCT, null, factor1, factor2);
 	}
 
 	/* (non-Javadoc)
@@ -1218,17 +928,7 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x + y;
-			}
-		}, new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x / y;
-			}
-		}, numerator, denominator);
+		return apply(Operator.ADD_RATIO, null, numerator, denominator);
 	}
 
 	/* (non-Javadoc)
@@ -1236,17 +936,90 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
-		return apply(new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x - y;
-			}
-		}, new DoubleBinaryOperator() {
-			@Override
-			public double applyAsDouble(final double x, final double y) {
-				return x / y;
+		return apply(Operator.SUB_RATIO, null, numerator, denominator);
+	}
+
+
+	/**
+	 * Apply an operator to this random variable (as first argument) and given further arguments.
+	 *
+	 * @param operator The operator.
+	 * @param function The function object of the operators <code>*_FUNCTION</code> (otherwise null).
+	 * @param arguments The further arguments.
+	 * @return The result.
+	 */
+	private RandomVariable apply(final Operator operator, final Object function, final RandomVariable... arguments) {
+		final RandomVariable[] allArguments = new RandomVariable[arguments.length+1];
+		allArguments[0] = this;
+		System.arraycopy(arguments, 0, allArguments, 1, arguments.length);
+		return applyOperator(operator, function, allArguments);
+	}
+
+	/**
+	 * Apply an operator to given arguments. If all arguments are deterministic, the result is calculated immediately,
+	 * otherwise the result is a random variable holding the expression of the operation.
+	 *
+	 * @param operator The operator.
+	 * @param function The function object of the operators <code>*_FUNCTION</code> (otherwise null).
+	 * @param arguments The arguments.
+	 * @return The result.
+	 */
+	private static RandomVariable applyOperator(final Operator operator, final Object function, final RandomVariable... arguments) {
+		double newTime = Double.NEGATIVE_INFINITY;
+		int newSize = 0;
+		boolean isDeterministic = true;
+		for(final RandomVariable argument : arguments) {
+			newTime = Math.max(newTime, argument.getFiltrationTime());
+			newSize = Math.max(newSize, argument.size());
+			isDeterministic &= argument.isDeterministic();
+		}
+
+		if(isDeterministic) {
+			final double x = arguments[0].get(0);
+			final double y = arguments.length > 1 ? arguments[1].get(0) : Double.NaN;
+			final double z = arguments.length > 2 ? arguments[2].get(0) : Double.NaN;
+			return new RandomVariableLazyEvaluation(newTime, operator.apply(x, y, z, function));
+		}
+
+		final LazyEvaluationExpression[] argumentExpressions = new LazyEvaluationExpression[arguments.length];
+		for(int i=0; i<arguments.length; i++) {
+			argumentExpressions[i] = getExpression(arguments[i]);
+		}
+		return new RandomVariableLazyEvaluation(newTime, LazyEvaluationExpression.of(operator, function, argumentExpressions), newSize);
+	}
+
+	/**
+	 * Returns the expression representing a random variable as an argument of an operation.
+	 * Large expressions are evaluated (cached) to limit the cost of re-evaluation of shared sub-expressions.
+	 *
+	 * @param randomVariable The random variable.
+	 * @return The expression.
+	 */
+	private static LazyEvaluationExpression getExpression(final RandomVariable randomVariable) {
+		if(randomVariable.isDeterministic()) {
+			return LazyEvaluationExpression.of(randomVariable.get(0));
+		}
+		else if(randomVariable instanceof RandomVariableLazyEvaluation) {
+			final RandomVariableLazyEvaluation randomVariableLazyEvaluation = (RandomVariableLazyEvaluation)randomVariable;
+			synchronized (randomVariableLazyEvaluation) {
+				if(randomVariableLazyEvaluation.expression != null && randomVariableLazyEvaluation.expression.getNumberOfNodes() > MAX_NUMBER_OF_NODES) {
+					randomVariableLazyEvaluation.cache();
+				}
+
+				if(randomVariableLazyEvaluation.realizationsArray != null) {
+					return LazyEvaluationExpression.of(randomVariableLazyEvaluation.realizationsArray);
+				}
+				else if(randomVariableLazyEvaluation.expression != null) {
+					return randomVariableLazyEvaluation.expression;
+				}
+				else {
+					return LazyEvaluationExpression.of(randomVariableLazyEvaluation.realizations);
+				}
 			}
-		}, numerator, denominator);
+		}
+		else {
+			return LazyEvaluationExpression.of(randomVariable);
+		}
 	}
 
 	@Override
@@ -0,0 +1,813 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.lang.ref.Reference;
+import java.nio.DoubleBuffer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * A stochastic random variable whose realizations are stored in off-heap memory (a direct buffer),
+ * such that the heap only holds the meta data (filtration time and the buffer object).
+ *
+ * Objects of this class are created by a {@link RandomVariableOffHeapFactory}, which defines the lifecycle scope
+ * of the memory. The results of operations on this random variable are allocated in the same scope.
+ * After the scope has been closed, all methods accessing the realizations throw an {@link IllegalStateException}.
+ *
+ * The random variable is always stochastic. Operations resulting in deterministic values return a {@link Scalar}.
+ * Serialization writes a {@link RandomVariableFromDoubleArray}.
+ *
+ * The size of a random variable is limited by the maximum size of a direct buffer, that is 2^28-1 paths.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableOffHeap implements RandomVariable {
+
+	private static final long serialVersionUID = -3580640394117931758L;
+
+	private static final int typePriorityDefault = 1;
+
+	private final double time;
+	private final transient DoubleBuffer realizations;
+	private final transient RandomVariableOffHeapFactory scope;
+
+	/**
+	 * Create a random variable from a buffer allocated in the given scope.
+	 *
+	 * @param time The filtration time.
+	 * @param realizations The buffer of the realizations (not copied).
+	 * @param scope The scope (factory) which allocated the buffer.
+	 */
+	RandomVariableOffHeap(final double time, final DoubleBuffer realizations, final RandomVariableOffHeapFactory scope) {
+		super();
+		this.time = time;
+		this.realizations = realizations;
+		this.scope = scope;
+	}
+
+	/**
+	 * Returns the scope (factory) of the memory of this random variable.
+	 *
+	 * @return The scope of the memory of this random variable.
+	 */
+	public RandomVariableOffHeapFactory getScope() {
+		return scope;
+	}
+
+	@Override
+	public boolean equals(final RandomVariable randomVariable) {
+		if(time != randomVariable.getFiltrationTime() || randomVariable.isDeterministic() || size() != randomVariable.size()) {
+			return false;
+		}
+
+		final DoubleBuffer values = getBuffer();
+		for(int i=0; i<values.capacity(); i++) {
+			if(values.get(i) != randomVariable.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public double getFiltrationTime() {
+		return time;
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriorityDefault;
+	}
+
+	@Override
+	public double get(final int pathOrState) {
+		return getBuffer().get(pathOrState);
+	}
+
+	@Override
+	public int size() {
+		return realizations.capacity();
+	}
+
+	@Override
+	public boolean isDeterministic() {
+		return false;
+	}
+
+	@Override
+	public double[] getRealizations() {
+		final DoubleBuffer realizations = getBuffer();
+		final double[] values = new double[realizations.capacity()];
+		realizations.duplicate().get(values);
+
+		// The duplicate does not reference the realizations, which must not be reused while they are copied
+		Reference.reachabilityFence(realizations);
+
+		return values;
+	}
+
+	@Override
+	public Double doubleValue() {
+		if(size() == 1) {
+			return get(0);
+		}
+		else {
+			throw new UnsupportedOperationException("The random variable is non-deterministic");
+		}
+	}
+
+	/**
+	 * Returns an operator mapping a path to the realization of this random variable.
+	 * The operator checks that the scope is still open on each access, since it may be used after the scope has been closed
+	 * (e.g. by a stream).
+	 *
+	 * @return An operator mapping a path to the realization of this random variable.
+	 */
+	@Override
+	public IntToDoubleFunction getOperator() {
+		scope.ensureOpen();
+		return new IntToDoubleFunction() {
+			@Override
+			public double applyAsDouble(final int i) {
+				return getBuffer().get(i);
+			}
+		};
+	}
+
+	@Override
+	public DoubleStream getRealizationsStream() {
+		return IntStream.range(0, size()).mapToDouble(getOperator());
+	}
+
+	@Override
+	public double getMin() {
+		final DoubleBuffer values = getBuffer();
+		double min = values.capacity() != 0 ? values.get(0) : Double.MAX_VALUE;
+		for(int i=0; i<values.capacity(); i++) {
+			min = Math.min(values.get(i), min);
+		}
+		return min;
+	}
+
+	@Override
+	public double getMax() {
+		final DoubleBuffer values = getBuffer();
+		double max = values.capacity() != 0 ? values.get(0) : -Double.MAX_VALUE;
+		for(int i=0; i<values.capacity(); i++) {
+			max = Math.max(values.get(i), max);
+		}
+		return max;
+	}
+
+	@Override
+	public double getAverage() {
+		if(size() == 0) {
+			return Double.NaN;
+		}
+
+		/*
+		 * Kahan summation on realizations[i]
+		 */
+		final DoubleBuffer values = getBuffer();
+		double sum = 0.0;
+		double error = 0.0;
+		for(int i=0; i<values.capacity(); i++)  {
+			final double value = values.get(i) - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum	= newSum;
+		}
+		return sum/values.capacity();
+	}
+
+	@Override
+	public double getAverage(final RandomVariable probabilities) {
+		if(size() == 0) {
+			return Double.NaN;
+		}
+
+		/*
+		 * Kahan summation on (realizations[i] * probabilities.get(i))
+		 */
+		final DoubleBuffer values = getBuffer();
+		double sum = 0.0;
+		double error = 0.0;
+		for(int i=0; i<values.capacity(); i++)  {
+			final double value = values.get(i) * probabilities.get(i) - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum	= newSum;
+		}
+		return sum/values.capacity();
+	}
+
+	@Override
+	public double getVariance() {
+		if(size() == 1) {
+			return 0.0;
+		}
+		if(size() == 0) {
+			return Double.NaN;
+		}
+
+		final double average = getAverage();
+
+		/*
+		 * Kahan summation on (realizations[i] - average)^2
+		 */
+		final DoubleBuffer values = getBuffer();
+		double sum = 0.0;
+		double errorOfSum = 0.0;
+		for(int i=0; i<values.capacity(); i++) {
+			final double value = (values.get(i) - average)*(values.get(i) - average) - errorOfSum;
+			final double newSum = sum + value;
+			errorOfSum = (newSum - sum) - value;
+			sum = newSum;
+		}
+		return sum/values.capacity();
+	}
+
+	@Override
+	public double getVariance(final RandomVariable probabilities) {
+		if(size() == 0) {
+			return Double.NaN;
+		}
+
+		final double average = getAverage(probabilities);
+
+		/*
+		 * Kahan summation on (realizations[i] - average)^2 * probabilities.get(i)
+		 */
+		final DoubleBuffer values = getBuffer();
+		double sum = 0.0;
+		double errorOfSum = 0.0;
+		for(int i=0; i<values.capacity(); i++) {
+			final double value = (values.get(i) - average) * (values.get(i) - average) * probabilities.get(i) - errorOfSum;
+			final double newSum = sum + value;
+			errorOfSum = (newSum - sum) - value;
+			sum = newSum;
+		}
+		return sum;
+	}
+
+	@Override
+	public double getSampleVariance() {
+		if(size() == 1) {
+			return 0.0;
+		}
+		if(size() == 0) {
+			return Double.NaN;
+		}
+
+		return getVariance() * size()/(size()-1);
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		if(size() == 0) {
+			return Double.NaN;
+		}
+
+		return Math.sqrt(getVariance());
+	}
+
+	@Override
+	public double getStandardDeviation(final RandomVariable probabilities) {
+		if(size() == 0) {
+			return Double.NaN;
+		}
+
+		return Math.sqrt(getVariance(probabilities));
+	}
+
+	@Override
+	public double getStandardError() {
+		if(size() == 0) {
+			return Double.NaN;
+		}
+
+		return getStandardDeviation()/Math.sqrt(size());
+	}
+
+	@Override
+	public double getStandardError(final RandomVariable probabilities) {
+		if(size() == 0) {
+			return Double.NaN;
+		}
+
+		return getStandardDeviation(probabilities)/Math.sqrt(size());
+	}
+
+	/*
+	 * Methods requiring sorted realizations work on a copy on the heap.
+	 */
+
+	@Override
+	public double getQuantile(final double quantile) {
+		return toRandomVariableFromDoubleArray().getQuantile(quantile);
+	}
+
+	@Override
+	public double getQuantile(final double quantile, final RandomVariable probabilities) {
+		return toRandomVariableFromDoubleArray().getQuantile(quantile, probabilities);
+	}
+
+	@Override
+	public double[] getQuantiles(final double[] quantiles) {
+		return toRandomVariableFromDoubleArray().getQuantiles(quantiles);
+	}
+
+	@Override
+	public double getQuantileExpectation(final double quantileStart, final double quantileEnd) {
+		return toRandomVariableFromDoubleArray().getQuantileExpectation(quantileStart, quantileEnd);
+	}
+
+	@Override
+	public double[] getHistogram(final double[] intervalPoints) {
+		return toRandomVariableFromDoubleArray().getHistogram(intervalPoints);
+	}
+
+	@Override
+	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
+		return toRandomVariableFromDoubleArray().getHistogram(numberOfPoints, standardDeviations);
+	}
+
+	@Override
+	public RandomVariable cache() {
+		return this;
+	}
+
+	/*
+	 * Unary operators.
+	 */
+
+	@Override
+	public RandomVariable apply(final DoubleUnaryOperator operator) {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, operator.applyAsDouble(values.get(i)));
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable cap(final double cap) {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, Math.min(values.get(i), cap));
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable floor(final double floor) {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, Math.max(values.get(i), floor));
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable add(final double value) {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) + value);
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) - value);
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable bus(final double value) {
+		return apply(x -> value - x);
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) * value);
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) / value);
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable vid(final double value) {
+		return apply(x -> value / x);
+	}
+
+	@Override
+	public RandomVariable pow(final double exponent) {
+		return apply(x -> Math.pow(x, exponent));
+	}
+
+	@Override
+	public RandomVariable average() {
+		return new Scalar(getAverage());
+	}
+
+	@Override
+	public RandomVariable squared() {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			final double value = values.get(i);
+			result.put(i, value * value);
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		return apply(Math::sqrt);
+	}
+
+	@Override
+	public RandomVariable exp() {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, Math.exp(values.get(i)));
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable expm1() {
+		return apply(Math::expm1);
+	}
+
+	@Override
+	public RandomVariable log() {
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, Math.log(values.get(i)));
+		}
+		return new RandomVariableOffHeap(time, result, scope);
+	}
+
+	@Override
+	public RandomVariable sin() {
+		return apply(Math::sin);
+	}
+
+	@Override
+	public RandomVariable cos() {
+		return apply(Math::cos);
+	}
+
+	@Override
+	public RandomVariable invert() {
+		return apply(x -> 1.0 / x);
+	}
+
+	@Override
+	public RandomVariable abs() {
+		return apply(Math::abs);
+	}
+
+	@Override
+	public RandomVariable isNaN() {
+		return apply(x -> Double.isNaN(x) ? 1.0 : 0.0);
+	}
+
+	/*
+	 * Binary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
+		final double newTime = Math.max(time, argument.getFiltrationTime());
+
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		if(argument.isDeterministic()) {
+			final double argumentValue = argument.doubleValue();
+			for(int i=0; i<values.capacity(); i++) {
+				result.put(i, operator.applyAsDouble(values.get(i), argumentValue));
+			}
+		}
+		else {
+			final DoubleBuffer argumentValues = getBuffer(argument);
+			for(int i=0; i<values.capacity(); i++) {
+				result.put(i, operator.applyAsDouble(values.get(i), argumentValues.get(i)));
+			}
+		}
+		return new RandomVariableOffHeap(newTime, result, scope);
+	}
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.add(this);
+		}
+		if(randomVariable.isDeterministic()) {
+			return withFiltrationTime(add(randomVariable.doubleValue()), Math.max(time, randomVariable.getFiltrationTime()));
+		}
+
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer argumentValues = getBuffer(randomVariable);
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) + argumentValues.get(i));
+		}
+		return new RandomVariableOffHeap(Math.max(time, randomVariable.getFiltrationTime()), result, scope);
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.bus(this);
+		}
+		if(randomVariable.isDeterministic()) {
+			return withFiltrationTime(sub(randomVariable.doubleValue()), Math.max(time, randomVariable.getFiltrationTime()));
+		}
+
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer argumentValues = getBuffer(randomVariable);
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) - argumentValues.get(i));
+		}
+		return new RandomVariableOffHeap(Math.max(time, randomVariable.getFiltrationTime()), result, scope);
+	}
+
+	@Override
+	public RandomVariable bus(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.sub(this);
+		}
+
+		return apply((x, y) -> y - x, randomVariable);
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.mult(this);
+		}
+		if(randomVariable.isDeterministic()) {
+			return withFiltrationTime(mult(randomVariable.doubleValue()), Math.max(time, randomVariable.getFiltrationTime()));
+		}
+
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer argumentValues = getBuffer(randomVariable);
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) * argumentValues.get(i));
+		}
+		return new RandomVariableOffHeap(Math.max(time, randomVariable.getFiltrationTime()), result, scope);
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.vid(this);
+		}
+		if(randomVariable.isDeterministic()) {
+			return withFiltrationTime(div(randomVariable.doubleValue()), Math.max(time, randomVariable.getFiltrationTime()));
+		}
+
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer argumentValues = getBuffer(randomVariable);
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) / argumentValues.get(i));
+		}
+		return new RandomVariableOffHeap(Math.max(time, randomVariable.getFiltrationTime()), result, scope);
+	}
+
+	@Override
+	public RandomVariable vid(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.div(this);
+		}
+
+		return apply((x, y) -> y / x, randomVariable);
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.cap(this);
+		}
+
+		return apply(Math::min, randomVariable);
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.floor(this);
+		}
+
+		return apply(Math::max, randomVariable);
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).mult(this);
+		}
+
+		return apply((x, r) -> x * (1 + r * periodLength), rate);
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).invert().mult(this);
+		}
+
+		return apply((x, r) -> x / (1.0 + r * periodLength), rate);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+		if(factor1.isDeterministic()) {
+			return withFiltrationTime(add(factor1.doubleValue() * factor2), Math.max(time, factor1.getFiltrationTime()));
+		}
+
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer factor1Values = getBuffer(factor1);
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) + factor1Values.get(i) * factor2);
+		}
+		return new RandomVariableOffHeap(Math.max(time, factor1.getFiltrationTime()), result, scope);
+	}
+
+	/*
+	 * Ternary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		final double newTime = Math.max(Math.max(time, argument1.getFiltrationTime()), argument2.getFiltrationTime());
+
+		final DoubleBuffer values = getBuffer();
+		final IntToDoubleFunction argument1Values = argument1.getOperator();
+		final IntToDoubleFunction argument2Values = argument2.getOperator();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, operator.applyAsDouble(values.get(i), argument1Values.applyAsDouble(i), argument2Values.applyAsDouble(i)));
+		}
+		return new RandomVariableOffHeap(newTime, result, scope);
+	}
+
+	@Override
+	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
+		final double newTime = Math.max(Math.max(time, valueIfTriggerNonNegative.getFiltrationTime()), valueIfTriggerNegative.getFiltrationTime());
+
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) >= 0.0 ? valueIfTriggerNonNegative.get(i) : valueIfTriggerNegative.get(i));
+		}
+		return new RandomVariableOffHeap(newTime, result, scope);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority() || factor2.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+		if(factor2.isDeterministic()) {
+			return withFiltrationTime(this.addProduct(factor1, factor2.doubleValue()), Math.max(time, factor2.getFiltrationTime()));
+		}
+		if(factor1.isDeterministic()) {
+			return this.addProduct(factor2, factor1);
+		}
+
+		final DoubleBuffer values = getBuffer();
+		final DoubleBuffer factor1Values = getBuffer(factor1);
+		final DoubleBuffer factor2Values = getBuffer(factor2);
+		final DoubleBuffer result = scope.allocate(values.capacity());
+		for(int i=0; i<values.capacity(); i++) {
+			result.put(i, values.get(i) + factor1Values.get(i) * factor2Values.get(i));
+		}
+		return new RandomVariableOffHeap(Math.max(Math.max(time, factor1.getFiltrationTime()), factor2.getFiltrationTime()), result, scope);
+	}
+
+	@Override
+	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).add(this);
+		}
+
+		return apply((x, n, d) -> x + n / d, numerator, denominator);
+	}
+
+	@Override
+	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).mult(-1).add(this);
+		}
+
+		return apply((x, n, d) -> x - n / d, numerator, denominator);
+	}
+
+	/**
+	 * Returns the buffer of the realizations, checking that the scope is still open.
+	 *
+	 * @return The buffer of the realizations.
+	 */
+	private DoubleBuffer getBuffer() {
+		scope.ensureOpen();
+		return realizations;
+	}
+
+	/**
+	 * Returns the realizations of a stochastic random variable as a buffer.
+	 * For other implementations than this class, this is a copy on the heap.
+	 *
+	 * @param randomVariable A stochastic random variable.
+	 * @return The buffer of the realizations.
+	 */
+	private static DoubleBuffer getBuffer(final RandomVariable randomVariable) {
+		if(randomVariable instanceof RandomVariableOffHeap) {
+			return ((RandomVariableOffHeap)randomVariable).getBuffer();
+		}
+		else {
+			return DoubleBuffer.wrap(randomVariable.getRealizations());
+		}
+	}
+
+	/**
+	 * Returns the given result of an operation (allocated in this scope) with its filtration time increased to the given time.
+	 */
+	private RandomVariable withFiltrationTime(final RandomVariable randomVariable, final double newTime) {
+		if(newTime <= randomVariable.getFiltrationTime()) {
+			return randomVariable;
+		}
+		return new RandomVariableOffHeap(newTime, ((RandomVariableOffHeap)randomVariable).realizations, scope);
+	}
+
+	private RandomVariableFromDoubleArray toRandomVariableFromDoubleArray() {
+		return new RandomVariableFromDoubleArray(time, getRealizations());
+	}
+
+	private Object writeReplace() {
+		return toRandomVariableFromDoubleArray();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[size=" + size() + ", filtrationTime=" + time + ", scope=" + scope + "]";
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * A factory (helper class) to create random variables whose realizations are stored in off-heap memory
+ * (direct buffers), see {@link RandomVariableOffHeap}.
+ *
+ * The factory defines the lifecycle scope of the memory: all random variables created by this factory,
+ * including the results of operations on them, allocate their memory in the scope of this factory.
+ * The memory of random variables which are no longer referenced is not released, it is kept by the
+ * factory and reused for the results of later operations (once the garbage collector has detected that the small
+ * heap objects referencing it are unreachable). This avoids the allocation of a new direct buffer for each operation.
+ * Calling {@link #close()} releases the memory of all random variables of this scope (and the memory kept for reuse) at once.
+ * After that, these random variables cannot be used anymore and the factory cannot create new random variables.
+ *
+ * A typical use is to create the stochastic driver and the model of a Monte-Carlo simulation with this factory
+ * and to close the factory (e.g. via try-with-resources) after the valuation.
+ *
+ * The explicit release of the memory uses the JDK internal <code>sun.misc.Unsafe.invokeCleaner</code>
+ * (module <code>jdk.unsupported</code>). If this is not available, the memory is released by the garbage collector only.
+ *
+ * Deterministic random variables are created as {@link Scalar}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableOffHeapFactory extends AbstractRandomVariableFactory implements AutoCloseable {
+
+	private static final long serialVersionUID = 2940563862004356651L;
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	private static final Object unsafe;
+	private static final Method invokeCleaner;
+	static {
+		Object unsafeInstance = null;
+		Method invokeCleanerMethod = null;
+		try {
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafeInstance = theUnsafe.get(null);
+			invokeCleanerMethod = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+		}
+		catch(final ReflectiveOperationException | RuntimeException e) {
+			logger.log(Level.FINE, "Explicit release of direct buffers not available. Memory will be released by the garbage collector.", e);
+			unsafeInstance = null;
+			invokeCleanerMethod = null;
+		}
+		unsafe = unsafeInstance;
+		invokeCleaner = invokeCleanerMethod;
+	}
+
+	/**
+	 * Weak reference to the realizations of random variables, keeping the direct buffer holding the memory.
+	 * The buffer can be reused once the realizations are no longer reachable.
+	 */
+	private static class BufferReference extends WeakReference<DoubleBuffer> {
+		private final ByteBuffer buffer;
+
+		BufferReference(final DoubleBuffer realizations, final ByteBuffer buffer, final ReferenceQueue<DoubleBuffer> queue) {
+			super(realizations, queue);
+			this.buffer = buffer;
+		}
+	}
+
+	private transient volatile boolean isClosed = false;
+	private final transient Set<BufferReference> buffersInUse = ConcurrentHashMap.newKeySet();
+	private final transient Map<Integer, Queue<ByteBuffer>> buffersForReuse = new ConcurrentHashMap<>();
+	private final transient ReferenceQueue<DoubleBuffer> releasedBuffers = new ReferenceQueue<>();
+	private final transient AtomicLong numberOfBytesAllocated = new AtomicLong();
+
+	/**
+	 * Create a factory for random variables with off-heap memory.
+	 */
+	public RandomVariableOffHeapFactory() {
+		super();
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double value) {
+		return new Scalar(value);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double value) {
+		return new Scalar(value);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double[] values) {
+		final DoubleBuffer realizations = allocate(values.length);
+		realizations.duplicate().put(values);
+		return new RandomVariableOffHeap(time, realizations, this);
+	}
+
+	/**
+	 * Create a random variable using the given buffer as its realizations (no copy is made),
+	 * e.g., a direct buffer or a region of a memory-mapped file.
+	 *
+	 * The memory of the buffer is not owned by this scope (it is not released by {@link #close()}),
+	 * but the random variable cannot be used after the scope has been closed.
+	 * The buffer must not be modified. The results of operations on the random variable are allocated in this scope.
+	 *
+	 * @param time The filtration time.
+	 * @param realizations The realizations, the buffer may be read-only.
+	 * @return The random variable.
+	 */
+	public RandomVariable createRandomVariable(final double time, final DoubleBuffer realizations) {
+		ensureOpen();
+		return new RandomVariableOffHeap(time, realizations.slice(), this);
+	}
+
+	/**
+	 * Returns the number of bytes of off-heap memory currently allocated in the scope of this factory,
+	 * i.e., used by random variables or kept for reuse, and not yet released by {@link #close()}.
+	 *
+	 * @return The number of bytes allocated.
+	 */
+	public long getNumberOfBytesAllocated() {
+		return numberOfBytesAllocated.get();
+	}
+
+	/**
+	 * Returns true if this scope has been closed.
+	 *
+	 * @return True if {@link #close()} has been called.
+	 */
+	public boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * Releases the off-heap memory of all random variables created in the scope of this factory.
+	 *
+	 * Random variables of this scope cannot be used after this call (their methods throw an {@link IllegalStateException}).
+	 * The caller has to ensure that no other thread is using these random variables while the scope is closed.
+	 */
+	@Override
+	public void close() {
+		isClosed = true;
+		for(final BufferReference bufferReference : buffersInUse) {
+			bufferReference.clear();
+			if(buffersInUse.remove(bufferReference)) {
+				release(bufferReference.buffer);
+			}
+		}
+		for(final Queue<ByteBuffer> buffers : buffersForReuse.values()) {
+			ByteBuffer buffer;
+			while((buffer = buffers.poll()) != null) {
+				release(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Allocates off-heap memory for the given number of doubles in the scope of this factory.
+	 * The memory is reused from random variables which are no longer reachable, if possible, hence it is not initialized.
+	 *
+	 * @param size The number of doubles.
+	 * @return A direct buffer of the given size (in native byte order).
+	 */
+	DoubleBuffer allocate(final int size) {
+		ensureOpen();
+		if(size > Integer.MAX_VALUE / Double.BYTES) {
+			throw new IllegalArgumentException("Size " + size + " exceeds the maximum size of a direct buffer (" + Integer.MAX_VALUE / Double.BYTES + ").");
+		}
+
+		expungeReleasedBuffers();
+
+		final Queue<ByteBuffer> buffers = buffersForReuse.get(size);
+		ByteBuffer buffer = buffers != null ? buffers.poll() : null;
+		if(buffer == null) {
+			buffer = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder());
+			numberOfBytesAllocated.addAndGet(buffer.capacity());
+		}
+
+		final DoubleBuffer realizations = buffer.asDoubleBuffer();
+		buffersInUse.add(new BufferReference(realizations, buffer, releasedBuffers));
+
+		// The scope may have been closed concurrently
+		ensureOpen();
+
+		return realizations;
+	}
+
+	/**
+	 * Throws an {@link IllegalStateException} if this scope has been closed.
+	 */
+	void ensureOpen() {
+		if(isClosed) {
+			throw new IllegalStateException("The off-heap memory scope has been closed. Random variables of this scope cannot be used anymore.");
+		}
+	}
+
+	/*
+	 * Moves the buffers of realizations which are no longer reachable to the buffers for reuse.
+	 */
+	private void expungeReleasedBuffers() {
+		Reference<? extends DoubleBuffer> reference;
+		while((reference = releasedBuffers.poll()) != null) {
+			if(buffersInUse.remove(reference)) {
+				final ByteBuffer buffer = ((BufferReference)reference).buffer;
+				buffersForReuse.computeIfAbsent(buffer.capacity() / Double.BYTES, size -> new ConcurrentLinkedQueue<>()).add(buffer);
+			}
+		}
+	}
+
+	private void release(final ByteBuffer buffer) {
+		numberOfBytesAllocated.addAndGet(-buffer.capacity());
+		if(invokeCleaner == null) {
+			return;
+		}
+		try {
+			invokeCleaner.invoke(unsafe, buffer);
+		}
+		catch(final ReflectiveOperationException e) {
+			logger.log(Level.FINE, "Explicit release of direct buffer failed.", e);
+		}
+	}
+
+	private Object readResolve() {
+		// The memory scope is not serialized, a deserialized factory starts with a new scope.
+		return new RandomVariableOffHeapFactory();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [isClosed=" + isClosed + "]";
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * A factory (helper class) to create random variables whose arithmetic operations
+ * (e.g. <code>add</code>, <code>sub</code>, <code>mult</code>, <code>div</code>, <code>addProduct</code>, <code>addSumProduct</code>,
+ * <code>discount</code>, <code>choose</code>, <code>exp</code>, <code>log</code>) use SIMD instructions via the Java Vector API.
+ *
+ * The vectorized implementation (<code>net.finmath.montecarlo.vectorized.RandomVariableFromDoubleArrayVectorized</code>)
+ * requires Java 17 (it is only part of the library if it is build with Java 17 or later and the Maven profile <code>vector-api</code>,
+ * e.g., <code>mvn -P vector-api</code>) and the
+ * incubator module <code>jdk.incubator.vector</code>, i.e., the JVM has to be started with
+ * <code>--add-modules jdk.incubator.vector</code>. The implementation is loaded reflectively. If it is not available,
+ * the factory creates objects of {@link RandomVariableFromDoubleArray}, such that the factory can be used
+ * with Java 11. Use {@link #isVectorAPIAvailable()} to check which implementation is used.
+ *
+ * For the accuracy of the vectorized <code>exp</code> and <code>log</code> see the documentation of the implementation.
+ * All other operations give results identical to {@link RandomVariableFromDoubleArray}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableVectorizedFactory extends AbstractRandomVariableFactory {
+
+	private static final long serialVersionUID = -4209764328357036725L;
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	private static final String VECTOR_API_MODULE_NAME = "jdk.incubator.vector";
+	private static final String VECTORIZED_CLASS_NAME = "net.finmath.montecarlo.vectorized.RandomVariableFromDoubleArrayVectorized";
+
+	private static final Constructor<? extends RandomVariable> vectorizedConstructor = getVectorizedConstructor();
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double value) {
+		return new Scalar(value);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double[] values) {
+		if(vectorizedConstructor == null) {
+			return new RandomVariableFromDoubleArray(time, values);
+		}
+
+		try {
+			return vectorizedConstructor.newInstance(time, values);
+		}
+		catch(final InvocationTargetException e) {
+			throw new IllegalStateException("Creation of vectorized random variable failed.", e.getCause());
+		}
+		catch(final ReflectiveOperationException e) {
+			throw new IllegalStateException("Creation of vectorized random variable failed.", e);
+		}
+	}
+
+	/**
+	 * Returns true if this factory creates the vectorized implementation, false if it falls back to {@link RandomVariableFromDoubleArray}.
+	 *
+	 * @return True if the Vector API implementation is available.
+	 */
+	public static boolean isVectorAPIAvailable() {
+		return vectorizedConstructor != null;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [isVectorAPIAvailable=" + isVectorAPIAvailable() + "]";
+	}
+
+	private static Constructor<? extends RandomVariable> getVectorizedConstructor() {
+		final Optional<Module> vectorModule = ModuleLayer.boot().findModule(VECTOR_API_MODULE_NAME);
+		if(vectorModule.isEmpty()) {
+			logger.fine("Module " + VECTOR_API_MODULE_NAME + " not available (requires --add-modules " + VECTOR_API_MODULE_NAME + "). Using " + RandomVariableFromDoubleArray.class.getSimpleName() + ".");
+			return null;
+		}
+
+		try {
+			// If this library is a named module, it does not require the incubator module, hence we have to add the read edge.
+			RandomVariableVectorizedFactory.class.getModule().addReads(vectorModule.get());
+
+			return Class.forName(VECTORIZED_CLASS_NAME).asSubclass(RandomVariable.class).getConstructor(double.class, double[].class);
+		}
+		catch(final ReflectiveOperationException | LinkageError e) {
+			// The class is missing (library build with Java 11) or cannot be linked (Java version prior 17)
+			logger.log(Level.FINE, "Vectorized random variable not available. Using " + RandomVariableFromDoubleArray.class.getSimpleName() + ".", e);
+			return null;
+		}
+	}
+}
@@ -6,10 +6,18 @@
 package net.finmath.montecarlo.automaticdifferentiation.backward;
 
 import java.io.IOException;
+import java.io.NotSerializableException;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -70,6 +78,22 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		STDEV2, STDERROR2, CONDITIONAL_EXPECTATION
 	}
 
+	// The operator types indexed by the operator codes of the tape
+	private static final OperatorType[] operatorTypes = OperatorType.values();
+
+	/**
+	 * The position of a node on the tape of a recording (immutable).
+	 */
+	private static final class TapePosition {
+		private final RandomVariableDifferentiableAADRecording recording;
+		private final int index;
+
+		TapePosition(final RandomVariableDifferentiableAADRecording recording, final int index) {
+			this.recording = recording;
+			this.index = index;
+		}
+	}
+
 	/**
 	 * A node in the <i>operator tree</i>. It
 	 * stores an id (the index m), the operator (the function f_m), and the arguments.
@@ -77,7 +101,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 	 *
 	 * @author Christian Fries
 	 */
-	private static class OperatorTreeNode implements Serializable {
+	private static class OperatorTreeNode implements Serializable, RandomVariableDifferentiableAADCheckpoints.Checkpoint {
 
 		private static final long serialVersionUID = -8428352552169568990L;
 
@@ -88,18 +112,85 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		private final Object operator;
 		private final RandomVariableDifferentiableAADFactory factory;
 
+		/*
+		 * Position of this node on the tape of a recording of the factory, if recorded (otherwise null).
+		 * A node recorded on a tape is just a handle: the tape stores the operation (arguments, argument values and operator)
+		 * and the node does not reference its arguments.
+		 * A node used as an argument of an operation of another recording is imported into that recording (see getTapeIndex).
+		 */
+		private transient volatile TapePosition tapePosition;
+
+		/*
+		 * The recording of the thread which created this node, if the node is not recorded on a tape (otherwise the recording is given by the tapePosition).
+		 * Only used if checkpointing is enabled: the backward sweep finishes the recording and releases its checkpoints.
+		 */
+		private final transient RandomVariableDifferentiableAADRecording recording;
+
+		/*
+		 * Checkpointing (only used if the factory has a checkpoint memory budget, otherwise isCheckpointing is false):
+		 * argumentValues only retains the values of non-differentiable arguments, the values of differentiable arguments
+		 * are obtained from the argument nodes. A node retains its own value if it is a checkpoint, otherwise the value is
+		 * taken from the weak reference (if still reachable) or recomputed from the values of the arguments.
+		 * For nodes recorded on a tape, the tape retains these values.
+		 */
+		private final boolean isCheckpointing;
+		private final boolean[] isArgumentValueRequired;
+		private volatile RandomVariable checkpointValue;
+		private final transient WeakReference<RandomVariable> valueReference;
+
 		private static final RandomVariable zero = new Scalar(0.0);
 		private static final RandomVariable one = new Scalar(1.0);
 		private static final RandomVariable minusOne = new Scalar(-1.0);
 
-		OperatorTreeNode(final OperatorType operatorType, final List<OperatorTreeNode> arguments, List<RandomVariable> argumentValues, final Object operator, final RandomVariableDifferentiableAADFactory factory) {
+		OperatorTreeNode(final RandomVariable value, final OperatorType operatorType, final List<OperatorTreeNode> arguments, List<RandomVariable> argumentValues, final Object operator, final RandomVariableDifferentiableAADFactory factory) {
 			super();
 			id = indexOfNextRandomVariable.getAndIncrement();
 			this.operatorType = operatorType;
-			this.arguments = arguments;
-			this.operator = operator;
 			this.factory = factory;
 
+			/*
+			 * The node is recorded on the tape of the recording of the current thread.
+			 * This is only possible if all differentiable arguments are recorded on that tape (or can be imported).
+			 */
+			final RandomVariableDifferentiableAADRecording recording = factory != null ? factory.getRecording() : null;
+			final RandomVariableDifferentiableAADTape factoryTape = recording != null ? recording.getTape() : null;
+			int[] argumentTapeIndices = null;
+			boolean isRecordable = factoryTape != null;
+			if(isRecordable && arguments != null) {
+				argumentTapeIndices = new int[arguments.size()];
+				for(int argumentIndex = 0; argumentIndex < arguments.size(); argumentIndex++) {
+					final OperatorTreeNode argument = arguments.get(argumentIndex);
+					if(argument == null) {
+						argumentTapeIndices[argumentIndex] = RandomVariableDifferentiableAADTape.ARGUMENT_INDEX_CONSTANT;
+					}
+					else {
+						argumentTapeIndices[argumentIndex] = argument.getTapeIndex(recording, argumentValues != null ? argumentValues.get(argumentIndex) : null);
+						if(argumentTapeIndices[argumentIndex] < 0) {
+							isRecordable = false;
+							break;
+						}
+					}
+				}
+			}
+			final RandomVariableDifferentiableAADTape nodeTape = isRecordable ? factoryTape : null;
+
+			final RandomVariableDifferentiableAADCheckpoints checkpoints = recording != null ? recording.getCheckpoints() : null;
+			isCheckpointing = checkpoints != null;
+
+			// With checkpointing we retain the values of the arguments which cannot be recomputed from this node (required for recomputation).
+			final List<RandomVariable> constantArgumentValues;
+			if(isCheckpointing && arguments != null && argumentValues != null) {
+				constantArgumentValues = new ArrayList<>(arguments.size());
+				for(int argumentIndex = 0; argumentIndex < arguments.size(); argumentIndex++) {
+					final OperatorTreeNode argument = arguments.get(argumentIndex);
+					final boolean isArgumentOnSameTape = argument != null && (nodeTape != null || argument.tapePosition == null);
+					constantArgumentValues.add(isArgumentOnSameTape ? null : argumentValues.get(argumentIndex));
+				}
+			}
+			else {
+				constantArgumentValues = null;
+			}
+
 			/*
 			 * This is the simple modification which reduces memory requirements.
 			 */
@@ -156,86 +247,377 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 				}
 			}
 
-			this.argumentValues = argumentValues;
+			// Keep track of the argument values required for the partial derivatives (only required with checkpointing).
+			final boolean[] isArgumentValueRequired;
+			if(isCheckpointing && arguments != null) {
+				isArgumentValueRequired = new boolean[arguments.size()];
+				for(int argumentIndex = 0; argumentIndex < arguments.size(); argumentIndex++) {
+					isArgumentValueRequired[argumentIndex] = argumentValues != null && argumentValues.get(argumentIndex) != null;
+				}
+			}
+			else {
+				isArgumentValueRequired = null;
+			}
+
+			// Leaf nodes and nodes which cannot be recomputed always retain their value.
+			final boolean isValueRecomputable = isCheckpointing && arguments != null && !arguments.isEmpty() && isRecomputable(operatorType) && value != null && !(value instanceof RandomVariableDifferentiable);
+
+			final RandomVariableDifferentiableAADCheckpoints.Checkpoint checkpoint;
+			if(nodeTape != null) {
+				final List<RandomVariable> recordedArgumentValues = isCheckpointing ? constantArgumentValues : argumentValues;
+				final int operatorCode = operatorType != null ? operatorType.ordinal() : RandomVariableDifferentiableAADTape.OPERATOR_CODE_LEAF;
+				final int recordedTapeIndex = nodeTape.record(
+						id,
+						operatorCode,
+						operator,
+						argumentTapeIndices,
+						recordedArgumentValues != null ? recordedArgumentValues.toArray(new RandomVariable[recordedArgumentValues.size()]) : null,
+						isArgumentValueRequired,
+						isCheckpointing ? value : null,
+						isValueRecomputable);
+
+				tapePosition = new TapePosition(recording, recordedTapeIndex);
+				this.recording = null;
+				this.arguments = null;
+				this.argumentValues = null;
+				this.operator = null;
+				this.isArgumentValueRequired = null;
+				valueReference = null;
+
+				// Note: the checkpoint must not reference this node.
+				checkpoint = () -> nodeTape.releaseCheckpoint(recordedTapeIndex);
+			}
+			else {
+				tapePosition = null;
+				this.recording = isCheckpointing ? recording : null;
+				this.arguments = arguments;
+				this.argumentValues = isCheckpointing ? constantArgumentValues : argumentValues;
+				this.operator = operator;
+				this.isArgumentValueRequired = isArgumentValueRequired;
+				checkpointValue = isCheckpointing ? value : null;
+				valueReference = isValueRecomputable ? new WeakReference<>(value) : null;
+
+				checkpoint = this;
+			}
+
+			// Offer the value as a checkpoint (the value may be released immediately).
+			if(isValueRecomputable) {
+				checkpoints.offer(checkpoint, (long)value.size() * Double.BYTES);
+			}
+		}
+
+		@Override
+		public void releaseCheckpoint() {
+			checkpointValue = null;
+		}
+
+		/**
+		 * Returns the value of this node, if it is retained (as a checkpoint) or still reachable.
+		 *
+		 * @return The value of this node or null.
+		 */
+		private RandomVariable getRetainedValue() {
+			final RandomVariable value = checkpointValue;
+			if(value != null) {
+				return value;
+			}
+			return valueReference != null ? valueReference.get() : null;
+		}
+
+		/*
+		 * Returns true if the value of the argument can be recomputed from the operator tree
+		 * (otherwise the value of the argument is retained in argumentValues).
+		 */
+		private static boolean isRecomputableArgument(final OperatorTreeNode argument) {
+			return argument != null && argument.tapePosition == null;
+		}
+
+		/*
+		 * Returns the position of this node on the tape of the given recording, or -1 if it cannot be recorded on that tape.
+		 * A node recorded on another tape of the same factory (e.g. created before the last backward sweep or by another thread)
+		 * is imported into the given recording, such that operations using it can be recorded on the tape of the given recording:
+		 * - A leaf node is recorded as a leaf. If its recording is finished, the node is moved to the given recording (and the other tape can be released).
+		 * - Other nodes are recorded as a reference to their position, through which the backward sweep continues on the other tape.
+		 *   This requires that the other recording is earlier than the given recording (the tapes are swept in reverse order of their recordings).
+		 */
+		private int getTapeIndex(final RandomVariableDifferentiableAADRecording recording, final RandomVariable value) {
+			final TapePosition position = tapePosition;
+			if(position == null || position.recording == recording) {
+				return position != null ? position.index : -1;
+			}
+			final RandomVariableDifferentiableAADTape tape = recording.getTape();
+			if(position.recording.getTape().getFactory() != tape.getFactory()) {
+				return -1;
+			}
+
+			if(operatorType == null) {
+				synchronized (this) {
+					final TapePosition currentPosition = tapePosition;
+					if(currentPosition.recording == recording) {
+						return currentPosition.index;
+					}
+					final int index = tape.recordImport(id, RandomVariableDifferentiableAADTape.OPERATOR_CODE_LEAF, null, value);
+					if(currentPosition.recording.isFinished()) {
+						tapePosition = new TapePosition(recording, index);
+					}
+					return index;
+				}
+			}
+			else if(position.recording.getSequenceNumber() < recording.getSequenceNumber()) {
+				return tape.recordImport(id, RandomVariableDifferentiableAADTape.OPERATOR_CODE_IMPORT, position, value);
+			}
+			else {
+				return -1;
+			}
+		}
+
+		/**
+		 * Returns the value of this node. If the value is neither retained nor reachable, it is
+		 * recomputed from the values of its arguments. Recomputed values are stored in the given cache.
+		 *
+		 * @param recomputedValues Cache of recomputed values (id -&gt; value).
+		 * @return The value of this node.
+		 */
+		private RandomVariable getValue(final Map<Long, RandomVariable> recomputedValues) {
+			RandomVariable value = getRetainedValue();
+			if(value == null) {
+				value = recomputedValues.get(id);
+			}
+			if(value != null) {
+				return value;
+			}
+
+			// Recompute the values of all nodes between this node and the previous checkpoints (avoiding a deep recursion).
+			final Deque<OperatorTreeNode> nodesToRecompute = new ArrayDeque<>();
+			nodesToRecompute.push(this);
+			while(!nodesToRecompute.isEmpty()) {
+				final OperatorTreeNode node = nodesToRecompute.peek();
+				if(node.getRetainedValue() != null || recomputedValues.containsKey(node.id)) {
+					nodesToRecompute.pop();
+					continue;
+				}
+
+				boolean isArgumentsAvailable = true;
+				for(final OperatorTreeNode argument : node.arguments) {
+					if(isRecomputableArgument(argument) && argument.getRetainedValue() == null && !recomputedValues.containsKey(argument.id)) {
+						nodesToRecompute.push(argument);
+						isArgumentsAvailable = false;
+					}
+				}
+
+				if(isArgumentsAvailable) {
+					nodesToRecompute.pop();
+					recomputedValues.put(node.id, node.recompute(recomputedValues));
+				}
+			}
+
+			return recomputedValues.get(id);
+		}
+
+		/*
+		 * Recompute the value of this node from the values of its arguments.
+		 */
+		private RandomVariable recompute(final Map<Long, RandomVariable> recomputedValues) {
+			final RandomVariable[] values = new RandomVariable[arguments.size()];
+			for(int argumentIndex = 0; argumentIndex < arguments.size(); argumentIndex++) {
+				final OperatorTreeNode argument = arguments.get(argumentIndex);
+				values[argumentIndex] = isRecomputableArgument(argument) ? argument.getValue(recomputedValues) : argumentValues.get(argumentIndex);
+			}
+
+			return recompute(operatorType, operator, values);
+		}
+
+		/*
+		 * Recompute the value of an operation from the values of its arguments.
+		 */
+		private static RandomVariable recompute(final OperatorType operatorType, final Object operator, final RandomVariable[] values) {
+			final RandomVariable X = values.length > 0 ? values[0] : null;
+			final RandomVariable Y = values.length > 1 ? values[1] : null;
+			final RandomVariable Z = values.length > 2 ? values[2] : null;
+
+			switch(operatorType) {
+			case ADD:
+				return X.add(Y);
+			case SUB:
+				return X.sub(Y);
+			case MULT:
+				return X.mult(Y);
+			case DIV:
+				return X.div(Y);
+			case CAP:
+				return X.cap(Y);
+			case FLOOR:
+				return X.floor(Y);
+			case POW:
+				return X.pow(Y.doubleValue());
+			case SQUARED:
+				return X.squared();
+			case SQRT:
+				return X.sqrt();
+			case EXP:
+				return X.exp();
+			case LOG:
+				return X.log();
+			case SIN:
+				return X.sin();
+			case COS:
+				return X.cos();
+			case INVERT:
+				return X.invert();
+			case ABS:
+				return X.abs();
+			case AVERAGE:
+				return X.average();
+			case CONDITIONAL_EXPECTATION:
+				return X.getConditionalExpectation((ConditionalExpectationEstimator)operator);
+			case ADDPRODUCT:
+				return X.addProduct(Y, Z);
+			case ADDRATIO:
+				return X.addRatio(Y, Z);
+			case SUBRATIO:
+				return X.subRatio(Y, Z);
+			case ACCRUE:
+				return X.accrue(Y, Z.doubleValue());
+			case DISCOUNT:
+				return X.discount(Y, Z.doubleValue());
+			case CHOOSE:
+				return X.choose(Y, Z);
+			case VARIANCE:
+				return new RandomVariableFromDoubleArray(X.getVariance());
+			case SVARIANCE:
+				return new RandomVariableFromDoubleArray(X.getSampleVariance());
+			case STDEV:
+				return new RandomVariableFromDoubleArray(X.getStandardDeviation());
+			case STDERROR:
+				return new RandomVariableFromDoubleArray(X.getStandardError());
+			case MIN:
+				return new RandomVariableFromDoubleArray(X.getMin());
+			case MAX:
+				return new RandomVariableFromDoubleArray(X.getMax());
+			default:
+				throw new IllegalArgumentException("Operation " + operatorType.name() + " not supported in recomputation.");
+			}
+		}
+
+		private static boolean isRecomputable(final OperatorType operatorType) {
+			if(operatorType == null) {
+				return false;
+			}
+			switch(operatorType) {
+			case AVERAGE2:
+			case VARIANCE2:
+			case STDEV2:
+			case STDERROR2:
+				return false;
+			default:
+				return true;
+			}
+		}
+
+		/*
+		 * Returns the values of the arguments required to calculate the partial derivatives.
+		 */
+		private List<RandomVariable> getArgumentValues(final Map<Long, RandomVariable> recomputedValues) {
+			if(!isCheckpointing || arguments == null) {
+				return argumentValues;
+			}
+
+			final List<RandomVariable> values = new ArrayList<>(arguments.size());
+			for(int argumentIndex = 0; argumentIndex < arguments.size(); argumentIndex++) {
+				final OperatorTreeNode argument = arguments.get(argumentIndex);
+				if(!isRecomputableArgument(argument)) {
+					values.add(argumentValues != null ? argumentValues.get(argumentIndex) : null);
+				}
+				else if(isArgumentValueRequired[argumentIndex]) {
+					values.add(argument.getValue(recomputedValues));
+				}
+				else {
+					values.add(null);
+				}
+			}
+			return values;
 		}
 
 		/*
 		 * This implements the update rule D_i = D_i + Dm * d fm/dxi where i are the arguments of this node and m is this node.
 		 */
-		private void propagateDerivativesFromResultToArgument(final Map<Long, RandomVariable> derivatives) {
+		private void propagateDerivativesFromResultToArgument(final Map<Long, RandomVariable> derivatives, final Map<Long, RandomVariable> recomputedValues) {
 			if(arguments == null) {
 				// The node has no arguments (it is a leaf node the tree). Do nothing.
 				return;
 			}
 
+			final List<RandomVariable> argumentValues = getArgumentValues(recomputedValues);
 			for(int argumentIndex = 0; argumentIndex < arguments.size(); argumentIndex++) {
 				final OperatorTreeNode argument = arguments.get(argumentIndex);
 				if(argument != null) {
 					final Long argumentID = argument.id;
+					derivatives.put(argumentID, getArgumentDerivative(operatorType, operator, factory, argumentValues, derivatives.get(argumentID), derivatives.get(id), argumentIndex));
+				}
+			}
+		}
 
-					final RandomVariable partialDerivative	= getPartialDerivative(argument, argumentIndex);
-					RandomVariable derivative			= derivatives.get(id);
-					RandomVariable argumentDerivative	= derivatives.get(argumentID);
-
-					/*
-					 * Special treatment of some stochastic operators
-					 */
-					switch(operatorType) {
-					case AVERAGE:
-						// Implementation of AVERAGE (see https://ssrn.com/abstract=2995695 for details).
-						derivative = derivative.average();
-						break;
-					case CONDITIONAL_EXPECTATION:
-						// Implementation of CONDITIONAL_EXPECTATION (see https://ssrn.com/abstract=2995695 for details).
-						final ConditionalExpectationEstimator estimator = (ConditionalExpectationEstimator)operator;
-						derivative = estimator.getConditionalExpectation(derivative);
-						break;
-					case CHOOSE:
-						// Implementation of CHOOSE (INDICATOR_FUNCTION)
-						if(argumentIndex == 0 && (factory.getDiracDeltaApproximationMethod() == DiracDeltaApproximationMethod.REGRESSION_ON_DENSITY || factory.getDiracDeltaApproximationMethod() == DiracDeltaApproximationMethod.REGRESSION_ON_DISTRIBUITON)) {
-							derivative = getDiracDeltaRegression(derivative, argumentValues.get(0));
-						}
-						break;
-					default:
-						// Ordinary operator - nothing to do
-						break;
-					}
-
-					/*
-					 * Add the product of current nodes derivative and the vertex partialDerivative to the argument derivative
-					 */
-					if(argumentDerivative == null) {
-						// argumentDerivative is zero. Initialize value
-						argumentDerivative = derivative.mult(partialDerivative);
-					}
-					else {
-						// Add product to given value
-						argumentDerivative = argumentDerivative.addProduct(partialDerivative, derivative);
-					}
+		/*
+		 * This implements the update D_i + Dm * d fm/dxi for a single argument i of an operation.
+		 */
+		private static RandomVariable getArgumentDerivative(final OperatorType operatorType, final Object operator, final RandomVariableDifferentiableAADFactory factory, final List<RandomVariable> argumentValues, RandomVariable argumentDerivative, RandomVariable derivative, final int argumentIndex) {
+			final RandomVariable partialDerivative	= getPartialDerivative(operatorType, factory, argumentIndex, argumentValues);
 
-					derivatives.put(argumentID, argumentDerivative);
+			/*
+			 * Special treatment of some stochastic operators
+			 */
+			switch(operatorType) {
+			case AVERAGE:
+				// Implementation of AVERAGE (see https://ssrn.com/abstract=2995695 for details).
+				derivative = derivative.average();
+				break;
+			case CONDITIONAL_EXPECTATION:
+				// Implementation of CONDITIONAL_EXPECTATION (see https://ssrn.com/abstract=2995695 for details).
+				final ConditionalExpectationEstimator estimator = (ConditionalExpectationEstimator)operator;
+				derivative = estimator.getConditionalExpectation(derivative);
+				break;
+			case CHOOSE:
+				// Implementation of CHOOSE (INDICATOR_FUNCTION)
+				if(argumentIndex == 0 && (factory.getDiracDeltaApproximationMethod() == DiracDeltaApproximationMethod.REGRESSION_ON_DENSITY || factory.getDiracDeltaApproximationMethod() == DiracDeltaApproximationMethod.REGRESSION_ON_DISTRIBUITON)) {
+					derivative = getDiracDeltaRegression(factory, derivative, argumentValues.get(0));
 				}
+				break;
+			default:
+				// Ordinary operator - nothing to do
+				break;
+			}
+
+			/*
+			 * Add the product of current nodes derivative and the vertex partialDerivative to the argument derivative
+			 */
+			if(argumentDerivative == null) {
+				// argumentDerivative is zero. Initialize value
+				argumentDerivative = derivative.mult(partialDerivative);
+			}
+			else {
+				// Add product to given value
+				argumentDerivative = argumentDerivative.addProduct(partialDerivative, derivative);
 			}
+
+			return argumentDerivative;
 		}
 
 		/**
-		 * Calculate the partial derivative of this node with respect to an argument node.
+		 * Calculate the partial derivative of an operation with respect to a differentiable argument.
 		 * Since a function f may use an argument node X in multiple arguments, say f(X,X), we need to provide index
 		 * of the argument with respect to which the differentiation is performed (thanks to Vincent E. for pointing to this).
 		 *
-		 * @param differential The node of the argument.
+		 * @param operatorType The operator of the operation.
+		 * @param factory The factory of the operation (providing the approximation of the Dirac delta).
 		 * @param differentialIndex The index of the argument in the functions argument list.
+		 * @param argumentValues The values of the arguments (only those required to calculate the partial derivative).
 		 * @return The value of the partial derivative.
 		 */
-		private RandomVariable getPartialDerivative(final OperatorTreeNode differential, final int differentialIndex) {
-
-			if(!arguments.contains(differential)) {
-				return zero;
-			}
+		private static RandomVariable getPartialDerivative(final OperatorType operatorType, final RandomVariableDifferentiableAADFactory factory, final int differentialIndex, final List<RandomVariable> argumentValues) {
 
-			final RandomVariable X = arguments.size() > 0 && argumentValues != null ? argumentValues.get(0) : null;
-			final RandomVariable Y = arguments.size() > 1 && argumentValues != null ? argumentValues.get(1) : null;
-			final RandomVariable Z = arguments.size() > 2 && argumentValues != null ? argumentValues.get(2) : null;
+			final RandomVariable X = argumentValues != null && argumentValues.size() > 0 ? argumentValues.get(0) : null;
+			final RandomVariable Y = argumentValues != null && argumentValues.size() > 1 ? argumentValues.get(1) : null;
+			final RandomVariable Z = argumentValues != null && argumentValues.size() > 2 ? argumentValues.get(2) : null;
 
 			RandomVariable derivative;
 
@@ -451,7 +833,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 			return derivative;
 		}
 
-		private RandomVariable getDiracDeltaRegression(RandomVariable derivative, final RandomVariable indicator) {
+		private static RandomVariable getDiracDeltaRegression(final RandomVariableDifferentiableAADFactory factory, RandomVariable derivative, final RandomVariable indicator) {
 			final double diracDeltaApproximationWidthPerStdDev = factory.getDiracDeltaApproximationWidthPerStdDev();
 			final double epsilon = diracDeltaApproximationWidthPerStdDev*indicator.getStandardDeviation();
 
@@ -471,11 +853,11 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 				derivative = derivative.mult(localizedOne).div(localizedOne.getAverage());
 			}
 
-			return derivative.mult(getDensityRegression(indicator));
+			return derivative.mult(getDensityRegression(factory, indicator));
 
 		}
 
-		private double getDensityRegression(final RandomVariable indicator) {
+		private static double getDensityRegression(final RandomVariableDifferentiableAADFactory factory, final RandomVariable indicator) {
 			final double diracDeltaApproximationDensityRegressionWidthPerStdDev = factory.getDiracDeltaApproximationDensityRegressionWidthPerStdDev();
 
 			/*
@@ -562,6 +944,13 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 			return arguments != null ? arguments.stream().map( OperatorTreeNode::getValue ).collect(Collectors.toList()) : null;
 		}
 
+		private void writeObject(final java.io.ObjectOutputStream stream) throws IOException {
+			if(tapePosition != null) {
+				throw new NotSerializableException("The operation of " + this.getClass().getSimpleName() + " is recorded on a tape, which is not serializable.");
+			}
+			stream.defaultWriteObject();
+		}
+
 		private void readObject(final java.io.ObjectInputStream stream) throws IOException, ClassNotFoundException {
 			stream.defaultReadObject();
 			// Reassign id
@@ -586,7 +975,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 	public RandomVariableDifferentiableAAD(final RandomVariable values, final List<OperatorTreeNode> argumentOperatorTreeNodes, final List<RandomVariable> argumentValues, final ConditionalExpectationEstimator estimator, final OperatorType operator, final RandomVariableDifferentiableAADFactory factory, final int methodArgumentTypePriority) {
 		super();
 		this.values = values;
-		operatorTreeNode = new OperatorTreeNode(operator, argumentOperatorTreeNodes, argumentValues, estimator, factory);
+		operatorTreeNode = new OperatorTreeNode(values, operator, argumentOperatorTreeNodes, argumentValues, estimator, factory);
 		this.factory = factory != null ? factory : new RandomVariableDifferentiableAADFactory();
 		typePriority = methodArgumentTypePriority;
 	}
@@ -667,17 +1056,37 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		// Initialize with root node
 		independents.put(getID(), getOperatorTreeNode());
 
+		// Values recomputed from checkpoints (only used if checkpointing is enabled)
+		final Map<Long, RandomVariable> recomputedValues = new HashMap<>();
+
+		// The derivatives of nodes recorded on a tape (recording -> tape index -> derivative), propagated by a scan over the tape. Sorted by the order of the recordings.
+		final TreeMap<RandomVariableDifferentiableAADRecording, Map<Integer, RandomVariable>> derivativesOnTapes = new TreeMap<>(Comparator.comparingLong(RandomVariableDifferentiableAADRecording::getSequenceNumber));
+
+		// The recordings traversed by this backward sweep (finished at the end of the sweep)
+		final Set<RandomVariableDifferentiableAADRecording> traversedRecordings = new HashSet<>();
+
 		while(independents.size() > 0) {
 			// Get and remove node with the highest id in independents
 			final Map.Entry<Long, OperatorTreeNode> independentEntry = independents.pollLastEntry();
 			final Long id = independentEntry.getKey();
 			final OperatorTreeNode independent = independentEntry.getValue();
 
+			final TapePosition tapePosition = independent.tapePosition;
+			if(tapePosition != null) {
+				// The node and all its arguments are recorded on a tape. Its derivative is final (all nodes using it have been processed).
+				derivativesOnTapes.computeIfAbsent(tapePosition.recording, recording -> new HashMap<>()).put(tapePosition.index, derivatives.remove(id));
+				continue;
+			}
+
+			if(independent.recording != null) {
+				traversedRecordings.add(independent.recording);
+			}
+
 			// Process this node (node with highest id in independents)
 			final List<OperatorTreeNode> arguments = independent.arguments;
 			if(arguments != null && arguments.size() > 0) {
 				// Node has arguments: Propagate derivative to arguments.
-				independent.propagateDerivativesFromResultToArgument(derivatives);
+				independent.propagateDerivativesFromResultToArgument(derivatives, recomputedValues);
 
 				// Remove id of this node from derivatives - keep only leaf nodes.
 				if(isGradientRetainsLeafNodesOnly()) {
@@ -696,11 +1105,174 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 			if(independentIDs != null && independentIDs.contains(id)) {
 				derivatives.remove(id);
 			}
+
+			// All nodes using the value of this node have been processed.
+			recomputedValues.remove(id);
+		}
+
+		// Scan the tapes in reverse order of their recordings. A scan may add derivatives of nodes imported from an earlier recording.
+		while(!derivativesOnTapes.isEmpty()) {
+			final Map.Entry<RandomVariableDifferentiableAADRecording, Map<Integer, RandomVariable>> derivativesOnTape = derivativesOnTapes.pollLastEntry();
+			propagateDerivativesOnTape(derivativesOnTape.getKey(), derivativesOnTape.getValue(), independentIDs, derivatives, derivativesOnTapes);
+			traversedRecordings.add(derivativesOnTape.getKey());
+		}
+
+		/*
+		 * The backward sweep finishes the traversed recordings and releases their checkpoints (the owning threads continue on new recordings).
+		 * Recordings not traversed (e.g. of other valuations in flight) keep their checkpoints.
+		 */
+		for(final RandomVariableDifferentiableAADRecording recording : traversedRecordings) {
+			recording.finish();
 		}
 
 		return derivatives;
 	}
 
+	/**
+	 * Performs the backward automatic differentiation as a reverse linear scan over a tape.
+	 * The adjoints are maintained in an array indexed by the tape position.
+	 * The result is identical to the one of the traversal of the operator tree.
+	 *
+	 * @param recording The recording owning the tape.
+	 * @param derivativesOnTape The derivatives of the nodes on the tape from which the scan starts (tape index -&gt; derivative).
+	 * @param independentIDs A set of ids to be excluded from the result (may be null).
+	 * @param derivatives The gradient map to which the derivatives are added.
+	 * @param derivativesOnTapes The derivatives of the nodes on the tapes of earlier recordings, to which the derivatives of imported nodes are added.
+	 */
+	private void propagateDerivativesOnTape(final RandomVariableDifferentiableAADRecording recording, final Map<Integer, RandomVariable> derivativesOnTape, final Set<Long> independentIDs, final Map<Long, RandomVariable> derivatives,
+			final Map<RandomVariableDifferentiableAADRecording, Map<Integer, RandomVariable>> derivativesOnTapes) {
+		final RandomVariableDifferentiableAADTape.Snapshot snapshot = recording.getTape().getSnapshot();
+		final RandomVariableDifferentiableAADFactory tapeFactory = recording.getTape().getFactory();
+
+		final boolean isGradientRetainsLeafNodesOnly = isGradientRetainsLeafNodesOnly();
+
+		// The adjoints tapeIndex -> derivative (null if the operation does not contribute to this node)
+		final int lastTapeIndex = Collections.max(derivativesOnTape.keySet());
+		final RandomVariable[] adjoints = new RandomVariable[lastTapeIndex+1];
+		for(final Map.Entry<Integer, RandomVariable> derivativeOnTape : derivativesOnTape.entrySet()) {
+			adjoints[derivativeOnTape.getKey()] = derivativeOnTape.getValue();
+		}
+
+		// Values recomputed from checkpoints (only used if checkpointing is enabled)
+		final RandomVariable[] recomputedValues = snapshot.isCheckpointing() ? new RandomVariable[lastTapeIndex+1] : null;
+
+		for(int tapeIndex = lastTapeIndex; tapeIndex >= 0; tapeIndex--) {
+			final RandomVariable derivative = adjoints[tapeIndex];
+			if(derivative == null) {
+				continue;
+			}
+			// The adjoint of this operation is final, release the slot.
+			adjoints[tapeIndex] = null;
+
+			if(snapshot.getOperatorCode(tapeIndex) == RandomVariableDifferentiableAADTape.OPERATOR_CODE_IMPORT) {
+				// The node is recorded on the tape of an earlier recording, the scan of that tape continues from its position.
+				final TapePosition position = (TapePosition)snapshot.getOperator(tapeIndex);
+				derivativesOnTapes.computeIfAbsent(position.recording, earlierRecording -> new HashMap<>()).merge(position.index, derivative, RandomVariable::add);
+				continue;
+			}
+
+			final Long id = snapshot.getId(tapeIndex);
+			final int numberOfArguments = snapshot.getNumberOfArguments(tapeIndex);
+			if(numberOfArguments > 0) {
+				// Operation has arguments: Propagate derivative to arguments.
+				final OperatorType operatorType = operatorTypes[snapshot.getOperatorCode(tapeIndex)];
+				final List<RandomVariable> argumentValues = getArgumentValuesOnTape(snapshot, tapeIndex, recomputedValues);
+				for(int argumentIndex = 0; argumentIndex < numberOfArguments; argumentIndex++) {
+					final int argumentTapeIndex = snapshot.getArgumentIndex(tapeIndex, argumentIndex);
+					if(argumentTapeIndex != RandomVariableDifferentiableAADTape.ARGUMENT_INDEX_CONSTANT) {
+						adjoints[argumentTapeIndex] = OperatorTreeNode.getArgumentDerivative(operatorType, snapshot.getOperator(tapeIndex), tapeFactory, argumentValues, adjoints[argumentTapeIndex], derivative, argumentIndex);
+					}
+				}
+
+				// Keep only leaf nodes, if requested.
+				if(!isGradientRetainsLeafNodesOnly) {
+					derivatives.put(id, derivative);
+				}
+			}
+			else {
+				// A leaf node may be recorded on several tapes (see OperatorTreeNode.getTapeIndex), hence its derivatives are summed.
+				derivatives.merge(id, derivative, RandomVariable::add);
+			}
+
+			if(independentIDs != null && independentIDs.contains(id)) {
+				derivatives.remove(id);
+			}
+
+			// All operations using the value of this operation have been processed.
+			if(recomputedValues != null) {
+				recomputedValues[tapeIndex] = null;
+			}
+		}
+	}
+
+	/*
+	 * Returns the values of the arguments of an operation on a tape required to calculate the partial derivatives.
+	 */
+	private static List<RandomVariable> getArgumentValuesOnTape(final RandomVariableDifferentiableAADTape.Snapshot snapshot, final int tapeIndex, final RandomVariable[] recomputedValues) {
+		final RandomVariable[] argumentValues = new RandomVariable[snapshot.getNumberOfArguments(tapeIndex)];
+		for(int argumentIndex = 0; argumentIndex < argumentValues.length; argumentIndex++) {
+			final int argumentTapeIndex = snapshot.getArgumentIndex(tapeIndex, argumentIndex);
+			if(!snapshot.isCheckpointing() || argumentTapeIndex == RandomVariableDifferentiableAADTape.ARGUMENT_INDEX_CONSTANT) {
+				argumentValues[argumentIndex] = snapshot.getArgumentValue(tapeIndex, argumentIndex);
+			}
+			else if(snapshot.isArgumentValueRequired(tapeIndex, argumentIndex)) {
+				argumentValues[argumentIndex] = getValueOnTape(snapshot, argumentTapeIndex, recomputedValues);
+			}
+		}
+		return Arrays.asList(argumentValues);
+	}
+
+	/*
+	 * Returns the value of an operation on a tape (only if checkpointing is enabled). If the value is neither retained nor reachable, it is
+	 * recomputed from the values of its arguments. Recomputed values are stored in the given array.
+	 */
+	private static RandomVariable getValueOnTape(final RandomVariableDifferentiableAADTape.Snapshot snapshot, final int tapeIndex, final RandomVariable[] recomputedValues) {
+		RandomVariable value = snapshot.getRetainedValue(tapeIndex);
+		if(value == null) {
+			value = recomputedValues[tapeIndex];
+		}
+		if(value != null) {
+			return value;
+		}
+
+		// Recompute the values of all operations between this operation and the previous checkpoints (avoiding a deep recursion).
+		int[] operationsToRecompute = new int[16];
+		int numberOfOperationsToRecompute = 0;
+		operationsToRecompute[numberOfOperationsToRecompute++] = tapeIndex;
+		while(numberOfOperationsToRecompute > 0) {
+			final int operationIndex = operationsToRecompute[numberOfOperationsToRecompute-1];
+			if(snapshot.getRetainedValue(operationIndex) != null || recomputedValues[operationIndex] != null) {
+				numberOfOperationsToRecompute--;
+				continue;
+			}
+
+			final int numberOfArguments = snapshot.getNumberOfArguments(operationIndex);
+			boolean isArgumentsAvailable = true;
+			for(int argumentIndex = 0; argumentIndex < numberOfArguments; argumentIndex++) {
+				final int argumentTapeIndex = snapshot.getArgumentIndex(operationIndex, argumentIndex);
+				if(argumentTapeIndex != RandomVariableDifferentiableAADTape.ARGUMENT_INDEX_CONSTANT && snapshot.getRetainedValue(argumentTapeIndex) == null && recomputedValues[argumentTapeIndex] == null) {
+					if(numberOfOperationsToRecompute == operationsToRecompute.length) {
+						operationsToRecompute = Arrays.copyOf(operationsToRecompute, 2 * operationsToRecompute.length);
+					}
+					operationsToRecompute[numberOfOperationsToRecompute++] = argumentTapeIndex;
+					isArgumentsAvailable = false;
+				}
+			}
+
+			if(isArgumentsAvailable) {
+				numberOfOperationsToRecompute--;
+				final RandomVariable[] values = new RandomVariable[numberOfArguments];
+				for(int argumentIndex = 0; argumentIndex < numberOfArguments; argumentIndex++) {
+					final int argumentTapeIndex = snapshot.getArgumentIndex(operationIndex, argumentIndex);
+					values[argumentIndex] = argumentTapeIndex == RandomVariableDifferentiableAADTape.ARGUMENT_INDEX_CONSTANT ? snapshot.getArgumentValue(operationIndex, argumentIndex) : getValueOnTape(snapshot, argumentTapeIndex, recomputedValues);
+				}
+				recomputedValues[operationIndex] = OperatorTreeNode.recompute(operatorTypes[snapshot.getOperatorCode(operationIndex)], snapshot.getOperator(operationIndex), values);
+			}
+		}
+
+		return recomputedValues[tapeIndex];
+	}
+
 	private boolean isGradientRetainsLeafNodesOnly() {
 		return getFactory() != null && getFactory().isGradientRetainsLeafNodesOnly();
 	}
@@ -874,7 +1446,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		return new RandomVariableDifferentiableAAD(
 				getValues().add(value),
 				Arrays.asList(this.getOperatorTreeNode(), null),
-				Arrays.asList(null /* this */, null /* new RandomVariableFromDoubleArray(value) */),		// For ADD we do not need all arguments to evaluate the differential
+				Arrays.asList(this.getValues(), new Scalar(value)),		// For ADD the node does not retain the arguments (except for recomputation)
 				null,
 				OperatorType.ADD,
 				getFactory(),
@@ -886,7 +1458,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		return new RandomVariableDifferentiableAAD(
 				getValues().sub(value),
 				Arrays.asList(this.getOperatorTreeNode(), null),
-				Arrays.asList(null /* this */, null /* new RandomVariableFromDoubleArray(value) */),		// For SUB we do not need all arguments to evaluate the differential
+				Arrays.asList(this.getValues(), new Scalar(value)),		// For SUB the node does not retain the arguments (except for recomputation)
 				null,
 				OperatorType.SUB,
 				getFactory(),
@@ -898,7 +1470,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		return new RandomVariableDifferentiableAAD(
 				getValues().mult(value),
 				Arrays.asList(this.getOperatorTreeNode(), null),
-				Arrays.asList(null, new Scalar(value)),		// For MULT with constant we do not need all arguments to evaluate the differential
+				Arrays.asList(this.getValues(), new Scalar(value)),		// For MULT with constant the node does not retain this (see OperatorTreeNode)
 				null,
 				OperatorType.MULT,
 				getFactory(),
@@ -910,7 +1482,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		return new RandomVariableDifferentiableAAD(
 				getValues().div(value),
 				Arrays.asList(this.getOperatorTreeNode(), null),
-				Arrays.asList(null, new Scalar(value)),		// For DIV with constant we do not need all arguments to evaluate the differential
+				Arrays.asList(this.getValues(), new Scalar(value)),		// For DIV with constant the node does not retain this (see OperatorTreeNode)
 				null,
 				OperatorType.DIV,
 				getFactory(),
@@ -1014,7 +1586,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		return new RandomVariableDifferentiableAAD(
 				getValues().add(randomVariable.getValues()),
 				Arrays.asList(this.getOperatorTreeNode(), OperatorTreeNode.of(randomVariable)),
-				Arrays.asList(null /* this.getValues() */, null /* randomVariable.getValues() */),		// For ADD we do not need all arguments to evaluate the differential
+				Arrays.asList(this.getValues(), randomVariable.getValues()),		// For ADD the node does not retain the arguments (except for recomputation)
 				null,
 				OperatorType.ADD,
 				getFactory(),
@@ -1031,7 +1603,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		return new RandomVariableDifferentiableAAD(
 				getValues().sub(randomVariable.getValues()),
 				Arrays.asList(this.getOperatorTreeNode(), OperatorTreeNode.of(randomVariable)),
-				Arrays.asList(null /* this.getValues() */, null /* randomVariable.getValues() */),		// For SUB we do not need all arguments to evaluate the differential
+				Arrays.asList(this.getValues(), randomVariable.getValues()),		// For SUB the node does not retain the arguments (except for recomputation)
 				null,
 				OperatorType.SUB,
 				getFactory(),
@@ -1048,7 +1620,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		return new RandomVariableDifferentiableAAD(
 				getValues().bus(randomVariable.getValues()),
 				Arrays.asList(OperatorTreeNode.of(randomVariable), this.getOperatorTreeNode()),			// SUB with swapped arguments
-				Arrays.asList(null, null),																// For SUB we do not need all arguments to evaluate the differential
+				Arrays.asList(randomVariable.getValues(), this.getValues()),							// For SUB the node does not retain the arguments (except for recomputation)
 				null,
 				OperatorType.SUB,
 				getFactory(),
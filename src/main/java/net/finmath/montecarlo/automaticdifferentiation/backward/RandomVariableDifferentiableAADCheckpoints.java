@@ -0,0 +1,139 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.montecarlo.automaticdifferentiation.backward;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the checkpoints of the operator tree of {@link RandomVariableDifferentiableAAD} under a memory budget.
+ *
+ * Each intermediate value which can be recomputed from the values of its arguments is offered as a candidate
+ * checkpoint. Candidates are retained if their running number is a multiple of a stride. If the memory
+ * retained by the checkpoints exceeds the budget, the stride is doubled and every other checkpoint is released.
+ * Hence, for <i>n</i> candidates of equal size, the retained memory stays below the budget and the distance between
+ * two checkpoints (and hence the length of a recomputation during the backward sweep) is bounded by <i>n</i> times the size of a
+ * value divided by the budget. Choosing the budget proportional to \( \sqrt{n} \) gives a memory requirement
+ * and a recomputation length both of order \( \sqrt{n} \).
+ *
+ * Released values are recomputed (once per backward sweep) from the previous checkpoints. Values which are
+ * still referenced elsewhere (e.g. the realizations of a process stored by the time discretization scheme)
+ * are not recomputed, they act as natural checkpoints.
+ *
+ * The checkpoints belong to a {@link RandomVariableDifferentiableAADRecording}. They are released when a backward sweep has
+ * traversed the recording (their values are recomputed if required by a later backward sweep). The following operations are recorded
+ * on a new recording with new checkpoints, hence the checkpoints of other recordings (e.g. of a valuation still in flight) are not affected.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+final class RandomVariableDifferentiableAADCheckpoints {
+
+	/**
+	 * A node of the operator tree which may retain its value as a checkpoint.
+	 */
+	interface Checkpoint {
+
+		/**
+		 * Release the value retained by this checkpoint.
+		 */
+		void releaseCheckpoint();
+	}
+
+	private static final long maximumStride = 1L << 40;
+
+	private final long memoryBudget;
+
+	private long stride = 1;
+	private long numberOfCandidates = 0;
+	private long retainedMemory = 0;
+
+	private List<Checkpoint>	checkpoints = new ArrayList<>();
+	private List<long[]>		checkpointCandidateNumberAndMemory = new ArrayList<>();
+
+	/**
+	 * Create the checkpoints under a given memory budget.
+	 *
+	 * @param memoryBudget The maximum memory (in bytes) retained by the checkpoints.
+	 */
+	RandomVariableDifferentiableAADCheckpoints(final long memoryBudget) {
+		super();
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Offer a checkpoint. If the checkpoint is not retained (or if other checkpoints have to be released),
+	 * {@link Checkpoint#releaseCheckpoint()} is called.
+	 *
+	 * @param checkpoint The checkpoint (a node retaining its value).
+	 * @param memory The memory (in bytes) retained by the checkpoint.
+	 */
+	synchronized void offer(final Checkpoint checkpoint, final long memory) {
+		final long candidateNumber = numberOfCandidates++;
+		if(candidateNumber % stride != 0) {
+			checkpoint.releaseCheckpoint();
+			return;
+		}
+
+		checkpoints.add(checkpoint);
+		checkpointCandidateNumberAndMemory.add(new long[] { candidateNumber, memory });
+		retainedMemory += memory;
+
+		while(retainedMemory > memoryBudget && !checkpoints.isEmpty()) {
+			stride = stride < maximumStride ? 2 * stride : Long.MAX_VALUE;
+			thin();
+		}
+	}
+
+	/**
+	 * Release all checkpoints (called after the backward sweep of the recording owning the checkpoints).
+	 */
+	synchronized void release() {
+		for(final Checkpoint checkpoint : checkpoints) {
+			checkpoint.releaseCheckpoint();
+		}
+		checkpoints = new ArrayList<>();
+		checkpointCandidateNumberAndMemory = new ArrayList<>();
+		retainedMemory = 0;
+	}
+
+	/**
+	 * @return The memory (in bytes) currently retained by the checkpoints.
+	 */
+	synchronized long getRetainedMemory() {
+		return retainedMemory;
+	}
+
+	/**
+	 * @return The memory budget (in bytes).
+	 */
+	long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/*
+	 * Release all checkpoints whose candidate number is not a multiple of the current stride.
+	 */
+	private void thin() {
+		final List<Checkpoint>	retainedCheckpoints = new ArrayList<>();
+		final List<long[]>		retainedCandidateNumberAndMemory = new ArrayList<>();
+		retainedMemory = 0;
+		for(int i=0; i<checkpoints.size(); i++) {
+			final long[] candidateNumberAndMemory = checkpointCandidateNumberAndMemory.get(i);
+			if(stride != Long.MAX_VALUE && candidateNumberAndMemory[0] % stride == 0) {
+				retainedCheckpoints.add(checkpoints.get(i));
+				retainedCandidateNumberAndMemory.add(candidateNumberAndMemory);
+				retainedMemory += candidateNumberAndMemory[1];
+			}
+			else {
+				checkpoints.get(i).releaseCheckpoint();
+			}
+		}
+		checkpoints = retainedCheckpoints;
+		checkpointCandidateNumberAndMemory = retainedCandidateNumberAndMemory;
+	}
+}
@@ -6,6 +6,7 @@
 
 package net.finmath.montecarlo.automaticdifferentiation.backward;
 
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -44,6 +45,25 @@ public class RandomVariableDifferentiableAADFactory extends AbstractRandomVariab
 
 	private final boolean isGradientRetainsLeafNodesOnly;
 
+	/*
+	 * If the tape is enabled, all operations of random variables created by this factory are recorded on a flat tape
+	 * (instead of an operator tree) and the backward sweep is performed as a linear scan over the tape.
+	 */
+	private final boolean isGradientUsingTape;
+
+	/*
+	 * If a memory budget is given, intermediate values of the operator tree are only retained at checkpoints
+	 * and are recomputed during the backward sweep.
+	 */
+	private final long checkpointMemoryBudget;
+
+	/*
+	 * If the tape or checkpointing is enabled, each thread records on its own recording (see RandomVariableDifferentiableAADRecording),
+	 * holding its tape and its checkpoints. The recording is referenced weakly, such that it is released when no random variable
+	 * recorded on it is reachable.
+	 */
+	private final transient ThreadLocal<WeakReference<RandomVariableDifferentiableAADRecording>> recordings;
+
 	/**
 	 * Create a factory for objects of type {@link RandomVariableDifferentiableAAD}.
 	 *
@@ -52,6 +72,19 @@ public class RandomVariableDifferentiableAADFactory extends AbstractRandomVariab
 	 * <li>isGradientRetainsLeafNodesOnly: Boolean</li>
 	 * <li>diracDeltaApproximationMethod: String</li>
 	 * <li>diracDeltaApproximationWidthPerStdDev: Double</li>
+	 * <li>isGradientUsingTape: Boolean (default false). If true, the operations are recorded on a flat array based tape
+	 * (instead of an operator tree of objects) and the gradient is calculated by a reverse linear scan over that tape.
+	 * Each thread records on its own tape, such that concurrent valuations do not share a tape. A tape retains the recorded operations
+	 * (including the argument values required for the partial derivatives): a backward sweep finishes the recordings it traverses and the
+	 * following operations of the owning threads are recorded on new tapes, such that the cost of a backward sweep does not depend on
+	 * earlier valuations. Random variables recorded on a finished tape are imported into the new tape when they are used.
+	 * A tape is released when no random variable recorded on it is reachable.
+	 * Random variables recorded on a tape are not serializable.</li>
+	 * <li>checkpointMemoryBudget: Long (default -1, i.e., disabled). If non-negative, the nodes of the operator tree do not retain the values
+	 * of their (differentiable) arguments. Instead, intermediate values are retained at checkpoints, using at most the given number of bytes,
+	 * and are recomputed from the checkpoints during the backward sweep (see {@link RandomVariableDifferentiableAADCheckpoints}).
+	 * The budget applies to the recording of a single thread: a backward sweep releases the checkpoints of the recordings it traverses
+	 * and the following operations of the owning threads start a new set of checkpoints. The checkpoints of other threads are not affected.</li>
 	 * </ul>
 	 *
 	 * @param randomVariableFactoryForNonDifferentiable Random variable factory for the underlying values.
@@ -69,6 +102,11 @@ public class RandomVariableDifferentiableAADFactory extends AbstractRandomVariab
 		diracDeltaApproximationDensityRegressionWidthPerStdDev = (Double)properties.getOrDefault("diracDeltaApproximationDensityRegressionWidthPerStdDev", 0.5);
 
 		isGradientRetainsLeafNodesOnly = (Boolean) properties.getOrDefault("isGradientRetainsLeafNodesOnly", true);
+		isGradientUsingTape = (Boolean) properties.getOrDefault("isGradientUsingTape", false);
+
+		checkpointMemoryBudget = ((Number)properties.getOrDefault("checkpointMemoryBudget", -1L)).longValue();
+
+		recordings = isGradientUsingTape || checkpointMemoryBudget >= 0 ? new ThreadLocal<>() : null;
 	}
 
 	/**
@@ -120,12 +158,59 @@ public class RandomVariableDifferentiableAADFactory extends AbstractRandomVariab
 		return isGradientRetainsLeafNodesOnly;
 	}
 
+	public boolean isGradientUsingTape() {
+		return isGradientUsingTape;
+	}
+
+	/**
+	 * Returns the recording of the calling thread, on which the nodes created by this thread are recorded.
+	 * If the recording of the thread has been finished (or released), a new recording is started.
+	 *
+	 * @return The recording or null, if neither the tape nor checkpointing is enabled (or the factory has been de-serialized).
+	 */
+	RandomVariableDifferentiableAADRecording getRecording() {
+		if(recordings == null) {
+			return null;
+		}
+
+		final WeakReference<RandomVariableDifferentiableAADRecording> recordingReference = recordings.get();
+		RandomVariableDifferentiableAADRecording recording = recordingReference != null ? recordingReference.get() : null;
+		if(recording == null || recording.isFinished()) {
+			recording = new RandomVariableDifferentiableAADRecording(this, isGradientUsingTape, checkpointMemoryBudget);
+			recordings.set(new WeakReference<>(recording));
+		}
+		return recording;
+	}
+
+	/**
+	 * Returns the memory budget of the checkpoints.
+	 *
+	 * @return The memory budget of the checkpoints in bytes, or a negative value if checkpointing is disabled.
+	 */
+	public long getCheckpointMemoryBudget() {
+		return checkpointMemoryBudget;
+	}
+
+	/**
+	 * Returns the memory currently retained by the checkpoints of the recording of the calling thread.
+	 *
+	 * @return The memory retained by the checkpoints in bytes, or 0 if checkpointing is disabled or the recording has been finished.
+	 */
+	public long getCheckpointRetainedMemory() {
+		final WeakReference<RandomVariableDifferentiableAADRecording> recordingReference = recordings != null ? recordings.get() : null;
+		final RandomVariableDifferentiableAADRecording recording = recordingReference != null ? recordingReference.get() : null;
+		if(recording == null || recording.isFinished() || recording.getCheckpoints() == null) {
+			return 0;
+		}
+		return recording.getCheckpoints().getRetainedMemory();
+	}
+
 	@Override
 	public String toString() {
 		return "RandomVariableDifferentiableAADFactory [diracDeltaApproximationMethod=" + diracDeltaApproximationMethod
 				+ ", diracDeltaApproximationWidthPerStdDev=" + diracDeltaApproximationWidthPerStdDev
 				+ ", diracDeltaApproximationDensityRegressionWidthPerStdDev="
 				+ diracDeltaApproximationDensityRegressionWidthPerStdDev + ", isGradientRetainsLeafNodesOnly="
-				+ isGradientRetainsLeafNodesOnly + ", toString()=" + super.toString() + "]";
+				+ isGradientRetainsLeafNodesOnly + ", isGradientUsingTape=" + isGradientUsingTape + ", checkpointMemoryBudget=" + checkpointMemoryBudget + ", toString()=" + super.toString() + "]";
 	}
 }
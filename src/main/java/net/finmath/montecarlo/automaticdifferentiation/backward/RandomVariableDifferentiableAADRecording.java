@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.montecarlo.automaticdifferentiation.backward;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The recording of the operations of {@link RandomVariableDifferentiableAAD} performed by a single thread.
+ *
+ * A {@link RandomVariableDifferentiableAADFactory} maintains a recording for each thread creating random variables.
+ * The recording holds the tape on which the operations of that thread are recorded (if the tape is enabled) and the checkpoints
+ * of these operations (if checkpointing is enabled), such that concurrent valuations (e.g., the valuation of product components
+ * on different threads) do not share a tape (and a lock) or a checkpoint memory budget.
+ *
+ * A backward sweep finishes the recordings it has traversed and releases their checkpoints. The thread owning a finished recording
+ * continues on a new recording (with new checkpoints), such that the cost of later backward sweeps does not depend on earlier valuations.
+ * The checkpoints of recordings not traversed by the sweep are not affected. Results of a finished recording used by later operations
+ * are imported into the new recording (see {@link RandomVariableDifferentiableAADTape}),
+ * such that these operations are still recorded on a tape. Other threads and their recordings are not affected.
+ *
+ * Recordings are ordered by their creation: an operation may only import results of an earlier recording,
+ * hence a backward sweep can process the tapes in the reverse order of their recordings.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+final class RandomVariableDifferentiableAADRecording {
+
+	private static final AtomicLong numberOfRecordings = new AtomicLong(0);
+
+	private final long sequenceNumber;
+	private final RandomVariableDifferentiableAADTape tape;
+	private final RandomVariableDifferentiableAADCheckpoints checkpoints;
+
+	private volatile boolean isFinished = false;
+
+	/**
+	 * Create a recording.
+	 *
+	 * @param factory The factory owning the recording.
+	 * @param isRecordingOnTape If true, the operations are recorded on a tape.
+	 * @param checkpointMemoryBudget The memory budget of the checkpoints of this recording, or a negative value if checkpointing is disabled.
+	 */
+	RandomVariableDifferentiableAADRecording(final RandomVariableDifferentiableAADFactory factory, final boolean isRecordingOnTape, final long checkpointMemoryBudget) {
+		sequenceNumber = numberOfRecordings.getAndIncrement();
+		tape = isRecordingOnTape ? new RandomVariableDifferentiableAADTape(factory, checkpointMemoryBudget >= 0) : null;
+		checkpoints = checkpointMemoryBudget >= 0 ? new RandomVariableDifferentiableAADCheckpoints(checkpointMemoryBudget) : null;
+	}
+
+	/**
+	 * @return The running number of this recording (recordings created later have a larger number).
+	 */
+	long getSequenceNumber() {
+		return sequenceNumber;
+	}
+
+	/**
+	 * @return The tape of this recording or null, if the tape is not enabled.
+	 */
+	RandomVariableDifferentiableAADTape getTape() {
+		return tape;
+	}
+
+	/**
+	 * @return The checkpoints of this recording or null, if checkpointing is disabled.
+	 */
+	RandomVariableDifferentiableAADCheckpoints getCheckpoints() {
+		return checkpoints;
+	}
+
+	/**
+	 * @return True if the recording has been finished by a backward sweep.
+	 */
+	boolean isFinished() {
+		return isFinished;
+	}
+
+	/**
+	 * Finish this recording (called after a backward sweep traversing it) and release its checkpoints.
+	 * The next operation of the thread owning this recording starts a new recording.
+	 */
+	void finish() {
+		isFinished = true;
+		if(checkpoints != null) {
+			checkpoints.release();
+		}
+	}
+}
@@ -0,0 +1,306 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.montecarlo.automaticdifferentiation.backward;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A flat tape recording the operations of {@link RandomVariableDifferentiableAAD} in the order of their creation.
+ *
+ * The tape stores, for each recorded operation, the id of the result, the operator code, the tape positions of the arguments
+ * and the values of the arguments required to calculate the partial derivatives
+ * (the arguments of operation <code>i</code> are found at positions
+ * <code>argumentOffsets[i]</code> to <code>argumentOffsets[i+1]-1</code> of the argument arrays).
+ * The tape does not reference the nodes of the operator tree: a node recorded on the tape
+ * is just a handle (its tape position), hence the operator tree is not build as an object graph.
+ *
+ * Since the arguments of an operation are always recorded before the operation itself,
+ * the backward sweep can be performed by a single reverse linear scan
+ * over the tape, using an array of adjoints indexed by the tape position.
+ *
+ * If checkpointing is enabled, the tape does not store the values of differentiable arguments. Instead, it stores
+ * the value of each operation, either as a checkpoint or as a weak reference, such that it can be recomputed
+ * from the values of its arguments.
+ *
+ * The tape belongs to a {@link RandomVariableDifferentiableAADRecording}, i.e., it records the operations of a single thread
+ * (a backward sweep finishes the recording and the factory starts a new recording for that thread). Hence the tape is only written
+ * by a single thread and its lock is uncontended (it publishes the recorded operations to a backward sweep on another thread).
+ * The tape retains the recorded operations as long as a random variable recorded on it is reachable.
+ *
+ * A random variable recorded on another tape is used by recording an import: for a leaf node, a leaf with the same id, for other
+ * nodes, a reference to the position on the other tape, through which the backward sweep continues on the other tape.
+ *
+ * @author Christian Fries
+ * @version 1.1
+ */
+final class RandomVariableDifferentiableAADTape {
+
+	/**
+	 * Operator code of an operation without operator (a leaf node).
+	 */
+	static final int OPERATOR_CODE_LEAF = -1;
+
+	/**
+	 * Operator code of an operation recorded on another tape (the operator is its position on the other tape).
+	 */
+	static final int OPERATOR_CODE_IMPORT = -2;
+
+	/**
+	 * Argument index of an argument which is not differentiable (a constant).
+	 */
+	static final int ARGUMENT_INDEX_CONSTANT = -1;
+
+	private static final int initialCapacity = 1024;
+
+	/**
+	 * An immutable view on the first <code>size</code> entries of a tape.
+	 */
+	static final class Snapshot {
+		private final int					size;
+		private final long[]				ids;
+		private final int[]					operatorCodes;
+		private final Object[]				operators;
+		private final int[]					argumentOffsets;
+		private final int[]					argumentIndices;
+		private final RandomVariable[]		argumentValues;
+		private final boolean[]				isArgumentValueRequired;
+		private final RandomVariable[]		checkpointValues;
+		private final WeakReference<RandomVariable>[]	valueReferences;
+
+		private Snapshot(final RandomVariableDifferentiableAADTape tape) {
+			size = tape.size;
+			ids = tape.ids;
+			operatorCodes = tape.operatorCodes;
+			operators = tape.operators;
+			argumentOffsets = tape.argumentOffsets;
+			argumentIndices = tape.argumentIndices;
+			argumentValues = tape.argumentValues;
+			isArgumentValueRequired = tape.isArgumentValueRequired;
+			checkpointValues = tape.checkpointValues;
+			valueReferences = tape.valueReferences;
+		}
+
+		int size() {
+			return size;
+		}
+
+		long getId(final int tapeIndex) {
+			return ids[tapeIndex];
+		}
+
+		int getOperatorCode(final int tapeIndex) {
+			return operatorCodes[tapeIndex];
+		}
+
+		Object getOperator(final int tapeIndex) {
+			return operators[tapeIndex];
+		}
+
+		int getNumberOfArguments(final int tapeIndex) {
+			return argumentOffsets[tapeIndex+1] - argumentOffsets[tapeIndex];
+		}
+
+		int getArgumentIndex(final int tapeIndex, final int argumentIndex) {
+			return argumentIndices[argumentOffsets[tapeIndex] + argumentIndex];
+		}
+
+		RandomVariable getArgumentValue(final int tapeIndex, final int argumentIndex) {
+			return argumentValues[argumentOffsets[tapeIndex] + argumentIndex];
+		}
+
+		/**
+		 * @return True if the tape does not store the values of differentiable arguments (they have to be obtained from the values of the arguments).
+		 */
+		boolean isCheckpointing() {
+			return checkpointValues != null;
+		}
+
+		boolean isArgumentValueRequired(final int tapeIndex, final int argumentIndex) {
+			return isArgumentValueRequired[argumentOffsets[tapeIndex] + argumentIndex];
+		}
+
+		/**
+		 * Returns the value of an operation, if it is retained (as a checkpoint) or still reachable (only if checkpointing is enabled).
+		 *
+		 * @param tapeIndex The tape position.
+		 * @return The value of the operation or null.
+		 */
+		RandomVariable getRetainedValue(final int tapeIndex) {
+			final RandomVariable value = checkpointValues[tapeIndex];
+			if(value != null) {
+				return value;
+			}
+			final WeakReference<RandomVariable> valueReference = valueReferences[tapeIndex];
+			return valueReference != null ? valueReference.get() : null;
+		}
+	}
+
+	private final RandomVariableDifferentiableAADFactory factory;
+
+	private int					size;
+	private long[]				ids;
+	private int[]				operatorCodes;
+	private Object[]			operators;
+	private int[]				argumentOffsets;
+	private int[]				argumentIndices;
+	private RandomVariable[]	argumentValues;
+
+	// Only used if checkpointing is enabled
+	private boolean[]						isArgumentValueRequired;
+	private RandomVariable[]				checkpointValues;
+	private WeakReference<RandomVariable>[]	valueReferences;
+
+	// The tape positions of the imported nodes (id -> tape index), such that a node is imported only once
+	private final Map<Long, Integer>	importedTapeIndices = new HashMap<>();
+
+	/**
+	 * Create a tape.
+	 *
+	 * @param factory The factory owning the tape.
+	 * @param isCheckpointing If true, the values of differentiable arguments are not stored, the value of each operation is stored as checkpoint or weak reference instead.
+	 */
+	@SuppressWarnings("unchecked")
+	RandomVariableDifferentiableAADTape(final RandomVariableDifferentiableAADFactory factory, final boolean isCheckpointing) {
+		this.factory = factory;
+		size = 0;
+		ids = new long[initialCapacity];
+		operatorCodes = new int[initialCapacity];
+		operators = new Object[initialCapacity];
+		argumentOffsets = new int[initialCapacity+1];
+		argumentIndices = new int[initialCapacity];
+		argumentValues = new RandomVariable[initialCapacity];
+		if(isCheckpointing) {
+			isArgumentValueRequired = new boolean[initialCapacity];
+			checkpointValues = new RandomVariable[initialCapacity];
+			valueReferences = new WeakReference[initialCapacity];
+		}
+	}
+
+	/**
+	 * Record an operation on the tape.
+	 *
+	 * @param id The id of the result of the operation.
+	 * @param operatorCode The operator code of the operation or {@link #OPERATOR_CODE_LEAF}.
+	 * @param operator An object required to calculate the partial derivatives (e.g. a conditional expectation estimator), may be null.
+	 * @param argumentTapeIndices The tape positions of the arguments (or {@link #ARGUMENT_INDEX_CONSTANT}), may be null for leaf nodes.
+	 * @param argumentValues The values of the arguments required to calculate the partial derivatives (elements may be null), may be null.
+	 * @param isArgumentValueRequired If checkpointing is enabled: flags indicating if the value of a differentiable argument is required to calculate the partial derivatives.
+	 * @param value If checkpointing is enabled: the value of the operation (retained as checkpoint until released).
+	 * @param isValueRecomputable If checkpointing is enabled: true if the value of the operation can be recomputed from the values of the arguments.
+	 * @return The tape position of the operation.
+	 */
+	synchronized int record(final long id, final int operatorCode, final Object operator, final int[] argumentTapeIndices, final RandomVariable[] argumentValues, final boolean[] isArgumentValueRequired, final RandomVariable value, final boolean isValueRecomputable) {
+		final int numberOfArguments = argumentTapeIndices != null ? argumentTapeIndices.length : 0;
+
+		if(size == operatorCodes.length) {
+			final int capacity = 2 * operatorCodes.length;
+			ids = Arrays.copyOf(ids, capacity);
+			operatorCodes = Arrays.copyOf(operatorCodes, capacity);
+			operators = Arrays.copyOf(operators, capacity);
+			argumentOffsets = Arrays.copyOf(argumentOffsets, capacity+1);
+			if(checkpointValues != null) {
+				checkpointValues = Arrays.copyOf(checkpointValues, capacity);
+				valueReferences = Arrays.copyOf(valueReferences, capacity);
+			}
+		}
+
+		final int argumentOffset = argumentOffsets[size];
+		if(argumentOffset + numberOfArguments > argumentIndices.length) {
+			final int capacity = Math.max(2 * argumentIndices.length, argumentOffset + numberOfArguments);
+			argumentIndices = Arrays.copyOf(argumentIndices, capacity);
+			this.argumentValues = Arrays.copyOf(this.argumentValues, capacity);
+			if(this.isArgumentValueRequired != null) {
+				this.isArgumentValueRequired = Arrays.copyOf(this.isArgumentValueRequired, capacity);
+			}
+		}
+		if(numberOfArguments > 0) {
+			System.arraycopy(argumentTapeIndices, 0, argumentIndices, argumentOffset, numberOfArguments);
+			if(argumentValues != null) {
+				System.arraycopy(argumentValues, 0, this.argumentValues, argumentOffset, numberOfArguments);
+			}
+			if(this.isArgumentValueRequired != null && isArgumentValueRequired != null) {
+				System.arraycopy(isArgumentValueRequired, 0, this.isArgumentValueRequired, argumentOffset, numberOfArguments);
+			}
+		}
+
+		ids[size] = id;
+		operatorCodes[size] = operatorCode;
+		operators[size] = operator;
+		argumentOffsets[size+1] = argumentOffset + numberOfArguments;
+		if(checkpointValues != null) {
+			checkpointValues[size] = value;
+			valueReferences[size] = isValueRecomputable && value != null ? new WeakReference<>(value) : null;
+		}
+
+		return size++;
+	}
+
+	/**
+	 * Record the import of a node recorded on another tape (only once for each node).
+	 *
+	 * @param id The id of the node.
+	 * @param operatorCode {@link #OPERATOR_CODE_LEAF} for a leaf node, otherwise {@link #OPERATOR_CODE_IMPORT}.
+	 * @param operator For an import, the position of the node on the other tape.
+	 * @param value If checkpointing is enabled: the value of the node (retained by the tape).
+	 * @return The tape position of the import.
+	 */
+	synchronized int recordImport(final long id, final int operatorCode, final Object operator, final RandomVariable value) {
+		final Integer importedTapeIndex = importedTapeIndices.get(id);
+		if(importedTapeIndex != null) {
+			return importedTapeIndex;
+		}
+
+		final int tapeIndex = record(id, operatorCode, operator, null, null, null, value, false);
+		importedTapeIndices.put(id, tapeIndex);
+		return tapeIndex;
+	}
+
+	/**
+	 * Release the value retained as checkpoint by an operation (only if checkpointing is enabled).
+	 * The value is still available through a weak reference, if it can be recomputed.
+	 *
+	 * @param tapeIndex The tape position of the operation.
+	 */
+	synchronized void releaseCheckpoint(final int tapeIndex) {
+		checkpointValues[tapeIndex] = null;
+	}
+
+	/**
+	 * Returns the value of an operation, if it is retained (only if checkpointing is enabled, otherwise null).
+	 *
+	 * @param tapeIndex The tape position of the operation.
+	 * @return The value of the operation or null.
+	 */
+	synchronized RandomVariable getRetainedValue(final int tapeIndex) {
+		return checkpointValues != null ? checkpointValues[tapeIndex] : null;
+	}
+
+	/**
+	 * Returns a view on the operations recorded so far. Operations recorded later are not part of the snapshot.
+	 *
+	 * @return A view on the operations recorded so far.
+	 */
+	synchronized Snapshot getSnapshot() {
+		return new Snapshot(this);
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * @return The factory owning this tape.
+	 */
+	RandomVariableDifferentiableAADFactory getFactory() {
+		return factory;
+	}
+}
@@ -7,7 +7,11 @@ package net.finmath.montecarlo.conditionalexpectation;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
 import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.NonPositiveDefiniteMatrixException;
+import org.apache.commons.math3.linear.NonSymmetricMatrixException;
+import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.SingularValueDecomposition;
 
 import net.finmath.stochastic.ConditionalExpectationEstimator;
@@ -27,8 +31,15 @@ import net.finmath.stochastic.RandomVariable;
  * basis functions have to correspond to the same entities, however, generated in
  * different simulations (number of path, etc., may be different).
  *
+ * The matrix X<sup>T</sup>X and the vector X<sup>T</sup>y are calculated in a single pass over
+ * the realizations of the basis functions, processing the paths in blocks.
+ * The normal equations are solved using a Cholesky decomposition of X<sup>T</sup>X. If the
+ * matrix is not positive definite or ill conditioned, a singular value decomposition is used instead.
+ * Several dependents sharing the same basis functions may be regressed at once,
+ * see {@link #getLinearRegressionParameters(RandomVariable[])} and {@link #getConditionalExpectation(RandomVariable[])}.
+ *
  * @author Christian Fries
- * @version 1.0
+ * @version 1.1
  */
 public class MonteCarloConditionalExpectationRegression implements ConditionalExpectationEstimator {
 
@@ -60,6 +71,18 @@ public class MonteCarloConditionalExpectationRegression implements ConditionalEx
 	}
 
 
+	/*
+	 * Number of paths processed in one block when calculating the scalar products of the basis functions.
+	 * The realizations of a block of all basis functions should fit into the cache.
+	 */
+	private static final int pathBlockSize = 1024;
+
+	/*
+	 * Maximum condition number of X<sup>T</sup>X (calculated from the Cholesky decomposition) for which
+	 * the Cholesky decomposition is used. For larger values the singular value decomposition is used.
+	 */
+	private static final double maximumConditionNumberForCholesky = 1E10;
+
 	private RegressionBasisFunctions basisFunctionsEstimator		= null;
 	private RegressionBasisFunctions basisFunctionsPredictor		= null;
 
@@ -100,13 +123,25 @@ public class MonteCarloConditionalExpectationRegression implements ConditionalEx
 		final double[] linearRegressionParameters = getLinearRegressionParameters(randomVariable);
 
 		// Calculate estimate, i.e. X x
-		final RandomVariable[] basisFunctions = basisFunctionsPredictor.getBasisFunctions();
-		RandomVariable conditionalExpectation = basisFunctions[0].mult(linearRegressionParameters[0]);
-		for(int i=1; i<basisFunctions.length; i++) {
-			conditionalExpectation = conditionalExpectation.addProduct(basisFunctions[i], linearRegressionParameters[i]);
+		return getPrediction(linearRegressionParameters);
+	}
+
+	/**
+	 * Return the conditional expectations of a set of random variables sharing the same basis functions.
+	 * The normal equations are set up and decomposed only once for all random variables.
+	 *
+	 * @param randomVariables The random variables.
+	 * @return The conditional expectations of the random variables (with the same ordering).
+	 */
+	public RandomVariable[] getConditionalExpectation(final RandomVariable[] randomVariables) {
+		final double[][] linearRegressionParameters = getLinearRegressionParameters(randomVariables);
+
+		final RandomVariable[] conditionalExpectations = new RandomVariable[randomVariables.length];
+		for(int dependentIndex=0; dependentIndex<randomVariables.length; dependentIndex++) {
+			conditionalExpectations[dependentIndex] = getPrediction(linearRegressionParameters[dependentIndex]);
 		}
 
-		return conditionalExpectation;
+		return conditionalExpectations;
 	}
 
 	/**
@@ -116,39 +151,220 @@ public class MonteCarloConditionalExpectationRegression implements ConditionalEx
 	 * @return The solution x of XTX x = XT y.
 	 */
 	public double[] getLinearRegressionParameters(final RandomVariable dependents) {
+		return getLinearRegressionParameters(new RandomVariable[] { dependents })[0];
+	}
+
+	/**
+	 * Return the solutions x<sub>j</sub> of XTX x<sub>j</sub> = XT y<sub>j</sub> for a given set of y<sub>j</sub>.
+	 *
+	 * @param dependents The sample vectors of the random variables y<sub>j</sub>.
+	 * @return The solutions x<sub>j</sub> of XTX x<sub>j</sub> = XT y<sub>j</sub>, where the first index corresponds to j.
+	 */
+	public double[][] getLinearRegressionParameters(final RandomVariable[] dependents) {
 
 		final RandomVariable[] basisFunctions = basisFunctionsEstimator.getBasisFunctions();
 
 		/*
 		 * We cache the creation of XTX, or to be precise, the solver, that solves XTX x = z for a given z.
 		 */
+		final DecompositionSolver solver;
 		synchronized (solverLock) {
-			if(solver == null) {
+			if(this.solver == null) {
 				// Build XTX - the symmetric matrix consisting of the scalar products of the basis functions.
-				final double[][] XTX = new double[basisFunctions.length][basisFunctions.length];
-				for(int i=0; i<basisFunctions.length; i++) {
-					for(int j=i; j<basisFunctions.length; j++) {
-						XTX[i][j] = basisFunctions[i].mult(basisFunctions[j]).getAverage();	// Scalar product
-						XTX[j][i] = XTX[i][j];												// Symmetric matrix
-					}
-				}
-
-				solver = new SingularValueDecomposition(new Array2DRowRealMatrix(XTX, false)).getSolver();
+				this.solver = getSolver(getScalarProducts(basisFunctions));
 			}
+			solver = this.solver;
 		}
 
 		// Build XTy - the projection of the dependents random variable on the basis functions.
-		final double[] XTy = new double[basisFunctions.length];
-		for(int i=0; i<basisFunctions.length; i++) {
-			XTy[i] = dependents.mult(basisFunctions[i]).getAverage();				// Scalar product
-		}
+		final double[][] XTy = getScalarProducts(basisFunctions, dependents);
 
 		// Solve X^T X x = X^T y - which gives us the regression coefficients x = linearRegressionParameters
-		final double[] linearRegressionParameters = solver.solve(new ArrayRealVector(XTy)).toArray();
+		return getSolutions(solver, XTy);
+	}
+
+	/**
+	 * Returns the estimate X x for given regression parameters x using the predictor basis functions.
+	 *
+	 * @param linearRegressionParameters The regression parameters x.
+	 * @return The estimate X x.
+	 */
+	protected RandomVariable getPrediction(final double[] linearRegressionParameters) {
+		final RandomVariable[] basisFunctions = basisFunctionsPredictor.getBasisFunctions();
+		RandomVariable conditionalExpectation = basisFunctions[0].mult(linearRegressionParameters[0]);
+		for(int i=1; i<basisFunctions.length; i++) {
+			conditionalExpectation = conditionalExpectation.addProduct(basisFunctions[i], linearRegressionParameters[i]);
+		}
 
+		return conditionalExpectation;
+	}
+
+	/**
+	 * Returns the symmetric matrix X<sup>T</sup>X of the scalar products E(X<sub>i</sub> X<sub>j</sub>) of the basis functions,
+	 * calculated in a single pass over the realizations (processing blocks of paths), without creating intermediate random variables.
+	 *
+	 * @param basisFunctions The basis functions X<sub>i</sub>.
+	 * @return The matrix X<sup>T</sup>X.
+	 */
+	static double[][] getScalarProducts(final RandomVariable[] basisFunctions) {
+		final int numberOfBasisFunctions = basisFunctions.length;
+
+		final double[][] XTX = new double[numberOfBasisFunctions][numberOfBasisFunctions];
+		final double[] sums = getSumsOfProducts(basisFunctions, basisFunctions, true);
+		final int numberOfPaths = getNumberOfPaths(basisFunctions, basisFunctions);
+		for(int i=0; i<numberOfBasisFunctions; i++) {
+			for(int j=0; j<=i; j++) {
+				final double scalarProduct = basisFunctions[i].isDeterministic() && basisFunctions[j].isDeterministic() ?
+						basisFunctions[i].doubleValue() * basisFunctions[j].doubleValue() : sums[i*numberOfBasisFunctions+j] / numberOfPaths;
+				XTX[i][j] = scalarProduct;
+				XTX[j][i] = scalarProduct;		// Symmetric matrix
+			}
+		}
+
+		return XTX;
+	}
+
+	/**
+	 * Returns the scalar products E(Y<sub>j</sub> X<sub>i</sub>) of the dependents Y<sub>j</sub> with the basis functions X<sub>i</sub>,
+	 * calculated in a single pass over the realizations (processing blocks of paths), without creating intermediate random variables.
+	 *
+	 * @param basisFunctions The basis functions X<sub>i</sub>.
+	 * @param dependents The dependents Y<sub>j</sub>.
+	 * @return The matrix of scalar products, where the first index corresponds to j.
+	 */
+	static double[][] getScalarProducts(final RandomVariable[] basisFunctions, final RandomVariable[] dependents) {
+		final int numberOfBasisFunctions = basisFunctions.length;
+
+		final double[][] XTy = new double[dependents.length][numberOfBasisFunctions];
+		final double[] sums = getSumsOfProducts(dependents, basisFunctions, false);
+		final int numberOfPaths = getNumberOfPaths(basisFunctions, dependents);
+		for(int j=0; j<dependents.length; j++) {
+			for(int i=0; i<numberOfBasisFunctions; i++) {
+				XTy[j][i] = dependents[j].isDeterministic() && basisFunctions[i].isDeterministic() ?
+						dependents[j].doubleValue() * basisFunctions[i].doubleValue() : sums[j*numberOfBasisFunctions+i] / numberOfPaths;
+			}
+		}
+
+		return XTy;
+	}
+
+	/**
+	 * Returns a solver for the normal equations XTX x = z. The solver uses a Cholesky decomposition. If XTX is not
+	 * (numerically) positive definite or ill conditioned, a singular value decomposition is used.
+	 *
+	 * @param XTX The symmetric matrix XTX.
+	 * @return A solver for XTX x = z.
+	 */
+	static DecompositionSolver getSolver(final double[][] XTX) {
+		final RealMatrix matrix = new Array2DRowRealMatrix(XTX, false);
+		try {
+			final DecompositionSolver cholesky = new CholeskyDecomposition(matrix).getSolver();
+
+			/*
+			 * The condition number ||XTX|| ||XTX^-1|| (in the maximum row sum norm, XTX is symmetric).
+			 * The diagonal of the decomposition only gives a lower bound. The inverse is calculated from the
+			 * decomposition, which is cheap compared to the scalar products (the number of basis functions is small).
+			 */
+			final double conditionNumber = matrix.getNorm() * cholesky.getInverse().getNorm();
+
+			if(conditionNumber < maximumConditionNumberForCholesky) {
+				return cholesky;
+			}
+		}
+		catch(final NonPositiveDefiniteMatrixException | NonSymmetricMatrixException e) {
+			// The matrix is singular (e.g. linear dependent basis functions). We use the singular value decomposition.
+		}
+
+		return new SingularValueDecomposition(matrix).getSolver();
+	}
+
+	private static double[][] getSolutions(final DecompositionSolver solver, final double[][] XTy) {
+		final double[][] linearRegressionParameters = new double[XTy.length][];
+		for(int j=0; j<XTy.length; j++) {
+			linearRegressionParameters[j] = solver.solve(new ArrayRealVector(XTy[j], false)).toArray();
+		}
 		return linearRegressionParameters;
 	}
 
+	/*
+	 * Calculates the sums over all paths of the products left[j] * right[i], stored at j*right.length+i.
+	 * If isSymmetric is true, left and right are identical and only the products with i &le; j are calculated.
+	 * Paths are processed in blocks, the sums of the blocks are added using Kahan summation.
+	 */
+	private static double[] getSumsOfProducts(final RandomVariable[] left, final RandomVariable[] right, final boolean isSymmetric) {
+		final int numberOfPaths = getNumberOfPaths(left, right);
+
+		final double[][] leftRealizations = getRealizations(left);
+		final double[][] rightRealizations = isSymmetric ? leftRealizations : getRealizations(right);
+
+		final double[] sums = new double[left.length * right.length];
+		final double[] errors = new double[left.length * right.length];
+		for(int blockStart = 0; blockStart < numberOfPaths; blockStart += pathBlockSize) {
+			final int blockEnd = Math.min(blockStart + pathBlockSize, numberOfPaths);
+			for(int j=0; j<left.length; j++) {
+				final double[] leftValues = leftRealizations[j];
+				final int numberOfRightFactors = isSymmetric ? j+1 : right.length;
+				for(int i=0; i<numberOfRightFactors; i++) {
+					final double[] rightValues = rightRealizations[i];
+
+					double blockSum = 0.0;
+					if(leftValues != null && rightValues != null) {
+						for(int path = blockStart; path < blockEnd; path++) {
+							blockSum += leftValues[path] * rightValues[path];
+						}
+					}
+					else if(leftValues != null) {
+						final double rightValue = right[i].doubleValue();
+						for(int path = blockStart; path < blockEnd; path++) {
+							blockSum += leftValues[path] * rightValue;
+						}
+					}
+					else if(rightValues != null) {
+						final double leftValue = left[j].doubleValue();
+						for(int path = blockStart; path < blockEnd; path++) {
+							blockSum += leftValue * rightValues[path];
+						}
+					}
+					else {
+						// Product of two deterministic values - handled by the caller.
+						continue;
+					}
+
+					// Kahan summation of the block sums
+					final int index = j*right.length+i;
+					final double value = blockSum - errors[index];
+					final double newSum = sums[index] + value;
+					errors[index] = (newSum - sums[index]) - value;
+					sums[index] = newSum;
+				}
+			}
+		}
+
+		return sums;
+	}
+
+	/*
+	 * Returns the realizations of the random variables, or null for deterministic random variables.
+	 */
+	private static double[][] getRealizations(final RandomVariable[] randomVariables) {
+		final double[][] realizations = new double[randomVariables.length][];
+		for(int i=0; i<randomVariables.length; i++) {
+			realizations[i] = randomVariables[i].isDeterministic() ? null : randomVariables[i].getRealizations();
+		}
+		return realizations;
+	}
+
+	private static int getNumberOfPaths(final RandomVariable[] left, final RandomVariable[] right) {
+		int numberOfPaths = 1;
+		for(final RandomVariable randomVariable : left) {
+			numberOfPaths = Math.max(numberOfPaths, randomVariable.size());
+		}
+		for(final RandomVariable randomVariable : right) {
+			numberOfPaths = Math.max(numberOfPaths, randomVariable.size());
+		}
+		return numberOfPaths;
+	}
+
 	public RegressionBasisFunctions getBasisFunctionsEstimator() {
 		return basisFunctionsEstimator;
 	}
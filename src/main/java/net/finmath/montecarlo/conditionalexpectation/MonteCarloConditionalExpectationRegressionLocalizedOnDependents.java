@@ -5,10 +5,8 @@
  */
 package net.finmath.montecarlo.conditionalexpectation;
 
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.DecompositionSolver;
-import org.apache.commons.math3.linear.SingularValueDecomposition;
 
 import net.finmath.stochastic.RandomVariable;
 import net.finmath.stochastic.Scalar;
@@ -105,21 +103,10 @@ public class MonteCarloConditionalExpectationRegressionLocalizedOnDependents ext
 		dependents = dependents.mult(localizerWeights);
 
 		// Build XTX - the symmetric matrix consisting of the scalar products of the basis functions.
-		final double[][] XTX = new double[basisFunctions.length][basisFunctions.length];
-		for(int i=0; i<basisFunctions.length; i++) {
-			for(int j=i; j<basisFunctions.length; j++) {
-				XTX[i][j] = basisFunctions[i].mult(basisFunctions[j]).getAverage();	// Scalar product
-				XTX[j][i] = XTX[i][j];												// Symmetric matrix
-			}
-		}
-
-		final DecompositionSolver solver = new SingularValueDecomposition(new Array2DRowRealMatrix(XTX, false)).getSolver();
+		final DecompositionSolver solver = getSolver(getScalarProducts(basisFunctions));
 
 		// Build XTy - the projection of the dependents random variable on the basis functions.
-		final double[] XTy = new double[basisFunctions.length];
-		for(int i=0; i<basisFunctions.length; i++) {
-			XTy[i] = dependents.mult(basisFunctions[i]).getAverage();				// Scalar product
-		}
+		final double[] XTy = getScalarProducts(basisFunctions, new RandomVariable[] { dependents })[0];
 
 		// Solve X^T X x = X^T y - which gives us the regression coefficients x = linearRegressionParameters
 		final double[] linearRegressionParameters = solver.solve(new ArrayRealVector(XTy)).toArray();
@@ -8,6 +8,8 @@ package net.finmath.montecarlo.interestrate.models;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,19 +30,23 @@ import net.finmath.marketdata.model.curves.ForwardCurve;
 import net.finmath.marketdata.model.volatilities.SwaptionMarketData;
 import net.finmath.marketdata.products.Swap;
 import net.finmath.marketdata.products.SwapAnnuity;
+import net.finmath.montecarlo.RandomVariableAccumulatorFromDoubleArray;
 import net.finmath.montecarlo.RandomVariableFactory;
 import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.montecarlo.interestrate.CalibrationProduct;
 import net.finmath.montecarlo.interestrate.LIBORMarketModel;
 import net.finmath.montecarlo.interestrate.models.covariance.AbstractLIBORCovarianceModelParametric;
 import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModel;
 import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelCalibrateable;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelFromVolatilityAndCorrelation;
 import net.finmath.montecarlo.interestrate.products.AbstractTermStructureMonteCarloProduct;
 import net.finmath.montecarlo.interestrate.products.SwaptionAnalyticApproximation;
 import net.finmath.montecarlo.interestrate.products.SwaptionSimple;
 import net.finmath.montecarlo.model.AbstractProcessModel;
 import net.finmath.montecarlo.process.MonteCarloProcess;
 import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.RandomVariableAccumulator;
 import net.finmath.stochastic.Scalar;
 import net.finmath.time.RegularSchedule;
 import net.finmath.time.Schedule;
@@ -142,6 +148,13 @@ import net.finmath.time.TimeDiscretizationFromArray;
  * 			May be used to limit the simulated valued to prevent values attaining POSITIVE_INFINITY and
  * 			numerical problems. To disable the cap, set <code>liborCap</code> to <code>Double.POSITIVE_INFINITY</code>.
  *		</li>
+ * 		<li>
+ * 			<code>isDriftAccumulationInPlace</code>: An optional <code>Boolean</code> value (default <code>false</code>).
+ * 			If true, the sums of the factor loadings in the drift are accumulated in place (in a mutable
+ * 			{@link RandomVariableAccumulatorFromDoubleArray}), avoiding the allocation of intermediate random variables.
+ * 			This requires that the model is simulated with non-differentiable double precision random variables
+ * 			(e.g. {@link RandomVariableFromDoubleArray}), otherwise the property is ignored. The result is identical to the default calculation.
+ *		</li>
  * </ul>
  * <br>
  * The main task of this class is to calculate the risk-neutral drift and the
@@ -192,6 +205,7 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 	private InterpolationMethod					interpolationMethod						= InterpolationMethod.LOG_LINEAR_UNCORRECTED;
 
 	private double				liborCap					= 1E5;
+	private boolean				isDriftAccumulationInPlace	= false;
 
 	// This is a cache of the integrated covariance.
 	private double[][][]		integratedLIBORCovariance;
@@ -204,6 +218,11 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 	private transient ConcurrentHashMap<Double, RandomVariable>		numeraireDiscountFactors = new ConcurrentHashMap<>();
 	private transient Vector<RandomVariable>						interpolationDriftAdjustmentsTerminal = new Vector<>();
 
+	// Cache for the factor loadings of the last time step of each process (weakly keyed by process identity), calculated by getDrift and re-used by getFactorLoading (for the diffusion)
+	private transient ConcurrentHashMap<ProcessReference, FactorLoadingsOfTimeStep>	factorLoadingsOfTimeStep = new ConcurrentHashMap<>();
+	private transient ReferenceQueue<MonteCarloProcess>								factorLoadingsOfTimeStepReferenceQueue = new ReferenceQueue<>();
+	private transient volatile FactorLoadingsOfTimeStep								factorLoadingsOfLastTimeStep = null;
+
 	/**
 	 * Creates a LIBOR Market Model for given covariance with a calibration (if calibration items are given).
 	 * <br>
@@ -412,6 +431,9 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 		if(properties != null && properties.containsKey("liborCap")) {
 			liborCap	= (Double)properties.get("liborCap");
 		}
+		if(properties != null && properties.containsKey("isDriftAccumulationInPlace")) {
+			isDriftAccumulationInPlace	= (Boolean)properties.get("isDriftAccumulationInPlace");
+		}
 
 		Map<String, Object> calibrationParameters = null;
 		if(properties != null && properties.containsKey("calibrationParameters")) {
@@ -1132,7 +1154,23 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 			firstForwardRateIndex = -firstForwardRateIndex-1 + 1;
 		}
 
-		final RandomVariable		zero	= Scalar.of(0.0);
+		/*
+		 * If the covariance model is deterministic, the drift is calculated on its tensor of factor loadings (primitive doubles).
+		 * The result is identical to the default calculation.
+		 */
+		final double[][] factorLoadingsAsDouble = getFactorLoadingsAsDouble(time);
+		if(factorLoadingsAsDouble != null && isRealizationsOfDoubleArray(realizationAtTimeIndex, firstForwardRateIndex)) {
+			return getDriftFromFactorLoadingsAsDouble(process, time, firstForwardRateIndex, realizationAtTimeIndex, factorLoadingsAsDouble);
+		}
+
+		/*
+		 * If the drift is accumulated in place, the sums of the factor loadings are mutable accumulators and the drift is
+		 * initialized with a zero for which addSumProduct is a single pass. The accumulators hold doubles, hence this is only done if the
+		 * forward rates are represented by double arrays (e.g., not by floats). The result is identical to the default calculation.
+		 */
+		final boolean isAccumulateInPlace = isDriftAccumulationInPlace && isRealizationsOfDoubleArray(realizationAtTimeIndex, firstForwardRateIndex);
+
+		final RandomVariable		zero	= isAccumulateInPlace ? new RandomVariableFromDoubleArray(0.0) : Scalar.of(0.0);
 
 		// Allocate drift vector and initialize to zero (will be used to sum up drift components)
 		final RandomVariable[]	drift = new RandomVariable[getNumberOfComponents()];
@@ -1142,7 +1180,17 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 
 		// Allocate array (for each k) for the sums of delta_{i}/(1+L_{i} \delta_i) f_{i,k} (+ for spot measure, - for terminal measure)
 		final RandomVariable[]	factorLoadingsSums	= new RandomVariable[getNumberOfFactors()];
-		Arrays.fill(factorLoadingsSums, zero);
+		if(isAccumulateInPlace) {
+			for(int factorIndex=0; factorIndex<getNumberOfFactors(); factorIndex++) {
+				factorLoadingsSums[factorIndex] = new RandomVariableAccumulatorFromDoubleArray(process.getNumberOfPaths());
+			}
+		}
+		else {
+			Arrays.fill(factorLoadingsSums, zero);
+		}
+
+		// The factor loadings are kept for the diffusion of this time step, see getFactorLoading
+		final RandomVariable[][] factorLoadings = new RandomVariable[getNumberOfComponents()][];
 
 		if(measure == Measure.SPOT) {
 			// Calculate drift for the component componentIndex (starting at firstForwardRateIndex, others are zero)
@@ -1156,9 +1204,8 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 				}
 
 				final RandomVariable[]	factorLoading   	= getFactorLoading(process, timeIndex, componentIndex, realizationAtTimeIndex);
-				for(int factorIndex=0; factorIndex<factorLoading.length; factorIndex++) {
-					factorLoadingsSums[factorIndex] = factorLoadingsSums[factorIndex].addProduct(oneStepMeasureTransform, factorLoading[factorIndex]);
-				}
+				factorLoadings[componentIndex] = factorLoading;
+				addProductToFactorLoadingsSums(factorLoadingsSums, oneStepMeasureTransform, factorLoading, isAccumulateInPlace);
 				drift[componentIndex] = drift[componentIndex].addSumProduct(factorLoadingsSums, factorLoading);
 			}
 		}
@@ -1174,15 +1221,17 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 				}
 
 				final RandomVariable[]	factorLoading   	= getFactorLoading(process, timeIndex, componentIndex, realizationAtTimeIndex);
+				factorLoadings[componentIndex] = factorLoading;
 				drift[componentIndex] = drift[componentIndex].addSumProduct(factorLoadingsSums, factorLoading);
-				for(int factorIndex=0; factorIndex<factorLoading.length; factorIndex++) {
-					factorLoadingsSums[factorIndex] = factorLoadingsSums[factorIndex].addProduct(oneStepMeasureTransform, factorLoading[factorIndex]);
-				}
+				addProductToFactorLoadingsSums(factorLoadingsSums, oneStepMeasureTransform, factorLoading, isAccumulateInPlace);
 			}
 		}
 		else {
 			throw new IllegalArgumentException("Drift not implemented for specified measure.");
 		}
+		if(process != null && realizationAtTimeIndex != null) {
+			putFactorLoadingsOfTimeStep(process, timeIndex, realizationAtTimeIndex, factorLoadings);
+		}
 		if(stateSpace == StateSpace.LOGNORMAL) {
 			// Drift adjustment for log-coordinate in each component
 			for(int componentIndex=firstForwardRateIndex; componentIndex<getNumberOfComponents(); componentIndex++) {
@@ -1193,12 +1242,266 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 		return drift;
 	}
 
+	private static void addProductToFactorLoadingsSums(final RandomVariable[] factorLoadingsSums, final RandomVariable oneStepMeasureTransform, final RandomVariable[] factorLoading, final boolean isAccumulateInPlace) {
+		for(int factorIndex=0; factorIndex<factorLoading.length; factorIndex++) {
+			if(isAccumulateInPlace) {
+				((RandomVariableAccumulator)factorLoadingsSums[factorIndex]).accumulateProduct(oneStepMeasureTransform, factorLoading[factorIndex]);
+			}
+			else {
+				factorLoadingsSums[factorIndex] = factorLoadingsSums[factorIndex].addProduct(oneStepMeasureTransform, factorLoading[factorIndex]);
+			}
+		}
+	}
+
+	/*
+	 * The factor loadings [component][factor] at the given time as doubles, if the covariance model is deterministic, otherwise null.
+	 * Subclasses of LIBORCovarianceModelFromVolatilityAndCorrelation may override getFactorLoading, hence only the exact class is used.
+	 */
+	private double[][] getFactorLoadingsAsDouble(final double time) {
+		if(covarianceModel.getClass() != LIBORCovarianceModelFromVolatilityAndCorrelation.class) {
+			return null;
+		}
+
+		final double[][][] factorLoadingsAsDouble = ((LIBORCovarianceModelFromVolatilityAndCorrelation)covarianceModel).getFactorLoadingsAsDouble();
+		if(factorLoadingsAsDouble == null) {
+			return null;
+		}
+
+		// Map time and LIBOR periods to the indices of the covariance model (as in getFactorLoading)
+		int covarianceTimeIndex = covarianceModel.getTimeDiscretization().getTimeIndex(time);
+		if(covarianceTimeIndex < 0) {
+			covarianceTimeIndex = -covarianceTimeIndex - 2;
+		}
+		if(covarianceTimeIndex < 0 || covarianceTimeIndex >= factorLoadingsAsDouble.length) {
+			return null;
+		}
+
+		final double[][] factorLoadingsAtTime = new double[getNumberOfComponents()][];
+		for(int componentIndex=0; componentIndex<getNumberOfComponents(); componentIndex++) {
+			int covarianceComponentIndex = covarianceModel.getLiborPeriodDiscretization().getTimeIndex(getLiborPeriod(componentIndex));
+			if(covarianceComponentIndex < 0) {
+				covarianceComponentIndex = -covarianceComponentIndex - 2;
+			}
+			if(covarianceComponentIndex < 0 || covarianceComponentIndex >= factorLoadingsAsDouble[covarianceTimeIndex].length) {
+				return null;
+			}
+			factorLoadingsAtTime[componentIndex] = factorLoadingsAsDouble[covarianceTimeIndex][covarianceComponentIndex];
+		}
+		return factorLoadingsAtTime;
+	}
+
+	/*
+	 * The drift calculated on primitive doubles, performing the same operations (in the same order) as getDrift.
+	 */
+	private RandomVariable[] getDriftFromFactorLoadingsAsDouble(final MonteCarloProcess process, final double time, final int firstForwardRateIndex, final RandomVariable[] realizationAtTimeIndex, final double[][] factorLoadings) {
+		final int numberOfPaths		= process.getNumberOfPaths();
+		final int numberOfFactors	= getNumberOfFactors();
+
+		double filtrationTime = Double.NEGATIVE_INFINITY;
+		for(int componentIndex=firstForwardRateIndex; componentIndex<getNumberOfComponents(); componentIndex++) {
+			filtrationTime = Math.max(filtrationTime, realizationAtTimeIndex[componentIndex].getFiltrationTime());
+		}
+
+		// Sums of delta_{i}/(1+L_{i} \delta_i) f_{i,k} (+ for spot measure, - for terminal measure) for each k
+		final double[][]	factorLoadingsSums		= new double[numberOfFactors][numberOfPaths];
+		final double[]		oneStepMeasureTransform	= new double[numberOfPaths];
+
+		final RandomVariable[] drift = new RandomVariable[getNumberOfComponents()];
+		for(int componentCount=0; componentCount<getNumberOfComponents()-firstForwardRateIndex; componentCount++) {
+			final int componentIndex = measure == Measure.SPOT ? firstForwardRateIndex+componentCount : getNumberOfComponents()-1-componentCount;
+
+			final double			periodLength	= getLiborPeriodDiscretization().getTimeStep(componentIndex);
+			final RandomVariable	forwardRate		= realizationAtTimeIndex[componentIndex];
+			final double[]			factorLoading	= factorLoadings[componentIndex];
+
+			// delta/(1+L delta) calculated as Scalar.of(+/-delta).discount(L, delta)
+			final double measureTransformScaling	= measure == Measure.SPOT ? periodLength : -periodLength;
+			final double forwardRateScaling			= periodLength/measureTransformScaling;
+			final double forwardRateShift			= 1.0/measureTransformScaling;
+			for(int path=0; path<numberOfPaths; path++) {
+				final double forwardRateOnPath = forwardRate.get(path);
+				oneStepMeasureTransform[path] = 1.0 / (forwardRateOnPath * forwardRateScaling + forwardRateShift);
+				if(stateSpace == StateSpace.LOGNORMAL) {	// The drift has an additional forward rate factor
+					oneStepMeasureTransform[path] = oneStepMeasureTransform[path] * forwardRateOnPath;
+				}
+			}
+
+			if(measure == Measure.SPOT) {
+				addProductToFactorLoadingsSums(factorLoadingsSums, oneStepMeasureTransform, factorLoading);
+			}
+
+			final double[] driftOfComponent = new double[numberOfPaths];
+			for(int factorIndex=0; factorIndex<numberOfFactors; factorIndex++) {
+				final double[] factorLoadingsSum = factorLoadingsSums[factorIndex];
+				final double factorLoadingOfFactor = factorLoading[factorIndex];
+				for(int path=0; path<numberOfPaths; path++) {
+					driftOfComponent[path] += factorLoadingsSum[path] * factorLoadingOfFactor;
+				}
+			}
+
+			if(measure == Measure.TERMINAL) {
+				addProductToFactorLoadingsSums(factorLoadingsSums, oneStepMeasureTransform, factorLoading);
+			}
+
+			if(stateSpace == StateSpace.LOGNORMAL) {
+				// Drift adjustment for log-coordinate
+				final double variance = covarianceModel.getCovariance(time, componentIndex, componentIndex, realizationAtTimeIndex).doubleValue();
+				for(int path=0; path<numberOfPaths; path++) {
+					driftOfComponent[path] += variance * -0.5;
+				}
+			}
+
+			drift[componentIndex] = new RandomVariableFromDoubleArray(filtrationTime, driftOfComponent);
+		}
+
+		return drift;
+	}
+
+	private static void addProductToFactorLoadingsSums(final double[][] factorLoadingsSums, final double[] oneStepMeasureTransform, final double[] factorLoading) {
+		for(int factorIndex=0; factorIndex<factorLoading.length; factorIndex++) {
+			final double[] factorLoadingsSum = factorLoadingsSums[factorIndex];
+			final double factorLoadingOfFactor = factorLoading[factorIndex];
+			for(int path=0; path<factorLoadingsSum.length; path++) {
+				factorLoadingsSum[path] += oneStepMeasureTransform[path] * factorLoadingOfFactor;
+			}
+		}
+	}
+
+	/*
+	 * The drift may be calculated on doubles (or accumulated in place) if the forward rates are represented by double arrays (or are deterministic) and at least one is stochastic.
+	 */
+	private static boolean isRealizationsOfDoubleArray(final RandomVariable[] realizationAtTimeIndex, final int firstForwardRateIndex) {
+		final int typePriorityOfDoubleArray = new RandomVariableFromDoubleArray(0.0).getTypePriority();
+		boolean isStochastic = false;
+		for(int componentIndex=firstForwardRateIndex; componentIndex<realizationAtTimeIndex.length; componentIndex++) {
+			final RandomVariable forwardRate = realizationAtTimeIndex[componentIndex];
+			if(forwardRate.getTypePriority() > typePriorityOfDoubleArray || !(forwardRate.isDeterministic() || forwardRate instanceof RandomVariableFromDoubleArray)) {
+				return false;
+			}
+			isStochastic = isStochastic || !forwardRate.isDeterministic();
+		}
+		return isStochastic;
+	}
+
+	/**
+	 * Return the factor loading for a given time index and component index.
+	 *
+	 * The factor loadings calculated in {@link #getDrift(MonteCarloProcess, int, RandomVariable[], RandomVariable[])} are
+	 * kept for the time step (for each process). If the factor loading is requested for the same time index and the same
+	 * realizations, e.g., for the diffusion of the Euler scheme, the kept factor loading is returned, such that the
+	 * (possibly state dependent) factor loading is calculated only once per time step.
+	 */
 	@Override
 	public	RandomVariable[]	getFactorLoading(final MonteCarloProcess process, final int timeIndex, final int componentIndex, final RandomVariable[] realizationAtTimeIndex)
 	{
+		final FactorLoadingsOfTimeStep factorLoadingsOfLastTimeStep = getFactorLoadingsOfTimeStep(process);
+		if(factorLoadingsOfLastTimeStep != null && realizationAtTimeIndex != null && factorLoadingsOfLastTimeStep.isFor(timeIndex, realizationAtTimeIndex) && factorLoadingsOfLastTimeStep.factorLoadings[componentIndex] != null) {
+			return factorLoadingsOfLastTimeStep.factorLoadings[componentIndex];
+		}
+
 		return covarianceModel.getFactorLoading(process.getTime(timeIndex), getLiborPeriod(componentIndex), realizationAtTimeIndex);
 	}
 
+	/*
+	 * Get the factor loadings kept for the given process. The entry stored last is checked first (by identity of its process), such that
+	 * the common case of a single process does not require a lookup in the cache. If nothing has been stored (e.g., if the drift is
+	 * calculated on primitive doubles), the cache is not accessed at all.
+	 */
+	private FactorLoadingsOfTimeStep getFactorLoadingsOfTimeStep(final MonteCarloProcess process) {
+		final FactorLoadingsOfTimeStep factorLoadingsOfLastTimeStep = this.factorLoadingsOfLastTimeStep;
+		if(process == null || factorLoadingsOfLastTimeStep == null) {
+			return null;
+		}
+		if(factorLoadingsOfLastTimeStep.processReference.get() == process) {
+			return factorLoadingsOfLastTimeStep;
+		}
+		return factorLoadingsOfTimeStep.get(new ProcessReference(process));
+	}
+
+	/*
+	 * Keep the factor loadings of the time step for the given process, replacing those of its previous time step.
+	 * The key of the process is created once and re-used for its subsequent time steps.
+	 * Entries of processes which have been garbage collected are removed.
+	 */
+	private void putFactorLoadingsOfTimeStep(final MonteCarloProcess process, final int timeIndex, final RandomVariable[] realizationAtTimeIndex, final RandomVariable[][] factorLoadings) {
+		Object staleProcessReference;
+		while((staleProcessReference = factorLoadingsOfTimeStepReferenceQueue.poll()) != null) {
+			factorLoadingsOfTimeStep.remove(staleProcessReference);
+		}
+
+		final FactorLoadingsOfTimeStep factorLoadingsOfPreviousTimeStep = getFactorLoadingsOfTimeStep(process);
+		final ProcessReference processReference = factorLoadingsOfPreviousTimeStep != null ? factorLoadingsOfPreviousTimeStep.processReference : new ProcessReference(process, factorLoadingsOfTimeStepReferenceQueue);
+
+		final FactorLoadingsOfTimeStep factorLoadingsOfThisTimeStep = new FactorLoadingsOfTimeStep(processReference, timeIndex, realizationAtTimeIndex, factorLoadings);
+		factorLoadingsOfTimeStep.put(processReference, factorLoadingsOfThisTimeStep);
+		factorLoadingsOfLastTimeStep = factorLoadingsOfThisTimeStep;
+	}
+
+	/**
+	 * A weak reference to a process, which is equal to another reference to the same process (identity).
+	 * A cleared reference is only equal to itself, such that it can be removed from the cache.
+	 */
+	private static class ProcessReference extends WeakReference<MonteCarloProcess> {
+		private final int hashCode;
+
+		ProcessReference(final MonteCarloProcess process) {
+			super(process);
+			hashCode = System.identityHashCode(process);
+		}
+
+		ProcessReference(final MonteCarloProcess process, final ReferenceQueue<MonteCarloProcess> referenceQueue) {
+			super(process, referenceQueue);
+			hashCode = System.identityHashCode(process);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if(other == this) {
+				return true;
+			}
+			if(!(other instanceof ProcessReference)) {
+				return false;
+			}
+			final MonteCarloProcess process = get();
+			return process != null && process == ((ProcessReference)other).get();
+		}
+	}
+
+	/**
+	 * The factor loadings of all components for a time index and given realizations (immutable).
+	 * The realizations are compared by reference (of the elements), such that a modification of the array invalidates the factor loadings.
+	 */
+	private static class FactorLoadingsOfTimeStep {
+		private final ProcessReference	processReference;
+		private final int				timeIndex;
+		private final RandomVariable[]	realizationAtTimeIndex;
+		private final RandomVariable[][]	factorLoadings;
+
+		FactorLoadingsOfTimeStep(final ProcessReference processReference, final int timeIndex, final RandomVariable[] realizationAtTimeIndex, final RandomVariable[][] factorLoadings) {
+			this.processReference = processReference;
+			this.timeIndex = timeIndex;
+			this.realizationAtTimeIndex = realizationAtTimeIndex.clone();
+			this.factorLoadings = factorLoadings;
+		}
+
+		boolean isFor(final int timeIndex, final RandomVariable[] realizationAtTimeIndex) {
+			if(this.timeIndex != timeIndex || this.realizationAtTimeIndex.length != realizationAtTimeIndex.length) {
+				return false;
+			}
+			for(int componentIndex=0; componentIndex<realizationAtTimeIndex.length; componentIndex++) {
+				if(this.realizationAtTimeIndex[componentIndex] != realizationAtTimeIndex[componentIndex]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 	@Override
 	public RandomVariable applyStateSpaceTransform(final MonteCarloProcess process, final int timeIndex, final int componentIndex, final RandomVariable randomVariable) {
 		RandomVariable value = randomVariable;
@@ -1635,6 +1938,7 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 			properties.put("stateSpace",	stateSpace.name());
 			properties.put("interpolationMethod", interpolationMethod.name());
 			properties.put("liborCap", liborCap);
+			properties.put("isDriftAccumulationInPlace", isDriftAccumulationInPlace);
 			return LIBORMarketModelFromCovarianceModel.of(getLiborPeriodDiscretization(), getAnalyticModel(), getForwardRateCurve(), getDiscountCurve(), randomVariableFactory, covarianceModel, null, properties);
 		} catch (final CalculationException e) {
 			return null;
@@ -1666,6 +1970,7 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 		properties.put("stateSpace",	stateSpace.name());
 		properties.put("interpolationMethod", interpolationMethod.name());
 		properties.put("liborCap", liborCap);
+		properties.put("isDriftAccumulationInPlace", isDriftAccumulationInPlace);
 
 		if(dataModified != null) {
 			randomVariableFactory = (RandomVariableFactory)dataModified.getOrDefault("randomVariableFactory", randomVariableFactory);
@@ -1745,6 +2050,9 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 		numeraireDiscountFactorForwardRates = new ConcurrentHashMap<>();
 		numeraireDiscountFactors = new ConcurrentHashMap<>();
 		interpolationDriftAdjustmentsTerminal = new Vector<>();
+		factorLoadingsOfTimeStep = new ConcurrentHashMap<>();
+		factorLoadingsOfTimeStepReferenceQueue = new ReferenceQueue<>();
+		factorLoadingsOfLastTimeStep = null;
 	}
 
 	@Override
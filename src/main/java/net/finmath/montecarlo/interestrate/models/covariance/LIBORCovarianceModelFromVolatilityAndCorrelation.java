@@ -5,10 +5,13 @@
  */
 package net.finmath.montecarlo.interestrate.models.covariance;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.Arrays;
 import java.util.Map;
 
 import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.stochastic.RandomVariable;
 import net.finmath.stochastic.Scalar;
 import net.finmath.time.TimeDiscretization;
@@ -37,6 +40,26 @@ public class LIBORCovarianceModelFromVolatilityAndCorrelation extends AbstractLI
 	private final LIBORVolatilityModel	volatilityModel;
 	private final LIBORCorrelationModel	correlationModel;
 
+	/*
+	 * Cache of the factor loadings [timeIndex][component][factor] for deterministic volatilities (lazy init, double-checked locking).
+	 * If the volatility model is not deterministic, the arrays of the cache are null.
+	 */
+	private transient volatile FactorLoadings	factorLoadings;
+	private transient Object					factorLoadingsLazyInitLock = new Object();
+
+	/**
+	 * The factor loadings as doubles and as random variables (immutable, published through a volatile field).
+	 */
+	private static class FactorLoadings {
+		private final double[][][]			factorLoadingsAsDouble;
+		private final RandomVariable[][][]	factorLoadings;
+
+		FactorLoadings(final double[][][] factorLoadingsAsDouble, final RandomVariable[][][] factorLoadings) {
+			this.factorLoadingsAsDouble = factorLoadingsAsDouble;
+			this.factorLoadings = factorLoadings;
+		}
+	}
+
 	public LIBORCovarianceModelFromVolatilityAndCorrelation(final TimeDiscretization timeDiscretization, final TimeDiscretization liborPeriodDiscretization, final LIBORVolatilityModel volatilityModel, final LIBORCorrelationModel correlationModel) {
 		super(timeDiscretization, liborPeriodDiscretization, correlationModel.getNumberOfFactors());
 
@@ -46,6 +69,12 @@ public class LIBORCovarianceModelFromVolatilityAndCorrelation extends AbstractLI
 
 	@Override
 	public RandomVariable[] getFactorLoading(final int timeIndex, final int component, final RandomVariable[] realizationAtTimeIndex) {
+		final RandomVariable[][][] factorLoadings = getFactorLoadings().factorLoadings;
+		if(factorLoadings != null && timeIndex < factorLoadings.length && component < factorLoadings[timeIndex].length) {
+			// Defensive copy of the array (wrapping models modify the factor loading in place)
+			return factorLoadings[timeIndex][component].clone();
+		}
+
 		final RandomVariable[] factorLoading = new RandomVariable[correlationModel.getNumberOfFactors()];
 
 		final RandomVariable volatility	= volatilityModel.getVolatility(timeIndex, component);
@@ -56,6 +85,59 @@ public class LIBORCovarianceModelFromVolatilityAndCorrelation extends AbstractLI
 		return factorLoading;
 	}
 
+	/**
+	 * Returns the factor loadings as a tensor of doubles, provided the volatility model is deterministic
+	 * (i.e., all volatilities are deterministic and do not carry derivatives). This allows a calculation
+	 * of the drift of a LIBOR market model on primitive doubles.
+	 *
+	 * @return The tensor \( \lambda_{i,j,k} \) of the factor loadings for time index i, component j and factor k, or null if the volatility model is not deterministic. The array must not be modified.
+	 */
+	public double[][][] getFactorLoadingsAsDouble() {
+		return getFactorLoadings().factorLoadingsAsDouble;
+	}
+
+	private FactorLoadings getFactorLoadings() {
+		FactorLoadings cachedFactorLoadings = factorLoadings;
+		if(cachedFactorLoadings == null) {
+			synchronized (factorLoadingsLazyInitLock) {
+				cachedFactorLoadings = factorLoadings;
+				if(cachedFactorLoadings == null) {
+					cachedFactorLoadings = createFactorLoadings();
+					factorLoadings = cachedFactorLoadings;
+				}
+			}
+		}
+		return cachedFactorLoadings;
+	}
+
+	private FactorLoadings createFactorLoadings() {
+		// Only plain deterministic volatilities (e.g. not differentiable) may be represented by a double
+		final int typePriorityOfDouble = new RandomVariableFromDoubleArray(0.0).getTypePriority();
+
+		// Other indices (if any) are not cached
+		final int numberOfTimes			= Math.min(getTimeDiscretization().getNumberOfTimeSteps(), volatilityModel.getTimeDiscretization().getNumberOfTimeSteps());
+		final int numberOfComponents	= Math.min(getLiborPeriodDiscretization().getNumberOfTimeSteps(), volatilityModel.getLiborPeriodDiscretization().getNumberOfTimeSteps());
+		final int numberOfFactors		= correlationModel.getNumberOfFactors();
+
+		final double[][][]			newFactorLoadingsAsDouble	= new double[numberOfTimes][numberOfComponents][numberOfFactors];
+		final RandomVariable[][][]	newFactorLoadings			= new RandomVariable[numberOfTimes][numberOfComponents][numberOfFactors];
+		for(int timeIndex=0; timeIndex<numberOfTimes; timeIndex++) {
+			for(int component=0; component<numberOfComponents; component++) {
+				final RandomVariable volatility	= volatilityModel.getVolatility(timeIndex, component);
+				if(!volatility.isDeterministic() || volatility.getTypePriority() > typePriorityOfDouble) {
+					return new FactorLoadings(null, null);
+				}
+				for (int factorIndex = 0; factorIndex < numberOfFactors; factorIndex++) {
+					final double correlationFactorLoading = correlationModel.getFactorLoading(timeIndex, factorIndex, component);
+					newFactorLoadings[timeIndex][component][factorIndex] = volatility.mult(correlationFactorLoading);
+					newFactorLoadingsAsDouble[timeIndex][component][factorIndex] = volatility.doubleValue() * correlationFactorLoading;
+				}
+			}
+		}
+
+		return new FactorLoadings(newFactorLoadingsAsDouble, newFactorLoadings);
+	}
+
 	@Override
 	public RandomVariable getFactorLoadingPseudoInverse(final int timeIndex, final int component, final int factor, final RandomVariable[] realizationAtTimeIndex) {
 		// Note that we assume that the correlation model getFactorLoading gives orthonormal vectors
@@ -206,4 +288,11 @@ public class LIBORCovarianceModelFromVolatilityAndCorrelation extends AbstractLI
 		final AbstractLIBORCovarianceModelParametric newModel = new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization, volatilityModel, correlationModel);
 		return newModel;
 	}
+
+	private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+
+		// Init transient fields
+		factorLoadingsLazyInitLock = new Object();
+	}
 }
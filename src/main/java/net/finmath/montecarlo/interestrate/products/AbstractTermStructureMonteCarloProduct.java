@@ -13,8 +13,10 @@ import net.finmath.montecarlo.AbstractMonteCarloProduct;
 import net.finmath.montecarlo.MonteCarloSimulationModel;
 import net.finmath.montecarlo.interestrate.LIBORModelMonteCarloSimulationModel;
 import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
+import net.finmath.montecarlo.interestrate.products.components.ExposureEstimator;
 import net.finmath.montecarlo.process.component.factortransform.FactorTransform;
 import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
 
 /**
  * Base class for products requiring an TermStructureMonteCarloSimulationModel (or LIBORModelMonteCarloSimulationModel) as base class for the valuation model argument
@@ -46,6 +48,50 @@ public abstract class AbstractTermStructureMonteCarloProduct extends AbstractMon
 		return this.getValue(evaluationTime, monteCarloSimulationModel.getCloneWithModifiedData(dataModified));
 	}
 
+	/**
+	 * Returns the (pathwise) values of this product at the times \( t_{k} \) of a given time discretization, each divided by the
+	 * numeraire at the respective time, i.e., \( V(t_{k}) / N(t_{k}) \), where \( V(t_{k}) \) is the value returned by
+	 * <code>getValue(t_{k}, model)</code>.
+	 *
+	 * The default implementation performs one valuation for each time. Products which can obtain the values for all times in
+	 * a single valuation (e.g., products consisting of cash flows, for which the values differ only in the cash flows prior to \( t_{k} \))
+	 * should override this method.
+	 *
+	 * @param evaluationTimes The time discretization of the evaluation times.
+	 * @param model The model used to price the product.
+	 * @return The array of the numeraire relative values, where the i-th entry corresponds to the i-th time of the time discretization.
+	 * @throws net.finmath.exception.CalculationException Thrown if the valuation fails, specific cause may be available via the <code>cause()</code> method.
+	 */
+	public RandomVariable[] getNumeraireRelativeValues(final TimeDiscretization evaluationTimes, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+		final RandomVariable[] values = new RandomVariable[evaluationTimes.getNumberOfTimes()];
+		for(int timeIndex=0; timeIndex<evaluationTimes.getNumberOfTimes(); timeIndex++) {
+			final double evaluationTime = evaluationTimes.getTime(timeIndex);
+			values[timeIndex] = getValue(evaluationTime, model).div(model.getNumeraire(evaluationTime));
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the conditional values (the exposures) \( E( V(t_{k}) \vert \mathcal{F}_{t_{k}} ) \) of this product at the times \( t_{k} \) of a given time discretization.
+	 *
+	 * The pathwise values \( V(t_{k}) \) are obtained from {@link #getNumeraireRelativeValues(TimeDiscretization, TermStructureMonteCarloSimulationModel)} and the conditional
+	 * expectation is estimated by the regression of {@link ExposureEstimator}. Hence, the result agrees with the values of <code>new ExposureEstimator(this)</code>,
+	 * but for products overriding <code>getNumeraireRelativeValues</code> the product is valued only once for the whole time discretization.
+	 *
+	 * @param evaluationTimes The time discretization of the evaluation times.
+	 * @param model The model used to price the product (has to be a <code>LIBORModelMonteCarloSimulationModel</code>).
+	 * @return The array of the conditional values, where the i-th entry corresponds to the i-th time of the time discretization.
+	 * @throws net.finmath.exception.CalculationException Thrown if the valuation fails, specific cause may be available via the <code>cause()</code> method.
+	 */
+	public RandomVariable[] getConditionalValues(final TimeDiscretization evaluationTimes, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+		final RandomVariable[] values = getNumeraireRelativeValues(evaluationTimes, model);
+		for(int timeIndex=0; timeIndex<evaluationTimes.getNumberOfTimes(); timeIndex++) {
+			final double evaluationTime = evaluationTimes.getTime(timeIndex);
+			values[timeIndex] = ExposureEstimator.getConditionalExpectation(evaluationTime, model, values[timeIndex].mult(model.getNumeraire(evaluationTime)));
+		}
+		return values;
+	}
+
 	@Override
 	public Map<String, Object> getValues(final double evaluationTime, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
 		final RandomVariable value = getValue(evaluationTime, model);
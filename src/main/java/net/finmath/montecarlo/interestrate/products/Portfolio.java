@@ -5,6 +5,7 @@
  */
 package net.finmath.montecarlo.interestrate.products;
 
+import java.util.Arrays;
 import java.util.Set;
 
 import net.finmath.exception.CalculationException;
@@ -12,6 +13,7 @@ import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
 import net.finmath.montecarlo.interestrate.products.components.AbstractProductComponent;
 import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
 
 /**
  * Implements the pricing of a portfolio of AbstractLIBORMonteCarloProduct products
@@ -142,6 +144,33 @@ public class Portfolio extends AbstractProductComponent {
 		return values;
 	}
 
+	/**
+	 * Returns the (pathwise) numeraire relative values of the portfolio on a time discretization, obtained from the
+	 * numeraire relative values of the products (each valued once for the whole time discretization, if supported by the product).
+	 * The conditional values (see {@link #getConditionalValues(TimeDiscretization, TermStructureMonteCarloSimulationModel)})
+	 * are then estimated for the portfolio as a whole, i.e., with a single regression per evaluation time.
+	 *
+	 * @param evaluationTimes The time discretization of the evaluation times.
+	 * @param model The model used to price the product.
+	 * @return The array of the numeraire relative values, where the i-th entry corresponds to the i-th time of the time discretization.
+	 * @throws net.finmath.exception.CalculationException Thrown if the valuation fails, specific cause may be available via the <code>cause()</code> method.
+	 */
+	@Override
+	public RandomVariable[] getNumeraireRelativeValues(final TimeDiscretization evaluationTimes, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+		final RandomVariable[] values = new RandomVariable[evaluationTimes.getNumberOfTimes()];
+		Arrays.fill(values, new RandomVariableFromDoubleArray(0.0));
+
+		for(int productIndex = 0; productIndex < products.length; productIndex++) {
+			final RandomVariable[]	valuesOfProduct = products[productIndex].getNumeraireRelativeValues(evaluationTimes, model);
+			final double			weightOfProduct = weights[productIndex];
+
+			for(int timeIndex=0; timeIndex<values.length; timeIndex++) {
+				values[timeIndex] = values[timeIndex].addProduct(valuesOfProduct[timeIndex], weightOfProduct);
+			}
+		}
+		return values;
+	}
+
 	/**
 	 * @return the products
 	 */
@@ -13,6 +13,7 @@ import net.finmath.montecarlo.interestrate.products.components.Notional;
 import net.finmath.montecarlo.interestrate.products.indices.AbstractIndex;
 import net.finmath.stochastic.RandomVariable;
 import net.finmath.time.Schedule;
+import net.finmath.time.TimeDiscretization;
 
 /**
  * Create a swap from schedules, notional, indices and spreads (fixed coupons).
@@ -93,6 +94,23 @@ public class Swap extends AbstractTermStructureMonteCarloProduct {
 		return value;
 	}
 
+	@Override
+	public RandomVariable[] getNumeraireRelativeValues(final TimeDiscretization evaluationTimes, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+		if(!(legReceiver instanceof AbstractTermStructureMonteCarloProduct) || (legPayer != null && !(legPayer instanceof AbstractTermStructureMonteCarloProduct))) {
+			return super.getNumeraireRelativeValues(evaluationTimes, model);
+		}
+
+		final RandomVariable[] values = ((AbstractTermStructureMonteCarloProduct)legReceiver).getNumeraireRelativeValues(evaluationTimes, model);
+		if(legPayer != null) {
+			final RandomVariable[] valuesPayer = ((AbstractTermStructureMonteCarloProduct)legPayer).getNumeraireRelativeValues(evaluationTimes, model);
+			for(int timeIndex=0; timeIndex<values.length; timeIndex++) {
+				values[timeIndex] = values[timeIndex].sub(valuesPayer[timeIndex]);
+			}
+		}
+
+		return values;
+	}
+
 	@Override
 	public String toString() {
 		return "Swap [legReceiver=" + legReceiver + ", legPayer=" + legPayer + "]";
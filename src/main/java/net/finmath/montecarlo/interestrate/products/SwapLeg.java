@@ -23,6 +23,7 @@ import net.finmath.montecarlo.interestrate.products.indices.FixedCoupon;
 import net.finmath.montecarlo.interestrate.products.indices.LinearCombinationIndex;
 import net.finmath.stochastic.RandomVariable;
 import net.finmath.time.Schedule;
+import net.finmath.time.TimeDiscretization;
 
 /**
  * @author Christian Fries
@@ -174,4 +175,9 @@ public class SwapLeg extends AbstractTermStructureMonteCarloProduct {
 		return components.getValue(evaluationTime, model);
 	}
 
+	@Override
+	public RandomVariable[] getNumeraireRelativeValues(final TimeDiscretization evaluationTimes, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+		return components.getNumeraireRelativeValues(evaluationTimes, model);
+	}
+
 }
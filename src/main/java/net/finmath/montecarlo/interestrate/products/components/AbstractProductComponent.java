@@ -6,18 +6,29 @@
 package net.finmath.montecarlo.interestrate.products.components;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import net.finmath.exception.CalculationException;
 import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
 import net.finmath.montecarlo.interestrate.products.AbstractTermStructureMonteCarloProduct;
+import net.finmath.montecarlo.interestrate.products.TermStructureMonteCarloProduct;
 import net.finmath.stochastic.RandomVariable;
 
 /**
@@ -28,8 +39,19 @@ import net.finmath.stochastic.RandomVariable;
  *
  * Components are numeraire adjusted and can be valued on its own.
  *
+ * Components consisting of other components (like {@link ProductCollection} or {@link Choice})
+ * may value their underlyings concurrently using an <code>ExecutorService</code>. By default this is a shared work-stealing
+ * <code>ForkJoinPool</code> with a parallelism equal to the number of available processors. The executor may be replaced
+ * globally via {@link #setExecutor(ExecutorService)} or for a single valuation via
+ * {@link #getValue(double, TermStructureMonteCarloSimulationModel, ExecutorService)} (e.g., passing a bounded pool or an executor
+ * using virtual threads). Passing <code>null</code> results in a sequential valuation.
+ *
+ * A thread waiting for the value of an underlying which has not been started yet values it itself. Hence, nested valuations
+ * do not block each other and the valuation of deep product trees does not deadlock, even if the executor has a single thread.
+ * If the valuation of an underlying fails, the valuations of the remaining underlyings are cancelled.
+ *
  * @author Christian Fries
- * @version 1.0
+ * @version 1.1
  */
 public abstract class AbstractProductComponent extends AbstractTermStructureMonteCarloProduct  implements Serializable {
 
@@ -38,17 +60,30 @@ public abstract class AbstractProductComponent extends AbstractTermStructureMont
 	 */
 	private static final long serialVersionUID = -916286619811716575L;
 
-	private static ThreadPoolExecutor executor = new ThreadPoolExecutor(
-			Runtime.getRuntime().availableProcessors(),
-			Runtime.getRuntime().availableProcessors(),
-			10L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
-				@Override
-				public Thread newThread(final Runnable runnable) {
-					final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
-					thread.setDaemon(true);
-					return thread;
-				}
-			});
+	private static volatile ExecutorService executor = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	/*
+	 * The executor of the current valuation, if specified via getValue(evaluationTime, model, executor).
+	 * An empty optional corresponds to a sequential valuation.
+	 */
+	private static final ThreadLocal<Optional<ExecutorService>> executorOfValuation = new ThreadLocal<>();
+
+	/*
+	 * The shared thread pool returned by the deprecated getExecutor() (created upon first use).
+	 */
+	private static final class ThreadPoolExecutorHolder {
+		private static final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+				Runtime.getRuntime().availableProcessors(),
+				Runtime.getRuntime().availableProcessors(),
+				10L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
 
 	public AbstractProductComponent(final String currency) {
 		super(currency);
@@ -73,7 +108,190 @@ public abstract class AbstractProductComponent extends AbstractTermStructureMont
 		return result;
 	}
 
+	/**
+	 * This method returns the value random variable of the product within the specified model, evaluated at a given evalutationTime,
+	 * using a given executor for the valuation of the underlying components (including nested components).
+	 *
+	 * @param evaluationTime The time on which this products value should be observed.
+	 * @param model The model used to price the product.
+	 * @param executor The executor used to value underlying components concurrently. If null, the valuation is sequential.
+	 * @return The random variable representing the value of the product discounted to evaluation time
+	 * @throws net.finmath.exception.CalculationException Thrown if the valuation fails, specific cause may be available via the <code>cause()</code> method.
+	 */
+	public RandomVariable getValue(final double evaluationTime, final TermStructureMonteCarloSimulationModel model, final ExecutorService executor) throws CalculationException {
+		final Optional<ExecutorService> executorOfPreviousValuation = executorOfValuation.get();
+		executorOfValuation.set(Optional.ofNullable(executor));
+		try {
+			return getValue(evaluationTime, model);
+		}
+		finally {
+			restoreExecutorOfValuation(executorOfPreviousValuation);
+		}
+	}
+
+	/**
+	 * Set the executor used to value underlying components concurrently (unless an executor is specified for a valuation).
+	 * Note that the executor is shared by all product components.
+	 *
+	 * @param executor The executor used to value underlying components concurrently. If null, valuations are sequential.
+	 */
+	public static void setExecutor(final ExecutorService executor) {
+		AbstractProductComponent.executor = executor;
+	}
+
+	/**
+	 * Returns the executor used to value underlying components in the current valuation.
+	 *
+	 * @return The executor used to value underlying components concurrently or null, if the valuation is sequential.
+	 */
+	protected static ExecutorService getExecutorService() {
+		final Optional<ExecutorService> executorOfCurrentValuation = executorOfValuation.get();
+		return executorOfCurrentValuation != null ? executorOfCurrentValuation.orElse(null) : executor;
+	}
+
+	/**
+	 * Returns a thread pool executor for the valuation of underlying components.
+	 * This is the executor of the current valuation if it is a <code>ThreadPoolExecutor</code>,
+	 * otherwise a shared pool of daemon threads (as used by earlier versions).
+	 *
+	 * @return A thread pool executor.
+	 * @deprecated The executor of the current valuation may be any <code>ExecutorService</code> (or null, if the valuation is sequential).
+	 * Use {@link #getExecutorService()} or {@link #getValuesOfProducts(double, TermStructureMonteCarloSimulationModel, List)} instead.
+	 */
+	@Deprecated
 	protected static ThreadPoolExecutor getExecutor() {
-		return executor;
+		final ExecutorService executorService = getExecutorService();
+		return executorService instanceof ThreadPoolExecutor ? (ThreadPoolExecutor)executorService : ThreadPoolExecutorHolder.threadPoolExecutor;
+	}
+
+	/**
+	 * Returns the values of a list of products, using the executor of the current valuation (see {@link #getExecutorService()}).
+	 *
+	 * The first product is valued by the calling thread, the others are submitted to the executor. Products whose valuation has not
+	 * been started by the executor when their value is required are valued by the calling thread. If a valuation fails, the
+	 * valuations not yet completed are cancelled and the exception is re-thrown.
+	 *
+	 * @param evaluationTime The time on which the products values should be observed.
+	 * @param model The model used to price the products.
+	 * @param products The list of products.
+	 * @return The array of the values of the products.
+	 * @throws net.finmath.exception.CalculationException Thrown if the valuation of a product fails.
+	 */
+	protected static RandomVariable[] getValuesOfProducts(final double evaluationTime, final TermStructureMonteCarloSimulationModel model, final List<? extends TermStructureMonteCarloProduct> products) throws CalculationException {
+		final RandomVariable[] values = new RandomVariable[products.size()];
+
+		final ExecutorService executor = getExecutorService();
+		if(executor == null || products.size() <= 1) {
+			for(int i=0; i<products.size(); i++) {
+				values[i] = products.get(i).getValue(evaluationTime, model);
+			}
+			return values;
+		}
+
+		final List<ValuationTask> valuations = new ArrayList<>(products.size());
+		try {
+			// Ignite asynchronous calculation (the first product will be valued by this thread)
+			for(int i=1; i<products.size(); i++) {
+				final ValuationTask valuation = new ValuationTask(products.get(i), evaluationTime, model, executor);
+				try {
+					valuation.future = executor.submit(valuation);
+				}
+				catch(final RejectedExecutionException e) {
+					valuation.future = null;
+				}
+				valuations.add(valuation);
+			}
+
+			values[0] = products.get(0).getValue(evaluationTime, model);
+
+			// Collect results
+			for(int i=1; i<products.size(); i++) {
+				final ValuationTask valuation = valuations.get(i-1);
+				if(valuation.tryStart()) {
+					// The valuation has not been started (or was rejected), we value the product in this thread.
+					values[i] = valuation.product.getValue(evaluationTime, model);
+				}
+				else {
+					values[i] = valuation.future.get();
+				}
+			}
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CalculationException(e);
+		}
+		catch (final ExecutionException e) {
+			if(CalculationException.class.isInstance(e.getCause())) {
+				throw (CalculationException)(e.getCause());
+			}
+			else if(RuntimeException.class.isInstance(e.getCause())) {
+				throw (RuntimeException)(e.getCause());
+			}
+			else {
+				throw new CalculationException(e.getCause());
+			}
+		}
+		finally {
+			// Cancel valuations which are not required anymore (if a valuation failed)
+			for(final ValuationTask valuation : valuations) {
+				if(!valuation.tryStart() && valuation.future != null) {
+					valuation.future.cancel(true);
+				}
+			}
+		}
+
+		return values;
+	}
+
+	private static void restoreExecutorOfValuation(final Optional<ExecutorService> executorOfPreviousValuation) {
+		if(executorOfPreviousValuation != null) {
+			executorOfValuation.set(executorOfPreviousValuation);
+		}
+		else {
+			executorOfValuation.remove();
+		}
+	}
+
+	/**
+	 * The valuation of a product, which is performed either by the executor or by the thread requiring the value,
+	 * whichever starts first.
+	 */
+	private static class ValuationTask implements Callable<RandomVariable> {
+
+		private final TermStructureMonteCarloProduct product;
+		private final double evaluationTime;
+		private final TermStructureMonteCarloSimulationModel model;
+		private final ExecutorService executor;
+
+		private final AtomicBoolean isStarted = new AtomicBoolean(false);
+		private Future<RandomVariable> future;
+
+		ValuationTask(final TermStructureMonteCarloProduct product, final double evaluationTime, final TermStructureMonteCarloSimulationModel model, final ExecutorService executor) {
+			this.product = product;
+			this.evaluationTime = evaluationTime;
+			this.model = model;
+			this.executor = executor;
+		}
+
+		boolean tryStart() {
+			return isStarted.compareAndSet(false, true);
+		}
+
+		@Override
+		public RandomVariable call() throws CalculationException {
+			if(!tryStart()) {
+				return null;
+			}
+
+			// Nested valuations use the same executor
+			final Optional<ExecutorService> executorOfPreviousValuation = executorOfValuation.get();
+			executorOfValuation.set(Optional.of(executor));
+			try {
+				return product.getValue(evaluationTime, model);
+			}
+			finally {
+				restoreExecutorOfValuation(executorOfPreviousValuation);
+			}
+		}
 	}
 }
@@ -4,13 +4,9 @@
 package net.finmath.montecarlo.interestrate.products.components;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.RejectedExecutionException;
 
-import net.finmath.concurrency.FutureWrapper;
 import net.finmath.exception.CalculationException;
 import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.montecarlo.conditionalexpectation.MonteCarloConditionalExpectationRegression;
@@ -91,48 +87,9 @@ public class Choice extends AbstractProductComponent {
 		}
 
 		// Parallel calculation of the underlyings
-		Future<RandomVariable> valueUnderlying1Future;
-		try {
-			valueUnderlying1Future = getExecutor().submit(
-					new Callable<RandomVariable>() {
-						@Override
-						public RandomVariable call() throws CalculationException {
-							return underlying1.getValue(exerciseDate, model);
-						}
-					}
-					);
-		}
-		catch(final RejectedExecutionException e) {
-			valueUnderlying1Future = new FutureWrapper<>(underlying1.getValue(exerciseDate, model));
-		}
-
-
-		Future<RandomVariable> valueUnderlying2Future;
-		try {
-			valueUnderlying2Future = getExecutor().submit(
-					new Callable<RandomVariable>() {
-						@Override
-						public RandomVariable call() throws CalculationException {
-							return underlying2.getValue(exerciseDate, model);
-						}
-					}
-					);
-		}
-		catch(final RejectedExecutionException e) {
-			valueUnderlying2Future = new FutureWrapper<>(underlying2.getValue(exerciseDate, model));
-		}
-
-
-		// Syncronize
-		RandomVariable valueUnderlying1 = null;
-		RandomVariable valueUnderlying2 = null;
-		try {
-			valueUnderlying1 = valueUnderlying1Future.get();
-			valueUnderlying2 = valueUnderlying2Future.get();
-		} catch (final InterruptedException | ExecutionException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+		final RandomVariable[] valuesUnderlyings = getValuesOfProducts(exerciseDate, model, Arrays.asList(underlying1, underlying2));
+		final RandomVariable valueUnderlying1 = valuesUnderlyings[0];
+		final RandomVariable valueUnderlying2 = valuesUnderlyings[1];
 
 		// Trigger index
 		final RandomVariable triggerValues = valueUnderlying1.sub(valueUnderlying2);
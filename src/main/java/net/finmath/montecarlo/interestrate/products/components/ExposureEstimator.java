@@ -78,11 +78,31 @@ public class ExposureEstimator extends AbstractProductComponent {
 	@Override
 	public RandomVariable getValue(final double evaluationTime, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
 
+		final RandomVariable values = underlying.getValue(evaluationTime, model);
+
+		return getConditionalExpectation(evaluationTime, model, values);
+	}
+
+	/**
+	 * Returns (a numerical approximation of) the conditional expectation \( E( V \vert \mathcal{F}_t ) \) of given values \( V \),
+	 * using the regression of this class (values beyond three standard deviations are excluded from the regression).
+	 *
+	 * This allows to estimate the exposures of the values \( V(t_{k}) \) of a product on a time discretization obtained in a single
+	 * valuation (see {@link AbstractTermStructureMonteCarloProduct#getConditionalValues(net.finmath.time.TimeDiscretization, TermStructureMonteCarloSimulationModel)}).
+	 *
+	 * @param evaluationTime The time \( t \) of the conditioning filtration.
+	 * @param model The model (has to be a <code>LIBORModelMonteCarloSimulationModel</code>).
+	 * @param underlyingValues The values \( V \), discounted to evaluation time.
+	 * @return The conditional expectation of the values.
+	 * @throws net.finmath.exception.CalculationException Thrown if the valuation fails, specific cause may be available via the <code>cause()</code> method.
+	 */
+	public static RandomVariable getConditionalExpectation(final double evaluationTime, final TermStructureMonteCarloSimulationModel model, final RandomVariable underlyingValues) throws CalculationException {
+
+		RandomVariable values = underlyingValues;
+
 		final RandomVariable one	= model.getRandomVariableForConstant(1.0);
 		final RandomVariable zero	= model.getRandomVariableForConstant(0.0);
 
-		RandomVariable values = underlying.getValue(evaluationTime, model);
-
 		if(values.getFiltrationTime() > evaluationTime) {
 			final RandomVariable filterNaN = values.isNaN().sub(1.0).mult(-1.0);
 			final RandomVariable valuesFiltered = values.mult(filterNaN);
@@ -125,7 +145,7 @@ public class ExposureEstimator extends AbstractProductComponent {
 	 * @return Array of random variables.
 	 * @throws net.finmath.exception.CalculationException Thrown if the valuation fails, specific cause may be available via the <code>cause()</code> method.
 	 */
-	private RandomVariable[] getRegressionBasisFunctions(final double evaluationTime, final LIBORModelMonteCarloSimulationModel model) throws CalculationException {
+	private static RandomVariable[] getRegressionBasisFunctions(final double evaluationTime, final LIBORModelMonteCarloSimulationModel model) throws CalculationException {
 
 		final ArrayList<RandomVariable> basisFunctions = new ArrayList<>();
 
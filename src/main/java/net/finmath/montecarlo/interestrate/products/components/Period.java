@@ -6,12 +6,14 @@
 package net.finmath.montecarlo.interestrate.products.components;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 
 import net.finmath.exception.CalculationException;
 import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
 import net.finmath.stochastic.RandomVariable;
 import net.finmath.time.FloatingpointDate;
+import net.finmath.time.TimeDiscretization;
 
 /**
  * A period. A period has references to the index (coupon) and the notional.
@@ -131,68 +133,129 @@ public class Period extends AbstractPeriod {
 	@Override
 	public RandomVariable getValue(final double evaluationTime, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
 
-		double productToModelTimeOffset = 0;
-		try {
-			if(this.getReferenceDate() != null && model.getReferenceDate() != null) {
-				productToModelTimeOffset = FloatingpointDate.getFloatingPointDateFromDate(model.getReferenceDate(), this.getReferenceDate());
-			}
-		}
-		catch(final UnsupportedOperationException e) {
-			// @TODO Models that do not provide a reference date will become disfunctional in future releases.
-		}
+		final double productToModelTimeOffset = getProductToModelTimeOffset(model);
 
 		if(evaluationTime >= productToModelTimeOffset + getPaymentDate()) {
 			return new RandomVariableFromDoubleArray(0.0);
 		}
 
-		// Get random variables
-		final RandomVariable	notionalAtPeriodStart	= getNotional().getNotionalAtPeriodStart(this, model);
 		final RandomVariable	numeraireAtEval			= model.getNumeraire(evaluationTime);
+
+		final RandomVariable values = getNumeraireRelativeValues(new double[] { evaluationTime }, productToModelTimeOffset, model)[0];
+
+		// Return values
+		return values.mult(numeraireAtEval);
+	}
+
+	/**
+	 * Returns the numeraire relative values of this period on a time discretization. The coupon and the notional
+	 * are evaluated once, the values for the different evaluation times differ only in the flows which are included.
+	 *
+	 * @param evaluationTimes The time discretization of the evaluation times.
+	 * @param model The model used to price the product.
+	 * @return The array of the numeraire relative values, where the i-th entry corresponds to the i-th time of the time discretization.
+	 * @throws net.finmath.exception.CalculationException Thrown if the valuation fails, specific cause may be available via the <code>cause()</code> method.
+	 */
+	@Override
+	public RandomVariable[] getNumeraireRelativeValues(final TimeDiscretization evaluationTimes, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+		return getNumeraireRelativeValues(evaluationTimes.getAsDoubleArray(), getProductToModelTimeOffset(model), model);
+	}
+
+	/**
+	 * Returns the numeraire relative values of this period for given (increasing) evaluation times.
+	 * The values for evaluation times on or after the payment date are zero.
+	 *
+	 * @param evaluationTimes The evaluation times (in increasing order).
+	 * @param productToModelTimeOffset The offset of the product's reference date relative to the model's reference date.
+	 * @param model The model used to price the product.
+	 * @return The array of the numeraire relative values, where the i-th entry corresponds to the i-th evaluation time.
+	 * @throws net.finmath.exception.CalculationException Thrown if the valuation fails, specific cause may be available via the <code>cause()</code> method.
+	 */
+	private RandomVariable[] getNumeraireRelativeValues(final double[] evaluationTimes, final double productToModelTimeOffset, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+
+		final RandomVariable[] values = new RandomVariable[evaluationTimes.length];
+		Arrays.fill(values, new RandomVariableFromDoubleArray(0.0));
+
+		if(evaluationTimes[0] >= productToModelTimeOffset + getPaymentDate()) {
+			return values;
+		}
+
+		// Get random variables (common to all evaluation times)
+		final RandomVariable	notionalAtPeriodStart	= getNotional().getNotionalAtPeriodStart(this, model);
 		final RandomVariable	numeraire				= model.getNumeraire(productToModelTimeOffset + getPaymentDate());
 		// @TODO Add support for weighted Monte-Carlo.
 		//        RandomVariable	monteCarloProbabilities	= model.getMonteCarloWeights(getPaymentDate());
 
-		RandomVariable values;
-
 		// Calculate numeraire relative value of coupon flows
-		if(couponFlow) {
-			values = getCoupon(productToModelTimeOffset + getFixingDate(), model);
-			values = values.mult(notionalAtPeriodStart);
-			values = values.div(numeraire);
-			if(isExcludeAccruedInterest && evaluationTime >= productToModelTimeOffset + getPeriodStart() && evaluationTime < productToModelTimeOffset + getPeriodEnd()) {
-				final double nonAccruedInterestRatio = (productToModelTimeOffset + getPeriodEnd() - evaluationTime) / (getPeriodEnd() - getPeriodStart());
-				values = values.mult(nonAccruedInterestRatio);
+		final RandomVariable couponValues = couponFlow ? getCoupon(productToModelTimeOffset + getFixingDate(), model).mult(notionalAtPeriodStart).div(numeraire) : null;
+
+		RandomVariable notionalAtPeriodEnd		= null;
+		RandomVariable numeraireAtPeriodStart	= null;
+		RandomVariable numeraireAtPeriodEnd		= null;
+		if(notionalFlow) {
+			notionalAtPeriodEnd = getNotional().getNotionalAtPeriodEnd(this, model);
+			if(getPeriodStart() > evaluationTimes[0]) {
+				numeraireAtPeriodStart	= model.getNumeraire(getPeriodStart());
+			}
+			if(getPeriodEnd() > evaluationTimes[0]) {
+				numeraireAtPeriodEnd	= model.getNumeraire(getPeriodEnd());
 			}
-		}
-		else {
-			values = new RandomVariableFromDoubleArray(0.0,0.0);
 		}
 
-		// Apply notional exchange
-		if(notionalFlow) {
-			final RandomVariable	notionalAtPeriodEnd		= getNotional().getNotionalAtPeriodEnd(this, model);
+		for(int timeIndex=0; timeIndex<evaluationTimes.length; timeIndex++) {
+			final double evaluationTime = evaluationTimes[timeIndex];
+			if(evaluationTime >= productToModelTimeOffset + getPaymentDate()) {
+				break;
+			}
 
-			if(getPeriodStart() > evaluationTime) {
-				final RandomVariable	numeraireAtPeriodStart	= model.getNumeraire(getPeriodStart());
-				values = values.subRatio(notionalAtPeriodStart, numeraireAtPeriodStart);
+			RandomVariable valuesAtTime;
+			if(couponFlow) {
+				valuesAtTime = couponValues;
+				if(isExcludeAccruedInterest && evaluationTime >= productToModelTimeOffset + getPeriodStart() && evaluationTime < productToModelTimeOffset + getPeriodEnd()) {
+					final double nonAccruedInterestRatio = (productToModelTimeOffset + getPeriodEnd() - evaluationTime) / (getPeriodEnd() - getPeriodStart());
+					valuesAtTime = valuesAtTime.mult(nonAccruedInterestRatio);
+				}
+			}
+			else {
+				valuesAtTime = new RandomVariableFromDoubleArray(0.0,0.0);
 			}
 
-			if(getPeriodEnd() > evaluationTime) {
-				final RandomVariable	numeraireAtPeriodEnd	= model.getNumeraire(getPeriodEnd());
-				values = values.addRatio(notionalAtPeriodEnd, numeraireAtPeriodEnd);
+			// Apply notional exchange
+			if(notionalFlow) {
+				if(getPeriodStart() > evaluationTime) {
+					valuesAtTime = valuesAtTime.subRatio(notionalAtPeriodStart, numeraireAtPeriodStart);
+				}
+				if(getPeriodEnd() > evaluationTime) {
+					valuesAtTime = valuesAtTime.addRatio(notionalAtPeriodEnd, numeraireAtPeriodEnd);
+				}
 			}
-		}
 
-		if(payer) {
-			values = values.mult(-1.0);
-		}
+			if(payer) {
+				valuesAtTime = valuesAtTime.mult(-1.0);
+			}
 
-		values = values.mult(numeraireAtEval);
+			values[timeIndex] = valuesAtTime;
+		}
 
-		// Return values
 		return values;
 	}
 
+	/*
+	 * Returns the offset of the product's reference date relative to the model's reference date (0 if one of them is not provided).
+	 */
+	private double getProductToModelTimeOffset(final TermStructureMonteCarloSimulationModel model) {
+		double productToModelTimeOffset = 0;
+		try {
+			if(this.getReferenceDate() != null && model.getReferenceDate() != null) {
+				productToModelTimeOffset = FloatingpointDate.getFloatingPointDateFromDate(model.getReferenceDate(), this.getReferenceDate());
+			}
+		}
+		catch(final UnsupportedOperationException e) {
+			// @TODO Models that do not provide a reference date will become disfunctional in future releases.
+		}
+		return productToModelTimeOffset;
+	}
+
 	@Override
 	public RandomVariable getCoupon(final double evaluationTime, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
 		// Calculate percentage value of coupon (not multiplied with notional, not discounted)
@@ -8,16 +8,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.RejectedExecutionException;
 
-import net.finmath.concurrency.FutureWrapper;
 import net.finmath.exception.CalculationException;
-import net.finmath.montecarlo.MonteCarloProduct;
 import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
 import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
 
 /**
  * A collection of product components (like periods, options, etc.) paying the sum of their payouts.
@@ -97,48 +92,30 @@ public class ProductCollection extends AbstractProductComponent {
 	@Override
 	public RandomVariable getValue(final double evaluationTime, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
 
-		// Ignite asynchronous calculation if possible
-		final ArrayList< Future<RandomVariable> > results = new ArrayList< >();
-		for(final MonteCarloProduct product : products) {
-			Future<RandomVariable> valueFuture;
-			try {
-				valueFuture = getExecutor().submit(
-						new Callable<RandomVariable>() {
-							@Override
-							public RandomVariable call() throws CalculationException {
-								return product.getValue(evaluationTime, model);
-							}
-						}
-						);
-			}
-			catch(final RejectedExecutionException e) {
-				valueFuture = new FutureWrapper<>(product.getValue(evaluationTime, model));
-			}
+		// Parallel calculation of the products
+		final RandomVariable[] valuesOfProducts = getValuesOfProducts(evaluationTime, model, new ArrayList<>(products));
 
-			results.add(valueFuture);
+		RandomVariable values = model.getRandomVariableForConstant(0.0);
+		for(final RandomVariable valueOfProduct : valuesOfProducts) {
+			values = values.add(valueOfProduct);
 		}
 
-		// Collect results
-		RandomVariable values = model.getRandomVariableForConstant(0.0);
-		try {
-			for(final Future<RandomVariable> valueFuture : results) {
-				values = values.add(valueFuture.get());
-			}
-		} catch (final InterruptedException e) {
-			throw e.getCause() instanceof CalculationException ? (CalculationException)(e.getCause()) : new CalculationException(e.getCause());
-		} catch (final ExecutionException e) {
-			if(CalculationException.class.isInstance(e.getCause())) {
-				throw (CalculationException)(e.getCause());
-			}
-			else if(RuntimeException.class.isInstance(e.getCause())) {
-				throw (RuntimeException)(e.getCause());
-			}
-			else {
-				throw new CalculationException(e.getCause());
+		// Return values
+		return values;
+	}
+
+	@Override
+	public RandomVariable[] getNumeraireRelativeValues(final TimeDiscretization evaluationTimes, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+		final RandomVariable[] values = new RandomVariable[evaluationTimes.getNumberOfTimes()];
+		Arrays.fill(values, model.getRandomVariableForConstant(0.0));
+
+		for(final AbstractProductComponent product : products) {
+			final RandomVariable[] valuesOfProduct = product.getNumeraireRelativeValues(evaluationTimes, model);
+			for(int timeIndex=0; timeIndex<values.length; timeIndex++) {
+				values[timeIndex] = values[timeIndex].add(valuesOfProduct[timeIndex]);
 			}
 		}
 
-		// Return values
 		return values;
 	}
 
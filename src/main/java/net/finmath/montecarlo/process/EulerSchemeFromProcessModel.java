@@ -6,15 +6,20 @@
 package net.finmath.montecarlo.process;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 
 import net.finmath.concurrency.FutureWrapper;
 import net.finmath.montecarlo.IndependentIncrements;
+import net.finmath.montecarlo.IndependentIncrementsPathBlockView;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.montecarlo.RandomVariableFromFloatArray;
 import net.finmath.montecarlo.model.ProcessModel;
 import net.finmath.stochastic.RandomVariable;
 
@@ -53,6 +58,15 @@ import net.finmath.stochastic.RandomVariable;
  * The value \( m \) is called <code>numberOfFactors</code> here.
  * The default for <code>numberOfFactors</code> is 1.
  *
+ * <p>
+ * By default the evolution of the components is performed multi-threadded, each component in its own task
+ * (this can be disabled via the system property
+ * <code>net.finmath.montecarlo.process.EulerSchemeFromProcessModel.isUseMultiThreadding</code>).
+ * Alternatively, the scheme can be constructed with a <code>pathBlockSize</code>. Then the paths are split into
+ * blocks, each block is evolved independently on an executor (by default the common {@link ForkJoinPool})
+ * and the blocks are assembled to the full process. This also parallelizes single-component models.
+ * </p>
+ *
  * @author Christian Fries
  * @see net.finmath.montecarlo.model.ProcessModel The interface definition contains more details.
  * @version 1.4
@@ -79,6 +93,13 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 	// Used locally for multi-threadded calculation.
 	private ExecutorService executor;
 
+	/*
+	 * Optional evolution on blocks of paths (disabled if pathBlockSize is less or equal 0).
+	 */
+	private final int				pathBlockSize;
+	private final ExecutorService	pathBlockExecutor;
+	private final boolean			isUseMultiThreaddingForComponents;
+
 	/*
 	 * The storage of the simulated stochastic process.
 	 */
@@ -94,9 +115,49 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 	 * @param scheme The scheme to use. See {@link Scheme}.
 	 */
 	public EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme) {
+		this(model, stochasticDriver, scheme, 0, null);
+	}
+
+	/**
+	 * Create an Euler discretization scheme which evolves the paths in blocks.
+	 *
+	 * The paths are split into blocks of <code>pathBlockSize</code> paths. Each block is evolved independently
+	 * (over all time steps and components) as a task of the given executor. The blocks are then assembled to the full process.
+	 *
+	 * The result is identical to the result of the scheme without path blocks, provided that the model's drift,
+	 * factor loadings and state space transforms act path-wise (this is the case for the models of this library).
+	 * The assembled realizations are represented by {@link RandomVariableFromDoubleArray} (or {@link RandomVariableFromFloatArray}
+	 * if the blocks are of that type), hence this mode is not intended to be used with differentiable random variables.
+	 *
+	 * @param model The model (the SDE specification) used to generate the (sampling of the) stochastic process.
+	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
+	 * @param scheme The scheme to use. See {@link Scheme}.
+	 * @param pathBlockSize The number of paths per block. If less or equal 0, the paths are not split into blocks.
+	 * @param pathBlockExecutor The executor used to evolve the blocks. If null, the common {@link ForkJoinPool} is used.
+	 */
+	public EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme, final int pathBlockSize, final ExecutorService pathBlockExecutor) {
+		this(model, stochasticDriver, scheme, pathBlockSize, pathBlockExecutor, isUseMultiThreadding);
+	}
+
+	/**
+	 * Create an Euler discretization scheme which evolves the paths in blocks, using the common {@link ForkJoinPool}.
+	 *
+	 * @param model The model (the SDE specification) used to generate the (sampling of the) stochastic process.
+	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
+	 * @param scheme The scheme to use. See {@link Scheme}.
+	 * @param pathBlockSize The number of paths per block. If less or equal 0, the paths are not split into blocks.
+	 */
+	public EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme, final int pathBlockSize) {
+		this(model, stochasticDriver, scheme, pathBlockSize, null);
+	}
+
+	private EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme, final int pathBlockSize, final ExecutorService pathBlockExecutor, final boolean isUseMultiThreaddingForComponents) {
 		super(stochasticDriver.getTimeDiscretization(), model);
 		this.stochasticDriver = stochasticDriver;
 		this.scheme = scheme;
+		this.pathBlockSize = pathBlockSize;
+		this.pathBlockExecutor = pathBlockExecutor;
+		this.isUseMultiThreaddingForComponents = isUseMultiThreaddingForComponents;
 	}
 
 	/**
@@ -106,9 +167,10 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
 	 */
 	public EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver) {
-		super(stochasticDriver.getTimeDiscretization(), model);
-		this.stochasticDriver = stochasticDriver;
-		
+		this(model, stochasticDriver, getDefaultScheme(model));
+	}
+
+	private static Scheme getDefaultScheme(final ProcessModel model) {
 		Scheme scheme = Scheme.EULER_FUNCTIONAL; // Default, unless applyStateSpaceTransformInverse is not provided
 		try {
 			model.applyStateSpaceTransformInverse(null, 0, 0, null);
@@ -119,7 +181,7 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 		}
 		catch(Exception e) {};
 
-		this.scheme = scheme;
+		return scheme;
 	}
 
 	/**
@@ -172,6 +234,11 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 			return;
 		}
 
+		if(pathBlockSize > 0 && pathBlockSize < getNumberOfPaths()) {
+			doPrecalculateProcessOnPathBlocks();
+			return;
+		}
+
 		final int numberOfPaths			= this.getNumberOfPaths();
 		final int numberOfFactors		= this.getNumberOfFactors();
 		final int numberOfComponents	= this.getNumberOfComponents();
@@ -196,7 +263,9 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 		 * The evolution is performed multi-threadded.
 		 * Each component of the vector runs in its own thread.
 		 */
-		executor = Executors.newCachedThreadPool();
+		if(isUseMultiThreaddingForComponents) {
+			executor = Executors.newCachedThreadPool();
+		}
 
 		// Evolve process
 		for (int timeIndex2 = 1; timeIndex2 < getTimeDiscretization().getNumberOfTimeSteps()+1; timeIndex2++) {
@@ -262,7 +331,7 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 				 */
 				Future<RandomVariable> result = null;
 				try {
-					if(isUseMultiThreadding) {
+					if(isUseMultiThreaddingForComponents) {
 						result = executor.submit(worker);
 					} else {
 						result = new FutureWrapper<>(worker.call());
@@ -317,11 +386,119 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 			discreteProcessWeights[timeIndex] = discreteProcessWeights[timeIndex - 1];
 		} // End for(timeIndex)
 
-		try {
-			executor.shutdown();
+		if(executor != null) {
+			try {
+				executor.shutdown();
+			}
+			catch(final SecurityException e) {
+				// @TODO Improve exception handling here
+			}
+		}
+	}
+
+	/**
+	 * Calculates the whole (discrete) process by evolving blocks of paths independently.
+	 */
+	private void doPrecalculateProcessOnPathBlocks() {
+		final int numberOfPaths			= this.getNumberOfPaths();
+		final int numberOfComponents	= this.getNumberOfComponents();
+		final int numberOfTimes			= getTimeDiscretization().getNumberOfTimeSteps() + 1;
+		final int numberOfBlocks		= (numberOfPaths + pathBlockSize - 1) / pathBlockSize;
+
+		final ExecutorService blockExecutor = pathBlockExecutor != null ? pathBlockExecutor : ForkJoinPool.commonPool();
+
+		/*
+		 * Each block is evolved (sequentially) by its own scheme, using the increments restricted to the paths of the block.
+		 */
+		final List<Future<RandomVariable[][]>> discreteProcessOnBlocks = new ArrayList<>(numberOfBlocks);
+		for(int blockIndex = 0; blockIndex < numberOfBlocks; blockIndex++) {
+			final int firstPath	= blockIndex * pathBlockSize;
+			final int lastPath	= Math.min(firstPath + pathBlockSize, numberOfPaths);
+
+			final EulerSchemeFromProcessModel processOnBlock = new EulerSchemeFromProcessModel(getModel(), new IndependentIncrementsPathBlockView(stochasticDriver, firstPath, lastPath), scheme, 0, null, false);
+			discreteProcessOnBlocks.add(blockExecutor.submit(() -> {
+				processOnBlock.doPrecalculateProcess();
+				return processOnBlock.discreteProcess;
+			}));
+		}
+
+		final RandomVariable[][][] discreteProcessOfBlock = new RandomVariable[numberOfBlocks][][];
+		for(int blockIndex = 0; blockIndex < numberOfBlocks; blockIndex++) {
+			try {
+				discreteProcessOfBlock[blockIndex] = discreteProcessOnBlocks.get(blockIndex).get();
+			} catch (final InterruptedException | ExecutionException e) {
+				// Cancel the evolution of the remaining blocks
+				for(final Future<RandomVariable[][]> discreteProcessOnBlock : discreteProcessOnBlocks) {
+					discreteProcessOnBlock.cancel(true);
+				}
+				throw new RuntimeException("Euler scheme failed on path block " + blockIndex + ". See cause of this exception for details.", e.getCause());
+			}
+		}
+
+		// Assemble the blocks
+		final RandomVariable[][] discreteProcessOnAllPaths = new RandomVariable[numberOfTimes][numberOfComponents];
+		final RandomVariable[] componentOnBlocks = new RandomVariable[numberOfBlocks];
+		for(int timeIndex = 0; timeIndex < numberOfTimes; timeIndex++) {
+			for(int componentIndex = 0; componentIndex < numberOfComponents; componentIndex++) {
+				for(int blockIndex = 0; blockIndex < numberOfBlocks; blockIndex++) {
+					componentOnBlocks[blockIndex] = discreteProcessOfBlock[blockIndex][timeIndex][componentIndex];
+				}
+				discreteProcessOnAllPaths[timeIndex][componentIndex] = getRandomVariableFromPathBlocks(componentOnBlocks, numberOfPaths);
+			}
+		}
+
+		discreteProcessWeights	= new RandomVariable[numberOfTimes];
+		discreteProcessWeights[0] = stochasticDriver.getRandomVariableForConstant(1.0 / numberOfPaths);
+		for(int timeIndex = 1; timeIndex < numberOfTimes; timeIndex++) {
+			discreteProcessWeights[timeIndex] = discreteProcessWeights[timeIndex - 1];
 		}
-		catch(final SecurityException e) {
-			// @TODO Improve exception handling here
+
+		discreteProcess = discreteProcessOnAllPaths;
+	}
+
+	/**
+	 * Assemble a random variable from its restrictions to consecutive blocks of paths.
+	 *
+	 * @param randomVariableOnBlocks The random variables on the blocks (in the order of the paths).
+	 * @param numberOfPaths The total number of paths.
+	 * @return The random variable on all paths.
+	 */
+	private RandomVariable getRandomVariableFromPathBlocks(final RandomVariable[] randomVariableOnBlocks, final int numberOfPaths) {
+		boolean isDeterministic = true;
+		boolean isFloat = true;
+		double filtrationTime = Double.NEGATIVE_INFINITY;
+		int typePriority = Integer.MIN_VALUE;
+		for(final RandomVariable randomVariableOnBlock : randomVariableOnBlocks) {
+			if(randomVariableOnBlock == null) {
+				return null;
+			}
+			isDeterministic = isDeterministic && randomVariableOnBlock.isDeterministic()
+					&& Double.doubleToLongBits(randomVariableOnBlock.doubleValue()) == Double.doubleToLongBits(randomVariableOnBlocks[0].doubleValue());
+			isFloat = isFloat && (randomVariableOnBlock.isDeterministic() || randomVariableOnBlock instanceof RandomVariableFromFloatArray);
+			filtrationTime = Math.max(filtrationTime, randomVariableOnBlock.getFiltrationTime());
+			typePriority = Math.max(typePriority, randomVariableOnBlock.getTypePriority());
+		}
+
+		// A value which is identical on all blocks (e.g. the initial value) remains deterministic
+		if(isDeterministic) {
+			return randomVariableOnBlocks[0];
+		}
+
+		final double[] realizations = new double[numberOfPaths];
+		int firstPath = 0;
+		for(final RandomVariable randomVariableOnBlock : randomVariableOnBlocks) {
+			final int numberOfPathsOfBlock = Math.min(pathBlockSize, numberOfPaths - firstPath);
+			for(int path = 0; path < numberOfPathsOfBlock; path++) {
+				realizations[firstPath + path] = randomVariableOnBlock.get(path);
+			}
+			firstPath += numberOfPathsOfBlock;
+		}
+
+		if(isFloat) {
+			return new RandomVariableFromFloatArray(filtrationTime, realizations);
+		}
+		else {
+			return new RandomVariableFromDoubleArray(filtrationTime, realizations, typePriority);
 		}
 	}
 
@@ -356,14 +533,21 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 		return scheme;
 	}
 
+	/**
+	 * @return Returns the number of paths per block, if the paths are evolved in blocks, otherwise a number less or equal 0.
+	 */
+	public int getPathBlockSize() {
+		return pathBlockSize;
+	}
+
 	@Override
 	public EulerSchemeFromProcessModel clone() {
-		return new EulerSchemeFromProcessModel(getModel(), getStochasticDriver(), scheme);
+		return new EulerSchemeFromProcessModel(getModel(), getStochasticDriver(), scheme, pathBlockSize, pathBlockExecutor);
 	}
 
 	@Override
 	public MonteCarloProcess getCloneWithModifiedModel(ProcessModel model) {
-		return new EulerSchemeFromProcessModel(model, getStochasticDriver(), scheme);
+		return new EulerSchemeFromProcessModel(model, getStochasticDriver(), scheme, pathBlockSize, pathBlockExecutor);
 	}
 
 	@Override
@@ -387,17 +571,17 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 
 		final Scheme newScheme = (Scheme) dataModified.getOrDefault("scheme", scheme);
 
-		return new EulerSchemeFromProcessModel(newModel, newStochasticDriver, newScheme);
+		return new EulerSchemeFromProcessModel(newModel, newStochasticDriver, newScheme, pathBlockSize, pathBlockExecutor);
 	}
 
 	@Override
 	public Object getCloneWithModifiedSeed(final int seed) {
-		return new EulerSchemeFromProcessModel(getModel(), getStochasticDriver().getCloneWithModifiedSeed(seed));
+		return new EulerSchemeFromProcessModel(getModel(), getStochasticDriver().getCloneWithModifiedSeed(seed), getDefaultScheme(getModel()), pathBlockSize, pathBlockExecutor);
 	}
 
 	@Override
 	public String toString() {
 		return "EulerSchemeFromProcessModel [stochasticDriver=" + stochasticDriver + ", scheme=" + scheme + ", executor="
-				+ executor + "]";
+				+ executor + ", pathBlockSize=" + pathBlockSize + "]";
 	}
 }
@@ -0,0 +1,444 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.IndependentIncrements;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.montecarlo.RandomVariableOffHeapFactory;
+import net.finmath.montecarlo.model.ProcessModel;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * A Monte-Carlo process whose realizations are read from a memory-mapped file.
+ *
+ * The file is written once by {@link #write(MonteCarloProcess, Path)} from a given process
+ * (e.g. an {@link EulerSchemeFromProcessModel}), storing the process values, the Monte-Carlo weights and
+ * (if the process has a model) the numeraire on the time discretization of the process.
+ * The file can then be opened by many processes (also in different JVMs on the same host), which share
+ * the pages of the file via the operating system's page cache.
+ *
+ * The file is mapped lazily: the region of a random variable (one component at one time index)
+ * is mapped on its first access and the operating system pages it in on demand. The random variables are
+ * {@link net.finmath.montecarlo.RandomVariableOffHeap} objects using the mapped region as their realizations
+ * (without copying). Results of operations on them are allocated off-heap in the scope of this process,
+ * which is released by {@link #close()}.
+ *
+ * The file format (little endian) consists of a header
+ * <ul>
+ * <li>magic number (long), version (int),</li>
+ * <li>number of time points, number of components, number of paths, number of factors (int),</li>
+ * <li>flags (int, bit 0: numeraire stored, bit 1: stochastic driver is a {@link BrownianMotionFromMersenneRandomNumbers}), seed (int),</li>
+ * <li>number of time points of the stochastic driver (int),</li>
+ * <li>the times of the process and the times of the stochastic driver (double),</li>
+ * <li>for each time index and each slot (components, weights, numeraire): 1 if the value is deterministic, 0 otherwise (byte), padded to a multiple of 8,</li>
+ * </ul>
+ * followed by the data: for each time index, the realizations of each component, of the weights and of the numeraire (double[numberOfPaths] each).
+ *
+ * The stochastic driver is re-created from the seed, if it was a {@link BrownianMotionFromMersenneRandomNumbers}.
+ * Clones with a modified model or modified data are then re-simulated by an {@link EulerSchemeFromProcessModel}
+ * using this stochastic driver (the stored paths cannot be re-used for a modified model).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class MonteCarloProcessFromMemoryMappedFile implements MonteCarloProcess, AutoCloseable {
+
+	private static final long MAGIC_NUMBER = 0x46494E4D50524F43L;	// "FINMPROC"
+	private static final int VERSION = 1;
+
+	private static final int FLAG_NUMERAIRE = 1;
+	private static final int FLAG_BROWNIAN_MOTION_FROM_MERSENNE_RANDOM_NUMBERS = 2;
+
+	private final Path file;
+	private final ProcessModel model;
+
+	private final TimeDiscretization timeDiscretization;
+	private final int numberOfComponents;
+	private final int numberOfPaths;
+	private final int numberOfFactors;
+	private final int flags;
+	private final int seed;
+	private final TimeDiscretization driverTimeDiscretization;
+	private final byte[] isDeterministic;
+	private final long dataOffset;
+
+	private final FileChannel channel;
+	private final RandomVariableOffHeapFactory scope = new RandomVariableOffHeapFactory();
+
+	// Lazily mapped random variables, index [timeIndex][slot]
+	private final RandomVariable[][] randomVariables;
+	// Lazily re-created stochastic driver (guarded by this)
+	private IndependentIncrements stochasticDriver;
+
+	/**
+	 * Open a process stored in a file written by {@link #write(MonteCarloProcess, Path)}.
+	 *
+	 * @param file The file.
+	 * @param model The model associated with this process (used by the simulation, e.g., to calculate the numeraire). May be null.
+	 * @throws IOException Thrown if the file cannot be read or has an invalid format.
+	 */
+	public MonteCarloProcessFromMemoryMappedFile(final Path file, final ProcessModel model) throws IOException {
+		super();
+		this.file = file;
+		this.model = model;
+
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			final ByteBuffer header = read(channel, 0, 40);
+			if(header.getLong() != MAGIC_NUMBER) {
+				throw new IOException("File " + file + " is not a process file.");
+			}
+			final int version = header.getInt();
+			if(version != VERSION) {
+				throw new IOException("File " + file + " has unsupported version " + version + ".");
+			}
+			final int numberOfTimes = header.getInt();
+			numberOfComponents	= header.getInt();
+			numberOfPaths		= header.getInt();
+			numberOfFactors		= header.getInt();
+			flags				= header.getInt();
+			seed				= header.getInt();
+			final int numberOfDriverTimes = header.getInt();
+
+			final long slotsOffset = 40 + (long)(numberOfTimes + numberOfDriverTimes) * Double.BYTES;
+			final ByteBuffer times = read(channel, 40, slotsOffset - 40);
+			timeDiscretization = new TimeDiscretizationFromArray(getDoubles(times, numberOfTimes));
+			driverTimeDiscretization = numberOfDriverTimes > 0 ? new TimeDiscretizationFromArray(getDoubles(times, numberOfDriverTimes)) : null;
+
+			isDeterministic = new byte[numberOfTimes * getNumberOfSlots()];
+			read(channel, slotsOffset, isDeterministic.length).get(isDeterministic);
+			dataOffset = slotsOffset + getPaddedLength(isDeterministic.length);
+
+			final long expectedSize = dataOffset + (long)isDeterministic.length * numberOfPaths * Double.BYTES;
+			if(channel.size() != expectedSize) {
+				throw new IOException("File " + file + " has size " + channel.size() + ", expected " + expectedSize + ".");
+			}
+		}
+		catch(final IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+
+		randomVariables = new RandomVariable[timeDiscretization.getNumberOfTimes()][getNumberOfSlots()];
+	}
+
+	/**
+	 * Write the given process (process values, Monte-Carlo weights and, if the process has a model, the numeraire)
+	 * to a file. The file is written to a temporary file and then moved, such that other processes never see
+	 * a partially written file.
+	 *
+	 * @param process The process to be written.
+	 * @param file The file.
+	 * @throws IOException Thrown if the file cannot be written.
+	 * @throws CalculationException Thrown if the process fails to calculate its values.
+	 */
+	public static void write(final MonteCarloProcess process, final Path file) throws IOException, CalculationException {
+		final int numberOfTimes = process.getTimeDiscretization().getNumberOfTimes();
+		final int numberOfComponents = process.getNumberOfComponents();
+		final int numberOfPaths = process.getNumberOfPaths();
+		final boolean isWriteNumeraire = process.getModel() != null;
+		final int numberOfSlots = numberOfComponents + (isWriteNumeraire ? 2 : 1);
+
+		int flags = isWriteNumeraire ? FLAG_NUMERAIRE : 0;
+		int seed = 0;
+		double[] driverTimes = new double[0];
+		if(process.getStochasticDriver() instanceof BrownianMotionFromMersenneRandomNumbers) {
+			final BrownianMotionFromMersenneRandomNumbers brownianMotion = (BrownianMotionFromMersenneRandomNumbers)process.getStochasticDriver();
+			flags |= FLAG_BROWNIAN_MOTION_FROM_MERSENNE_RANDOM_NUMBERS;
+			seed = brownianMotion.getSeed();
+			driverTimes = brownianMotion.getTimeDiscretization().getAsDoubleArray();
+		}
+
+		final Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+		try(FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer header = ByteBuffer.allocate(40 + (numberOfTimes + driverTimes.length) * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			header.putLong(MAGIC_NUMBER).putInt(VERSION);
+			header.putInt(numberOfTimes).putInt(numberOfComponents).putInt(numberOfPaths).putInt(process.getNumberOfFactors());
+			header.putInt(flags).putInt(seed).putInt(driverTimes.length);
+			header.asDoubleBuffer().put(process.getTimeDiscretization().getAsDoubleArray()).put(driverTimes);
+			header.rewind();
+			write(channel, header);
+
+			// The table of deterministic values is written after the data is known
+			final long slotsOffset = channel.position();
+			final byte[] isDeterministic = new byte[numberOfTimes * numberOfSlots];
+			channel.position(slotsOffset + getPaddedLength(isDeterministic.length));
+
+			final ByteBuffer data = ByteBuffer.allocate(numberOfPaths * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			for(int timeIndex=0; timeIndex<numberOfTimes; timeIndex++) {
+				for(int slot=0; slot<numberOfSlots; slot++) {
+					final RandomVariable value;
+					if(slot < numberOfComponents) {
+						value = process.getProcessValue(timeIndex, slot);
+					}
+					else if(slot == numberOfComponents) {
+						value = process.getMonteCarloWeights(timeIndex);
+					}
+					else {
+						value = process.getModel().getNumeraire(process, process.getTime(timeIndex));
+					}
+
+					isDeterministic[timeIndex * numberOfSlots + slot] = (byte)(value.isDeterministic() ? 1 : 0);
+					data.clear();
+					for(int path=0; path<numberOfPaths; path++) {
+						data.putDouble(value.get(path));
+					}
+					data.flip();
+					write(channel, data);
+				}
+			}
+
+			channel.position(slotsOffset);
+			write(channel, ByteBuffer.wrap(isDeterministic));
+		}
+		catch(final IOException | CalculationException | RuntimeException e) {
+			Files.deleteIfExists(temporaryFile);
+			throw e;
+		}
+
+		Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Override
+	public RandomVariable getProcessValue(final int timeIndex, final int componentIndex) throws CalculationException {
+		if(componentIndex < 0 || componentIndex >= numberOfComponents) {
+			throw new IndexOutOfBoundsException("Component index " + componentIndex + " out of range [0," + numberOfComponents + ").");
+		}
+		return getRandomVariable(timeIndex, componentIndex);
+	}
+
+	@Override
+	public RandomVariable getMonteCarloWeights(final int timeIndex) throws CalculationException {
+		return getRandomVariable(timeIndex, numberOfComponents);
+	}
+
+	/**
+	 * Returns the numeraire stored with the process.
+	 *
+	 * @param timeIndex The time index.
+	 * @return The numeraire at the given time index.
+	 * @throws CalculationException Thrown if the file cannot be read.
+	 * @throws UnsupportedOperationException Thrown if the file does not contain the numeraire.
+	 */
+	public RandomVariable getNumeraire(final int timeIndex) throws CalculationException {
+		if((flags & FLAG_NUMERAIRE) == 0) {
+			throw new UnsupportedOperationException("The file " + file + " does not contain the numeraire.");
+		}
+		return getRandomVariable(timeIndex, numberOfComponents + 1);
+	}
+
+	private RandomVariable getRandomVariable(final int timeIndex, final int slot) throws CalculationException {
+		synchronized(randomVariables) {
+			if(randomVariables[timeIndex][slot] == null) {
+				randomVariables[timeIndex][slot] = map(timeIndex, slot);
+			}
+			return randomVariables[timeIndex][slot];
+		}
+	}
+
+	private RandomVariable map(final int timeIndex, final int slot) throws CalculationException {
+		final double time = timeDiscretization.getTime(timeIndex);
+		final long offset = dataOffset + ((long)timeIndex * getNumberOfSlots() + slot) * numberOfPaths * Double.BYTES;
+		try {
+			if(isDeterministic[timeIndex * getNumberOfSlots() + slot] != 0) {
+				return new RandomVariableFromDoubleArray(time, read(channel, offset, Double.BYTES).getDouble());
+			}
+			else {
+				final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, (long)numberOfPaths * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+				return scope.createRandomVariable(time, buffer.asDoubleBuffer());
+			}
+		}
+		catch(final IOException e) {
+			throw new CalculationException("Reading time index " + timeIndex + " from file " + file + " failed.", e);
+		}
+	}
+
+	/**
+	 * Closes the file and releases the memory of all random variables derived from this process.
+	 * The random variables of this process cannot be used after this call.
+	 *
+	 * @throws IOException Thrown if closing the file fails.
+	 */
+	@Override
+	public void close() throws IOException {
+		scope.close();
+		channel.close();
+	}
+
+	/**
+	 * Returns the file of this process.
+	 *
+	 * @return The file of this process.
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the seed of the stochastic driver, if the file has been written from a process using
+	 * a {@link BrownianMotionFromMersenneRandomNumbers}, otherwise 0.
+	 *
+	 * @return The seed of the stochastic driver.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	@Override
+	public ProcessModel getModel() {
+		return model;
+	}
+
+	@Override
+	public int getNumberOfComponents() {
+		return numberOfComponents;
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public double getTime(final int timeIndex) {
+		return timeDiscretization.getTime(timeIndex);
+	}
+
+	@Override
+	public int getTimeIndex(final double time) {
+		return timeDiscretization.getTimeIndex(time);
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return numberOfFactors;
+	}
+
+	/**
+	 * Returns the stochastic driver re-created from the seed stored in the file,
+	 * if the file has been written from a process using a {@link BrownianMotionFromMersenneRandomNumbers}, otherwise null.
+	 *
+	 * @return The stochastic driver or null.
+	 */
+	@Override
+	public synchronized IndependentIncrements getStochasticDriver() {
+		if(stochasticDriver == null && (flags & FLAG_BROWNIAN_MOTION_FROM_MERSENNE_RANDOM_NUMBERS) != 0) {
+			stochasticDriver = new BrownianMotionFromMersenneRandomNumbers(driverTimeDiscretization, numberOfFactors, numberOfPaths, seed);
+		}
+		return stochasticDriver;
+	}
+
+	/**
+	 * Returns an {@link EulerSchemeFromProcessModel} for the given model, using the stochastic driver re-created from the seed.
+	 *
+	 * @param model The model.
+	 * @return An Euler scheme simulating the given model.
+	 * @throws UnsupportedOperationException Thrown if the stochastic driver cannot be re-created from the file.
+	 */
+	@Override
+	public MonteCarloProcess getCloneWithModifiedModel(final ProcessModel model) {
+		return new EulerSchemeFromProcessModel(model, getStochasticDriverForSimulation());
+	}
+
+	/**
+	 * Returns an {@link EulerSchemeFromProcessModel} for the model of this process, using the stochastic driver re-created from the seed,
+	 * with the given data modified (see {@link EulerSchemeFromProcessModel#getCloneWithModifiedData(Map)}).
+	 *
+	 * @param dataModified Key-value-map of parameters to modify.
+	 * @return An Euler scheme simulating the model with the modified data.
+	 * @throws UnsupportedOperationException Thrown if the stochastic driver cannot be re-created from the file and is not given by the data.
+	 */
+	@Override
+	public MonteCarloProcess getCloneWithModifiedData(final Map<String, Object> dataModified) {
+		final IndependentIncrements newStochasticDriver;
+		if(dataModified.containsKey("stochasticDriver")) {
+			newStochasticDriver = (IndependentIncrements)dataModified.get("stochasticDriver");
+		}
+		else {
+			newStochasticDriver = getStochasticDriverForSimulation();
+		}
+
+		return new EulerSchemeFromProcessModel(model, newStochasticDriver).getCloneWithModifiedData(dataModified);
+	}
+
+	/*
+	 * Returns the stochastic driver (created under the same lock as by getStochasticDriver()) or throws if it cannot be re-created.
+	 */
+	private synchronized IndependentIncrements getStochasticDriverForSimulation() {
+		final IndependentIncrements driver = getStochasticDriver();
+		if(driver == null) {
+			throw new UnsupportedOperationException("The stochastic driver of the paths stored in " + file + " cannot be re-created, hence the paths cannot be re-simulated.");
+		}
+		return driver;
+	}
+
+	@Override
+	public MonteCarloProcess clone() {
+		try {
+			return new MonteCarloProcessFromMemoryMappedFile(file, model);
+		}
+		catch(final IOException e) {
+			throw new IllegalStateException("Opening file " + file + " failed.", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MonteCarloProcessFromMemoryMappedFile [file=" + file + ", numberOfTimes=" + timeDiscretization.getNumberOfTimes()
+		+ ", numberOfComponents=" + numberOfComponents + ", numberOfPaths=" + numberOfPaths + ", seed=" + seed + "]";
+	}
+
+	private int getNumberOfSlots() {
+		return numberOfComponents + ((flags & FLAG_NUMERAIRE) != 0 ? 2 : 1);
+	}
+
+	private static long getPaddedLength(final long length) {
+		return (length + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+	}
+
+	private static double[] getDoubles(final ByteBuffer buffer, final int length) {
+		final double[] values = new double[length];
+		for(int i=0; i<length; i++) {
+			values[i] = buffer.getDouble();
+		}
+		return values;
+	}
+
+	private static ByteBuffer read(final FileChannel channel, final long position, final long length) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate((int)length).order(ByteOrder.LITTLE_ENDIAN);
+		while(buffer.hasRemaining()) {
+			if(channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of file.");
+			}
+		}
+		return buffer.flip();
+	}
+
+	private static void write(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+}
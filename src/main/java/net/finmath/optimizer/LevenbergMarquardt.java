@@ -15,6 +15,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,6 +49,11 @@ import net.finmath.functions.LinearAlgebra;
  * The calculation of the derivatives (in case a specific implementation of
  * {@code setDerivatives(double[] parameters, double[][] derivatives)} is not
  * provided) may be performed in parallel by setting the parameter <code>numberOfThreads</code>.
+ * The values for the shifted parameters are requested in a single call of
+ * {@code setValues(double[][] parameters, double[][] values)}, which may be overwritten by
+ * objective functions which allow a vectorized valuation of multiple parameters.
+ * Independent runs from different initial parameters can be performed concurrently using
+ * {@link LevenbergMarquardtMultiStart}.
  * </p>
  *
  * <p>
@@ -184,6 +190,13 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 	private ExecutorService executor					= null;
 	private boolean			executorShutdownWhenDone	= true;
 
+	/*
+	 * Additional stop condition, used by LevenbergMarquardtMultiStart to cancel dominated runs.
+	 * The condition is tested once per iteration by run(), which records a cancellation in isCancelled.
+	 */
+	private transient Predicate<LevenbergMarquardt> cancellationCondition = null;
+	private boolean isCancelled = false;
+
 	private final Logger logger = Logger.getLogger("net.finmath");
 
 	// A simple test
@@ -514,6 +527,26 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 		this.lambdaDivisor = lambdaDivisor;
 	}
 
+	/**
+	 * Set an additional stop condition, which is tested (once) after each iteration of {@link #run()}, unless the solver terminates anyway.
+	 *
+	 * @param cancellationCondition The condition. If it returns true for this optimizer, the optimizer terminates.
+	 * @return A self reference.
+	 */
+	LevenbergMarquardt setCancellationCondition(final Predicate<LevenbergMarquardt> cancellationCondition) {
+		this.cancellationCondition = cancellationCondition;
+		return this;
+	}
+
+	/**
+	 * Returns true if the solver has been terminated by its cancellation condition.
+	 *
+	 * @return True if the run has been cancelled.
+	 */
+	boolean isCancelled() {
+		return isCancelled;
+	}
+
 	@Override
 	public double[] getBestFitParameters() {
 		return parameterCurrent;
@@ -551,63 +584,88 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 		// Calculate new derivatives. Note that this method is called only with
 		// parameters = parameterCurrent, so we may use valueCurrent.
 
-		final Vector<Future<double[]>> valueFutures = new Vector<>(parameterCurrent.length);
+		final double[][] parametersShifted = new double[parameterCurrent.length][];
+		final double[] parameterFiniteDifferences = new double[parameterCurrent.length];
+		for (int parameterIndex = 0; parameterIndex < parameterCurrent.length; parameterIndex++) {
+			if(parameterSteps != null) {
+				parameterFiniteDifferences[parameterIndex] = parameterSteps[parameterIndex];
+			}
+			else {
+				/*
+				 * Try to adaptively set a parameter shift. Note that in some
+				 * applications it may be important to set parameterSteps.
+				 * appropriately.
+				 */
+				parameterFiniteDifferences[parameterIndex] = (Math.abs(parameters[parameterIndex]) + 1) * 1E-8;
+			}
+
+			// Shift parameter value
+			parametersShifted[parameterIndex] = parameters.clone();
+			parametersShifted[parameterIndex][parameterIndex] += parameterFiniteDifferences[parameterIndex];
+		}
+
+		// Calculate the values for all shifted parameters (in one batch)
+		setValues(parametersShifted, derivatives);
+
+		// Calculate derivative as (valueUpShift - valueCurrent) / parameterFiniteDifference
 		for (int parameterIndex = 0; parameterIndex < parameterCurrent.length; parameterIndex++) {
-			final double[] parametersNew	= parameters.clone();
-			final double[] derivative		= derivatives[parameterIndex];
+			final double[] derivative = derivatives[parameterIndex];
+			for (int valueIndex = 0; valueIndex < valueCurrent.length; valueIndex++) {
+				derivative[valueIndex] -= valueCurrent[valueIndex];
+				derivative[valueIndex] /= parameterFiniteDifferences[parameterIndex];
+				if(Double.isNaN(derivative[valueIndex])) {
+					derivative[valueIndex] = 0.0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The objective function evaluated for a batch of parameter vectors. This method is used for the calculation
+	 * of the finite difference derivatives. You may override this method if your objective function can value
+	 * multiple parameter vectors more efficiently in a single (vectorized) call.
+	 *
+	 * The default implementation calls {@link #setValues(double[], double[])} for each parameter vector, concurrently
+	 * if this optimizer has an executor (see <code>numberOfThreads</code>). If the valuation for a parameter vector fails,
+	 * its values are set to {@link java.lang.Double#NaN}.
+	 *
+	 * @param parameters Input value. The parameter vectors, where parameters[k] is the k-th parameter vector.
+	 * @param values Output value, where values[k] is the vector of values f(i,parameters[k]), i=1,...,n
+	 * @throws SolverException Thrown if the valuation fails, specific cause may be available via the <code>cause()</code> method.
+	 */
+	public void setValues(final double[][] parameters, final double[][] values) throws SolverException {
+		final Vector<Future<double[]>> valueFutures = new Vector<>(parameters.length);
+		for (int parameterSetIndex = 0; parameterSetIndex < parameters.length; parameterSetIndex++) {
+			final double[] parameterSet	= parameters[parameterSetIndex];
+			final double[] value		= values[parameterSetIndex];
 
-			final int workerParameterIndex = parameterIndex;
 			final Callable<double[]> worker = new  Callable<double[]>() {
 				@Override
 				public double[] call() {
-					double parameterFiniteDifference;
-					if(parameterSteps != null) {
-						parameterFiniteDifference = parameterSteps[workerParameterIndex];
-					}
-					else {
-						/*
-						 * Try to adaptively set a parameter shift. Note that in some
-						 * applications it may be important to set parameterSteps.
-						 * appropriately.
-						 */
-						parameterFiniteDifference = (Math.abs(parametersNew[workerParameterIndex]) + 1) * 1E-8;
-					}
-
-					// Shift parameter value
-					parametersNew[workerParameterIndex] += parameterFiniteDifference;
-
-					// Calculate derivative as (valueUpShift - valueCurrent) / parameterFiniteDifference
 					try {
-						setValues(parametersNew, derivative);
+						setValues(parameterSet, value);
 					} catch (final Exception e) {
 						logger.severe("Valuation failed with exeption " + e.getMessage() + "\n" + e.getStackTrace());
-						// We signal an exception to calculate the derivative as NaN
-						Arrays.fill(derivative, Double.NaN);
+						// We signal an exception by NaN values
+						Arrays.fill(value, Double.NaN);
 					}
-					for (int valueIndex = 0; valueIndex < valueCurrent.length; valueIndex++) {
-						derivative[valueIndex] -= valueCurrent[valueIndex];
-						derivative[valueIndex] /= parameterFiniteDifference;
-						if(Double.isNaN(derivative[valueIndex])) {
-							derivative[valueIndex] = 0.0;
-						}
-					}
-					return derivative;
+					return value;
 				}
 			};
 			if(executor != null) {
 				final Future<double[]> valueFuture = executor.submit(worker);
-				valueFutures.add(parameterIndex, valueFuture);
+				valueFutures.add(parameterSetIndex, valueFuture);
 			}
 			else {
 				final FutureTask<double[]> valueFutureTask = new FutureTask<>(worker);
 				valueFutureTask.run();
-				valueFutures.add(parameterIndex, valueFutureTask);
+				valueFutures.add(parameterSetIndex, valueFutureTask);
 			}
 		}
 
-		for (int parameterIndex = 0; parameterIndex < parameterCurrent.length; parameterIndex++) {
+		for (int parameterSetIndex = 0; parameterSetIndex < parameters.length; parameterSetIndex++) {
 			try {
-				derivatives[parameterIndex] = valueFutures.get(parameterIndex).get();
+				values[parameterSetIndex] = valueFutures.get(parameterSetIndex).get();
 			}
 			catch (final InterruptedException | ExecutionException e) {
 				throw new SolverException(e);
@@ -633,7 +691,10 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 				 * Lambda is infinite, i.e., no new point is acceptable.
 				 * For example, this may happen if setValue repeatedly give contains invalid (NaN) values.
 				 */
-				Double.isInfinite(lambda);
+				Double.isInfinite(lambda)
+				||
+				// The run has been cancelled (e.g. a run of a multi-start which is dominated by another run)
+				isCancelled;
 	}
 
 	@Override
@@ -664,6 +725,7 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 			beta = new double[parameterCurrent.length];
 
 			iteration = 0;
+			isCancelled = false;
 
 			while(true) {
 				// Count iterations
@@ -699,6 +761,11 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 					lambda				*= lambdaMultiplicator;
 				}
 
+				// Test the cancellation condition (if the run does not terminate anyway)
+				if(cancellationCondition != null && !done() && cancellationCondition.test(this)) {
+					isCancelled = true;
+				}
+
 				// Update a new parameter trial, if we are not done
 				if (!done()) {
 					updateParameterTest();
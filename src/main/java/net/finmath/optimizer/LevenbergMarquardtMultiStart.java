@@ -0,0 +1,187 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.optimizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A multi-start Levenberg-Marquardt optimizer: independent runs of a given {@link LevenbergMarquardt} optimizer,
+ * starting from different initial parameters, are performed concurrently and the best fit (the run with the smallest
+ * root mean squared error) is reported.
+ *
+ * The runs use clones of the given optimizer (see {@link LevenbergMarquardt#clone()}), i.e., they share its
+ * objective function, which hence has to be thread safe if <code>numberOfThreads</code> is larger than one.
+ *
+ * A run is cancelled if it is dominated by another run, that is, if after <code>cancellationMinIterations</code>
+ * iterations its root mean squared error is larger than <code>cancellationErrorFactor</code> times the smallest
+ * root mean squared error of all runs so far.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class LevenbergMarquardtMultiStart implements Optimizer {
+
+	private static final double	DEFAULT_CANCELLATION_ERROR_FACTOR		= 10.0;
+	private static final int	DEFAULT_CANCELLATION_MIN_ITERATIONS		= 10;
+
+	private final LevenbergMarquardt	optimizer;
+	private final double[][]			initialParameters;
+	private final int					numberOfThreads;
+	private final double				cancellationErrorFactor;
+	private final int					cancellationMinIterations;
+
+	private LevenbergMarquardt	bestOptimizer = null;
+	private int					numberOfCancelledRuns = 0;
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	/**
+	 * Create a multi-start Levenberg-Marquardt optimizer.
+	 *
+	 * @param optimizer The optimizer defining the objective function, target values, weights and solver settings. Each run uses a clone of this optimizer.
+	 * @param initialParameters The initial parameters, where initialParameters[k] are the initial parameters of the k-th run.
+	 * @param numberOfThreads Maximum number of concurrent runs. <i>Warning</i>: If this number is larger than one, the implementation of setValues has to be thread safe!
+	 * @param cancellationErrorFactor A run is cancelled if its root mean squared error is larger than this factor times the smallest root mean squared error of all runs. Has to be greater or equal than 1. May be {@link Double#POSITIVE_INFINITY} to disable the cancellation.
+	 * @param cancellationMinIterations The minimum number of iterations of a run before it may be cancelled.
+	 */
+	public LevenbergMarquardtMultiStart(final LevenbergMarquardt optimizer, final double[][] initialParameters, final int numberOfThreads, final double cancellationErrorFactor, final int cancellationMinIterations) {
+		super();
+		if(cancellationErrorFactor < 1.0) {
+			throw new IllegalArgumentException("The cancellation error factor has to be greater or equal than 1.");
+		}
+		this.optimizer = optimizer;
+		this.initialParameters = initialParameters;
+		this.numberOfThreads = numberOfThreads;
+		this.cancellationErrorFactor = cancellationErrorFactor;
+		this.cancellationMinIterations = cancellationMinIterations;
+	}
+
+	/**
+	 * Create a multi-start Levenberg-Marquardt optimizer, cancelling runs whose root mean squared error is
+	 * larger than 10 times the best one after 10 iterations.
+	 *
+	 * @param optimizer The optimizer defining the objective function, target values, weights and solver settings. Each run uses a clone of this optimizer.
+	 * @param initialParameters The initial parameters, where initialParameters[k] are the initial parameters of the k-th run.
+	 * @param numberOfThreads Maximum number of concurrent runs. <i>Warning</i>: If this number is larger than one, the implementation of setValues has to be thread safe!
+	 */
+	public LevenbergMarquardtMultiStart(final LevenbergMarquardt optimizer, final double[][] initialParameters, final int numberOfThreads) {
+		this(optimizer, initialParameters, numberOfThreads, DEFAULT_CANCELLATION_ERROR_FACTOR, DEFAULT_CANCELLATION_MIN_ITERATIONS);
+	}
+
+	@Override
+	public void run() throws SolverException {
+		final DoubleAccumulator errorRootMeanSquaredBest = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+
+		/*
+		 * The condition is tested once per iteration of a run. It only updates the smallest error of all runs (which is idempotent),
+		 * the cancellation itself is recorded by the run.
+		 */
+		final Predicate<LevenbergMarquardt> isDominated = run -> {
+			final double errorRootMeanSquared = run.getRootMeanSquaredError();
+			errorRootMeanSquaredBest.accumulate(errorRootMeanSquared);
+
+			return run.getIterations() >= cancellationMinIterations && errorRootMeanSquared > cancellationErrorFactor * errorRootMeanSquaredBest.get();
+		};
+
+		final ExecutorService executor = numberOfThreads > 1 ? Executors.newFixedThreadPool(Math.min(numberOfThreads, initialParameters.length)) : null;
+		try {
+			final List<Future<LevenbergMarquardt>> runFutures = new ArrayList<>(initialParameters.length);
+			for(final double[] initialParametersOfRun : initialParameters) {
+				final Callable<LevenbergMarquardt> worker = () -> {
+					final LevenbergMarquardt run = optimizer.clone();
+					run.setInitialParameters(initialParametersOfRun.clone());
+					run.setCancellationCondition(isDominated);
+					run.run();
+					return run;
+				};
+				if(executor != null) {
+					runFutures.add(executor.submit(worker));
+				}
+				else {
+					final FutureTask<LevenbergMarquardt> runFutureTask = new FutureTask<>(worker);
+					runFutureTask.run();
+					runFutures.add(runFutureTask);
+				}
+			}
+
+			// Collect the runs, a failed run is ignored unless all runs failed
+			Throwable firstFailure = null;
+			bestOptimizer = null;
+			numberOfCancelledRuns = 0;
+			for(final Future<LevenbergMarquardt> runFuture : runFutures) {
+				try {
+					final LevenbergMarquardt run = runFuture.get();
+					if(run.isCancelled()) {
+						numberOfCancelledRuns++;
+					}
+					if(bestOptimizer == null || run.getRootMeanSquaredError() < bestOptimizer.getRootMeanSquaredError()) {
+						bestOptimizer = run;
+					}
+				}
+				catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new SolverException(e);
+				}
+				catch (final ExecutionException e) {
+					logger.log(Level.WARNING, "Run of multi-start failed.", e.getCause());
+					if(firstFailure == null) {
+						firstFailure = e.getCause();
+					}
+				}
+			}
+
+			if(bestOptimizer == null) {
+				throw new SolverException("All runs of the multi-start failed.", firstFailure);
+			}
+		}
+		finally {
+			if(executor != null) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	@Override
+	public double[] getBestFitParameters() {
+		return bestOptimizer != null ? bestOptimizer.getBestFitParameters() : null;
+	}
+
+	@Override
+	public double getRootMeanSquaredError() {
+		return bestOptimizer != null ? bestOptimizer.getRootMeanSquaredError() : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Returns the number of iterations of the run providing the best fit.
+	 *
+	 * @return The number of iterations of the best run.
+	 */
+	@Override
+	public int getIterations() {
+		return bestOptimizer != null ? bestOptimizer.getIterations() : 0;
+	}
+
+	/**
+	 * Returns the number of runs which have been cancelled, since they were dominated by another run.
+	 *
+	 * @return The number of cancelled runs.
+	 */
+	public int getNumberOfCancelledRuns() {
+		return numberOfCancelledRuns;
+	}
+}
@@ -23,6 +23,41 @@ public interface Optimizer {
 		void setValues(double[] parameters, double[] values) throws SolverException;
 	}
 
+	/**
+	 * Interface for an objective function which allows the valuation of a batch of parameters
+	 * in a single (e.g. vectorized) call.
+	 *
+	 * @author Christian Fries
+	 */
+	interface BatchObjectiveFunction extends ObjectiveFunction {
+
+		/**
+		 * Calculate the values for a batch of parameter vectors.
+		 *
+		 * @param parameters The parameter vectors, where parameters[k] is the k-th parameter vector.
+		 * @param values Output value, where values[k] is the vector of values for the k-th parameter vector.
+		 * @throws SolverException Thrown if the valuation fails.
+		 */
+		void setValues(double[][] parameters, double[][] values) throws SolverException;
+	}
+
+	/**
+	 * Interface for an objective function which provides its derivative (Jacobian), such that
+	 * the optimizer does not need to calculate it by finite differences.
+	 *
+	 * @author Christian Fries
+	 */
+	interface DerivativeObjectiveFunction extends ObjectiveFunction {
+		/**
+		 * Calculate the derivatives of the values with respect to the parameters.
+		 *
+		 * @param parameters The parameter vector.
+		 * @param derivatives Output value, where derivatives[i][j] is d(value(j)) / d(parameters(i)).
+		 * @throws SolverException Thrown if the valuation fails.
+		 */
+		void setDerivatives(double[] parameters, double[][] derivatives) throws SolverException;
+	}
+
 	/**
 	 * Get the best fit parameter vector.
 	 *
@@ -6,6 +6,8 @@
 
 package net.finmath.optimizer;
 
+import net.finmath.optimizer.Optimizer.BatchObjectiveFunction;
+import net.finmath.optimizer.Optimizer.DerivativeObjectiveFunction;
 import net.finmath.optimizer.Optimizer.ObjectiveFunction;
 
 /**
@@ -52,7 +54,7 @@ public class OptimizerFactoryLevenbergMarquardt implements OptimizerFactory {
 	}
 
 	@Override
-	public Optimizer getOptimizer(final ObjectiveFunction objectiveFunction, final double[] initialParameters, final double[] lowerBound,final double[]  upperBound, final double[] parameterSteps, final double[] targetValues) {
+	public LevenbergMarquardt getOptimizer(final ObjectiveFunction objectiveFunction, final double[] initialParameters, final double[] lowerBound,final double[]  upperBound, final double[] parameterSteps, final double[] targetValues) {
 		return (new LevenbergMarquardt(
 				regularizationMethod,
 				initialParameters,
@@ -66,6 +68,26 @@ public class OptimizerFactoryLevenbergMarquardt implements OptimizerFactory {
 			public void setValues(final double[] parameters, final double[] values) throws SolverException {
 				objectiveFunction.setValues(parameters, values);
 			}
+
+			@Override
+			public void setValues(final double[][] parameters, final double[][] values) throws SolverException {
+				if(objectiveFunction instanceof BatchObjectiveFunction) {
+					((BatchObjectiveFunction)objectiveFunction).setValues(parameters, values);
+				}
+				else {
+					super.setValues(parameters, values);
+				}
+			}
+
+			@Override
+			public void setDerivatives(final double[] parameters, final double[][] derivatives) throws SolverException {
+				if(objectiveFunction instanceof DerivativeObjectiveFunction) {
+					((DerivativeObjectiveFunction)objectiveFunction).setDerivatives(parameters, derivatives);
+				}
+				else {
+					super.setDerivatives(parameters, derivatives);
+				}
+			}
 		})
 				.setLambda(lambda)
 				.setErrorTolerance(errorTolerance)
@@ -0,0 +1,95 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.optimizer;
+
+import org.apache.commons.math3.random.MersenneTwister;
+
+import net.finmath.optimizer.Optimizer.ObjectiveFunction;
+
+/**
+ * Factory for {@link LevenbergMarquardtMultiStart} optimizers.
+ *
+ * The first run starts from the given initial parameters. The initial parameters of the other runs are drawn
+ * uniformly from [lowerBound, upperBound] for parameters with finite bounds, otherwise the given initial parameter is
+ * scaled by a factor drawn uniformly from [0.5, 1.5] (and then truncated to the bounds).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class OptimizerFactoryLevenbergMarquardtMultiStart implements OptimizerFactory {
+
+	private final OptimizerFactoryLevenbergMarquardt	optimizerFactory;
+	private final int									numberOfStarts;
+	private final int									numberOfThreads;
+	private final long									seed;
+
+	/**
+	 * Create a factory for multi-start Levenberg-Marquardt optimizers.
+	 *
+	 * @param optimizerFactory The factory for the optimizer of a single run.
+	 * @param numberOfStarts The number of runs.
+	 * @param numberOfThreads Maximum number of concurrent runs.
+	 * @param seed The seed of the random number generator used to generate the initial parameters.
+	 */
+	public OptimizerFactoryLevenbergMarquardtMultiStart(final OptimizerFactoryLevenbergMarquardt optimizerFactory, final int numberOfStarts, final int numberOfThreads, final long seed) {
+		super();
+		this.optimizerFactory = optimizerFactory;
+		this.numberOfStarts = numberOfStarts;
+		this.numberOfThreads = numberOfThreads;
+		this.seed = seed;
+	}
+
+	/**
+	 * Create a factory for multi-start Levenberg-Marquardt optimizers.
+	 *
+	 * @param maxIterations The maximum number of iterations of a single run.
+	 * @param errorTolerance The error tolerance of a single run.
+	 * @param numberOfStarts The number of runs.
+	 * @param numberOfThreads Maximum number of concurrent runs.
+	 */
+	public OptimizerFactoryLevenbergMarquardtMultiStart(final int maxIterations, final double errorTolerance, final int numberOfStarts, final int numberOfThreads) {
+		this(new OptimizerFactoryLevenbergMarquardt(maxIterations, errorTolerance, 1), numberOfStarts, numberOfThreads, 3141);
+	}
+
+	@Override
+	public Optimizer getOptimizer(final ObjectiveFunction objectiveFunction, final double[] initialParameters, final double[] targetValues) {
+		return getOptimizer(objectiveFunction, initialParameters, null, null, null, targetValues);
+	}
+
+	@Override
+	public Optimizer getOptimizer(final ObjectiveFunction objectiveFunction, final double[] initialParameters, final double[] lowerBound,final double[]  upperBound, final double[] targetValues) {
+		return getOptimizer(objectiveFunction, initialParameters, lowerBound, upperBound, null, targetValues);
+	}
+
+	@Override
+	public Optimizer getOptimizer(final ObjectiveFunction objectiveFunction, final double[] initialParameters, final double[] lowerBound,final double[]  upperBound, final double[] parameterSteps, final double[] targetValues) {
+		final LevenbergMarquardt optimizer = optimizerFactory.getOptimizer(objectiveFunction, initialParameters, lowerBound, upperBound, parameterSteps, targetValues);
+
+		final MersenneTwister randomNumberGenerator = new MersenneTwister(seed);
+		final double[][] initialParametersOfRuns = new double[numberOfStarts][];
+		initialParametersOfRuns[0] = initialParameters.clone();
+		for(int runIndex=1; runIndex<numberOfStarts; runIndex++) {
+			initialParametersOfRuns[runIndex] = new double[initialParameters.length];
+			for(int parameterIndex=0; parameterIndex<initialParameters.length; parameterIndex++) {
+				final double lower = lowerBound != null ? lowerBound[parameterIndex] : Double.NEGATIVE_INFINITY;
+				final double upper = upperBound != null ? upperBound[parameterIndex] : Double.POSITIVE_INFINITY;
+				final double uniform = randomNumberGenerator.nextDouble();
+
+				final double initialParameter;
+				if(Double.isFinite(lower) && Double.isFinite(upper)) {
+					initialParameter = lower + uniform * (upper - lower);
+				}
+				else {
+					initialParameter = Math.min(Math.max(initialParameters[parameterIndex] * (0.5 + uniform), lower), upper);
+				}
+				initialParametersOfRuns[runIndex][parameterIndex] = initialParameter;
+			}
+		}
+
+		return new LevenbergMarquardtMultiStart(optimizer, initialParametersOfRuns, numberOfThreads);
+	}
+}
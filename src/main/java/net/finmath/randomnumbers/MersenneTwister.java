@@ -9,28 +9,57 @@ package net.finmath.randomnumbers;
 import java.io.Serializable;
 
 /**
- * Mersenne Twister random number generator. This class is just a wrapper of
- * <code>org.apache.commons.math3.random.MersenneTwister</code>.
+ * Mersenne Twister random number generator (MT19937).
+ *
+ * The generator produces the same sequence as <code>org.apache.commons.math3.random.MersenneTwister</code>
+ * for the same seed. In addition it supports substreams: the generator returned by {@link #getSubstream(long)}
+ * starts at a given position of the sequence. The position is reached by a jump-ahead (see {@link MersenneTwisterJumpAhead}),
+ * which requires a time independent of the number of skipped random numbers. Hence, disjoint parts of the sequence may be generated
+ * concurrently, reproducing exactly the sequence generated by a single generator.
  *
  * @author Christian Fries
  *
- * @version 1.0
+ * @version 1.1
  */
 public class MersenneTwister implements RandomNumberGenerator1D, Serializable {
 
-	private static final long serialVersionUID = -1827470318370174186L;
+	private static final long serialVersionUID = 2372361702406513577L;
+
+	private static final int N = MersenneTwisterJumpAhead.N;
+
+	/*
+	 * Below this number of words, skipping is performed by generating the words.
+	 */
+	private static final long minimumNumberOfWordsForJumpAhead = 1L << 24;
 
 	private final Long seed;
-	private final org.apache.commons.math3.random.MersenneTwister mersenneTwister;
+	private final long numberOfSkippedNumbers;
 
+	private final int[] mt = new int[N];
+	private int index;
+	private long numberOfGeneratedNumbers;		// Generated or skipped since the initial state of this generator
+
+	/**
+	 * Create a Mersenne Twister random number generator with a given seed.
+	 *
+	 * @param seed The seed.
+	 */
 	public MersenneTwister(final long seed) {
-		this.seed = seed;
-		mersenneTwister	= new org.apache.commons.math3.random.MersenneTwister(seed);
+		this(seed, 0);
 	}
 
 	public MersenneTwister() {
-		this.seed = System.currentTimeMillis() + System.identityHashCode(this);		// This is the same way as MT would create the seed.
-		mersenneTwister	= new org.apache.commons.math3.random.MersenneTwister(seed);
+		this(System.currentTimeMillis() + System.identityHashCode(new Object()));		// This is the same way as MT would create the seed.
+	}
+
+	private MersenneTwister(final long seed, final long numberOfSkippedNumbers) {
+		this.seed = seed;
+		this.numberOfSkippedNumbers = numberOfSkippedNumbers;
+
+		setSeed(new int[] { (int) (seed >>> 32), (int) (seed & 0xffffffffL) });
+
+		// Each double consumes two words
+		skipWords(2 * numberOfSkippedNumbers);
 	}
 
 	/**
@@ -40,19 +69,142 @@ public class MersenneTwister implements RandomNumberGenerator1D, Serializable {
 	 */
 	@Override
 	public double nextDouble() {
-		synchronized (mersenneTwister) {
-			return mersenneTwister.nextDouble();
+		synchronized (mt) {
+			return nextDoubleFast();
 		}
 	}
 
 	@Override
 	public double nextDoubleFast() {
-		return mersenneTwister.nextDouble();
+		numberOfGeneratedNumbers++;
+		final long high = ((long) nextWord(26)) << 26;
+		final int low = nextWord(26);
+		return (high | low) * 0x1.0p-52d;
+	}
+
+	/**
+	 * Returns a generator which generates the sequence of this generator (started from its seed) with the first
+	 * <code>numberOfNumbersToSkip</code> random numbers omitted. The state of this generator is not changed.
+	 *
+	 * @param numberOfNumbersToSkip The number of random numbers to skip.
+	 * @return A new generator, starting at the given position of the sequence.
+	 */
+	@Override
+	public MersenneTwister getSubstream(final long numberOfNumbersToSkip) {
+		if(numberOfNumbersToSkip < 0) {
+			throw new IllegalArgumentException("Number of random numbers to skip must be non-negative (given " + numberOfNumbersToSkip + ").");
+		}
+		return new MersenneTwister(seed, numberOfSkippedNumbers + numberOfNumbersToSkip);
+	}
+
+	@Override
+	public long skip(final long numberOfNumbersToSkip) {
+		if(numberOfNumbersToSkip < 0) {
+			throw new IllegalArgumentException("Number of random numbers to skip must be non-negative (given " + numberOfNumbersToSkip + ").");
+		}
+		synchronized (mt) {
+			final long position = numberOfGeneratedNumbers;
+			// Each double consumes two words
+			skipWords(2 * numberOfNumbersToSkip);
+			numberOfGeneratedNumbers += numberOfNumbersToSkip;
+			return position;
+		}
+	}
+
+	@Override
+	public boolean isSubstreamSupported() {
+		return true;
+	}
+
+	/**
+	 * @return The seed of this generator.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return The number of random numbers which have been skipped (relative to the start of the sequence) to create this generator.
+	 */
+	public long getNumberOfSkippedNumbers() {
+		return numberOfSkippedNumbers;
 	}
 
 	@Override
 	public String toString() {
-		return "MersenneTwister [seed=" + seed + "]";
+		return "MersenneTwister [seed=" + seed + (numberOfSkippedNumbers != 0 ? ", numberOfSkippedNumbers=" + numberOfSkippedNumbers : "") + "]";
 	}
 
+	/**
+	 * Generate the next tempered word and return its upper <code>bits</code> bits.
+	 */
+	private int nextWord(final int bits) {
+		int y = MersenneTwisterJumpAhead.next(mt, index);
+		index = index + 1 < N ? index + 1 : 0;
+
+		// Tempering
+		y ^=  y >>> 11;
+		y ^= (y <<   7) & 0x9d2c5680;
+		y ^= (y <<  15) & 0xefc60000;
+		y ^=  y >>> 18;
+
+		return y >>> (32 - bits);
+	}
+
+	private void skipWords(final long numberOfWords) {
+		if(numberOfWords >= minimumNumberOfWordsForJumpAhead) {
+			MersenneTwisterJumpAhead.jump(mt, index, numberOfWords);
+		}
+		else {
+			for(long i=0; i<numberOfWords; i++) {
+				MersenneTwisterJumpAhead.next(mt, index);
+				index = index + 1 < N ? index + 1 : 0;
+			}
+		}
+	}
+
+	/*
+	 * Initialization of the state from an array (init_by_array of the reference implementation).
+	 */
+	private void setSeed(final int[] seedArray) {
+		long longMT = 19650218;
+		mt[0] = (int) longMT;
+		for(int i=1; i<N; i++) {
+			longMT = (1812433253L * (longMT ^ (longMT >> 30)) + i) & 0xffffffffL;
+			mt[i] = (int) longMT;
+		}
+
+		int i = 1;
+		int j = 0;
+		for(int k=Math.max(N, seedArray.length); k!=0; k--) {
+			final long l0 = mt[i] & 0xffffffffL;
+			final long l1 = mt[i-1] & 0xffffffffL;
+			final long l  = (l0 ^ ((l1 ^ (l1 >> 30)) * 1664525L)) + seedArray[j] + j;
+			mt[i] = (int) (l & 0xffffffffL);
+			i++;
+			j++;
+			if(i >= N) {
+				mt[0] = mt[N - 1];
+				i = 1;
+			}
+			if(j >= seedArray.length) {
+				j = 0;
+			}
+		}
+
+		for(int k=N-1; k!=0; k--) {
+			final long l0 = mt[i] & 0xffffffffL;
+			final long l1 = mt[i-1] & 0xffffffffL;
+			final long l  = (l0 ^ ((l1 ^ (l1 >> 30)) * 1566083941L)) - i;
+			mt[i] = (int) (l & 0xffffffffL);
+			i++;
+			if(i >= N) {
+				mt[0] = mt[N - 1];
+				i = 1;
+			}
+		}
+
+		mt[0] = 0x80000000;
+		index = 0;
+	}
 }
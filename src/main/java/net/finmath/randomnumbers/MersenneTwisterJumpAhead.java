@@ -0,0 +1,292 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.randomnumbers;
+
+/**
+ * Jump-ahead for the MT19937 Mersenne Twister using the polynomial method of
+ * Haramoto, Matsumoto, Nishimura, Panneton, L'Ecuyer (2008), "Efficient jump ahead for F2-linear random number generators".
+ *
+ * The state transition <i>A</i> of MT19937 (generating one 32 bit word) is linear over GF(2). Let \( \varphi \) be its characteristic
+ * polynomial (of degree 19937). For a jump by <i>J</i> steps the polynomial \( g(t) = t^{J} \mod \varphi(t) \) is calculated
+ * and the jumped state is given by \( g(A) s \), which is evaluated by a Horner scheme requiring 19937 steps of the generator.
+ * The characteristic polynomial is calculated (once) by the Berlekamp-Massey algorithm from an output sequence of the generator.
+ *
+ * The state is represented as in {@link MersenneTwister}: an array of 624 words and the index of the next word to be generated.
+ * The jumped state may differ from the state obtained by stepping in the 31 bits of the state which do not influence the output,
+ * the generated sequences agree.
+ *
+ * Polynomials over GF(2) are represented by <code>long[]</code>, where bit <code>i</code> is the coefficient of \( t^{i} \).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+final class MersenneTwisterJumpAhead {
+
+	static final int N = 624;
+	static final int M = 397;
+	private static final int UPPER_MASK = 0x80000000;
+	private static final int LOWER_MASK = 0x7fffffff;
+	private static final int MATRIX_A = 0x9908b0df;
+
+	private static final int DEGREE = 19937;
+
+	/*
+	 * The characteristic polynomial and its 64 shifts by 0,...,63 bits (for the reduction modulo the polynomial), initialized lazily.
+	 */
+	private static volatile long[][] characteristicPolynomialShifted;
+
+	private MersenneTwisterJumpAhead() {
+	}
+
+	/**
+	 * Generate the next word of the state (in place), i.e., apply the state transition <i>A</i>.
+	 *
+	 * @param mt The state (624 words).
+	 * @param index The index of the word to generate.
+	 * @return The generated (untempered) word.
+	 */
+	static int next(final int[] mt, final int index) {
+		final int y = (mt[index] & UPPER_MASK) | (mt[index + 1 < N ? index + 1 : 0] & LOWER_MASK);
+		final int indexM = index + M < N ? index + M : index + M - N;
+		mt[index] = mt[indexM] ^ (y >>> 1) ^ ((y & 0x1) != 0 ? MATRIX_A : 0);
+		return mt[index];
+	}
+
+	/**
+	 * Jump the state ahead by a given number of steps (generated words).
+	 *
+	 * The jumped state is stored such that the index of the next word to generate remains unchanged.
+	 *
+	 * @param mt The state (624 words), will be modified.
+	 * @param index The index of the next word to generate.
+	 * @param numberOfSteps The number of words to skip.
+	 */
+	static void jump(final int[] mt, final int index, final long numberOfSteps) {
+		if(numberOfSteps < 0) {
+			throw new IllegalArgumentException("Number of steps must be non-negative (given " + numberOfSteps + ").");
+		}
+		final long[] jumpPolynomial = getJumpPolynomial(numberOfSteps);
+
+		// Horner scheme: accumulator = g(A) s
+		final int[] accumulator = new int[N];
+		int accumulatorIndex = index;
+		for(int i=getDegree(jumpPolynomial); i>=0; i--) {
+			next(accumulator, accumulatorIndex);
+			accumulatorIndex = accumulatorIndex + 1 < N ? accumulatorIndex + 1 : 0;
+			if(((jumpPolynomial[i >>> 6] >>> (i & 63)) & 1L) != 0) {
+				for(int k=0; k<N; k++) {
+					accumulator[(accumulatorIndex + k) % N] ^= mt[(index + k) % N];
+				}
+			}
+		}
+
+		// Store the accumulator aligned to the index of the state
+		for(int k=0; k<N; k++) {
+			mt[(index + k) % N] = accumulator[(accumulatorIndex + k) % N];
+		}
+	}
+
+	/**
+	 * Returns the polynomial \( t^{J} \mod \varphi(t) \).
+	 *
+	 * @param numberOfSteps The exponent <i>J</i>.
+	 * @return The polynomial \( t^{J} \mod \varphi(t) \).
+	 */
+	static long[] getJumpPolynomial(final long numberOfSteps) {
+		final long[][] phiShifted = getCharacteristicPolynomialShifted();
+		final int numberOfWords = (2 * DEGREE) / 64 + 2;
+
+		long[] polynomial = new long[numberOfWords];
+		polynomial[0] = 1L;
+		for(int bit=63-Long.numberOfLeadingZeros(numberOfSteps); bit>=0; bit--) {
+			// Square (over GF(2) this spreads the bits), then reduce
+			final long[] square = new long[numberOfWords];
+			for(int i=0; i<=DEGREE/64; i++) {
+				square[2*i]		= spread((int)polynomial[i]);
+				square[2*i+1]	= spread((int)(polynomial[i] >>> 32));
+			}
+			polynomial = square;
+			reduce(polynomial, 2 * DEGREE - 2, phiShifted);
+
+			if(((numberOfSteps >>> bit) & 1L) != 0) {
+				// Multiply by t, then reduce
+				for(int i=numberOfWords-1; i>0; i--) {
+					polynomial[i] = (polynomial[i] << 1) | (polynomial[i-1] >>> 63);
+				}
+				polynomial[0] <<= 1;
+				reduce(polynomial, DEGREE, phiShifted);
+			}
+		}
+		return polynomial;
+	}
+
+	/**
+	 * Returns the characteristic polynomial \( \varphi \) of the state transition.
+	 *
+	 * @return The characteristic polynomial.
+	 */
+	static long[] getCharacteristicPolynomial() {
+		return getCharacteristicPolynomialShifted()[0].clone();
+	}
+
+	private static long[][] getCharacteristicPolynomialShifted() {
+		long[][] phiShifted = characteristicPolynomialShifted;
+		if(phiShifted == null) {
+			synchronized(MersenneTwisterJumpAhead.class) {
+				phiShifted = characteristicPolynomialShifted;
+				if(phiShifted == null) {
+					final long[] phi = calculateCharacteristicPolynomial();
+					phiShifted = new long[64][phi.length + 1];
+					for(int shift=0; shift<64; shift++) {
+						for(int i=0; i<phi.length; i++) {
+							phiShifted[shift][i] ^= phi[i] << shift;
+							if(shift > 0) {
+								phiShifted[shift][i+1] ^= phi[i] >>> (64 - shift);
+							}
+						}
+					}
+					characteristicPolynomialShifted = phiShifted;
+				}
+			}
+		}
+		return phiShifted;
+	}
+
+	/**
+	 * Reduce a polynomial of degree at most <code>degree</code> modulo \( \varphi \) (in place).
+	 */
+	private static void reduce(final long[] polynomial, final int degree, final long[][] phiShifted) {
+		for(int i=degree; i>=DEGREE; i--) {
+			if(((polynomial[i >>> 6] >>> (i & 63)) & 1L) != 0) {
+				// Add t^(i-DEGREE) phi(t)
+				final int shift = i - DEGREE;
+				final long[] phi = phiShifted[shift & 63];
+				final int wordOffset = shift >>> 6;
+				for(int k=0; k<phi.length && wordOffset+k < polynomial.length; k++) {
+					polynomial[wordOffset + k] ^= phi[k];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Spread the 32 bits of an int to the even bits of a long (squaring over GF(2)).
+	 */
+	private static long spread(final int bits) {
+		long x = bits & 0xffffffffL;
+		x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+		x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+		x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+		x = (x | (x << 2)) & 0x3333333333333333L;
+		x = (x | (x << 1)) & 0x5555555555555555L;
+		return x;
+	}
+
+	private static int getDegree(final long[] polynomial) {
+		for(int i=polynomial.length-1; i>=0; i--) {
+			if(polynomial[i] != 0) {
+				return 64 * i + 63 - Long.numberOfLeadingZeros(polynomial[i]);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Calculate the characteristic polynomial by the Berlekamp-Massey algorithm applied to
+	 * the sequence of the lowest bits of the words generated from an arbitrary (non-zero) state.
+	 */
+	private static long[] calculateCharacteristicPolynomial() {
+		final int length = 2 * DEGREE;
+		final int numberOfWords = length / 64 + 2;
+
+		// Generate the sequence (stored in reverse order, such that the discrepancy is a scalar product with the connection polynomial)
+		final int[] mt = new int[N];
+		mt[0] = 5489;
+		for(int i=1; i<N; i++) {
+			mt[i] = 1812433253 * (mt[i-1] ^ (mt[i-1] >>> 30)) + i;
+		}
+		final long[] sequenceReversed = new long[numberOfWords + 1];
+		for(int n=0, index=0; n<length; n++, index = index + 1 < N ? index + 1 : 0) {
+			if((next(mt, index) & 1) != 0) {
+				final int j = length - 1 - n;
+				sequenceReversed[j >>> 6] |= 1L << (j & 63);
+			}
+		}
+
+		// Berlekamp-Massey
+		long[] connection	= new long[numberOfWords];
+		long[] previous		= new long[numberOfWords];
+		connection[0] = 1L;
+		previous[0] = 1L;
+		int linearComplexity = 0;
+		int shift = 1;
+		for(int n=0; n<length; n++) {
+			// Discrepancy d = sum_{i=0}^{L} c_i s_{n-i}, where s_{n-i} is bit (length-1-n+i) of the reversed sequence
+			final int offset = length - 1 - n;
+			long discrepancy = 0;
+			for(int w=0; w<=linearComplexity/64; w++) {
+				discrepancy ^= connection[w] & getBits(sequenceReversed, offset + 64 * w);
+			}
+			if(Long.bitCount(discrepancy) % 2 == 0) {
+				shift++;
+			}
+			else if(2 * linearComplexity <= n) {
+				final long[] connectionPrevious = connection.clone();
+				addShifted(connection, previous, shift);
+				linearComplexity = n + 1 - linearComplexity;
+				previous = connectionPrevious;
+				shift = 1;
+			}
+			else {
+				addShifted(connection, previous, shift);
+				shift++;
+			}
+		}
+
+		if(linearComplexity != DEGREE) {
+			throw new IllegalStateException("Unexpected linear complexity " + linearComplexity + " of MT19937 (expected " + DEGREE + ").");
+		}
+
+		// The characteristic polynomial is the reciprocal of the connection polynomial
+		final long[] phi = new long[DEGREE / 64 + 1];
+		for(int i=0; i<=DEGREE; i++) {
+			if(((connection[i >>> 6] >>> (i & 63)) & 1L) != 0) {
+				final int j = DEGREE - i;
+				phi[j >>> 6] |= 1L << (j & 63);
+			}
+		}
+		return phi;
+	}
+
+	/**
+	 * Returns the 64 bits of a bit array starting at a given position.
+	 */
+	private static long getBits(final long[] bits, final int position) {
+		final int word = position >>> 6;
+		final int bit = position & 63;
+		final long low = word < bits.length ? bits[word] >>> bit : 0L;
+		final long high = bit != 0 && word + 1 < bits.length ? bits[word + 1] << (64 - bit) : 0L;
+		return low | high;
+	}
+
+	/**
+	 * Add (xor) the polynomial <code>summand</code> multiplied by t^shift to <code>polynomial</code>.
+	 */
+	private static void addShifted(final long[] polynomial, final long[] summand, final int shift) {
+		final int wordOffset = shift >>> 6;
+		final int bit = shift & 63;
+		for(int k=0; k+wordOffset<polynomial.length; k++) {
+			if(summand[k] == 0) {
+				continue;
+			}
+			polynomial[k + wordOffset] ^= summand[k] << bit;
+			if(bit != 0 && k + wordOffset + 1 < polynomial.length) {
+				polynomial[k + wordOffset + 1] ^= summand[k] >>> (64 - bit);
+			}
+		}
+	}
+}
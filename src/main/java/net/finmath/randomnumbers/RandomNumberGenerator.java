@@ -26,4 +26,43 @@ public interface RandomNumberGenerator extends Serializable {
 	 * @return The sample vector dimension n.
 	 */
 	int getDimension();
+
+	/**
+	 * Returns a generator which generates the sequence of this generator, started from its initial state,
+	 * with the first <code>numberOfSamplesToSkip</code> sample vectors omitted. The state of this generator is not changed.
+	 *
+	 * Substreams allow to generate disjoint parts of the sequence concurrently, reproducing exactly the sequence
+	 * generated by a single generator.
+	 *
+	 * @param numberOfSamplesToSkip The number of sample vectors to skip.
+	 * @return A new generator, starting at the given position of the sequence.
+	 * @throws UnsupportedOperationException Thrown if the generator does not support substreams, see {@link #isSubstreamSupported()}.
+	 */
+	default RandomNumberGenerator getSubstream(final long numberOfSamplesToSkip) {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support substreams.");
+	}
+
+	/**
+	 * Skips the next <code>numberOfSamplesToSkip</code> sample vectors of this generator and returns the position of the first skipped
+	 * sample vector, i.e., the number of sample vectors generated or skipped since the initial state of this generator.
+	 *
+	 * The skipped sample vectors can then be generated (concurrently) by the substreams starting at the returned position,
+	 * see {@link #getSubstream(long)}, while a later call of {@link #getNext()} continues after the skipped sample vectors.
+	 *
+	 * @param numberOfSamplesToSkip The number of sample vectors to skip.
+	 * @return The position of the first skipped sample vector, relative to the initial state of this generator.
+	 * @throws UnsupportedOperationException Thrown if the generator does not support substreams, see {@link #isSubstreamSupported()}.
+	 */
+	default long skip(final long numberOfSamplesToSkip) {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support substreams.");
+	}
+
+	/**
+	 * Returns true if the generator supports {@link #getSubstream(long)} and {@link #skip(long)}.
+	 *
+	 * @return True if the generator supports substreams.
+	 */
+	default boolean isSubstreamSupported() {
+		return false;
+	}
 }
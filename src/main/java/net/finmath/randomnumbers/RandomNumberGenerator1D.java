@@ -32,6 +32,11 @@ public interface RandomNumberGenerator1D extends RandomNumberGenerator, DoubleSu
 		return nextDouble();
 	}
 
+	@Override
+	default RandomNumberGenerator1D getSubstream(final long numberOfNumbersToSkip) {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support substreams.");
+	}
+
 	@Override
 	default double[] getNext() {
 		return new double[] { nextDouble() };
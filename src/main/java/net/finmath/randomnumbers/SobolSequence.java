@@ -14,15 +14,18 @@ import org.apache.commons.math3.random.SobolSequenceGenerator;
  * in order to implement the interface <code>RandomNumberGenerator</code>
  * with a minimal change. The value 0, the first element of the sequence, is omitted.
  *
+ * Substreams (see {@link #getSubstream(long)}) are created by jumping directly to the given index of the sequence
+ * (using its Gray code representation), which requires a time independent of the number of skipped elements.
  *
  * @author Christian Fries
- * @version 1.0
+ * @version 1.1
  */
 public class SobolSequence implements RandomNumberGenerator {
 
 	private static final long serialVersionUID = -1904010803493075019L;
 
 	private final int dimension;
+	private final long numberOfSkippedSamples;
 
 	private final SobolSequenceGenerator generator;
 
@@ -32,8 +35,20 @@ public class SobolSequence implements RandomNumberGenerator {
 	 * @param dimension The dimension of the sequence.
 	 */
 	public SobolSequence(final int dimension) {
+		this(dimension, 0);
+	}
+
+	private SobolSequence(final int dimension, final long numberOfSkippedSamples) {
+		if(numberOfSkippedSamples < 0 || numberOfSkippedSamples > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Number of samples to skip must be in [0," + Integer.MAX_VALUE + "] (given " + numberOfSkippedSamples + ").");
+		}
 		this.dimension = dimension;
+		this.numberOfSkippedSamples = numberOfSkippedSamples;
 		generator = new SobolSequenceGenerator(dimension);
+		if(numberOfSkippedSamples > 0) {
+			// Skip to the last skipped element, such that the next element is the first one of the substream.
+			generator.skipTo((int)numberOfSkippedSamples - 1);
+		}
 	}
 
 	@Override
@@ -47,4 +62,36 @@ public class SobolSequence implements RandomNumberGenerator {
 	public int getDimension() {
 		return dimension;
 	}
+
+	@Override
+	public SobolSequence getSubstream(final long numberOfSamplesToSkip) {
+		if(numberOfSamplesToSkip < 0) {
+			throw new IllegalArgumentException("Number of samples to skip must be non-negative (given " + numberOfSamplesToSkip + ").");
+		}
+		return new SobolSequence(dimension, numberOfSkippedSamples + numberOfSamplesToSkip);
+	}
+
+	@Override
+	public long skip(final long numberOfSamplesToSkip) {
+		if(numberOfSamplesToSkip < 0) {
+			throw new IllegalArgumentException("Number of samples to skip must be non-negative (given " + numberOfSamplesToSkip + ").");
+		}
+		synchronized (generator) {
+			// The index of the next element of the sequence (counting the skipped samples of this substream)
+			final long nextIndex = generator.getNextIndex();
+			if(numberOfSamplesToSkip > 0) {
+				if(nextIndex + numberOfSamplesToSkip > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException("Number of samples to skip exceeds the length of the sequence (given " + numberOfSamplesToSkip + ").");
+				}
+				// Skip to the last skipped element, such that the next element follows the skipped ones.
+				generator.skipTo((int)(nextIndex + numberOfSamplesToSkip - 1));
+			}
+			return nextIndex - numberOfSkippedSamples;
+		}
+	}
+
+	@Override
+	public boolean isSubstreamSupported() {
+		return true;
+	}
 }
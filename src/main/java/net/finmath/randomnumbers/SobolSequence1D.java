@@ -20,12 +20,31 @@ public class SobolSequence1D implements RandomNumberGenerator1D {
 	 * Create a Sobol sequence.
 	 */
 	public SobolSequence1D() {
+		this(new SobolSequence(1));
+	}
+
+	private SobolSequence1D(final SobolSequence sobolSequence) {
 		super();
-		sobolSequence = new SobolSequence(1);
+		this.sobolSequence = sobolSequence;
 	}
 
 	@Override
 	public double nextDouble() {
 		return sobolSequence.getNext()[0];
 	}
+
+	@Override
+	public SobolSequence1D getSubstream(final long numberOfNumbersToSkip) {
+		return new SobolSequence1D(sobolSequence.getSubstream(numberOfNumbersToSkip));
+	}
+
+	@Override
+	public long skip(final long numberOfNumbersToSkip) {
+		return sobolSequence.skip(numberOfNumbersToSkip);
+	}
+
+	@Override
+	public boolean isSubstreamSupported() {
+		return true;
+	}
 }
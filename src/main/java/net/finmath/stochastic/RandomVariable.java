@@ -228,6 +228,22 @@ public interface RandomVariable extends Serializable {
 	 */
 	double getQuantile(double quantile, RandomVariable probabilities);
 
+	/**
+	 * Returns the quantile values for a given array of quantile levels, i.e., <code>result[i] = getQuantile(quantiles[i])</code>.
+	 *
+	 * Implementations may sort the realizations only once for all quantile levels.
+	 *
+	 * @param quantiles The quantile levels.
+	 * @return The quantile values assuming equi-distribution.
+	 */
+	default double[] getQuantiles(final double[] quantiles) {
+		final double[] quantileValues = new double[quantiles.length];
+		for(int i=0; i<quantiles.length; i++) {
+			quantileValues[i] = getQuantile(quantiles[i]);
+		}
+		return quantileValues;
+	}
+
 	/**
 	 * Returns the expectation over a quantile for this given random variable.
 	 * The method will consider picewise constant values (with constant extrapolation) in the random variable.
@@ -19,6 +19,44 @@ public interface RandomVariableAccumulator extends RandomVariable {
 	void accumulate(RandomVariable randomVariable);
 	void accumulate(double time, RandomVariable randomVariable);
 
+	/**
+	 * Accumulates the product <code>factor1 * factor2</code>, i.e., applies \( x \mapsto x + factor1 \cdot factor2 \) to this accumulator.
+	 *
+	 * Implementations may perform this operation in place, without creating intermediate random variables.
+	 *
+	 * @param factor1 The factor 1.
+	 * @param factor2 The factor 2.
+	 */
+	default void accumulateProduct(final RandomVariable factor1, final double factor2) {
+		accumulate(factor1.mult(factor2));
+	}
+
+	/**
+	 * Accumulates the product <code>factor1 * factor2</code>, i.e., applies \( x \mapsto x + factor1 \cdot factor2 \) to this accumulator.
+	 *
+	 * Implementations may perform this operation in place, without creating intermediate random variables.
+	 *
+	 * @param factor1 The factor 1.
+	 * @param factor2 The factor 2.
+	 */
+	default void accumulateProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		accumulate(factor1.mult(factor2));
+	}
+
+	/**
+	 * Accumulates the sum product, i.e., applies \( x \mapsto x + \sum_{i=0}^{n-1} factor1_{i} \cdot factor2_{i} \) to this accumulator.
+	 *
+	 * Implementations may perform this operation in place, without creating intermediate random variables.
+	 *
+	 * @param factor1 The factor 1. An array of random variables (compatible with this random variable).
+	 * @param factor2 The factor 2. An array of random variables (compatible with this random variable).
+	 */
+	default void accumulateSumProduct(final RandomVariable[] factor1, final RandomVariable[] factor2) {
+		for(int i=0; i<factor1.length; i++) {
+			accumulateProduct(factor1[i], factor2[i]);
+		}
+	}
+
 	RandomVariable get();
 	RandomVariable get(double fromTime, double toTime);
 }
@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.finitedifference.solvers;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.finitedifference.models.FDMBlackScholesModel;
+import net.finmath.finitedifference.models.FiniteDifference1DModel;
+import net.finmath.finitedifference.products.FDMEuropeanPutOption;
+import net.finmath.functions.AnalyticFormulas;
+
+/**
+ * Tests the tridiagonal solver and the theta method on uniform and non-uniform space grids.
+ *
+ * @author Christian Fries
+ */
+public class FDMThetaMethodTest {
+
+	private static final double riskFreeRate = 0.06;
+	private static final double volatility = 0.4;
+	private static final double optionMaturity = 1.0;
+	private static final double optionStrike = 50;
+
+	private final FiniteDifference1DModel model = new FDMBlackScholesModel(
+			100,			// numTimesteps
+			200,			// numSpacesteps
+			5,				// numStandardDeviations
+			optionStrike,	// center of the grid
+			0.5,			// theta
+			50,				// initialValue
+			riskFreeRate,
+			volatility);
+
+	@Test
+	public void testTridiagonalSolver() {
+		final int size = 50;
+		final double[] lower = new double[size];
+		final double[] diagonal = new double[size];
+		final double[] upper = new double[size];
+		final double[] solutionExpected = new double[size];
+		for(int i=0; i<size; i++) {
+			lower[i] = -1.0 - 0.01 * i;
+			diagonal[i] = 4.0 + Math.sin(i);
+			upper[i] = -0.5 + 0.02 * i;
+			solutionExpected[i] = Math.cos(0.3 * i);
+		}
+
+		final double[] rightHandSide = TridiagonalSolver.multiply(lower, diagonal, upper, solutionExpected, new double[size]);
+		final double[] solution = new TridiagonalSolver(size).solve(lower, diagonal, upper, rightHandSide, rightHandSide);
+
+		Assertions.assertArrayEquals(solutionExpected, solution, 1E-12);
+	}
+
+	@Test
+	public void testEuropeanPutOnNonUniformGrid() {
+		// Grid S = K + d sinh(x) on [0, 4 K], concentrated around the strike (the boundary condition of the put is exact at 0)
+		final int numberOfPoints = 201;
+		final double concentration = optionStrike / 10.0;
+		final double xMin = asinh(-optionStrike / concentration);
+		final double xMax = asinh(3 * optionStrike / concentration);
+		final double[] spaceGrid = new double[numberOfPoints];
+		for(int i=0; i<numberOfPoints; i++) {
+			final double x = xMin + (xMax - xMin) * i / (numberOfPoints-1);
+			spaceGrid[i] = Math.max(optionStrike + concentration * Math.sinh(x), 0.0);
+		}
+
+		final FDMEuropeanPutOption putOption = new FDMEuropeanPutOption(optionMaturity, optionStrike);
+		final FDMThetaMethod solver = new FDMThetaMethod(model, putOption, optionMaturity, optionStrike, 0.5, spaceGrid);
+		final double[][] values = solver.getValue(0.0, optionMaturity, assetValue -> Math.max(optionStrike - assetValue, 0));
+
+		for(int i=0; i<values[0].length; i++) {
+			final double underlying = values[0][i];
+			if(Math.abs(underlying - optionStrike) > 10) {
+				continue;
+			}
+			final double valueAnalytic = AnalyticFormulas.blackScholesOptionValue(underlying, riskFreeRate, volatility, optionMaturity, optionStrike, false);
+			Assertions.assertEquals(valueAnalytic, values[1][i], 5E-3, "Value at " + underlying);
+		}
+	}
+
+	@Test
+	public void testAmericanPutWithEarlyExercise() {
+		final FDMEuropeanPutOption putOption = new FDMEuropeanPutOption(optionMaturity, optionStrike);
+		final FDMThetaMethod solver = new FDMThetaMethod(model, putOption, optionMaturity, optionStrike, 0.5);
+
+		final double[][] valuesEuropean = solver.getValue(0.0, optionMaturity, assetValue -> Math.max(optionStrike - assetValue, 0));
+		final double[][] valuesAmerican = solver.getValue(0.0, optionMaturity, assetValue -> Math.max(optionStrike - assetValue, 0), assetValue -> Math.max(optionStrike - assetValue, 0));
+
+		double maximumEarlyExercisePremium = 0.0;
+		for(int i=0; i<valuesAmerican[0].length; i++) {
+			final double exerciseValue = Math.max(optionStrike - valuesAmerican[0][i], 0);
+			Assertions.assertTrue(valuesAmerican[1][i] >= exerciseValue - 1E-12, "American value floored at exercise value");
+			Assertions.assertTrue(valuesAmerican[1][i] >= valuesEuropean[1][i] - 1E-12, "American value not below European value");
+			maximumEarlyExercisePremium = Math.max(maximumEarlyExercisePremium, valuesAmerican[1][i] - valuesEuropean[1][i]);
+		}
+		Assertions.assertTrue(maximumEarlyExercisePremium > 0.1, "Early exercise premium of the put");
+	}
+
+	private static double asinh(final double x) {
+		return Math.log(x + Math.sqrt(x * x + 1));
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.fouriermethod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.models.BatesModel;
+import net.finmath.fouriermethod.models.BlackScholesModel;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.fouriermethod.models.HestonModel;
+import net.finmath.fouriermethod.models.MertonModel;
+import net.finmath.fouriermethod.models.VarianceGammaModel;
+import net.finmath.fouriermethod.products.DigitalOption;
+import net.finmath.fouriermethod.products.EuropeanOption;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByCOS;
+
+/**
+ * Tests {@link COSMethod} against the valuation by integration ({@link EuropeanOption}, {@link DigitalOption})
+ * and (for Bermudan options) against a binomial tree.
+ *
+ * @author Christian Fries
+ */
+public class COSMethodTest {
+
+	private static final double maturity = 1.0;
+	private static final double[] strikes = { 70.0, 80.0, 90.0, 100.0, 110.0, 120.0, 140.0 };
+
+	private static final List<CharacteristicFunctionModel> models = List.of(
+			new BlackScholesModel(100.0, 0.02, 0.01, 0.25),
+			new HestonModel(100.0, 0.02, 0.25, 0.01, 0.04, 1.5, 0.6, -0.7),
+			new BatesModel(100.0, 0.02, 0.25, 0.06, 1.5, 0.6, -0.7, 0.1, 0.5, -0.1, 0.2),
+			new MertonModel(100.0, 0.02, 0.01, 0.2, 0.4, -0.1, 0.15),
+			new VarianceGammaModel(100.0, 0.02, 0.01, 0.2, -0.15, 0.2)
+			);
+
+	@Test
+	public void testEuropeanAndDigitalOptions() throws CalculationException {
+		final COSMethod cosMethod = new COSMethod();
+
+		for(final CharacteristicFunctionModel model : models) {
+			final double[] values = cosMethod.getEuropeanOptionValues(model, maturity, strikes);
+			final Map<String, Function<Double, Double>> smile = new EuropeanOptionSmileByCOS(maturity, strikes).getValue(0.0, model);
+			for(int i=0; i<strikes.length; i++) {
+				final String message = model.getClass().getSimpleName() + " strike " + strikes[i];
+
+				final double valueExpected = new EuropeanOption(maturity, strikes[i]).getValue(model);
+				Assertions.assertEquals(valueExpected, values[i], 1E-6, message + ": European option");
+				Assertions.assertEquals(values[i], smile.get("valuePerStrike").apply(strikes[i]), 1E-14, message + ": smile");
+
+				final double digitalValueExpected = new DigitalOption(maturity, strikes[i]).getValue(model);
+				Assertions.assertEquals(digitalValueExpected, cosMethod.getDigitalOptionValue(model, maturity, strikes[i]), 1E-6, message + ": digital option");
+			}
+		}
+	}
+
+	@Test
+	public void testBermudanOption() throws CalculationException {
+		final COSMethod cosMethod = new COSMethod();
+
+		final double initialValue = 100.0;
+		final double riskFreeRate = 0.1;
+		final double volatility = 0.2;
+		final double strike = 110.0;
+		final CharacteristicFunctionModel model = new BlackScholesModel(initialValue, riskFreeRate, volatility);
+
+		// A single exercise time gives the European option (put-call parity)
+		final double europeanPut = new EuropeanOption(maturity, strike).getValue(model) - initialValue + strike * Math.exp(-riskFreeRate * maturity);
+		Assertions.assertEquals(europeanPut, cosMethod.getBermudanOptionValue(model, new double[] { maturity }, strike, false), 1E-6, "European put");
+
+		// Early exercise of a call on a non-dividend paying stock is never optimal
+		final double europeanCall = new EuropeanOption(maturity, strike).getValue(model);
+		Assertions.assertEquals(europeanCall, cosMethod.getBermudanOptionValue(model, new double[] { 0.25, 0.5, 0.75, 1.0 }, strike, true), 1E-6, "Bermudan call");
+
+		// Bermudan put with 10 exercise times against a binomial tree
+		final int numberOfExerciseTimes = 10;
+		final double[] exerciseTimes = new double[numberOfExerciseTimes];
+		for(int i=0; i<numberOfExerciseTimes; i++) {
+			exerciseTimes[i] = maturity * (i+1) / numberOfExerciseTimes;
+		}
+		final double bermudanPut = cosMethod.getBermudanOptionValue(model, exerciseTimes, strike, false);
+		final double bermudanPutTree = getBermudanPutValueByBinomialTree(initialValue, riskFreeRate, volatility, strike, maturity, numberOfExerciseTimes, 1000);
+
+		Assertions.assertTrue(bermudanPut > europeanPut + 0.1, "Early exercise premium");
+		Assertions.assertEquals(bermudanPutTree, bermudanPut, 2E-3, "Bermudan put");
+	}
+
+	@Test
+	public void testBermudanOptionRequiresIndependentIncrements() {
+		final COSMethod cosMethod = new COSMethod();
+		final double[] exerciseTimes = { 0.5, 1.0 };
+
+		for(final CharacteristicFunctionModel model : models) {
+			if(model instanceof HestonModel || model instanceof BatesModel) {
+				Assertions.assertThrows(IllegalArgumentException.class, () -> cosMethod.getBermudanOptionValue(model, exerciseTimes, 100.0, false), model.getClass().getSimpleName());
+			}
+			else {
+				Assertions.assertTrue(cosMethod.getBermudanOptionValue(model, exerciseTimes, 100.0, false) > 0, model.getClass().getSimpleName());
+			}
+		}
+	}
+
+	/*
+	 * Cox-Ross-Rubinstein tree with exercise at every stepsPerExercise-th time step.
+	 */
+	private static double getBermudanPutValueByBinomialTree(final double initialValue, final double riskFreeRate, final double volatility, final double strike,
+			final double maturity, final int numberOfExerciseTimes, final int stepsPerExercise) {
+		final int numberOfTimeSteps = numberOfExerciseTimes * stepsPerExercise;
+		final double timeStep = maturity / numberOfTimeSteps;
+		final double up = Math.exp(volatility * Math.sqrt(timeStep));
+		final double probabilityUp = (Math.exp(riskFreeRate * timeStep) - 1.0 / up) / (up - 1.0 / up);
+		final double discountFactor = Math.exp(-riskFreeRate * timeStep);
+
+		final double[] values = new double[numberOfTimeSteps+1];
+		for(int i=0; i<=numberOfTimeSteps; i++) {
+			values[i] = Math.max(strike - initialValue * Math.pow(up, 2*i - numberOfTimeSteps), 0.0);
+		}
+		for(int timeIndex = numberOfTimeSteps-1; timeIndex >= 0; timeIndex--) {
+			final boolean isExerciseTime = timeIndex > 0 && timeIndex % stepsPerExercise == 0;
+			for(int i=0; i<=timeIndex; i++) {
+				values[i] = discountFactor * (probabilityUp * values[i+1] + (1-probabilityUp) * values[i]);
+				if(isExerciseTime) {
+					values[i] = Math.max(values[i], strike - initialValue * Math.pow(up, 2*i - timeIndex));
+				}
+			}
+		}
+		return values[0];
+	}
+}
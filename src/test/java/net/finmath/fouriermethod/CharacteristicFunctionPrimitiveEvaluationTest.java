@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.fouriermethod;
+
+import java.util.List;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.models.BatesModel;
+import net.finmath.fouriermethod.models.BlackScholesModel;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.fouriermethod.models.HestonModel;
+import net.finmath.fouriermethod.models.MertonModel;
+import net.finmath.fouriermethod.models.VarianceGammaModel;
+import net.finmath.fouriermethod.products.AbstractFourierTransformProduct;
+import net.finmath.fouriermethod.products.DigitalOption;
+import net.finmath.fouriermethod.products.EuropeanOption;
+import net.finmath.integration.SimpsonRealIntegrator;
+
+/**
+ * Tests the evaluation of characteristic functions on primitive doubles
+ * ({@link CharacteristicFunction#apply(double[], double[], double[], double[])}) against the evaluation using
+ * {@link Complex}, and the valuation of products against the valuation using {@link SimpsonRealIntegrator}.
+ *
+ * @author Christian Fries
+ */
+public class CharacteristicFunctionPrimitiveEvaluationTest {
+
+	private static final double maturity = 1.5;
+
+	private static final List<CharacteristicFunctionModel> models = List.of(
+			new BlackScholesModel(100.0, 0.02, 0.01, 0.25),
+			new HestonModel(100.0, 0.02, 0.25, 0.01, 0.04, 1.5, 0.6, -0.7),
+			new BatesModel(100.0, 0.02, 0.25, 0.06, 1.5, 0.6, -0.7, 0.1, 0.5, -0.1, 0.2),
+			new BatesModel(100.0, 0.02, 0.01, new double[] { 0.04, 0.02 }, new double[] { 0.06, 0.03 }, new double[] { 1.5, 0.8 }, new double[] { 0.6, 0.3 }, new double[] { -0.7, -0.2 }, new double[] { 0.1, 0.5, 0.3 }, -0.1, 0.2),
+			new VarianceGammaModel(100.0, 0.02, 0.01, 0.2, -0.15, 0.2),
+			new MertonModel(100.0, 0.02, 0.01, 0.2, 0.4, -0.1, 0.15)
+			);
+
+	private static final List<AbstractFourierTransformProduct> products = List.of(
+			new EuropeanOption(maturity, 90.0),
+			new EuropeanOption(maturity, 110.0),
+			new DigitalOption(maturity, 105.0)
+			);
+
+	@Test
+	public void testCharacteristicFunctions() {
+		final int numberOfArguments = 2001;
+		final double[] argumentReal = new double[numberOfArguments];
+		final double[] argumentImag = new double[numberOfArguments];
+		for(int i=0; i<numberOfArguments; i++) {
+			argumentReal[i] = -100.0 + 200.0 * i / (numberOfArguments-1);
+			argumentImag[i] = -1.75 + 0.5 * (i % 3);
+		}
+
+		for(final CharacteristicFunctionModel model : models) {
+			assertEqualValues(model.apply(maturity), argumentReal, argumentImag, model.getClass().getSimpleName());
+		}
+
+		for(final AbstractFourierTransformProduct product : products) {
+			final double[] negatedArgumentImag = new double[numberOfArguments];
+			for(int i=0; i<numberOfArguments; i++) {
+				negatedArgumentImag[i] = -argumentImag[i];
+			}
+			assertEqualValues(product, argumentReal, negatedArgumentImag, product.getClass().getSimpleName());
+		}
+	}
+
+	@Test
+	public void testValues() throws CalculationException {
+		for(final CharacteristicFunctionModel model : models) {
+			for(final AbstractFourierTransformProduct product : products) {
+				final double valueExpected = getValueUsingComplex(product, model);
+				final double value = product.getValue(model);
+
+				Assertions.assertEquals(valueExpected, value, 1E-12 * Math.max(1.0, Math.abs(valueExpected)), model.getClass().getSimpleName() + ": value of " + product.getClass().getSimpleName());
+			}
+		}
+	}
+
+	private static void assertEqualValues(final CharacteristicFunction characteristicFunction, final double[] argumentReal, final double[] argumentImag, final String message) {
+		final double[] valueReal = new double[argumentReal.length];
+		final double[] valueImag = new double[argumentReal.length];
+		characteristicFunction.apply(argumentReal, argumentImag, valueReal, valueImag);
+
+		for(int i=0; i<argumentReal.length; i++) {
+			final Complex valueExpected = characteristicFunction.apply(new Complex(argumentReal[i], argumentImag[i]));
+			final double tolerance = 1E-12 * Math.max(valueExpected.abs(), 1E-3);
+			Assertions.assertEquals(valueExpected.getReal(), valueReal[i], tolerance, message + ": real part at " + argumentReal[i]);
+			Assertions.assertEquals(valueExpected.getImaginary(), valueImag[i], tolerance, message + ": imaginary part at " + argumentReal[i]);
+		}
+	}
+
+	/*
+	 * The valuation as implemented prior to the evaluation on primitive doubles.
+	 */
+	private static double getValueUsingComplex(final AbstractFourierTransformProduct product, final CharacteristicFunctionModel model) {
+		final CharacteristicFunction modelCF = model.apply(product.getMaturity());
+		final double lineOfIntegration = 0.5 * product.getIntegrationDomainImagUpperBound()+product.getIntegrationDomainImagLowerBound();
+
+		return new SimpsonRealIntegrator(-100.0, 100.0, 20000, true).integrate(real -> {
+			final Complex z = new Complex(real,lineOfIntegration);
+			return modelCF.apply(z.negate()).multiply(product.apply(z)).getReal();
+		}) / 2.0 / Math.PI;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.fouriermethod.products;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.CharacteristicFunction;
+import net.finmath.fouriermethod.models.BatesModel;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.fouriermethod.models.HestonModel;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByLewis;
+
+/**
+ * Tests {@link EuropeanOptionSmileByLewis} against the valuation of the single options with {@link EuropeanOption}.
+ *
+ * @author Christian Fries
+ */
+public class EuropeanOptionSmileByLewisTest {
+
+	private static final double maturity = 2.0;
+	private static final double[] strikes = { 60.0, 80.0, 90.0, 95.0, 100.0, 105.0, 110.0, 120.0, 140.0, 180.0 };
+
+	@Test
+	public void testHeston() throws CalculationException {
+		assertValues(new HestonModel(100.0, 0.02, 0.25, 0.01, 0.04, 1.5, 0.6, -0.7));
+	}
+
+	@Test
+	public void testBates() throws CalculationException {
+		assertValues(new BatesModel(100.0, 0.02, 0.25, 0.06, 1.5, 0.6, -0.7, 0.1, 0.5, -0.1, 0.2));
+	}
+
+	@Test
+	public void testSingleEvaluationOfCharacteristicFunction() throws CalculationException {
+		final CharacteristicFunctionModel model = new HestonModel(100.0, 0.02, 0.25, 0.01, 0.04, 1.5, 0.6, -0.7);
+
+		final AtomicInteger numberOfEvaluations = new AtomicInteger();
+		final CharacteristicFunctionModel countingModel = time -> {
+			final CharacteristicFunction characteristicFunction = model.apply(time);
+			return new CharacteristicFunction() {
+				@Override
+				public Complex apply(final Complex argument) {
+					throw new UnsupportedOperationException("Expected evaluation on vectors of arguments.");
+				}
+
+				@Override
+				public void apply(final double[] argumentReal, final double[] argumentImag, final double[] valueReal, final double[] valueImag) {
+					numberOfEvaluations.incrementAndGet();
+					characteristicFunction.apply(argumentReal, argumentImag, valueReal, valueImag);
+				}
+			};
+		};
+
+		new EuropeanOptionSmileByLewis(maturity, strikes).getValuesPerStrike(countingModel);
+
+		Assertions.assertEquals(1, numberOfEvaluations.get(), "Number of evaluations of the characteristic function for " + strikes.length + " strikes");
+	}
+
+	private static void assertValues(final CharacteristicFunctionModel model) throws CalculationException {
+		final EuropeanOptionSmileByLewis smile = new EuropeanOptionSmileByLewis(maturity, strikes);
+
+		final double[] values = smile.getValuesPerStrike(model);
+		final Map<String, Function<Double, Double>> valuePerStrike = smile.getValue(0.0, model);
+
+		for(int i=0; i<strikes.length; i++) {
+			final double valueExpected = new EuropeanOption(maturity, strikes[i]).getValue(model);
+
+			Assertions.assertEquals(valueExpected, values[i], 1E-10 * valueExpected, "Value for strike " + strikes[i]);
+			Assertions.assertEquals(values[i], valuePerStrike.get("valuePerStrike").apply(strikes[i]), 1E-14 * valueExpected, "Value per strike for strike " + strikes[i]);
+		}
+
+		// Strike not on the given ladder
+		Assertions.assertEquals(new EuropeanOption(maturity, 101.5).getValue(model), valuePerStrike.get("valuePerStrike").apply(101.5), 1E-10 * 100, "Value for strike 101.5");
+	}
+}
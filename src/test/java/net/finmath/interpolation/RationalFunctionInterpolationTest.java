@@ -0,0 +1,176 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.interpolation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.interpolation.RationalFunctionInterpolation.ExtrapolationMethod;
+import net.finmath.interpolation.RationalFunctionInterpolation.InterpolationMethod;
+
+/**
+ * Tests the lookup of the interpolation interval of {@link RationalFunctionInterpolation} on
+ * non-uniform grids against a binary search, and the consistency of {@link RationalFunctionInterpolation#getValues(double[])}
+ * with {@link RationalFunctionInterpolation#getValue(double)}.
+ *
+ * @author Christian Fries
+ */
+public class RationalFunctionInterpolationTest {
+
+	private static final double[][] pointsOfGrids = {
+			{ 1.0/365.0, 7.0/365.0, 1.0/12.0, 0.25, 0.5, 1.0, 2.0, 5.0, 10.0, 30.0, 50.0 },
+			{ -2.0, -1.999, 0.0, 0.001, 0.002, 100.0 },
+			{ 0.0, 1.0 },
+			{ 3.0 }
+	};
+
+	@Test
+	public void testLinearInterpolation() {
+		final Random random = new Random(3141);
+		for(final double[] points : pointsOfGrids) {
+			final double[] values = getRandomValues(random, points.length);
+			final RationalFunctionInterpolation interpolation = new RationalFunctionInterpolation(points, values, InterpolationMethod.LINEAR, ExtrapolationMethod.CONSTANT);
+
+			for(final double x : getArguments(random, points)) {
+				final int pointIndex = Arrays.binarySearch(points, x);
+				final double valueExpected;
+				if(pointIndex >= 0) {
+					valueExpected = values[pointIndex];
+				}
+				else if(x < points[0]) {
+					valueExpected = values[0];
+				}
+				else if(x > points[points.length-1]) {
+					valueExpected = values[points.length-1];
+				}
+				else {
+					final int intervalIndex = -pointIndex-2;
+					valueExpected = values[intervalIndex] + (values[intervalIndex+1]-values[intervalIndex]) / (points[intervalIndex+1]-points[intervalIndex]) * (x-points[intervalIndex]);
+				}
+
+				Assertions.assertEquals(valueExpected, interpolation.getValue(x), 1E-12, "Value at " + x);
+			}
+		}
+	}
+
+	@Test
+	public void testPiecewiseConstantInterpolation() {
+		final Random random = new Random(2718);
+		for(final double[] points : pointsOfGrids) {
+			final double[] values = getRandomValues(random, points.length);
+			final RationalFunctionInterpolation interpolationLeft = new RationalFunctionInterpolation(points, values, InterpolationMethod.PIECEWISE_CONSTANT_LEFTPOINT, ExtrapolationMethod.CONSTANT);
+			final RationalFunctionInterpolation interpolationRight = new RationalFunctionInterpolation(points, values, InterpolationMethod.PIECEWISE_CONSTANT_RIGHTPOINT, ExtrapolationMethod.CONSTANT);
+
+			for(final double x : getArguments(random, points)) {
+				final int pointIndex = Arrays.binarySearch(points, x);
+				final int intervalIndex = Math.min(Math.max(pointIndex >= 0 ? pointIndex : -pointIndex-2, 0), points.length-1);
+				final boolean isInterior = pointIndex < 0 && x > points[0] && x < points[points.length-1];
+
+				Assertions.assertEquals(values[intervalIndex], interpolationLeft.getValue(x), "Value at " + x);
+				Assertions.assertEquals(isInterior ? values[intervalIndex+1] : values[intervalIndex], interpolationRight.getValue(x), "Value at " + x);
+			}
+		}
+	}
+
+	@Test
+	public void testGetValues() {
+		final Random random = new Random(1618);
+		for(final double[] points : pointsOfGrids) {
+			// The harmonic spline interpolation requires at least three points
+			if(points.length < 3) {
+				continue;
+			}
+
+			final double[] values = getRandomValues(random, points.length);
+			final double[] arguments = getArguments(random, points);
+			for(final InterpolationMethod interpolationMethod : InterpolationMethod.values()) {
+				for(final ExtrapolationMethod extrapolationMethod : ExtrapolationMethod.values()) {
+					final RationalFunctionInterpolation interpolation = new RationalFunctionInterpolation(points, values, interpolationMethod, extrapolationMethod);
+					final double[] interpolatedValues = interpolation.getValues(arguments);
+					for(int i=0; i<arguments.length; i++) {
+						Assertions.assertEquals(interpolation.getValue(arguments[i]), interpolatedValues[i], interpolationMethod + ", " + extrapolationMethod + ": value at " + arguments[i]);
+					}
+					for(int i=0; i<points.length; i++) {
+						Assertions.assertEquals(values[i], interpolation.getValue(points[i]), interpolationMethod + ", " + extrapolationMethod + ": value at " + points[i]);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSerializationWithInterpolatingFunctionsOfEarlierVersions() throws ReflectiveOperationException, IOException {
+		final double[] points = pointsOfGrids[0];
+		final double[] values = getRandomValues(new Random(1414), points.length);
+		final RationalFunctionInterpolation interpolation = new RationalFunctionInterpolation(points, values, InterpolationMethod.CUBIC_SPLINE, ExtrapolationMethod.CONSTANT);
+
+		// Earlier versions serialized the interpolating functions (of the nested class RationalFunction) created by getValue
+		final Class<?> rationalFunctionClass = Class.forName(RationalFunctionInterpolation.class.getName() + "$RationalFunction");
+		final Constructor<?> rationalFunctionConstructor = rationalFunctionClass.getDeclaredConstructor();
+		rationalFunctionConstructor.setAccessible(true);
+		final Object rationalFunctions = Array.newInstance(rationalFunctionClass, points.length-1);
+		for(int intervalIndex=0; intervalIndex<points.length-1; intervalIndex++) {
+			Array.set(rationalFunctions, intervalIndex, rationalFunctionConstructor.newInstance());
+		}
+		final Field interpolatingRationalFunctionsField = RationalFunctionInterpolation.class.getDeclaredField("interpolatingRationalFunctions");
+		interpolatingRationalFunctionsField.setAccessible(true);
+		interpolatingRationalFunctionsField.set(interpolation, rationalFunctions);
+
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try(ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+			objectOutputStream.writeObject(interpolation);
+		}
+		final RationalFunctionInterpolation interpolationDeserialized;
+		try(ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+			interpolationDeserialized = (RationalFunctionInterpolation)objectInputStream.readObject();
+		}
+
+		Assertions.assertNull(interpolatingRationalFunctionsField.get(interpolationDeserialized), "Interpolating functions of earlier versions are discarded");
+		for(final double x : getArguments(new Random(1414), points)) {
+			Assertions.assertEquals(interpolation.getValue(x), interpolationDeserialized.getValue(x), "Value at " + x);
+		}
+	}
+
+	private static double[] getRandomValues(final Random random, final int numberOfValues) {
+		final double[] values = new double[numberOfValues];
+		for(int i=0; i<numberOfValues; i++) {
+			values[i] = random.nextDouble();
+		}
+		return values;
+	}
+
+	/*
+	 * Arguments covering the interpolation points, their neighbours, the interior of each interval and the extrapolation range.
+	 */
+	private static double[] getArguments(final Random random, final double[] points) {
+		final double first = points[0];
+		final double last = points[points.length-1];
+		final double range = Math.max(last - first, 1.0);
+
+		final double[] arguments = new double[points.length * 3 + 1000];
+		int argumentIndex = 0;
+		for(final double point : points) {
+			arguments[argumentIndex++] = point;
+			arguments[argumentIndex++] = Math.nextDown(point);
+			arguments[argumentIndex++] = Math.nextUp(point);
+		}
+		while(argumentIndex < arguments.length) {
+			arguments[argumentIndex++] = first - 0.1 * range + 1.2 * range * random.nextDouble();
+		}
+		return arguments;
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.marketdata.calibration;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.marketdata.calibration.CalibratedCurves.CalibrationSpec;
+import net.finmath.marketdata.model.AnalyticModel;
+import net.finmath.marketdata.model.AnalyticModelFromCurvesAndVols;
+import net.finmath.marketdata.model.curves.Curve;
+import net.finmath.marketdata.model.curves.CurveInterpolation;
+import net.finmath.marketdata.model.curves.CurveInterpolation.ExtrapolationMethod;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationEntity;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationMethod;
+import net.finmath.marketdata.model.curves.DiscountCurveInterpolation;
+import net.finmath.marketdata.model.curves.ForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveFromDiscountCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.optimizer.SolverException;
+import net.finmath.time.Schedule;
+import net.finmath.time.ScheduleGenerator;
+import net.finmath.time.businessdaycalendar.BusinessdayCalendar.DateRollConvention;
+import net.finmath.time.businessdaycalendar.BusinessdayCalendarExcludingTARGETHolidays;
+
+/**
+ * Tests the incremental recalibration {@link CalibratedCurves#getCloneRecalibrated(Map)} against a calibration
+ * from scratch to the shifted quotes.
+ *
+ * @author Christian Fries
+ */
+public class CalibratedCurvesRecalibrationTest {
+
+	private static final double calibrationAccuracy = 1E-15;
+
+	private final LocalDate referenceDate = LocalDate.of(2012, 1, 10);
+
+	private final String[] swapMaturities	= { "2Y", "3Y", "5Y", "7Y", "10Y", "15Y", "20Y", "30Y" };
+	private final double[] swapRatesOIS		= { 0.101, 0.194, 0.534, 0.895, 1.310, 1.723, 1.826, 1.910 };
+	private final double[] swapRates3M		= { 0.380, 0.485, 0.812, 1.168, 1.557, 1.942, 2.029, 2.097 };
+
+	private final AnalyticModelFromCurvesAndVols curveTemplates;
+
+	public CalibratedCurvesRecalibrationTest() {
+		final DiscountCurveInterpolation discountCurveOIS = DiscountCurveInterpolation.createDiscountCurveFromDiscountFactors("discount-EUR-OIS", referenceDate, new double[] { 0.0 }, new double[] { 1.0 }, new boolean[] { false }, InterpolationMethod.LINEAR, ExtrapolationMethod.CONSTANT, InterpolationEntity.LOG_OF_VALUE);
+		final ForwardCurve forwardCurveOIS = new ForwardCurveFromDiscountCurve("forward-EUR-OIS", "discount-EUR-OIS", referenceDate, "3M");
+		final ForwardCurve forwardCurve3M = new ForwardCurveInterpolation("forward-EUR-3M", referenceDate, "3M", new BusinessdayCalendarExcludingTARGETHolidays(), DateRollConvention.FOLLOWING, CurveInterpolation.InterpolationMethod.LINEAR, CurveInterpolation.ExtrapolationMethod.CONSTANT, CurveInterpolation.InterpolationEntity.VALUE, ForwardCurveInterpolation.InterpolationEntityForward.FORWARD, "discount-EUR-OIS");
+
+		curveTemplates = new AnalyticModelFromCurvesAndVols(new Curve[] { discountCurveOIS, forwardCurveOIS, forwardCurve3M });
+	}
+
+	@Test
+	public void testRecalibrationOfForwardCurve() throws SolverException, CloneNotSupportedException {
+		final Map<String, Double> shifts = Collections.singletonMap("EUR-3M-7Y", 0.0001);
+
+		final CalibratedCurves calibratedCurves = new CalibratedCurves(getCalibrationSpecs(Collections.emptyMap()), curveTemplates, calibrationAccuracy);
+		final CalibratedCurves recalibratedCurves = calibratedCurves.getCloneRecalibrated(shifts);
+
+		assertCurvesEqual(new CalibratedCurves(getCalibrationSpecs(shifts), curveTemplates, calibrationAccuracy).getModel(), recalibratedCurves.getModel());
+
+		// The discount curve does not depend on the forward curve and is not recalibrated
+		Assertions.assertSame(calibratedCurves.getCurve("discount-EUR-OIS"), recalibratedCurves.getCurve("discount-EUR-OIS"), "Discount curve");
+		Assertions.assertNotSame(calibratedCurves.getCurve("forward-EUR-3M"), recalibratedCurves.getCurve("forward-EUR-3M"), "Forward curve");
+
+		// The calibration products of unshifted symbols are reused
+		Assertions.assertSame(calibratedCurves.getCalibrationProductForSymbol("EUR-3M-10Y"), recalibratedCurves.getCalibrationProductForSymbol("EUR-3M-10Y"), "Calibration product");
+		Assertions.assertNotSame(calibratedCurves.getCalibrationProductForSymbol("EUR-3M-7Y"), recalibratedCurves.getCalibrationProductForSymbol("EUR-3M-7Y"), "Calibration product");
+	}
+
+	@Test
+	public void testRecalibrationOfDiscountCurve() throws SolverException, CloneNotSupportedException {
+		final Map<String, Double> shifts = Collections.singletonMap("EUR-OIS-5Y", 0.0001);
+
+		final CalibratedCurves calibratedCurves = new CalibratedCurves(getCalibrationSpecs(Collections.emptyMap()), curveTemplates, calibrationAccuracy);
+		final CalibratedCurves recalibratedCurves = calibratedCurves.getCloneRecalibrated(shifts);
+
+		// The forward curve depends on the discount curve (through the discounting of the swaps) and is recalibrated too
+		Assertions.assertNotSame(calibratedCurves.getCurve("forward-EUR-3M"), recalibratedCurves.getCurve("forward-EUR-3M"), "Forward curve");
+
+		assertCurvesEqual(new CalibratedCurves(getCalibrationSpecs(shifts), curveTemplates, calibrationAccuracy).getModel(), recalibratedCurves.getModel());
+
+		// Consecutive recalibrations
+		final Map<String, Double> shiftsBack = Collections.singletonMap("EUR-OIS-5Y", -0.0001);
+		assertCurvesEqual(calibratedCurves.getModel(), recalibratedCurves.getCloneRecalibrated(shiftsBack).getModel());
+	}
+
+	@Test
+	public void testRecalibrationWithoutShifts() throws SolverException, CloneNotSupportedException {
+		final CalibratedCurves calibratedCurves = new CalibratedCurves(getCalibrationSpecs(Collections.emptyMap()), curveTemplates, calibrationAccuracy);
+		final CalibratedCurves recalibratedCurves = calibratedCurves.getCloneRecalibrated(Collections.singletonMap("unknown symbol", 0.0001));
+
+		Assertions.assertSame(calibratedCurves.getModel(), recalibratedCurves.getModel(), "Model");
+		Assertions.assertEquals(0, recalibratedCurves.getLastNumberOfInterations(), "Number of iterations");
+	}
+
+	private void assertCurvesEqual(final AnalyticModel expected, final AnalyticModel actual) {
+		for(double time = 0.25; time < 30.0; time += 0.25) {
+			Assertions.assertEquals(
+					expected.getDiscountCurve("discount-EUR-OIS").getDiscountFactor(expected, time),
+					actual.getDiscountCurve("discount-EUR-OIS").getDiscountFactor(actual, time),
+					1E-12, "Discount factor at " + time);
+			Assertions.assertEquals(
+					expected.getForwardCurve("forward-EUR-3M").getForward(expected, time),
+					actual.getForwardCurve("forward-EUR-3M").getForward(actual, time),
+					1E-12, "Forward at " + time);
+		}
+	}
+
+	private CalibrationSpec[] getCalibrationSpecs(final Map<String, Double> shifts) {
+		final List<CalibrationSpec> calibrationSpecs = new ArrayList<>();
+		for(int i=0; i<swapMaturities.length; i++) {
+			final String symbol = "EUR-OIS-" + swapMaturities[i];
+			calibrationSpecs.add(getSwapOIS(symbol, swapMaturities[i], swapRatesOIS[i] / 100.0 + shifts.getOrDefault(symbol, 0.0)));
+		}
+		for(int i=0; i<swapMaturities.length; i++) {
+			final String symbol = "EUR-3M-" + swapMaturities[i];
+			calibrationSpecs.add(getSwap3M(symbol, swapMaturities[i], swapRates3M[i] / 100.0 + shifts.getOrDefault(symbol, 0.0)));
+		}
+		return calibrationSpecs.toArray(new CalibrationSpec[calibrationSpecs.size()]);
+	}
+
+	private CalibrationSpec getSwapOIS(final String symbol, final String maturity, final double rate) {
+		final Schedule scheduleReceiver = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "annual", "act/360", "first", "modified_following", new BusinessdayCalendarExcludingTARGETHolidays(), 0, 1);
+		final Schedule schedulePayer = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "annual", "act/360", "first", "modified_following", new BusinessdayCalendarExcludingTARGETHolidays(), 0, 1);
+		final double calibrationTime = scheduleReceiver.getPayment(scheduleReceiver.getNumberOfPeriods() - 1);
+		return new CalibrationSpec(symbol, "Swap", scheduleReceiver, "forward-EUR-OIS", 0.0, "discount-EUR-OIS", schedulePayer, "", rate, "discount-EUR-OIS", "discount-EUR-OIS", calibrationTime);
+	}
+
+	private CalibrationSpec getSwap3M(final String symbol, final String maturity, final double rate) {
+		final Schedule scheduleReceiver = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "quarterly", "act/360", "first", "following", new BusinessdayCalendarExcludingTARGETHolidays(), 0, 0);
+		final Schedule schedulePayer = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "annual", "E30/360", "first", "following", new BusinessdayCalendarExcludingTARGETHolidays(), 0, 0);
+		final double calibrationTime = scheduleReceiver.getFixing(scheduleReceiver.getNumberOfPeriods() - 1);
+		return new CalibrationSpec(symbol, "Swap", scheduleReceiver, "forward-EUR-3M", 0.0, "discount-EUR-OIS", schedulePayer, "", rate, "discount-EUR-OIS", "forward-EUR-3M", calibrationTime);
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.marketdata.model.curves;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.marketdata.model.curves.CurveInterpolation.ExtrapolationMethod;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationEntity;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationMethod;
+
+/**
+ * Tests the value cache of {@link CurveInterpolation}: concurrent evaluations (more distinct times than the cache can hold)
+ * and the consistency of {@link CurveInterpolation#getValues(double[])} with {@link CurveInterpolation#getValue(double)}.
+ *
+ * @author Christian Fries
+ */
+public class CurveInterpolationValueCacheTest {
+
+	private static final double[] times = { 0.0, 0.25, 0.5, 1.0, 2.0, 3.0, 5.0, 7.0, 10.0, 15.0, 20.0, 30.0 };
+	private static final double[] values = { 1.0, 0.995, 0.99, 0.98, 0.96, 0.94, 0.9, 0.86, 0.8, 0.72, 0.65, 0.52 };
+
+	@Test
+	public void testConcurrentValues() throws Exception {
+		final int numberOfThreads = 8;
+		final int numberOfEvaluations = 400000;
+
+		// More distinct times than the maximum capacity of the cache, such that the cache is grown and discarded
+		final double[] arguments = new double[100000];
+		final Random random = new Random(3141);
+		for(int i=0; i<arguments.length; i++) {
+			arguments[i] = random.nextDouble() * 35.0 - 1.0;
+		}
+
+		final CurveInterpolation referenceCurve = getCurve();
+		final double[] valuesExpected = new double[arguments.length];
+		for(int i=0; i<arguments.length; i++) {
+			valuesExpected[i] = referenceCurve.getValue(arguments[i]);
+		}
+
+		final CurveInterpolation curve = getCurve();
+		final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			final List<Future<Void>> results = new ArrayList<>();
+			for(int threadIndex=0; threadIndex<numberOfThreads; threadIndex++) {
+				final Random randomOfThread = new Random(threadIndex);
+				final Callable<Void> evaluations = () -> {
+					for(int evaluationIndex=0; evaluationIndex<numberOfEvaluations; evaluationIndex++) {
+						// Draw from a small set of times (frequent hits) or from all times (frequent misses)
+						final int argumentIndex = randomOfThread.nextInt(evaluationIndex % 2 == 0 ? 100 : arguments.length);
+						Assertions.assertEquals(valuesExpected[argumentIndex], curve.getValue(arguments[argumentIndex]), () -> "Value at " + arguments[argumentIndex]);
+					}
+					return null;
+				};
+				results.add(executor.submit(evaluations));
+			}
+
+			Assertions.assertTimeoutPreemptively(Duration.ofMinutes(2), () -> {
+				for(final Future<Void> result : results) {
+					result.get();
+				}
+			});
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testGetValues() {
+		final Random random = new Random(2718);
+		final double[] arguments = new double[1000];
+		for(int i=0; i<arguments.length; i++) {
+			// Some times are repeated, some are sample points
+			arguments[i] = i % 10 == 0 ? times[random.nextInt(times.length)] : Math.floor(random.nextDouble() * 350.0) / 10.0 - 1.0;
+		}
+
+		final CurveInterpolation referenceCurve = getCurve();
+		final CurveInterpolation curve = getCurve();
+
+		// Evaluate some of the times before, such that getValues has cache hits and misses
+		for(int i=0; i<arguments.length; i+=3) {
+			curve.getValue(arguments[i]);
+		}
+
+		for(int repetition=0; repetition<2; repetition++) {
+			final double[] valuesOfCurve = curve.getValues(arguments);
+			for(int i=0; i<arguments.length; i++) {
+				Assertions.assertEquals(referenceCurve.getValue(arguments[i]), valuesOfCurve[i], "Value at " + arguments[i]);
+			}
+		}
+	}
+
+	private static CurveInterpolation getCurve() {
+		return new CurveInterpolation("curve", LocalDate.of(2026, 10, 18), InterpolationMethod.CUBIC_SPLINE, ExtrapolationMethod.CONSTANT, InterpolationEntity.LOG_OF_VALUE, times, values);
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.marketdata.products;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.marketdata.calibration.ParameterObject;
+import net.finmath.marketdata.model.AnalyticModel;
+import net.finmath.marketdata.model.AnalyticModelFromCurvesAndVols;
+import net.finmath.marketdata.model.curves.Curve;
+import net.finmath.marketdata.model.curves.CurveInterpolation.ExtrapolationMethod;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationEntity;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationMethod;
+import net.finmath.marketdata.model.curves.DiscountCurveInterpolation;
+import net.finmath.marketdata.model.curves.ForwardCurveFromDiscountCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.marketdata.products.AnalyticProductWithCurveSensitivities.CurveSensitivities;
+import net.finmath.time.Schedule;
+import net.finmath.time.ScheduleGenerator;
+import net.finmath.time.businessdaycalendar.BusinessdayCalendarExcludingTARGETHolidays;
+
+/**
+ * Tests the curve sensitivities of the products implementing {@link AnalyticProductWithCurveSensitivities}:
+ * the change of the curve values times the sensitivities has to match the change of the value of the product,
+ * for a shift of each curve parameter.
+ *
+ * @author Christian Fries
+ */
+public class AnalyticProductWithCurveSensitivitiesTest {
+
+	private static final double parameterShift = 1E-6;
+
+	private final LocalDate referenceDate = LocalDate.of(2012, 1, 10);
+	private final AnalyticModel model;
+
+	public AnalyticProductWithCurveSensitivitiesTest() {
+		final double[] times = { 0.5, 1.0, 2.0, 3.0, 5.0, 7.0, 10.0 };
+		final boolean[] isParameter = new boolean[times.length];
+		Arrays.fill(isParameter, true);
+
+		final double[] discountFactorsEUR = new double[times.length];
+		final double[] discountFactorsUSD = new double[times.length];
+		final double[] forwards = new double[times.length];
+		for(int i=0; i<times.length; i++) {
+			discountFactorsEUR[i] = Math.exp(-(0.01 + 0.002 * times[i]) * times[i]);
+			discountFactorsUSD[i] = Math.exp(-(0.02 + 0.001 * times[i]) * times[i]);
+			forwards[i] = 0.015 + 0.003 * Math.sqrt(times[i]);
+		}
+
+		final Curve discountCurveEUR = DiscountCurveInterpolation.createDiscountCurveFromDiscountFactors("discount-EUR", referenceDate, times, discountFactorsEUR, isParameter, InterpolationMethod.LINEAR, ExtrapolationMethod.CONSTANT, InterpolationEntity.LOG_OF_VALUE);
+		final Curve discountCurveUSD = DiscountCurveInterpolation.createDiscountCurveFromDiscountFactors("discount-USD", referenceDate, times, discountFactorsUSD, isParameter, InterpolationMethod.CUBIC_SPLINE, ExtrapolationMethod.CONSTANT, InterpolationEntity.LOG_OF_VALUE_PER_TIME);
+		final Curve forwardCurveOIS = new ForwardCurveFromDiscountCurve("forward-EUR-OIS", "discount-EUR", referenceDate, "3M");
+		final Curve forwardCurve3M = ForwardCurveInterpolation.createForwardCurveFromForwards("forward-EUR-3M", times, forwards, 0.25);
+
+		model = new AnalyticModelFromCurvesAndVols(new Curve[] { discountCurveEUR, discountCurveUSD, forwardCurveOIS, forwardCurve3M });
+	}
+
+	@Test
+	public void testDeposit() {
+		assertCurveSensitivities(new Deposit(getSchedule("6M", "tenor"), 0.012, "discount-EUR"));
+	}
+
+	@Test
+	public void testForwardRateAgreement() {
+		final Schedule schedule = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "9M", "3M", "tenor", "act/360", "first", "following", new BusinessdayCalendarExcludingTARGETHolidays(), -2, 0);
+		assertCurveSensitivities(new ForwardRateAgreement(schedule, 0.02, "forward-EUR-3M", "discount-EUR", true));
+		assertCurveSensitivities(new ForwardRateAgreement(schedule, 0.02, "forward-EUR-3M", "discount-EUR", false));
+	}
+
+	@Test
+	public void testSwapLeg() {
+		assertCurveSensitivities(new SwapLeg(getSchedule("8Y", "quarterly"), "forward-EUR-3M", 0.001, "discount-EUR", true));
+		assertCurveSensitivities(new SwapLeg(getSchedule("8Y", "annual"), "", 0.02, "discount-EUR", false));
+	}
+
+	@Test
+	public void testSwapLegWithNotionalReset() {
+		assertCurveSensitivities(new SwapLeg(getSchedule("8Y", "quarterly"), "forward-EUR-3M", 0.001, "discount-EUR", "discount-USD", true));
+	}
+
+	@Test
+	public void testSwap() {
+		final SwapLeg legReceiver = new SwapLeg(getSchedule("12Y", "quarterly"), "forward-EUR-3M", 0.0, "discount-EUR", true);
+		final SwapLeg legPayer = new SwapLeg(getSchedule("12Y", "annual"), "", 0.02, "discount-EUR", true);
+		assertCurveSensitivities(new Swap(legReceiver, legPayer));
+
+		final SwapLeg legReceiverOIS = new SwapLeg(getSchedule("12Y", "annual"), "forward-EUR-OIS", 0.0, "discount-EUR", true);
+		assertCurveSensitivities(new Swap(legReceiverOIS, legPayer));
+
+		// A swap with a leg not providing its curve sensitivities
+		final Swap swapWithCashflow = new Swap(legReceiver, new Cashflow("EUR", 1.0, 5.0, false, "discount-EUR"));
+		Assertions.assertFalse(swapWithCashflow.isCurveSensitivitiesSupported(), "Curve sensitivities supported");
+	}
+
+	private Schedule getSchedule(final String maturity, final String frequency) {
+		return ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, frequency, "act/360", "first", "following", new BusinessdayCalendarExcludingTARGETHolidays(), -2, 0);
+	}
+
+	private void assertCurveSensitivities(final AnalyticProductWithCurveSensitivities product) {
+		Assertions.assertTrue(product.isCurveSensitivitiesSupported(), "Curve sensitivities supported");
+
+		final double value = product.getValue(0.0, model);
+
+		// The curve values as functions of the model and the sensitivities with respect to them
+		final List<ToDoubleFunction<AnalyticModel>> curveValues = new ArrayList<>();
+		final List<Double> sensitivities = new ArrayList<>();
+		product.addCurveSensitivities(0.0, model, 1.0, new CurveSensitivities() {
+			@Override
+			public void addDiscountFactorSensitivity(final String discountCurveName, final double maturity, final double sensitivity) {
+				curveValues.add(curveModel -> curveModel.getDiscountCurve(discountCurveName).getDiscountFactor(curveModel, maturity));
+				sensitivities.add(sensitivity);
+			}
+
+			@Override
+			public void addForwardSensitivity(final String forwardCurveName, final double fixingTime, final double paymentOffset, final double sensitivity) {
+				curveValues.add(curveModel -> curveModel.getForwardCurve(forwardCurveName).getForward(curveModel, fixingTime, paymentOffset));
+				sensitivities.add(sensitivity);
+			}
+		});
+
+		for(final String curveName : new String[] { "discount-EUR", "discount-USD", "forward-EUR-3M" }) {
+			final ParameterObject curve = model.getCurve(curveName);
+			final double[] parameters = curve.getParameter();
+			for(int parameterIndex=0; parameterIndex<parameters.length; parameterIndex++) {
+				final double[] parametersShifted = parameters.clone();
+				parametersShifted[parameterIndex] += parameterShift;
+
+				final AnalyticModel modelShifted;
+				try {
+					modelShifted = model.getCloneForParameter(Collections.singletonMap(curve, parametersShifted));
+				} catch (final CloneNotSupportedException e) {
+					throw new RuntimeException(e);
+				}
+
+				double valueShiftFromSensitivities = 0.0;
+				for(int i=0; i<curveValues.size(); i++) {
+					valueShiftFromSensitivities += sensitivities.get(i) * (curveValues.get(i).applyAsDouble(modelShifted) - curveValues.get(i).applyAsDouble(model));
+				}
+				final double valueShift = product.getValue(0.0, modelShifted) - value;
+
+				Assertions.assertEquals(valueShift / parameterShift, valueShiftFromSensitivities / parameterShift, 1E-5, "Derivative with respect to parameter " + parameterIndex + " of " + curveName);
+			}
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.functions.AnalyticFormulas;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel.Scheme;
+import net.finmath.montecarlo.process.MonteCarloProcess;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the moments, the reproducibility, the path block view and the use with an Euler scheme of {@link BrownianMotionStreaming}.
+ *
+ * @author Christian Fries
+ */
+public class BrownianMotionStreamingTest {
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 20, 0.25);
+
+	@Test
+	public void testMoments() {
+		final int numberOfPaths = 200000;
+		final BrownianMotion brownianMotion = new BrownianMotionStreaming(timeDiscretization, 2, numberOfPaths, 3141, 1000, new RandomVariableFromArrayFactory());
+
+		final double tolerance = 5.0 / Math.sqrt(numberOfPaths);
+		RandomVariable previousIncrement = null;
+		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			final double deltaT = timeDiscretization.getTimeStep(timeIndex);
+			final RandomVariable[] increment = brownianMotion.getIncrement(timeIndex);
+			for(int factor=0; factor<2; factor++) {
+				Assertions.assertEquals(0.0, increment[factor].getAverage() / Math.sqrt(deltaT), tolerance, "Mean");
+				Assertions.assertEquals(1.0, increment[factor].getVariance() / deltaT, 2 * tolerance, "Variance");
+			}
+			Assertions.assertEquals(0.0, increment[0].mult(increment[1]).getAverage() / deltaT, tolerance, "Correlation of factors");
+			if(previousIncrement != null) {
+				Assertions.assertEquals(0.0, increment[0].mult(previousIncrement).getAverage() / deltaT, tolerance, "Correlation of time steps");
+			}
+			previousIncrement = increment[0];
+		}
+	}
+
+	@Test
+	public void testReproducibility() {
+		final int numberOfPaths = 10007;
+		final BrownianMotionStreaming brownianMotion = new BrownianMotionStreaming(timeDiscretization, 3, numberOfPaths, 3141, 1000, new RandomVariableFromArrayFactory());
+
+		final RandomVariable increment = brownianMotion.getBrownianIncrement(3, 1);
+		brownianMotion.getBrownianIncrement(5, 1);
+
+		// The time slice has been released and is generated again
+		final RandomVariable incrementRegenerated = brownianMotion.getBrownianIncrement(3, 1);
+		Assertions.assertNotSame(increment, incrementRegenerated);
+		Assertions.assertEquals(0.0, increment.sub(incrementRegenerated).abs().getMax(), 0.0, "Regenerated increment");
+
+		// A clone generates the same increments
+		final RandomVariable incrementOfClone = brownianMotion.getCloneWithModifiedSeed(3141).getBrownianIncrement(3, 1);
+		Assertions.assertEquals(0.0, increment.sub(incrementOfClone).abs().getMax(), 0.0, "Increment of clone");
+
+		// The increments on a range of paths are the restriction of the increments
+		final int firstPath = 1500;
+		final int lastPath = 4321;
+		final RandomVariable incrementOnPaths = brownianMotion.getIncrement(3, firstPath, lastPath)[1];
+		Assertions.assertEquals(lastPath - firstPath, incrementOnPaths.size());
+		for(int path=firstPath; path<lastPath; path++) {
+			Assertions.assertEquals(increment.get(path), incrementOnPaths.get(path - firstPath), 0.0, "Increment on path " + path);
+		}
+	}
+
+	@Test
+	public void testPathBlockView() {
+		final int numberOfPaths = 10007;
+		final BrownianMotionStreaming brownianMotion = new BrownianMotionStreaming(timeDiscretization, 3, numberOfPaths, 3141, 1000, new RandomVariableFromArrayFactory());
+
+		final int firstPath = 1500;
+		final int lastPath = 4321;
+		final IndependentIncrements incrementsOnBlock = new IndependentIncrementsPathBlockView(brownianMotion, firstPath, lastPath);
+
+		// The factors of a time step are generated once (and retained until another time step is requested)
+		final RandomVariable[] increments = incrementsOnBlock.getIncrement(3);
+		for(int factor=0; factor<3; factor++) {
+			Assertions.assertSame(increments[factor], incrementsOnBlock.getIncrement(3, factor), "Retained increment of factor " + factor);
+
+			final RandomVariable increment = brownianMotion.getBrownianIncrement(3, factor);
+			for(int path=firstPath; path<lastPath; path++) {
+				Assertions.assertEquals(increment.get(path), increments[factor].get(path - firstPath), 0.0, "Increment on path " + path);
+			}
+		}
+	}
+
+	@Test
+	public void testEulerScheme() throws CalculationException {
+		final int numberOfPaths = 100000;
+		final double initialValue = 100.0;
+		final double riskFreeRate = 0.05;
+		final double volatility = 0.30;
+		final double strike = 110.0;
+		final double maturity = timeDiscretization.getLastTime();
+
+		final BlackScholesModel model = new BlackScholesModel(initialValue, riskFreeRate, volatility);
+		final BrownianMotion brownianMotion = new BrownianMotionStreaming(timeDiscretization, 1, numberOfPaths, 3141, 1000, new RandomVariableFromArrayFactory());
+
+		final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion, Scheme.EULER_FUNCTIONAL);
+		final MonteCarloProcess processOnPathBlocks = new EulerSchemeFromProcessModel(model, brownianMotion, Scheme.EULER_FUNCTIONAL, 3000);
+
+		final RandomVariable underlying = process.getProcessValue(timeDiscretization.getNumberOfTimes() - 1, 0);
+		final RandomVariable underlyingOnPathBlocks = processOnPathBlocks.getProcessValue(timeDiscretization.getNumberOfTimes() - 1, 0);
+		Assertions.assertEquals(0.0, underlying.sub(underlyingOnPathBlocks).abs().getMax(), 0.0, "Process on path blocks");
+
+		final double value = underlying.sub(strike).floor(0.0).getAverage() * Math.exp(-riskFreeRate * maturity);
+		final double valueAnalytic = AnalyticFormulas.blackScholesOptionValue(initialValue, riskFreeRate, volatility, maturity, strike);
+		Assertions.assertEquals(valueAnalytic, value, 0.2, "Value of call option");
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.functions.NormalDistribution;
+import net.finmath.randomnumbers.MersenneTwister;
+import net.finmath.randomnumbers.RandomNumberGenerator;
+import net.finmath.randomnumbers.SobolSequence;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests that the Brownian motions generated concurrently from substreams agree with the
+ * increments generated sequentially from a single random number sequence.
+ *
+ * @author Christian Fries
+ */
+public class BrownianMotionSubstreamsTest {
+
+	@Test
+	public void testBrownianMotionFromMersenneRandomNumbers() {
+		final int seed = 3141;
+		final int numberOfPaths = 100003;
+		final int numberOfFactors = 2;
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 100, 0.1);
+
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, numberOfFactors, numberOfPaths, seed);
+
+		// Sequential generation from a single generator
+		final org.apache.commons.math3.random.MersenneTwister mersenneTwister = new org.apache.commons.math3.random.MersenneTwister((long)seed);
+		final double[][][] brownianIncrementsExpected = new double[timeDiscretization.getNumberOfTimeSteps()][numberOfFactors][numberOfPaths];
+		for(int path=0; path<numberOfPaths; path++) {
+			for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					brownianIncrementsExpected[timeIndex][factor][path] = NormalDistribution.inverseCumulativeDistribution(mersenneTwister.nextDouble()) * Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+				}
+			}
+		}
+
+		assertIncrementsEqual(brownianIncrementsExpected, brownianMotion);
+	}
+
+	@Test
+	public void testBrownianMotionFromSobolSequence() {
+		final int numberOfPaths = 10007;
+		final int numberOfFactors = 3;
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 10, 0.1);
+
+		final BrownianMotion brownianMotion = new BrownianMotionFromRandomNumberGenerator(timeDiscretization, numberOfFactors, numberOfPaths, new SobolSequence(timeDiscretization.getNumberOfTimeSteps() * numberOfFactors));
+
+		// Sequential generation from a single generator
+		final SobolSequence sobolSequence = new SobolSequence(timeDiscretization.getNumberOfTimeSteps() * numberOfFactors);
+		final double[][][] brownianIncrementsExpected = new double[timeDiscretization.getNumberOfTimeSteps()][numberOfFactors][numberOfPaths];
+		for(int path=0; path<numberOfPaths; path++) {
+			final double[] randomNumbers = sobolSequence.getNext();
+			for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					brownianIncrementsExpected[timeIndex][factor][path] = NormalDistribution.inverseCumulativeDistribution(randomNumbers[timeIndex * numberOfFactors + factor]) * Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+				}
+			}
+		}
+
+		assertIncrementsEqual(brownianIncrementsExpected, brownianMotion);
+	}
+
+	@Test
+	public void testBrownianMotionFromSobolSequenceWithModifiedSeed() {
+		final int numberOfPaths = 1000;
+		final int numberOfFactors = 2;
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 10, 0.1);
+		final int dimension = timeDiscretization.getNumberOfTimeSteps() * numberOfFactors;
+
+		final BrownianMotion brownianMotion = new BrownianMotionFromRandomNumberGenerator(timeDiscretization, numberOfFactors, numberOfPaths, new SobolSequence(dimension));
+		final BrownianMotion brownianMotionClone = brownianMotion.getCloneWithModifiedSeed(0);
+
+		// The clone shares the generator, continuing its sequence after the block used by the Brownian motion
+		final SobolSequence sobolSequence = new SobolSequence(dimension);
+		final double[][][] brownianIncrementsExpected = getBrownianIncrements(sobolSequence, timeDiscretization, numberOfFactors, numberOfPaths);
+		final double[][][] brownianIncrementsExpectedForClone = getBrownianIncrements(sobolSequence, timeDiscretization, numberOfFactors, numberOfPaths);
+
+		assertIncrementsEqual(brownianIncrementsExpected, brownianMotion);
+		assertIncrementsEqual(brownianIncrementsExpectedForClone, brownianMotionClone);
+	}
+
+	@Test
+	public void testBrownianMotionsSharingSobolSequence() {
+		final int numberOfPaths = 1000;
+		final int numberOfFactors = 2;
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 10, 0.1);
+		final int dimension = timeDiscretization.getNumberOfTimeSteps() * numberOfFactors;
+
+		assertBrownianMotionsSharingGenerator(new SobolSequence(dimension), new SobolSequence(dimension), timeDiscretization, numberOfFactors, numberOfPaths);
+	}
+
+	@Test
+	public void testBrownianMotionsSharingMersenneTwister() {
+		final int numberOfPaths = 1000;
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 1, 0.1);
+
+		assertBrownianMotionsSharingGenerator(new MersenneTwister(3141), new MersenneTwister(3141), timeDiscretization, 1, numberOfPaths);
+	}
+
+	/*
+	 * Two Brownian motions sharing a generator (which has already been used) continue its sequence, as a single thread drawing from the generator.
+	 */
+	private static void assertBrownianMotionsSharingGenerator(final RandomNumberGenerator randomNumberGenerator, final RandomNumberGenerator randomNumberGeneratorForExpected,
+			final TimeDiscretization timeDiscretization, final int numberOfFactors, final int numberOfPaths) {
+		randomNumberGenerator.getNext();
+
+		final BrownianMotion brownianMotion1 = new BrownianMotionFromRandomNumberGenerator(timeDiscretization, numberOfFactors, numberOfPaths, randomNumberGenerator);
+		final BrownianMotion brownianMotion2 = new BrownianMotionFromRandomNumberGenerator(timeDiscretization, numberOfFactors, numberOfPaths, randomNumberGenerator);
+
+		// Sequential generation from a single generator, in the order the increments are generated
+		randomNumberGeneratorForExpected.getNext();
+		final double[][][] brownianIncrementsExpected1 = getBrownianIncrements(randomNumberGeneratorForExpected, timeDiscretization, numberOfFactors, numberOfPaths);
+		final double[][][] brownianIncrementsExpected2 = getBrownianIncrements(randomNumberGeneratorForExpected, timeDiscretization, numberOfFactors, numberOfPaths);
+		final double[] randomNumbersExpected = randomNumberGeneratorForExpected.getNext();
+
+		assertIncrementsEqual(brownianIncrementsExpected1, brownianMotion1);
+		assertIncrementsEqual(brownianIncrementsExpected2, brownianMotion2);
+
+		// The generator continues after the numbers used by the Brownian motions
+		Assertions.assertArrayEquals(randomNumbersExpected, randomNumberGenerator.getNext(), "Random numbers after the Brownian motions");
+	}
+
+	private static double[][][] getBrownianIncrements(final RandomNumberGenerator randomNumberGenerator, final TimeDiscretization timeDiscretization, final int numberOfFactors, final int numberOfPaths) {
+		final double[][][] brownianIncrements = new double[timeDiscretization.getNumberOfTimeSteps()][numberOfFactors][numberOfPaths];
+		for(int path=0; path<numberOfPaths; path++) {
+			final double[] randomNumbers = randomNumberGenerator.getNext();
+			for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					brownianIncrements[timeIndex][factor][path] = NormalDistribution.inverseCumulativeDistribution(randomNumbers[timeIndex * numberOfFactors + factor]) * Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+				}
+			}
+		}
+		return brownianIncrements;
+	}
+
+	private static void assertIncrementsEqual(final double[][][] brownianIncrementsExpected, final BrownianMotion brownianMotion) {
+		for(int timeIndex=0; timeIndex<brownianIncrementsExpected.length; timeIndex++) {
+			for(int factor=0; factor<brownianIncrementsExpected[timeIndex].length; factor++) {
+				final RandomVariable brownianIncrement = brownianMotion.getBrownianIncrement(timeIndex, factor);
+				for(int path=0; path<brownianIncrementsExpected[timeIndex][factor].length; path++) {
+					if(brownianIncrementsExpected[timeIndex][factor][path] != brownianIncrement.get(path)) {
+						Assertions.fail("Increment differs at time index " + timeIndex + ", factor " + factor + ", path " + path + ".");
+					}
+				}
+			}
+		}
+	}
+}
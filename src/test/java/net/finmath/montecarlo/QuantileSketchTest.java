@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Tests the approximation of the quantiles by {@link QuantileSketch} against the exact quantiles.
+ *
+ * @author Christian Fries
+ */
+public class QuantileSketchTest {
+
+	private static final double[] QUANTILES = new double[] { 0.0001, 0.001, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 0.999, 0.9999 };
+
+	@Test
+	public void testQuantilesOfPathBlocks() {
+		final int numberOfPaths = 1000000;
+		final int numberOfPathsPerBlock = 100000;
+
+		final Random random = new Random(3141);
+		final double[] values = new double[numberOfPaths];
+		for(int i=0; i<values.length; i++) {
+			// A skewed distribution
+			values[i] = Math.exp(random.nextGaussian());
+		}
+
+		// Each block is summarized by its own sketch, the sketches are combined
+		final QuantileSketch sketch = new QuantileSketch();
+		for(int blockStart=0; blockStart<numberOfPaths; blockStart+=numberOfPathsPerBlock) {
+			final RandomVariable valuesOfBlock = new RandomVariableFromDoubleArray(0.0, Arrays.copyOfRange(values, blockStart, blockStart+numberOfPathsPerBlock));
+			final QuantileSketch sketchOfBlock = new QuantileSketch();
+			sketchOfBlock.add(valuesOfBlock);
+			sketch.add(sketchOfBlock);
+		}
+
+		Assertions.assertEquals(numberOfPaths, sketch.getNumberOfValues(), "Number of values");
+
+		final double[] valuesSorted = values.clone();
+		Arrays.sort(valuesSorted);
+		Assertions.assertEquals(valuesSorted[0], sketch.getQuantile(0.0), "Minimum");
+		Assertions.assertEquals(valuesSorted[numberOfPaths-1], sketch.getQuantile(1.0), "Maximum");
+
+		final double[] quantileValues = sketch.getQuantiles(QUANTILES);
+		for(int i=0; i<QUANTILES.length; i++) {
+			// The rank of the approximated quantile value
+			final double rank = (double)Math.abs(Arrays.binarySearch(valuesSorted, quantileValues[i])) / numberOfPaths;
+			final double rankError = Math.abs(rank - QUANTILES[i]);
+
+			// The t-digest is more accurate in the tails
+			Assertions.assertTrue(rankError < 0.02 * Math.sqrt(QUANTILES[i] * (1-QUANTILES[i])) + 1E-5, "Rank error of quantile " + QUANTILES[i] + ": " + rankError);
+		}
+	}
+
+	@Test
+	public void testSmallNumberOfValues() {
+		final QuantileSketch sketch = new QuantileSketch();
+		Assertions.assertTrue(Double.isNaN(sketch.getQuantile(0.5)), "Empty sketch");
+
+		sketch.add(new RandomVariableFromDoubleArray(0.0, new double[] { 3.0, 1.0, 2.0 }));
+		Assertions.assertEquals(1.0, sketch.getQuantile(0.0), "Minimum");
+		Assertions.assertEquals(2.0, sketch.getQuantile(0.5), "Median");
+		Assertions.assertEquals(3.0, sketch.getQuantile(1.0), "Maximum");
+	}
+}
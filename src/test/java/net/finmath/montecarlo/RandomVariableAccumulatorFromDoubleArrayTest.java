@@ -0,0 +1,197 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.marketdata.model.curves.DiscountCurveFromForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.montecarlo.automaticdifferentiation.backward.RandomVariableDifferentiableAADFactory;
+import net.finmath.montecarlo.interestrate.CalibrationProduct;
+import net.finmath.montecarlo.interestrate.LIBORMarketModel;
+import net.finmath.montecarlo.interestrate.models.LIBORMarketModelFromCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCorrelationModelExponentialDecay;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelFromVolatilityAndCorrelation;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORVolatilityModelFourParameterExponentialForm;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel;
+import net.finmath.montecarlo.process.MonteCarloProcess;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.RandomVariableAccumulator;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests for {@link RandomVariableAccumulatorFromDoubleArray}.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableAccumulatorFromDoubleArrayTest {
+
+	private final int numberOfPaths = 1000;
+
+	@Test
+	public void testAccumulateAgainstImmutableOperations() {
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+
+		final RandomVariable initialValue = new RandomVariableFromDoubleArray(0.0, getRandomRealizations(mersenneTwister));
+		final RandomVariable x = new RandomVariableFromDoubleArray(1.0, getRandomRealizations(mersenneTwister));
+		final RandomVariable y = new RandomVariableFromDoubleArray(2.0, getRandomRealizations(mersenneTwister));
+		final RandomVariable constant = new RandomVariableFromDoubleArray(0.7);
+
+		final RandomVariableAccumulator accumulator = new RandomVariableAccumulatorFromDoubleArray(initialValue, numberOfPaths);
+		accumulator.accumulate(x);
+		accumulator.accumulateProduct(x, 0.25);
+		accumulator.accumulateProduct(x, y);
+		accumulator.accumulateProduct(constant, y);
+		accumulator.accumulateSumProduct(new RandomVariable[] { x, constant }, new RandomVariable[] { y, y });
+
+		final RandomVariable expected = initialValue.add(x).addProduct(x, 0.25).addProduct(x, y).addProduct(constant, y)
+				.addProduct(x, y).addProduct(constant, y);
+
+		final RandomVariable actual = accumulator.get();
+		Assertions.assertEquals(expected.getFiltrationTime(), actual.getFiltrationTime(), 0.0);
+		Assertions.assertArrayEquals(expected.getRealizations(), actual.getRealizations(), 0.0);
+
+		// The cached value is a copy which does not change with further accumulation
+		final RandomVariable cached = accumulator.cache();
+		accumulator.accumulate(x);
+		Assertions.assertArrayEquals(expected.getRealizations(), cached.getRealizations(), 0.0);
+		Assertions.assertArrayEquals(expected.add(x).getRealizations(), accumulator.getRealizations(), 0.0);
+	}
+
+	@Test
+	public void testQuantilesOfPathBlocks() {
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+		final int numberOfBlocks = 50;
+
+		// The value x + x y is accumulated on each block of paths, re-using the buffer, and fed to the sketch
+		final RandomVariableAccumulatorFromDoubleArray accumulator = new RandomVariableAccumulatorFromDoubleArray(numberOfPaths);
+		final QuantileSketch sketch = new QuantileSketch();
+		final double[] values = new double[numberOfBlocks * numberOfPaths];
+		for(int blockIndex=0; blockIndex<numberOfBlocks; blockIndex++) {
+			final RandomVariable x = new RandomVariableFromDoubleArray(1.0, getRandomRealizations(mersenneTwister));
+			final RandomVariable y = new RandomVariableFromDoubleArray(2.0, getRandomRealizations(mersenneTwister));
+
+			accumulator.reset();
+			accumulator.accumulate(x);
+			accumulator.accumulateProduct(x, y);
+			accumulator.addTo(sketch);
+
+			System.arraycopy(x.add(x.mult(y)).getRealizations(), 0, values, blockIndex * numberOfPaths, numberOfPaths);
+		}
+
+		Assertions.assertEquals(values.length, sketch.getNumberOfValues(), "Number of values");
+
+		final double[] valuesSorted = values.clone();
+		Arrays.sort(valuesSorted);
+		Assertions.assertEquals(valuesSorted[0], sketch.getQuantile(0.0), "Minimum");
+		Assertions.assertEquals(valuesSorted[values.length-1], sketch.getQuantile(1.0), "Maximum");
+		for(final double quantile : new double[] { 0.01, 0.05, 0.5, 0.95, 0.99 }) {
+			final double rank = (double)Math.abs(Arrays.binarySearch(valuesSorted, sketch.getQuantile(quantile))) / values.length;
+			Assertions.assertEquals(quantile, rank, 0.01, "Rank of quantile " + quantile);
+		}
+	}
+
+	@Test
+	public void testAccumulateDifferentiableNotSupported() {
+		final RandomVariableAccumulator accumulator = new RandomVariableAccumulatorFromDoubleArray(numberOfPaths);
+		final RandomVariable differentiable = new RandomVariableDifferentiableAADFactory().createRandomVariable(1.0);
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> accumulator.accumulate(differentiable));
+	}
+
+	@Test
+	public void testLIBORMarketModelDriftAccumulationInPlace() throws CalculationException {
+		for(final LIBORMarketModelFromCovarianceModel.Measure measure : LIBORMarketModelFromCovarianceModel.Measure.values()) {
+			final MonteCarloProcess process = getLIBORMarketModelProcess(measure, false);
+			final MonteCarloProcess processWithAccumulation = getLIBORMarketModelProcess(measure, true);
+
+			for(int timeIndex = 0; timeIndex < process.getTimeDiscretization().getNumberOfTimes(); timeIndex++) {
+				for(int componentIndex = 0; componentIndex < process.getNumberOfComponents(); componentIndex++) {
+					Assertions.assertArrayEquals(
+							process.getProcessValue(timeIndex, componentIndex).getRealizations(),
+							processWithAccumulation.getProcessValue(timeIndex, componentIndex).getRealizations(),
+							0.0, "Forward rate " + componentIndex + " at time index " + timeIndex + " (" + measure + ")");
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testLIBORMarketModelDriftAccumulationInPlaceOfFloats() throws CalculationException {
+		final RandomVariableFactory randomVariableFactory = new RandomVariableFromArrayFactory(false);
+		for(final LIBORMarketModelFromCovarianceModel.Measure measure : LIBORMarketModelFromCovarianceModel.Measure.values()) {
+			final MonteCarloProcess process = getLIBORMarketModelProcess(measure, false, randomVariableFactory);
+			final MonteCarloProcess processWithAccumulation = getLIBORMarketModelProcess(measure, true, randomVariableFactory);
+
+			for(int timeIndex = 0; timeIndex < process.getTimeDiscretization().getNumberOfTimes()-1; timeIndex++) {
+				final RandomVariable[] realizationAtTimeIndex = new RandomVariable[process.getNumberOfComponents()];
+				for(int componentIndex = 0; componentIndex < process.getNumberOfComponents(); componentIndex++) {
+					final RandomVariable forwardRate = process.getModel().applyStateSpaceTransform(process, timeIndex, componentIndex, process.getProcessValue(timeIndex, componentIndex));
+					realizationAtTimeIndex[componentIndex] = forwardRate.isDeterministic() ? forwardRate : randomVariableFactory.createRandomVariable(forwardRate.getFiltrationTime(), forwardRate.getRealizations());
+				}
+
+				final RandomVariable[] drift = process.getModel().getDrift(process, timeIndex, realizationAtTimeIndex, null);
+				final RandomVariable[] driftWithAccumulation = processWithAccumulation.getModel().getDrift(processWithAccumulation, timeIndex, realizationAtTimeIndex, null);
+				for(int componentIndex = 0; componentIndex < process.getNumberOfComponents(); componentIndex++) {
+					if(drift[componentIndex] == null) {
+						Assertions.assertNull(driftWithAccumulation[componentIndex]);
+						continue;
+					}
+					final String message = "Drift of forward rate " + componentIndex + " at time index " + timeIndex + " (" + measure + ")";
+					Assertions.assertEquals(drift[componentIndex].getClass(), driftWithAccumulation[componentIndex].getClass(), message);
+					Assertions.assertArrayEquals(drift[componentIndex].getRealizations(), driftWithAccumulation[componentIndex].getRealizations(), 0.0, message);
+				}
+			}
+		}
+	}
+
+	private MonteCarloProcess getLIBORMarketModelProcess(final LIBORMarketModelFromCovarianceModel.Measure measure, final boolean isDriftAccumulationInPlace) throws CalculationException {
+		return getLIBORMarketModelProcess(measure, isDriftAccumulationInPlace, new RandomVariableFromArrayFactory());
+	}
+
+	private MonteCarloProcess getLIBORMarketModelProcess(final LIBORMarketModelFromCovarianceModel.Measure measure, final boolean isDriftAccumulationInPlace, final RandomVariableFactory randomVariableFactory) throws CalculationException {
+		final int numberOfFactors = 3;
+		final TimeDiscretization liborPeriodDiscretization = new TimeDiscretizationFromArray(0.0, 20, 0.5);
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 20, 0.5);
+
+		final ForwardCurve forwardCurve = ForwardCurveInterpolation.createForwardCurveFromForwards(
+				"forwardCurve", new double[] {0.5 , 1.0 , 2.0 , 5.0 , 40.0}, new double[] {0.05, 0.05, 0.05, 0.05, 0.05}, 0.5);
+
+		final LIBORCovarianceModel covarianceModel = new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization,
+				new LIBORVolatilityModelFourParameterExponentialForm(timeDiscretization, liborPeriodDiscretization, 0.2, 0.0, 0.25, 0.3, false),
+				new LIBORCorrelationModelExponentialDecay(timeDiscretization, liborPeriodDiscretization, numberOfFactors, 0.1));
+
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("measure", measure.name());
+		properties.put("stateSpace", LIBORMarketModelFromCovarianceModel.StateSpace.LOGNORMAL.name());
+		properties.put("isDriftAccumulationInPlace", isDriftAccumulationInPlace);
+
+		final LIBORMarketModel model = LIBORMarketModelFromCovarianceModel.of(liborPeriodDiscretization, null, forwardCurve, new DiscountCurveFromForwardCurve(forwardCurve),
+				randomVariableFactory, covarianceModel, new CalibrationProduct[0], properties);
+
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+
+		return new EulerSchemeFromProcessModel(model, brownianMotion, EulerSchemeFromProcessModel.Scheme.PREDICTOR_CORRECTOR);
+	}
+
+	private double[] getRandomRealizations(final MersenneTwister mersenneTwister) {
+		final double[] realizations = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			realizations[i] = mersenneTwister.nextDouble() - 0.5;
+		}
+		return realizations;
+	}
+}
@@ -1,7 +1,11 @@
 package net.finmath.montecarlo;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import net.finmath.stochastic.RandomVariable;
@@ -138,4 +142,41 @@ public class RandomVariableFromDoubleArrayTest {
 	    assertEquals(expectedVariance, actualVariance, 0.0);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testQuantiles() {
+		final Random random = new Random(3141);
+		for(final int numberOfPaths : new int[] { 1, 2, 10, 1001, 100000 }) {
+			final double[] values = new double[numberOfPaths];
+			for(int i=0; i<values.length; i++) {
+				// Many ties and some special values
+				values[i] = random.nextInt(100) - 50;
+			}
+			if(numberOfPaths > 10) {
+				values[3] = Double.NaN;
+				values[4] = -0.0;
+				values[5] = Double.NEGATIVE_INFINITY;
+			}
+			final double[] valuesSorted = values.clone();
+			Arrays.sort(valuesSorted);
+
+			final double[] quantiles = new double[] { 0.0, 0.001, 0.01, 0.25, 0.5, 0.75, 0.99, 0.999, 1.0 };
+			final double[] quantileValuesExpected = new double[quantiles.length];
+			for(int i=0; i<quantiles.length; i++) {
+				quantileValuesExpected[i] = valuesSorted[Math.min(Math.max((int)Math.round((numberOfPaths+1) * quantiles[i] - 1), 0), numberOfPaths-1)];
+			}
+
+			// Selection (without sorted realizations)
+			final double[] quantileValues = new double[quantiles.length];
+			for(int i=0; i<quantiles.length; i++) {
+				quantileValues[i] = new RandomVariableFromDoubleArray(0.0, values).getQuantile(quantiles[i]);
+			}
+			assertArrayEquals(quantileValuesExpected, quantileValues, "getQuantile");
+
+			// Sorting once (and using the sorted realizations afterwards)
+			final RandomVariable variable = new RandomVariableFromDoubleArray(0.0, values);
+			assertArrayEquals(quantileValuesExpected, variable.getQuantiles(quantiles), "getQuantiles");
+			assertEquals(quantileValuesExpected[4], variable.getQuantile(quantiles[4]), "getQuantile after getQuantiles");
+			assertArrayEquals(values, variable.getRealizations(), "Realizations unchanged");
+		}
+	}
+}
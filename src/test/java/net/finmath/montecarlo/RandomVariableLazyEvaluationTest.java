@@ -0,0 +1,136 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * Tests the evaluation of the expressions of {@link RandomVariableLazyEvaluation} against {@link RandomVariableFromDoubleArray}.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableLazyEvaluationTest {
+
+	@Test
+	public void testOperations() {
+		// Small (single block) and large (multiple blocks, multi-threaded) sizes, not multiples of the block size
+		for(final int numberOfPaths : new int[] { 1, 1000, 100003 }) {
+			final Random random = new Random(3141);
+			final double[] x = getRandomValues(random, numberOfPaths);
+			final double[] y = getRandomValues(random, numberOfPaths);
+			final double[] z = getRandomValues(random, numberOfPaths);
+
+			final RandomVariable xLazy = new RandomVariableLazyEvaluation(0.0, x);
+			final RandomVariable yLazy = new RandomVariableLazyEvaluation(0.5, y);
+			final RandomVariable zLazy = new RandomVariableFromDoubleArray(1.0, z);
+
+			final RandomVariable xExpected = new RandomVariableFromDoubleArray(0.0, x);
+			final RandomVariable yExpected = new RandomVariableFromDoubleArray(0.5, y);
+			final RandomVariable zExpected = new RandomVariableFromDoubleArray(1.0, z);
+
+			assertEquals(getPayoff(xExpected, yExpected, zExpected), getPayoff(xLazy, yLazy, zLazy), "payoff");
+			assertEquals(xExpected.bus(yExpected), xLazy.bus(yLazy), "bus");
+			assertEquals(xExpected.vid(yExpected), xLazy.vid(yLazy), "vid");
+			assertEquals(xExpected.squared().sqrt().log().cos().sin().abs().invert(), xLazy.squared().sqrt().log().cos().sin().abs().invert(), "unary operators");
+			assertEquals(xExpected.pow(3.0).cap(0.5).floor(yExpected).cap(zExpected), xLazy.pow(3.0).cap(0.5).floor(yLazy).cap(zLazy), "cap and floor");
+			assertEquals(xExpected.addRatio(yExpected, zExpected).subRatio(zExpected, yExpected), xLazy.addRatio(yLazy, zLazy).subRatio(zLazy, yLazy), "ratios");
+			assertEquals(xExpected.apply(Math::atan), xLazy.apply(Math::atan), "function");
+
+			// Deterministic arguments
+			assertEquals(xExpected.addProduct(new Scalar(2.0), yExpected).choose(new Scalar(1.0), zExpected), xLazy.addProduct(new Scalar(2.0), yLazy).choose(new Scalar(1.0), zLazy), "deterministic arguments");
+			assertEquals(zExpected.add(1.0), new RandomVariableLazyEvaluation(1.0).add(zLazy), "deterministic first argument");
+		}
+	}
+
+	@Test
+	public void testChooseWithSpecialValues() {
+		final double[] trigger = { 1.0, -1.0, 0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -Double.MIN_VALUE };
+		final double[] valueIfTriggerNonNegative = { Double.NaN, -0.0, -0.0, Double.NEGATIVE_INFINITY, 1.0, 2.0, 3.0, 4.0 };
+		final double[] valueIfTriggerNegative = { 5.0, Double.NaN, 0.0, 6.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, -0.0 };
+
+		final RandomVariable valueLazy = new RandomVariableLazyEvaluation(0.0, trigger).choose(new RandomVariableLazyEvaluation(0.0, valueIfTriggerNonNegative), new RandomVariableLazyEvaluation(0.0, valueIfTriggerNegative));
+		final RandomVariable valueExpected = new RandomVariableFromDoubleArray(0.0, trigger).choose(new RandomVariableFromDoubleArray(0.0, valueIfTriggerNonNegative), new RandomVariableFromDoubleArray(0.0, valueIfTriggerNegative));
+
+		assertEquals(valueExpected, valueLazy, "choose");
+	}
+
+	@Test
+	public void testAverage() {
+		for(final int numberOfPaths : new int[] { 1, 1000, 100003 }) {
+			final Random random = new Random(3141);
+			final double[] x = getRandomValues(random, numberOfPaths);
+			final double[] y = getRandomValues(random, numberOfPaths);
+
+			// The average of an expression is calculated without evaluating (caching) its realizations
+			final double averageLazy = new RandomVariableLazyEvaluation(0.0, x).choose(new RandomVariableLazyEvaluation(0.0, y), new RandomVariableLazyEvaluation(0.0, x)).squared().getAverage();
+			final double averageExpected = new RandomVariableFromDoubleArray(0.0, x).choose(new RandomVariableFromDoubleArray(0.0, y), new RandomVariableFromDoubleArray(0.0, x)).squared().getAverage();
+
+			Assertions.assertEquals(averageExpected, averageLazy, 1E-14 * Math.abs(averageExpected), "average");
+		}
+	}
+
+	@Test
+	public void testCommonSubexpressions() {
+		final Random random = new Random(3141);
+		final double[] x = getRandomValues(random, 10000);
+
+		// The function leaf counts its evaluations
+		final AtomicInteger numberOfEvaluations = new AtomicInteger();
+		final RandomVariable xLazy = new RandomVariableLazyEvaluation(0.0, i -> { numberOfEvaluations.incrementAndGet(); return x[i]; }, x.length);
+		final RandomVariable xExpected = new RandomVariableFromDoubleArray(0.0, x);
+
+		// Identical sub-expressions, created separately
+		final RandomVariable valueLazy = xLazy.mult(2.0).exp().add(xLazy.mult(2.0).exp()).mult(xLazy);
+		final RandomVariable valueExpected = xExpected.mult(2.0).exp().add(xExpected.mult(2.0).exp()).mult(xExpected);
+
+		assertEquals(valueExpected, valueLazy, "common sub-expressions");
+		Assertions.assertEquals(x.length, numberOfEvaluations.get(), "Number of evaluations of the leaf");
+	}
+
+	@Test
+	public void testLongChain() {
+		final Random random = new Random(3141);
+		final double[] x = getRandomValues(random, 10000);
+		final double[] increment = getRandomValues(random, 10000);
+
+		RandomVariable valueLazy = new RandomVariableLazyEvaluation(0.0, x);
+		RandomVariable valueExpected = new RandomVariableFromDoubleArray(0.0, x);
+		final RandomVariable incrementLazy = new RandomVariableLazyEvaluation(0.0, increment);
+		final RandomVariable incrementExpected = new RandomVariableFromDoubleArray(0.0, increment);
+		for(int i=0; i<2000; i++) {
+			valueLazy = valueLazy.addProduct(incrementLazy, 0.001).mult(0.999);
+			valueExpected = valueExpected.addProduct(incrementExpected, 0.001).mult(0.999);
+		}
+
+		assertEquals(valueExpected, valueLazy, "long chain");
+	}
+
+	private static RandomVariable getPayoff(final RandomVariable x, final RandomVariable y, final RandomVariable z) {
+		final RandomVariable underlying = x.mult(0.3).add(0.01).exp().mult(100.0);
+		final RandomVariable rate = y.mult(0.01).add(0.02);
+		return underlying.sub(100.0).floor(0.0).discount(rate, 0.5).accrue(rate, 0.25).addProduct(z, y).div(2.0).choose(x, z);
+	}
+
+	private static double[] getRandomValues(final Random random, final int numberOfPaths) {
+		final double[] values = new double[numberOfPaths];
+		for(int i=0; i<values.length; i++) {
+			values[i] = random.nextGaussian();
+		}
+		return values;
+	}
+
+	private static void assertEquals(final RandomVariable expected, final RandomVariable actual, final String message) {
+		Assertions.assertEquals(expected.getFiltrationTime(), actual.getFiltrationTime(), message + ": filtration time");
+		Assertions.assertArrayEquals(expected.getRealizations(), actual.getRealizations(), message);
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.assetderivativevaluation.MonteCarloAssetModel;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.assetderivativevaluation.products.EuropeanOption;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the random variables created by {@link RandomVariableOffHeapFactory} against {@link RandomVariableFromDoubleArray}
+ * and the lifecycle of the off-heap memory.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableOffHeapFactoryTest {
+
+	private static final int NUMBER_OF_PATHS = 10000;
+
+	@Test
+	public void testArithmetic() {
+		final Random random = new Random(3141);
+		final double[] x = getRandomValues(random);
+		final double[] y = getRandomValues(random);
+		final double[] z = getRandomValues(random);
+
+		try(RandomVariableOffHeapFactory randomVariableFactory = new RandomVariableOffHeapFactory()) {
+			final RandomVariable xOffHeap = randomVariableFactory.createRandomVariable(0.0, x);
+			final RandomVariable yOffHeap = randomVariableFactory.createRandomVariable(0.5, y);
+			final RandomVariable zOffHeap = new RandomVariableFromDoubleArray(0.0, z);
+
+			final RandomVariable xExpected = new RandomVariableFromDoubleArray(0.0, x);
+			final RandomVariable yExpected = new RandomVariableFromDoubleArray(0.5, y);
+			final RandomVariable zExpected = new RandomVariableFromDoubleArray(0.0, z);
+
+			assertEquals(xExpected.add(0.3).mult(2.0).sub(0.1).div(3.0).squared().exp().log(), xOffHeap.add(0.3).mult(2.0).sub(0.1).div(3.0).squared().exp().log(), "unary operators");
+			assertEquals(xExpected.add(yExpected).sub(zExpected).mult(yExpected).div(zExpected), xOffHeap.add(yOffHeap).sub(zOffHeap).mult(yOffHeap).div(zOffHeap), "binary operators");
+			assertEquals(xExpected.bus(yExpected).vid(zExpected).cap(yExpected).floor(zExpected), xOffHeap.bus(yOffHeap).vid(zOffHeap).cap(yOffHeap).floor(zOffHeap), "binary operators");
+			assertEquals(xExpected.addProduct(yExpected, 0.3).addProduct(yExpected, zExpected).choose(yExpected, zExpected), xOffHeap.addProduct(yOffHeap, 0.3).addProduct(yOffHeap, zOffHeap).choose(yOffHeap, zOffHeap), "ternary operators");
+			assertEquals(xExpected.accrue(yExpected, 0.5).discount(zExpected, 0.25).addRatio(yExpected, zExpected).subRatio(zExpected, yExpected), xOffHeap.accrue(yOffHeap, 0.5).discount(zOffHeap, 0.25).addRatio(yOffHeap, zOffHeap).subRatio(zOffHeap, yOffHeap), "ternary operators");
+			assertEquals(xExpected.add(new Scalar(0.3)).addProduct(new Scalar(2.0), yExpected), xOffHeap.add(new Scalar(0.3)).addProduct(new Scalar(2.0), yOffHeap), "deterministic arguments");
+			assertEquals(zExpected.mult(xExpected), zOffHeap.mult(xOffHeap), "other implementation as receiver");
+
+			Assertions.assertEquals(xExpected.getAverage(), xOffHeap.getAverage(), "average");
+			Assertions.assertEquals(xExpected.getVariance(), xOffHeap.getVariance(), "variance");
+			Assertions.assertEquals(xExpected.getQuantile(0.9), xOffHeap.getQuantile(0.9), "quantile");
+			Assertions.assertEquals(xExpected.getAverage(yExpected), xOffHeap.getAverage(yOffHeap), "average with probabilities");
+		}
+	}
+
+	@Test
+	public void testLifecycle() {
+		final Random random = new Random(3141);
+		final double[] x = getRandomValues(random);
+
+		final RandomVariableOffHeapFactory randomVariableFactory = new RandomVariableOffHeapFactory();
+		final RandomVariable xOffHeap = randomVariableFactory.createRandomVariable(0.0, x);
+		final RandomVariable value = xOffHeap.mult(2.0);
+		final IntToDoubleFunction operator = value.getOperator();
+		final DoubleStream realizations = value.getRealizationsStream();
+
+		Assertions.assertEquals(2L * NUMBER_OF_PATHS * Double.BYTES, randomVariableFactory.getNumberOfBytesAllocated(), "Number of bytes allocated");
+		Assertions.assertEquals(2.0 * x[17], value.get(17), "Value");
+
+		randomVariableFactory.close();
+
+		Assertions.assertTrue(randomVariableFactory.isClosed(), "Closed");
+		Assertions.assertEquals(0L, randomVariableFactory.getNumberOfBytesAllocated(), "Number of bytes allocated after close");
+		Assertions.assertThrows(IllegalStateException.class, () -> value.get(17), "Access after close");
+		Assertions.assertThrows(IllegalStateException.class, () -> xOffHeap.add(1.0), "Operation after close");
+		Assertions.assertThrows(IllegalStateException.class, () -> operator.applyAsDouble(17), "Access through operator after close");
+		Assertions.assertThrows(IllegalStateException.class, () -> realizations.sum(), "Access through stream after close");
+		Assertions.assertThrows(IllegalStateException.class, () -> randomVariableFactory.createRandomVariable(0.0, x), "Creation after close");
+	}
+
+	@Test
+	public void testReuseOfMemory() {
+		final Random random = new Random(3141);
+		final double[] x = getRandomValues(random);
+
+		try(RandomVariableOffHeapFactory randomVariableFactory = new RandomVariableOffHeapFactory()) {
+			final RandomVariable xOffHeap = randomVariableFactory.createRandomVariable(0.0, x);
+			RandomVariable value = xOffHeap;
+			for(int i=0; i<100; i++) {
+				value = value.add(1.0);
+				if(i % 10 == 0) {
+					// Results which are no longer referenced are detected by the garbage collector
+					System.gc();
+				}
+			}
+
+			Assertions.assertEquals(x[17] + 100.0, value.get(17), 1E-12, "Value");
+			Assertions.assertTrue(randomVariableFactory.getNumberOfBytesAllocated() < 50L * NUMBER_OF_PATHS * Double.BYTES, "Memory of unreachable results is reused");
+		}
+	}
+
+	@Test
+	public void testMonteCarloValuation() throws CalculationException {
+		final double valueExpected = getValueOfEuropeanOption(new RandomVariableFromArrayFactory());
+
+		final double value;
+		try(RandomVariableOffHeapFactory randomVariableFactory = new RandomVariableOffHeapFactory()) {
+			value = getValueOfEuropeanOption(randomVariableFactory);
+		}
+
+		Assertions.assertEquals(valueExpected, value, 1E-12, "Value of European option");
+	}
+
+	private static double getValueOfEuropeanOption(final RandomVariableFactory randomVariableFactory) throws CalculationException {
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(
+				new TimeDiscretizationFromArray(0.0, 20, 0.1), 1, NUMBER_OF_PATHS, 3141, randomVariableFactory);
+		final BlackScholesModel model = new BlackScholesModel(100.0, 0.02, 0.3, randomVariableFactory);
+		final MonteCarloAssetModel monteCarloModel = new MonteCarloAssetModel(new EulerSchemeFromProcessModel(model, brownianMotion));
+
+		return new EuropeanOption(2.0, 105.0).getValue(monteCarloModel);
+	}
+
+	private static double[] getRandomValues(final Random random) {
+		final double[] values = new double[NUMBER_OF_PATHS];
+		for(int i=0; i<values.length; i++) {
+			values[i] = random.nextGaussian();
+		}
+		return values;
+	}
+
+	private static void assertEquals(final RandomVariable expected, final RandomVariable actual, final String message) {
+		Assertions.assertEquals(expected.getFiltrationTime(), actual.getFiltrationTime(), message + ": filtration time");
+		Assertions.assertArrayEquals(expected.getRealizations(), actual.getRealizations(), message);
+	}
+}
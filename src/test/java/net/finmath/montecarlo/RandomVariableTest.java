@@ -39,6 +39,7 @@ public class RandomVariableTest {
 			{ new RandomVariableFromArrayFactory(true /* isUseDoublePrecisionFloatingPointImplementation */) },
 			{ new RandomVariableFromArrayFactory(false /* isUseDoublePrecisionFloatingPointImplementation */) },
 			{ new RandomVariableLazyEvaluationFactory() },
+			{ new RandomVariableOffHeapFactory() },
 			{ new RandomVariableDifferentiableAADFactory() },
 			{ new RandomVariableDifferentiableADFactory() },
 		});
@@ -191,6 +192,43 @@ public class RandomVariableTest {
 		Assert.assertEquals(valueAdd.getVariance(), 0.0, 1E-15);
 	}
 
+	@Test
+	public void testAddSumProduct() {
+
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+		final int numberOfPaths = 1000;
+
+		final RandomVariable value = randomVariableFactory.createRandomVariable(0.0, getRandomRealizations(mersenneTwister, numberOfPaths));
+		final RandomVariable[] factor1 = new RandomVariable[] {
+				randomVariableFactory.createRandomVariable(0.5, getRandomRealizations(mersenneTwister, numberOfPaths)),
+				randomVariableFactory.createRandomVariable(0.3),
+				randomVariableFactory.createRandomVariable(1.0, getRandomRealizations(mersenneTwister, numberOfPaths))
+		};
+		final RandomVariable[] factor2 = new RandomVariable[] {
+				randomVariableFactory.createRandomVariable(0.5, getRandomRealizations(mersenneTwister, numberOfPaths)),
+				randomVariableFactory.createRandomVariable(0.0, getRandomRealizations(mersenneTwister, numberOfPaths)),
+				randomVariableFactory.createRandomVariable(-1.5)
+		};
+
+		// The (possibly fused) sum product has to agree with successive calls of addProduct
+		RandomVariable valueExpected = value;
+		for(int i=0; i<factor1.length; i++) {
+			valueExpected = valueExpected.addProduct(factor1[i], factor2[i]);
+		}
+		final RandomVariable valueActual = value.addSumProduct(factor1, factor2);
+
+		Assert.assertEquals("Filtration time", valueExpected.getFiltrationTime(), valueActual.getFiltrationTime(), 0.0);
+		Assert.assertArrayEquals(valueExpected.getRealizations(), valueActual.getRealizations(), 0.0);
+	}
+
+	private static double[] getRandomRealizations(final MersenneTwister mersenneTwister, final int numberOfPaths) {
+		final double[] realizations = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			realizations[i] = mersenneTwister.nextDouble() - 0.5;
+		}
+		return realizations;
+	}
+
 	@Test
 	public void testCap() {
 
@@ -0,0 +1,195 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * Tests the random variables created by {@link RandomVariableVectorizedFactory} against {@link RandomVariableFromDoubleArray}.
+ *
+ * If the Vector API is not available, the factory creates {@link RandomVariableFromDoubleArray} and the test is trivial.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableVectorizedFactoryTest {
+
+	// Not a multiple of the vector length, such that the loop tails are tested too
+	private static final int NUMBER_OF_PATHS = 10003;
+
+	private final RandomVariableFactory randomVariableFactory = new RandomVariableVectorizedFactory();
+
+	@Test
+	public void testArithmetic() {
+		final String expectedClassName = RandomVariableVectorizedFactory.isVectorAPIAvailable() ? "net.finmath.montecarlo.vectorized.RandomVariableFromDoubleArrayVectorized" : RandomVariableFromDoubleArray.class.getName();
+		Assertions.assertEquals(expectedClassName, randomVariableFactory.createRandomVariable(0.0, new double[] { 1.0, 2.0 }).getClass().getName(), "Type of random variable");
+
+		final Random random = new Random(3141);
+		final double[] x = getRandomValues(random, -1.0, 1.0);
+		final double[] y = getRandomValues(random, -1.0, 1.0);
+		final double[] z = getRandomValues(random, -1.0, 1.0);
+
+		final RandomVariable xVectorized = randomVariableFactory.createRandomVariable(0.0, x);
+		final RandomVariable yVectorized = randomVariableFactory.createRandomVariable(0.5, y);
+		final RandomVariable zVectorized = randomVariableFactory.createRandomVariable(0.0, z);
+
+		final RandomVariable xExpected = new RandomVariableFromDoubleArray(0.0, x);
+		final RandomVariable yExpected = new RandomVariableFromDoubleArray(0.5, y);
+		final RandomVariable zExpected = new RandomVariableFromDoubleArray(0.0, z);
+
+		assertEquals(xExpected.add(0.3), xVectorized.add(0.3), "add(double)");
+		assertEquals(xExpected.sub(0.3), xVectorized.sub(0.3), "sub(double)");
+		assertEquals(xExpected.mult(0.3), xVectorized.mult(0.3), "mult(double)");
+		assertEquals(xExpected.cap(0.3), xVectorized.cap(0.3), "cap(double)");
+		assertEquals(xExpected.floor(0.3), xVectorized.floor(0.3), "floor(double)");
+		assertEquals(xExpected.squared(), xVectorized.squared(), "squared");
+
+		assertEquals(xExpected.add(yExpected), xVectorized.add(yVectorized), "add");
+		assertEquals(xExpected.sub(yExpected), xVectorized.sub(yVectorized), "sub");
+		assertEquals(xExpected.mult(yExpected), xVectorized.mult(yVectorized), "mult");
+		assertEquals(xExpected.cap(yExpected), xVectorized.cap(yVectorized), "cap");
+		assertEquals(xExpected.floor(yExpected), xVectorized.floor(yVectorized), "floor");
+		assertEquals(xExpected.addProduct(yExpected, 0.3), xVectorized.addProduct(yVectorized, 0.3), "addProduct(RandomVariable, double)");
+		assertEquals(xExpected.addProduct(yExpected, zExpected), xVectorized.addProduct(yVectorized, zVectorized), "addProduct");
+		assertEquals(xExpected.choose(yExpected, zExpected), xVectorized.choose(yVectorized, zVectorized), "choose");
+		assertEquals(xExpected.div(0.3), xVectorized.div(0.3), "div(double)");
+		assertEquals(xExpected.div(yExpected), xVectorized.div(yVectorized), "div");
+		assertEquals(xExpected.sqrt(), xVectorized.sqrt(), "sqrt");
+		assertEquals(xExpected.invert(), xVectorized.invert(), "invert");
+		assertEquals(xExpected.abs(), xVectorized.abs(), "abs");
+		assertEquals(xExpected.accrue(yExpected, 0.5), xVectorized.accrue(yVectorized, 0.5), "accrue");
+		assertEquals(xExpected.discount(yExpected, 0.5), xVectorized.discount(yVectorized, 0.5), "discount");
+		assertEquals(xExpected.addRatio(yExpected, zExpected), xVectorized.addRatio(yVectorized, zVectorized), "addRatio");
+		assertEquals(xExpected.subRatio(yExpected, zExpected), xVectorized.subRatio(yVectorized, zVectorized), "subRatio");
+		assertEquals(xExpected.addSumProduct(new RandomVariable[] { yExpected, zExpected }, new RandomVariable[] { zExpected, xExpected }),
+				xVectorized.addSumProduct(new RandomVariable[] { yVectorized, zVectorized }, new RandomVariable[] { zVectorized, xVectorized }), "addSumProduct");
+
+		// Mixing with other implementations and deterministic values
+		assertEquals(xExpected.mult(yExpected), xVectorized.mult(yExpected), "mult with RandomVariableFromDoubleArray");
+		assertEquals(xExpected.add(new Scalar(0.3)), xVectorized.add(new Scalar(0.3)), "add with Scalar");
+		assertEquals(xExpected.addProduct(yExpected, new Scalar(0.3)), xVectorized.addProduct(yVectorized, new Scalar(0.3)), "addProduct with Scalar");
+		assertEquals(xExpected.choose(new Scalar(1.0), zExpected), xVectorized.choose(new Scalar(1.0), zVectorized), "choose with Scalar");
+		assertEquals(xExpected.choose(yExpected, new Scalar(-1.0)), xVectorized.choose(yVectorized, new Scalar(-1.0)), "choose with Scalar");
+	}
+
+	@Test
+	public void testEulerSchemeStepsKeepType() {
+		final Random random = new Random(3141);
+		final double[] drift = getRandomValues(random, -0.1, 0.1);
+		final double[] volatility1 = getRandomValues(random, 0.1, 0.3);
+		final double[] volatility2 = getRandomValues(random, 0.1, 0.3);
+		final double[] shortRate = getRandomValues(random, 0.0, 0.05);
+
+		final RandomVariable driftVectorized = randomVariableFactory.createRandomVariable(0.0, drift);
+		final RandomVariable[] factorLoadingsVectorized = new RandomVariable[] { randomVariableFactory.createRandomVariable(0.0, volatility1), randomVariableFactory.createRandomVariable(0.0, volatility2) };
+		final RandomVariable shortRateVectorized = randomVariableFactory.createRandomVariable(0.0, shortRate);
+
+		final RandomVariable driftExpected = new RandomVariableFromDoubleArray(0.0, drift);
+		final RandomVariable[] factorLoadingsExpected = new RandomVariable[] { new RandomVariableFromDoubleArray(0.0, volatility1), new RandomVariableFromDoubleArray(0.0, volatility2) };
+		final RandomVariable shortRateExpected = new RandomVariableFromDoubleArray(0.0, shortRate);
+
+		final Class<? extends RandomVariable> typeOfRandomVariable = driftVectorized.getClass();
+
+		// Euler scheme of a log-normal process with a discounted value, each step using the type of the previous step
+		RandomVariable logValueVectorized = randomVariableFactory.createRandomVariable(0.0, getRandomValues(random, -0.1, 0.1));
+		RandomVariable logValueExpected = new RandomVariableFromDoubleArray(0.0, logValueVectorized.getRealizations());
+		RandomVariable numeraireVectorized = randomVariableFactory.createRandomVariable(0.0, getRandomValues(random, 0.9, 1.1));
+		RandomVariable numeraireExpected = new RandomVariableFromDoubleArray(0.0, numeraireVectorized.getRealizations());
+		final double deltaT = 0.25;
+		for(int timeIndex=0; timeIndex<4; timeIndex++) {
+			final RandomVariable[] brownianIncrementsVectorized = new RandomVariable[2];
+			final RandomVariable[] brownianIncrementsExpected = new RandomVariable[2];
+			for(int factor=0; factor<2; factor++) {
+				final double[] brownianIncrement = getRandomValues(random, -0.5, 0.5);
+				brownianIncrementsVectorized[factor] = randomVariableFactory.createRandomVariable(0.0, brownianIncrement);
+				brownianIncrementsExpected[factor] = new RandomVariableFromDoubleArray(0.0, brownianIncrement);
+			}
+
+			logValueVectorized = logValueVectorized.addProduct(driftVectorized, deltaT).addSumProduct(factorLoadingsVectorized, brownianIncrementsVectorized);
+			logValueExpected = logValueExpected.addProduct(driftExpected, deltaT).addSumProduct(factorLoadingsExpected, brownianIncrementsExpected);
+			numeraireVectorized = numeraireVectorized.accrue(shortRateVectorized, deltaT);
+			numeraireExpected = numeraireExpected.accrue(shortRateExpected, deltaT);
+
+			Assertions.assertEquals(typeOfRandomVariable, logValueVectorized.getClass(), "Type of value");
+			Assertions.assertEquals(typeOfRandomVariable, numeraireVectorized.getClass(), "Type of numeraire");
+		}
+
+		final RandomVariable payoffVectorized = logValueVectorized.exp().sub(1.0).floor(0.0).div(numeraireVectorized);
+		final RandomVariable payoffExpected = logValueExpected.exp().sub(1.0).floor(0.0).div(numeraireExpected);
+		Assertions.assertEquals(typeOfRandomVariable, payoffVectorized.getClass(), "Type of payoff");
+		for(int path=0; path<NUMBER_OF_PATHS; path++) {
+			Assertions.assertEquals(payoffExpected.get(path), payoffVectorized.get(path), 1E-15, "Payoff on path " + path);
+		}
+	}
+
+	@Test
+	public void testExp() {
+		final Random random = new Random(3141);
+		for(final double scale : new double[] { 1E-8, 1.0, 10.0, 700.0 }) {
+			final double[] x = getRandomValues(random, -scale, scale);
+			// Special values (handled by the fall back)
+			x[0] = Double.NaN;
+			x[1] = Double.POSITIVE_INFINITY;
+			x[2] = Double.NEGATIVE_INFINITY;
+			x[3] = -740.0;
+			x[4] = 709.5;
+
+			final RandomVariable value = randomVariableFactory.createRandomVariable(0.0, x).exp();
+			for(int i=0; i<x.length; i++) {
+				final double expected = Math.exp(x[i]);
+				assertEquals(expected, value.get(i), 1E-15 * expected, "exp(" + x[i] + ")");
+			}
+		}
+	}
+
+	@Test
+	public void testLog() {
+		final Random random = new Random(3141);
+		for(final double scale : new double[] { 1E-300, 1E-8, 1.0, 1E8, 1E300 }) {
+			final double[] x = getRandomValues(random, 0.0, 2.0 * scale);
+			// Special values (handled by the fall back)
+			x[0] = Double.NaN;
+			x[1] = Double.POSITIVE_INFINITY;
+			x[2] = 0.0;
+			x[3] = -1.0;
+			x[4] = Double.MIN_VALUE;
+			x[5] = 1.0;
+
+			final RandomVariable value = randomVariableFactory.createRandomVariable(0.0, x).log();
+			for(int i=0; i<x.length; i++) {
+				final double expected = Math.log(x[i]);
+				assertEquals(expected, value.get(i), 1E-15 * Math.max(Math.abs(expected), 1.0), "log(" + x[i] + ")");
+			}
+		}
+	}
+
+	private static double[] getRandomValues(final Random random, final double lowerBound, final double upperBound) {
+		final double[] values = new double[NUMBER_OF_PATHS];
+		for(int i=0; i<values.length; i++) {
+			values[i] = lowerBound + (upperBound - lowerBound) * random.nextDouble();
+		}
+		return values;
+	}
+
+	private static void assertEquals(final double expected, final double actual, final double tolerance, final String message) {
+		if(Double.isFinite(expected)) {
+			Assertions.assertEquals(expected, actual, tolerance, message);
+		}
+		else {
+			Assertions.assertEquals(expected, actual, message);
+		}
+	}
+
+	private static void assertEquals(final RandomVariable expected, final RandomVariable actual, final String message) {
+		Assertions.assertEquals(expected.getFiltrationTime(), actual.getFiltrationTime(), message + ": filtration time");
+		Assertions.assertArrayEquals(expected.getRealizations(), actual.getRealizations(), message);
+	}
+}
@@ -1,15 +1,22 @@
 package net.finmath.montecarlo.automaticdifferentiation.backward;
 
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import net.finmath.montecarlo.RandomVariableFactory;
 import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiable;
 import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
 
 /**
  * Basic test for RandomVariableDifferentiableAAD.
@@ -310,4 +317,349 @@ public class RandomVariableDifferentiableAADTest {
 		// We do not expect that the derivative agrees point-wise, but the expectation should agree.
 		Assert.assertEquals(dydx.expectation().doubleValue(), dydxFD.expectation().doubleValue(), 1E-7);
 	}
+
+	@Test
+	public void testGradientUsingTape() {
+		for(final boolean isGradientRetainsLeafNodesOnly : new boolean[] { true, false }) {
+			final Map<String, Object> properties = new HashMap<>();
+			properties.put("isGradientRetainsLeafNodesOnly", isGradientRetainsLeafNodesOnly);
+
+			final Map<String, Object> propertiesWithTape = new HashMap<>(properties);
+			propertiesWithTape.put("isGradientUsingTape", true);
+
+			final RandomVariableDifferentiable[] tree = getTestFunctionAndArguments(new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), properties));
+			final RandomVariableDifferentiable[] tape = getTestFunctionAndArguments(new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), propertiesWithTape));
+
+			final Map<Long, RandomVariable> gradientFromTree = tree[0].getGradient();
+			final Map<Long, RandomVariable> gradientFromTape = tape[0].getGradient();
+
+			Assert.assertEquals("Size of gradient", gradientFromTree.size(), gradientFromTape.size());
+			for(int argumentIndex = 1; argumentIndex < tree.length; argumentIndex++) {
+				final RandomVariable derivativeFromTree = gradientFromTree.get(tree[argumentIndex].getID());
+				final RandomVariable derivativeFromTape = gradientFromTape.get(tape[argumentIndex].getID());
+				for(int path = 0; path < derivativeFromTree.size(); path++) {
+					Assert.assertEquals("Derivative with respect to argument " + argumentIndex, derivativeFromTree.get(path), derivativeFromTape.get(path), 0.0);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Returns the function f(x,y) = E(exp(x y) + max(x,1)/y) + (x^2-y) 1_{x>0.5} as the first element, followed by the arguments x, y.
+	 */
+	private static RandomVariableDifferentiable[] getTestFunctionAndArguments(final RandomVariableFactory randomVariableFactory) {
+		final RandomVariableDifferentiable x = (RandomVariableDifferentiable)randomVariableFactory.createRandomVariable(0.0, new double[] { 0.1, 2.0, 1.0, -2.0, 0.7 });
+		final RandomVariableDifferentiable y = (RandomVariableDifferentiable)randomVariableFactory.createRandomVariable(0.0, new double[] { 1.5, 0.3, 2.0, 1.1, 0.9 });
+
+		final RandomVariable expectation = x.mult(y).exp().add(x.floor(1.0).div(y)).average();
+		final RandomVariable indicator = x.sub(0.5).choose(x.squared().sub(y), new Scalar(0.0));
+		final RandomVariableDifferentiable value = (RandomVariableDifferentiable)expectation.add(indicator).addProduct(x, y);
+
+		return new RandomVariableDifferentiable[] { value, x, y };
+	}
+
+	@Test
+	public void testGradientUsingTapeDoesNotRetainResults() {
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("isGradientUsingTape", true);
+		final RandomVariableFactory randomVariableFactory = new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), properties);
+
+		final RandomVariableDifferentiable x = (RandomVariableDifferentiable)randomVariableFactory.createRandomVariable(0.0, new double[] { 0.1, 2.0, -1.0 });
+
+		// The intermediate result is not referenced by the tape (only its value is retained as argument value of the product)
+		RandomVariable intermediate = x.exp();
+		final WeakReference<RandomVariable> intermediateReference = new WeakReference<>(intermediate);
+		final RandomVariableDifferentiable value = (RandomVariableDifferentiable)intermediate.mult(x);
+		intermediate = null;
+
+		for(int i=0; i<10 && intermediateReference.get() != null; i++) {
+			System.gc();
+		}
+		Assert.assertNull("Intermediate result retained", intermediateReference.get());
+
+		// d/dx (x exp(x)) = (1+x) exp(x)
+		final RandomVariable derivative = value.getGradient().get(x.getID());
+		for(int path = 0; path < x.size(); path++) {
+			Assert.assertEquals("Derivative", (1.0 + x.get(path)) * Math.exp(x.get(path)), derivative.get(path), 1E-15);
+		}
+	}
+
+	@Test
+	public void testGradientUsingTapeAndOperatorTree() {
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("isGradientUsingTape", true);
+		final RandomVariableFactory randomVariableFactoryWithTape = new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), properties);
+		final RandomVariableFactory randomVariableFactoryWithoutTape = new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory());
+
+		final RandomVariableDifferentiable x = (RandomVariableDifferentiable)randomVariableFactoryWithTape.createRandomVariable(0.0, new double[] { 0.1, 2.0, -1.0 });
+		final RandomVariableDifferentiable y = (RandomVariableDifferentiable)randomVariableFactoryWithoutTape.createRandomVariable(0.0, new double[] { 1.5, 0.3, 2.0 });
+
+		// The product is not recorded on the tape (y is not on the tape), its argument exp(x) is.
+		final RandomVariableDifferentiable value = (RandomVariableDifferentiable)x.exp().mult(y).add(x);
+
+		final Map<Long, RandomVariable> gradient = value.getGradient();
+		for(int path = 0; path < x.size(); path++) {
+			Assert.assertEquals("Derivative with respect to x", y.get(path) * Math.exp(x.get(path)) + 1.0, gradient.get(x.getID()).get(path), 1E-15);
+			Assert.assertEquals("Derivative with respect to y", Math.exp(x.get(path)), gradient.get(y.getID()).get(path), 1E-15);
+		}
+	}
+
+	@Test
+	public void testGradientUsingTapeForConsecutiveValuations() {
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("isGradientUsingTape", true);
+		final RandomVariableDifferentiableAADFactory factory = new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), properties);
+
+		final RandomVariableDifferentiable x = (RandomVariableDifferentiable)factory.createRandomVariable(0.0, new double[] { 0.1, 2.0, -1.0 });
+		final RandomVariableDifferentiable y = (RandomVariableDifferentiable)factory.createRandomVariable(0.0, new double[] { 1.5, 0.3, 2.0 });
+
+		// An intermediate result of the first valuation, used again in later valuations
+		final RandomVariable intermediate = x.exp();
+
+		int sizeOfTapeOfFirstValuation = -1;
+		for(int valuation = 0; valuation < 3; valuation++) {
+			final RandomVariableDifferentiable value = (RandomVariableDifferentiable)x.mult(y).exp().add(x.squared().div(y));
+			if(valuation == 0) {
+				sizeOfTapeOfFirstValuation = factory.getRecording().getTape().size();
+			}
+			else {
+				// Only the valuation (and the leaf nodes used by it) is recorded on the current tape
+				Assert.assertEquals("Size of tape of valuation " + valuation, sizeOfTapeOfFirstValuation - 1, factory.getRecording().getTape().size());
+			}
+
+			// d/dx (exp(xy) + x^2/y) = y exp(xy) + 2x/y, d/dy (exp(xy) + x^2/y) = x exp(xy) - x^2/y^2
+			final Map<Long, RandomVariable> gradient = value.getGradient();
+			for(int path = 0; path < x.size(); path++) {
+				final double valueX = x.get(path);
+				final double valueY = y.get(path);
+				Assert.assertEquals("Derivative with respect to x", valueY * Math.exp(valueX * valueY) + 2.0 * valueX / valueY, gradient.get(x.getID()).get(path), 1E-12);
+				Assert.assertEquals("Derivative with respect to y", valueX * Math.exp(valueX * valueY) - valueX * valueX / (valueY * valueY), gradient.get(y.getID()).get(path), 1E-12);
+			}
+		}
+
+		// A valuation using the intermediate result of the first valuation (recorded on another tape) and a leaf node.
+		final RandomVariableDifferentiable value = (RandomVariableDifferentiable)intermediate.mult(y).add(x);
+
+		// d/dx (exp(x) y + x) = exp(x) y + 1, d/dy (exp(x) y + x) = exp(x)
+		final Map<Long, RandomVariable> gradient = value.getGradient();
+		for(int path = 0; path < x.size(); path++) {
+			Assert.assertEquals("Derivative with respect to x", Math.exp(x.get(path)) * y.get(path) + 1.0, gradient.get(x.getID()).get(path), 1E-12);
+			Assert.assertEquals("Derivative with respect to y", Math.exp(x.get(path)), gradient.get(y.getID()).get(path), 1E-12);
+		}
+	}
+
+	@Test
+	public void testGradientUsingTapeForInterleavedValuations() throws InterruptedException, ExecutionException {
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("isGradientUsingTape", true);
+		final RandomVariableDifferentiableAADFactory factory = new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), properties);
+
+		final RandomVariableDifferentiable x = (RandomVariableDifferentiable)factory.createRandomVariable(0.0, new double[] { 0.1, 2.0, -1.0 });
+		final RandomVariableDifferentiable y = (RandomVariableDifferentiable)factory.createRandomVariable(0.0, new double[] { 1.5, 0.3, 2.0 });
+
+		/*
+		 * Two valuations on the same thread: the first valuation is finished by a backward sweep while the second one is recorded.
+		 */
+		final RandomVariable intermediateOfSecondValuation = x.mult(y).exp();
+		final RandomVariableDifferentiable valueOfFirstValuation = (RandomVariableDifferentiable)x.squared().div(y);
+
+		// d/dx (x^2/y) = 2x/y, d/dy (x^2/y) = -x^2/y^2
+		final Map<Long, RandomVariable> gradientOfFirstValuation = valueOfFirstValuation.getGradient();
+		for(int path = 0; path < x.size(); path++) {
+			Assert.assertEquals("Derivative with respect to x", 2.0 * x.get(path) / y.get(path), gradientOfFirstValuation.get(x.getID()).get(path), 1E-12);
+			Assert.assertEquals("Derivative with respect to y", -x.get(path) * x.get(path) / (y.get(path) * y.get(path)), gradientOfFirstValuation.get(y.getID()).get(path), 1E-12);
+		}
+
+		// The second valuation continues on a new tape: the intermediate result and the leaf x are imported, followed by the product.
+		final RandomVariableDifferentiable valueOfSecondValuation = (RandomVariableDifferentiable)intermediateOfSecondValuation.mult(x);
+		Assert.assertEquals("Size of tape of the second valuation", 3, factory.getRecording().getTape().size());
+
+		// d/dx (x exp(xy)) = (1 + xy) exp(xy), d/dy (x exp(xy)) = x^2 exp(xy)
+		final Map<Long, RandomVariable> gradientOfSecondValuation = valueOfSecondValuation.getGradient();
+		for(int path = 0; path < x.size(); path++) {
+			final double valueX = x.get(path);
+			final double valueY = y.get(path);
+			Assert.assertEquals("Derivative with respect to x", (1.0 + valueX * valueY) * Math.exp(valueX * valueY), gradientOfSecondValuation.get(x.getID()).get(path), 1E-12);
+			Assert.assertEquals("Derivative with respect to y", valueX * valueX * Math.exp(valueX * valueY), gradientOfSecondValuation.get(y.getID()).get(path), 1E-12);
+		}
+
+		/*
+		 * Two valuations on two threads: each thread records on its own tape and a backward sweep does not finish the recording of the other thread.
+		 */
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final RandomVariable intermediateOnOtherThread = executor.submit(() -> x.mult(y).exp()).get();
+			final RandomVariableDifferentiableAADRecording recordingOfOtherThread = executor.submit(factory::getRecording).get();
+			Assert.assertNotSame("Recording of other thread", factory.getRecording(), recordingOfOtherThread);
+
+			final RandomVariableDifferentiable valueOnThisThread = (RandomVariableDifferentiable)x.squared().div(y);
+			final Map<Long, RandomVariable> gradientOnThisThread = valueOnThisThread.getGradient();
+			for(int path = 0; path < x.size(); path++) {
+				Assert.assertEquals("Derivative with respect to x", 2.0 * x.get(path) / y.get(path), gradientOnThisThread.get(x.getID()).get(path), 1E-12);
+			}
+
+			// The other thread continues its recording
+			final RandomVariableDifferentiable valueOnOtherThread = (RandomVariableDifferentiable)executor.submit(() -> intermediateOnOtherThread.mult(x)).get();
+			Assert.assertSame("Recording of other thread", recordingOfOtherThread, executor.submit(factory::getRecording).get());
+			Assert.assertFalse("Recording of other thread finished", recordingOfOtherThread.isFinished());
+
+			final Map<Long, RandomVariable> gradientOnOtherThread = valueOnOtherThread.getGradient();
+			for(int path = 0; path < x.size(); path++) {
+				final double valueX = x.get(path);
+				final double valueY = y.get(path);
+				Assert.assertEquals("Derivative with respect to x", (1.0 + valueX * valueY) * Math.exp(valueX * valueY), gradientOnOtherThread.get(x.getID()).get(path), 1E-12);
+				Assert.assertEquals("Derivative with respect to y", valueX * valueX * Math.exp(valueX * valueY), gradientOnOtherThread.get(y.getID()).get(path), 1E-12);
+			}
+			Assert.assertTrue("Recording of other thread finished", recordingOfOtherThread.isFinished());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testGradientUsingCheckpoints() {
+		final int numberOfTimeSteps = 100;
+		final int numberOfPaths = 1000;
+		final long checkpointMemoryBudget = 10L * numberOfPaths * Double.BYTES;
+
+		for(final boolean isGradientUsingTape : new boolean[] { false, true }) {
+			final Map<String, Object> properties = new HashMap<>();
+			properties.put("isGradientUsingTape", isGradientUsingTape);
+
+			final Map<String, Object> propertiesWithCheckpoints = new HashMap<>(properties);
+			propertiesWithCheckpoints.put("checkpointMemoryBudget", checkpointMemoryBudget);
+
+			final RandomVariableDifferentiableAADFactory factoryWithCheckpoints = new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), propertiesWithCheckpoints);
+
+			final RandomVariableDifferentiable[] reference = getTestSimulationAndArguments(new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), properties), numberOfTimeSteps, numberOfPaths);
+			final RandomVariableDifferentiable[] checkpointed = getTestSimulationAndArguments(factoryWithCheckpoints, numberOfTimeSteps, numberOfPaths);
+
+			Assert.assertTrue("Memory retained by checkpoints", factoryWithCheckpoints.getCheckpointRetainedMemory() <= checkpointMemoryBudget);
+
+			// Release unreferenced intermediate values (they will be recomputed from the checkpoints).
+			System.gc();
+
+			final Map<Long, RandomVariable> gradientReference = reference[0].getGradient();
+			final Map<Long, RandomVariable> gradientCheckpointed = checkpointed[0].getGradient();
+
+			Assert.assertEquals("Value", reference[0].getAverage(), checkpointed[0].getAverage(), 0.0);
+			for(int argumentIndex = 1; argumentIndex < reference.length; argumentIndex++) {
+				final RandomVariable derivativeReference = gradientReference.get(reference[argumentIndex].getID());
+				final RandomVariable derivativeCheckpointed = gradientCheckpointed.get(checkpointed[argumentIndex].getID());
+				for(int path = 0; path < derivativeReference.size(); path++) {
+					Assert.assertEquals("Derivative with respect to argument " + argumentIndex, derivativeReference.get(path), derivativeCheckpointed.get(path), 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGradientUsingCheckpointsForConsecutiveValuations() {
+		final int numberOfTimeSteps = 100;
+		final int numberOfPaths = 1000;
+		final long checkpointMemoryBudget = 10L * numberOfPaths * Double.BYTES;
+
+		for(final boolean isGradientUsingTape : new boolean[] { false, true }) {
+			final Map<String, Object> properties = new HashMap<>();
+			properties.put("isGradientUsingTape", isGradientUsingTape);
+			properties.put("checkpointMemoryBudget", checkpointMemoryBudget);
+
+			final RandomVariableDifferentiableAADFactory factory = new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), properties);
+
+			// Each valuation (finished by a backward sweep) starts with new checkpoints
+			long retainedMemoryOfFirstValuation = -1;
+			for(int valuation = 0; valuation < 3; valuation++) {
+				final RandomVariableDifferentiable[] checkpointed = getTestSimulationAndArguments(factory, numberOfTimeSteps, numberOfPaths);
+				if(valuation == 0) {
+					retainedMemoryOfFirstValuation = factory.getCheckpointRetainedMemory();
+					Assert.assertTrue("Memory retained by checkpoints", retainedMemoryOfFirstValuation > 0 && retainedMemoryOfFirstValuation <= checkpointMemoryBudget);
+				}
+				else {
+					Assert.assertEquals("Memory retained by checkpoints of valuation " + valuation, retainedMemoryOfFirstValuation, factory.getCheckpointRetainedMemory());
+				}
+
+				final RandomVariableDifferentiable[] reference = getTestSimulationAndArguments(new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory()), numberOfTimeSteps, numberOfPaths);
+				final Map<Long, RandomVariable> gradientReference = reference[0].getGradient();
+				final Map<Long, RandomVariable> gradientCheckpointed = checkpointed[0].getGradient();
+				for(int argumentIndex = 1; argumentIndex < reference.length; argumentIndex++) {
+					Assert.assertEquals("Derivative with respect to argument " + argumentIndex,
+							gradientReference.get(reference[argumentIndex].getID()).getAverage(),
+							gradientCheckpointed.get(checkpointed[argumentIndex].getID()).getAverage(), 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGradientUsingCheckpointsForConcurrentValuations() throws InterruptedException, ExecutionException {
+		final int numberOfTimeSteps = 100;
+		final int numberOfPaths = 1000;
+		final long checkpointMemoryBudget = 10L * numberOfPaths * Double.BYTES;
+
+		final RandomVariableDifferentiable[] reference = getTestSimulationAndArguments(new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory()), numberOfTimeSteps, numberOfPaths);
+		final Map<Long, RandomVariable> gradientReference = reference[0].getGradient();
+
+		for(final boolean isGradientUsingTape : new boolean[] { false, true }) {
+			final Map<String, Object> properties = new HashMap<>();
+			properties.put("isGradientUsingTape", isGradientUsingTape);
+			properties.put("checkpointMemoryBudget", checkpointMemoryBudget);
+
+			final RandomVariableDifferentiableAADFactory factory = new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory(), properties);
+
+			final ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				// A valuation in flight on another thread
+				final RandomVariableDifferentiable[] valuationOnOtherThread = executor.submit(() -> getTestSimulationAndArguments(factory, numberOfTimeSteps, numberOfPaths)).get();
+				final long retainedMemoryOfOtherThread = executor.submit(factory::getCheckpointRetainedMemory).get();
+				Assert.assertTrue("Memory retained by checkpoints", retainedMemoryOfOtherThread > 0 && retainedMemoryOfOtherThread <= checkpointMemoryBudget);
+
+				// A valuation on this thread, finished by a backward sweep, does not release the checkpoints of the other thread
+				final RandomVariableDifferentiable[] valuationOnThisThread = getTestSimulationAndArguments(factory, numberOfTimeSteps, numberOfPaths);
+				final Map<Long, RandomVariable> gradientOnThisThread = valuationOnThisThread[0].getGradient();
+				Assert.assertEquals("Memory retained by checkpoints of this thread", 0, factory.getCheckpointRetainedMemory());
+				Assert.assertEquals("Memory retained by checkpoints of other thread", retainedMemoryOfOtherThread, (long)executor.submit(factory::getCheckpointRetainedMemory).get());
+
+				final Map<Long, RandomVariable> gradientOnOtherThread = executor.submit(() -> valuationOnOtherThread[0].getGradient()).get();
+				for(int argumentIndex = 1; argumentIndex < reference.length; argumentIndex++) {
+					final RandomVariable derivativeReference = gradientReference.get(reference[argumentIndex].getID());
+					for(int path = 0; path < derivativeReference.size(); path++) {
+						Assert.assertEquals("Derivative with respect to argument " + argumentIndex, derivativeReference.get(path), gradientOnThisThread.get(valuationOnThisThread[argumentIndex].getID()).get(path), 0.0);
+						Assert.assertEquals("Derivative with respect to argument " + argumentIndex, derivativeReference.get(path), gradientOnOtherThread.get(valuationOnOtherThread[argumentIndex].getID()).get(path), 0.0);
+					}
+				}
+			}
+			finally {
+				executor.shutdown();
+			}
+		}
+	}
+
+	/*
+	 * Returns the discounted payoff of a call on an Euler scheme of a log-normal process as the first element,
+	 * followed by the arguments initial value, drift and volatility.
+	 * Only the current state of the process is referenced during the simulation.
+	 */
+	private static RandomVariableDifferentiable[] getTestSimulationAndArguments(final RandomVariableFactory randomVariableFactory, final int numberOfTimeSteps, final int numberOfPaths) {
+		final RandomVariableDifferentiable initialValue = (RandomVariableDifferentiable)randomVariableFactory.createRandomVariable(1.0);
+		final RandomVariableDifferentiable drift = (RandomVariableDifferentiable)randomVariableFactory.createRandomVariable(0.02);
+		final RandomVariableDifferentiable volatility = (RandomVariableDifferentiable)randomVariableFactory.createRandomVariable(0.3);
+
+		final double deltaT = 0.1;
+		final Random random = new Random(3141);
+
+		RandomVariable value = initialValue;
+		for(int timeIndex = 0; timeIndex < numberOfTimeSteps; timeIndex++) {
+			final double[] brownianIncrement = new double[numberOfPaths];
+			for(int path = 0; path < numberOfPaths; path++) {
+				brownianIncrement[path] = random.nextGaussian() * Math.sqrt(deltaT);
+			}
+			final RandomVariable increment = drift.sub(volatility.squared().mult(0.5)).mult(deltaT).add(volatility.mult(new RandomVariableFromDoubleArray(0.0, brownianIncrement)));
+			value = value.mult(increment.exp()).floor(1E-8);
+		}
+
+		final RandomVariableDifferentiable payoff = (RandomVariableDifferentiable)value.sub(1.0).floor(0.0).div(drift.mult(numberOfTimeSteps * deltaT).exp()).average();
+
+		return new RandomVariableDifferentiable[] { payoff, initialValue, drift, volatility };
+	}
 }
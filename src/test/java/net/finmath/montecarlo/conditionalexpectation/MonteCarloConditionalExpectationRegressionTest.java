@@ -0,0 +1,135 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo.conditionalexpectation;
+
+import java.util.Random;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * Compares the regression parameters of {@link MonteCarloConditionalExpectationRegression} with
+ * the normal equations set up from products of random variables and solved by a singular value decomposition.
+ *
+ * @author Christian Fries
+ */
+public class MonteCarloConditionalExpectationRegressionTest {
+
+	private static final int numberOfPaths = 10000;
+
+	@Test
+	public void testRegressionParameters() {
+		final RandomVariable underlying = getUnderlying(3141, false);
+		final RandomVariable[] basisFunctions = new RandomVariable[] { new Scalar(1.0), underlying, underlying.squared(), underlying.pow(3) };
+		final RandomVariable dependent = underlying.sub(1.0).floor(0.0).add(getUnderlying(2718, false).mult(0.1));
+
+		final double[] regressionParameters = new MonteCarloConditionalExpectationRegression(basisFunctions).getLinearRegressionParameters(dependent);
+		final double[] regressionParametersExpected = getLinearRegressionParametersFromProducts(basisFunctions, dependent);
+
+		for(int i=0; i<basisFunctions.length; i++) {
+			Assertions.assertEquals(regressionParametersExpected[i], regressionParameters[i], 1E-9 * (1 + Math.abs(regressionParametersExpected[i])), "Regression parameter " + i);
+		}
+	}
+
+	@Test
+	public void testRegressionParametersSinglePrecision() {
+		final RandomVariable underlying = getUnderlying(3141, true);
+		final RandomVariable[] basisFunctions = new RandomVariable[] { new Scalar(1.0), underlying, underlying.squared() };
+		final RandomVariable dependent = underlying.sub(1.0).floor(0.0);
+
+		final double[] regressionParameters = new MonteCarloConditionalExpectationRegression(basisFunctions).getLinearRegressionParameters(dependent);
+		final double[] regressionParametersExpected = getLinearRegressionParametersFromProducts(basisFunctions, dependent);
+
+		for(int i=0; i<basisFunctions.length; i++) {
+			Assertions.assertEquals(regressionParametersExpected[i], regressionParameters[i], 1E-6 * (1 + Math.abs(regressionParametersExpected[i])), "Regression parameter " + i);
+		}
+	}
+
+	@Test
+	public void testRegressionParametersLinearDependentBasisFunctions() {
+		// The basis functions are linear dependent, hence XTX is singular and the solver has to fall back to the singular value decomposition
+		final RandomVariable underlying = getUnderlying(3141, false);
+		final RandomVariable[] basisFunctions = new RandomVariable[] { new Scalar(1.0), underlying, underlying.mult(2.0).add(1.0) };
+		final RandomVariable dependent = underlying.sub(1.0).floor(0.0);
+
+		final MonteCarloConditionalExpectationRegression regression = new MonteCarloConditionalExpectationRegression(basisFunctions);
+		final RandomVariable conditionalExpectation = regression.getConditionalExpectation(dependent);
+		final RandomVariable conditionalExpectationExpected = new MonteCarloConditionalExpectationRegression(new RandomVariable[] { new Scalar(1.0), underlying }).getConditionalExpectation(dependent);
+
+		Assertions.assertEquals(0.0, conditionalExpectation.sub(conditionalExpectationExpected).abs().getMax(), 1E-10, "Conditional expectation");
+	}
+
+	@Test
+	public void testSolverForNearlyCollinearBasisFunctions() {
+		/*
+		 * Each basis function is 100 times the previous one plus an independent random variable.
+		 * The squared ratio of the diagonal elements of the Cholesky decomposition of XTX is below 20 (it does not detect the
+		 * collinearity), while the condition number of XTX is of the order of 1E13.
+		 */
+		final RandomVariable noise1 = getUnderlying(3141, false);
+		final RandomVariable noise2 = getUnderlying(2718, false);
+		final RandomVariable noise3 = getUnderlying(1618, false);
+		final RandomVariable basisFunction1 = noise1;
+		final RandomVariable basisFunction2 = basisFunction1.mult(100.0).add(noise2);
+		final RandomVariable basisFunction3 = basisFunction2.mult(100.0).add(noise3);
+
+		final double[][] XTXNearlyCollinear = MonteCarloConditionalExpectationRegression.getScalarProducts(new RandomVariable[] { basisFunction1, basisFunction2, basisFunction3 });
+		Assertions.assertTrue(isSingularValueDecomposition(MonteCarloConditionalExpectationRegression.getSolver(XTXNearlyCollinear)), "Nearly collinear basis functions use the singular value decomposition");
+
+		final double[][] XTX = MonteCarloConditionalExpectationRegression.getScalarProducts(new RandomVariable[] { noise1, noise2, noise3 });
+		Assertions.assertFalse(isSingularValueDecomposition(MonteCarloConditionalExpectationRegression.getSolver(XTX)), "Independent basis functions use the Cholesky decomposition");
+	}
+
+	@Test
+	public void testBatchOfDependents() {
+		final RandomVariable underlying = getUnderlying(3141, false);
+		final RandomVariable[] basisFunctions = new RandomVariable[] { new Scalar(1.0), underlying, underlying.squared() };
+		final RandomVariable[] dependents = new RandomVariable[] { underlying.sub(0.9).floor(0.0), underlying.sub(1.1).floor(0.0), new Scalar(2.0) };
+
+		final MonteCarloConditionalExpectationRegression regression = new MonteCarloConditionalExpectationRegression(basisFunctions);
+		final double[][] regressionParameters = regression.getLinearRegressionParameters(dependents);
+		final RandomVariable[] conditionalExpectations = regression.getConditionalExpectation(dependents);
+
+		for(int j=0; j<dependents.length; j++) {
+			Assertions.assertArrayEquals(regression.getLinearRegressionParameters(dependents[j]), regressionParameters[j], 0.0, "Regression parameters of dependent " + j);
+			Assertions.assertEquals(0.0, conditionalExpectations[j].sub(regression.getConditionalExpectation(dependents[j])).abs().getMax(), 0.0, "Conditional expectation of dependent " + j);
+		}
+	}
+
+	private static RandomVariable getUnderlying(final int seed, final boolean isSinglePrecision) {
+		final Random random = new Random(seed);
+		final double[] realizations = new double[numberOfPaths];
+		for(int path=0; path<numberOfPaths; path++) {
+			realizations[path] = Math.exp(0.2 * random.nextGaussian());
+		}
+		return isSinglePrecision ? new RandomVariableFromFloatArray(0.0, realizations) : new RandomVariableFromDoubleArray(0.0, realizations);
+	}
+
+	private static boolean isSingularValueDecomposition(final DecompositionSolver solver) {
+		return solver.getClass().getEnclosingClass() == SingularValueDecomposition.class;
+	}
+
+	private static double[] getLinearRegressionParametersFromProducts(final RandomVariable[] basisFunctions, final RandomVariable dependent) {
+		final double[][] XTX = new double[basisFunctions.length][basisFunctions.length];
+		final double[] XTy = new double[basisFunctions.length];
+		for(int i=0; i<basisFunctions.length; i++) {
+			for(int j=0; j<basisFunctions.length; j++) {
+				XTX[i][j] = basisFunctions[i].mult(basisFunctions[j]).getAverage();
+			}
+			XTy[i] = dependent.mult(basisFunctions[i]).getAverage();
+		}
+		return new SingularValueDecomposition(new Array2DRowRealMatrix(XTX, false)).getSolver().solve(new ArrayRealVector(XTy)).toArray();
+	}
+}
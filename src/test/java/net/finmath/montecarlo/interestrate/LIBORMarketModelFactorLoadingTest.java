@@ -0,0 +1,296 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo.interestrate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.marketdata.model.curves.DiscountCurveFromForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.automaticdifferentiation.backward.RandomVariableDifferentiableAADFactory;
+import net.finmath.montecarlo.interestrate.models.LIBORMarketModelFromCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.BlendedLocalVolatilityModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCorrelationModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCorrelationModelExponentialDecay;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelFromVolatilityAndCorrelation;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORVolatilityModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORVolatilityModelFourParameterExponentialForm;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel;
+import net.finmath.montecarlo.process.MonteCarloProcess;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the handling of factor loadings in {@link LIBORMarketModelFromCovarianceModel}: the factor loadings of a time step
+ * are calculated once (for the drift and the diffusion) and the drift for a deterministic covariance model is calculated on
+ * a tensor of doubles. In both cases the simulation is identical to the default calculation.
+ *
+ * @author Christian Fries
+ */
+public class LIBORMarketModelFactorLoadingTest {
+
+	private static final int numberOfFactors	= 3;
+	private static final int numberOfPaths		= 1000;
+
+	private final TimeDiscretization liborPeriodDiscretization	= new TimeDiscretizationFromArray(0.0, 20, 0.5);
+	private final TimeDiscretization timeDiscretization			= new TimeDiscretizationFromArray(0.0, 20, 0.5);
+
+	@Test
+	public void testFactorLoadingCalculatedOncePerTimeStep() throws CalculationException {
+		for(final LIBORMarketModelFromCovarianceModel.Measure measure : LIBORMarketModelFromCovarianceModel.Measure.values()) {
+			final AtomicInteger numberOfFactorLoadings = new AtomicInteger();
+			final AtomicInteger numberOfFactorLoadingsReference = new AtomicInteger();
+
+			final MonteCarloProcess process = getProcess(measure, numberOfFactorLoadings, false);
+			final MonteCarloProcess processReference = getProcess(measure, numberOfFactorLoadingsReference, true);
+
+			for(int timeIndex = 0; timeIndex < process.getTimeDiscretization().getNumberOfTimes(); timeIndex++) {
+				for(int componentIndex = 0; componentIndex < process.getNumberOfComponents(); componentIndex++) {
+					Assertions.assertArrayEquals(
+							processReference.getProcessValue(timeIndex, componentIndex).getRealizations(),
+							process.getProcessValue(timeIndex, componentIndex).getRealizations(),
+							0.0, "Forward rate " + componentIndex + " at time index " + timeIndex + " (" + measure + ")");
+				}
+			}
+
+			// The reference calculates the factor loadings for the drift and (again) for the diffusion
+			Assertions.assertEquals(numberOfFactorLoadingsReference.get(), 2 * numberOfFactorLoadings.get(), "Number of calculations of factor loadings (" + measure + ")");
+		}
+	}
+
+	@Test
+	public void testFactorLoadingCalculatedOncePerTimeStepOnPathBlocks() throws CalculationException {
+		final int pathBlockSize		= 100;
+		final int numberOfBlocks	= numberOfPaths / pathBlockSize;
+
+		// The number of calculations of factor loadings of a single process (without path blocks)
+		final AtomicInteger numberOfFactorLoadingsOfProcess = new AtomicInteger();
+		final MonteCarloProcess process = getProcess(LIBORMarketModelFromCovarianceModel.Measure.SPOT, numberOfFactorLoadingsOfProcess, false);
+		process.getProcessValue(process.getTimeDiscretization().getNumberOfTimeSteps());
+
+		/*
+		 * The blocks are evolved concurrently by the same model. The calculations of factor loadings are counted for each block,
+		 * identified by the process calling the model (the thread evolving a block calls the covariance model).
+		 */
+		final Map<MonteCarloProcess, AtomicInteger> numberOfFactorLoadingsOfBlock = new ConcurrentHashMap<>();
+		final ThreadLocal<MonteCarloProcess> processOfThread = new ThreadLocal<>();
+
+		final LIBORMarketModelFromCovarianceModel model = getModel(LIBORMarketModelFromCovarianceModel.Measure.SPOT,
+				() -> numberOfFactorLoadingsOfBlock.computeIfAbsent(processOfThread.get(), key -> new AtomicInteger()).incrementAndGet(), processOfThread);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+			final MonteCarloProcess processOnBlocks = new EulerSchemeFromProcessModel(model, brownianMotion, EulerSchemeFromProcessModel.Scheme.EULER, pathBlockSize, executor);
+
+			final int lastTimeIndex = process.getTimeDiscretization().getNumberOfTimeSteps();
+			for(int componentIndex = 0; componentIndex < process.getNumberOfComponents(); componentIndex++) {
+				Assertions.assertArrayEquals(
+						process.getProcessValue(lastTimeIndex, componentIndex).getRealizations(),
+						processOnBlocks.getProcessValue(lastTimeIndex, componentIndex).getRealizations(),
+						0.0, "Forward rate " + componentIndex);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		// Each block calculates the factor loadings once per time step, as the single process
+		Assertions.assertEquals(numberOfBlocks, numberOfFactorLoadingsOfBlock.size(), "Number of blocks");
+		for(final AtomicInteger numberOfFactorLoadings : numberOfFactorLoadingsOfBlock.values()) {
+			Assertions.assertEquals(numberOfFactorLoadingsOfProcess.get(), numberOfFactorLoadings.get(), "Number of calculations of factor loadings of a block");
+		}
+	}
+
+	@Test
+	public void testDriftFromFactorLoadingsAsDouble() throws CalculationException {
+		for(final LIBORMarketModelFromCovarianceModel.Measure measure : LIBORMarketModelFromCovarianceModel.Measure.values()) {
+			for(final LIBORMarketModelFromCovarianceModel.StateSpace stateSpace : LIBORMarketModelFromCovarianceModel.StateSpace.values()) {
+				final LIBORCovarianceModelFromVolatilityAndCorrelation covarianceModel = getDeterministicCovarianceModel(false);
+				Assertions.assertNotNull(covarianceModel.getFactorLoadingsAsDouble(), "Factor loadings of deterministic covariance model");
+
+				// The reference does not provide the factor loadings as doubles, hence uses the calculation of the drift on random variables
+				final MonteCarloProcess process = getProcess(measure, stateSpace, covarianceModel);
+				final MonteCarloProcess processReference = getProcess(measure, stateSpace, getDeterministicCovarianceModel(true));
+
+				for(int timeIndex = 0; timeIndex < process.getTimeDiscretization().getNumberOfTimes(); timeIndex++) {
+					for(int componentIndex = 0; componentIndex < process.getNumberOfComponents(); componentIndex++) {
+						Assertions.assertArrayEquals(
+								processReference.getProcessValue(timeIndex, componentIndex).getRealizations(),
+								process.getProcessValue(timeIndex, componentIndex).getRealizations(),
+								0.0, "Forward rate " + componentIndex + " at time index " + timeIndex + " (" + measure + ", " + stateSpace + ")");
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDriftUsesOverriddenFactorLoading() throws CalculationException {
+		final LIBORCorrelationModel correlationModel = new LIBORCorrelationModelExponentialDecay(timeDiscretization, liborPeriodDiscretization, numberOfFactors, 0.1);
+
+		// A subclass doubling the factor loadings (the tensor of the super class must not be used for the drift)
+		final LIBORCovarianceModel covarianceModel = new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization,
+				new LIBORVolatilityModelFourParameterExponentialForm(timeDiscretization, liborPeriodDiscretization, 0.2, 0.0, 0.25, 0.3, false), correlationModel) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public RandomVariable[] getFactorLoading(final int timeIndex, final int component, final RandomVariable[] realizationAtTimeIndex) {
+				final RandomVariable[] factorLoading = super.getFactorLoading(timeIndex, component, realizationAtTimeIndex);
+				for(int factorIndex=0; factorIndex<factorLoading.length; factorIndex++) {
+					factorLoading[factorIndex] = factorLoading[factorIndex].mult(2.0);
+				}
+				return factorLoading;
+			}
+		};
+		final LIBORCovarianceModel covarianceModelReference = new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization,
+				new LIBORVolatilityModelFourParameterExponentialForm(timeDiscretization, liborPeriodDiscretization, 0.4, 0.0, 0.25, 0.6, false), correlationModel);
+
+		final MonteCarloProcess process = getProcess(LIBORMarketModelFromCovarianceModel.Measure.SPOT, LIBORMarketModelFromCovarianceModel.StateSpace.NORMAL, covarianceModel);
+		final MonteCarloProcess processReference = getProcess(LIBORMarketModelFromCovarianceModel.Measure.SPOT, LIBORMarketModelFromCovarianceModel.StateSpace.NORMAL, covarianceModelReference);
+
+		final int lastTimeIndex = process.getTimeDiscretization().getNumberOfTimeSteps();
+		for(int componentIndex = 0; componentIndex < process.getNumberOfComponents(); componentIndex++) {
+			Assertions.assertArrayEquals(
+					processReference.getProcessValue(lastTimeIndex, componentIndex).getRealizations(),
+					process.getProcessValue(lastTimeIndex, componentIndex).getRealizations(),
+					1E-12, "Forward rate " + componentIndex);
+		}
+	}
+
+	@Test
+	public void testNoFactorLoadingsAsDoubleForDifferentiableVolatility() {
+		final LIBORCovarianceModelFromVolatilityAndCorrelation covarianceModel = new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization,
+				new LIBORVolatilityModelFourParameterExponentialForm(new RandomVariableDifferentiableAADFactory(), timeDiscretization, liborPeriodDiscretization, 0.2, 0.0, 0.25, 0.3, true),
+				new LIBORCorrelationModelExponentialDecay(timeDiscretization, liborPeriodDiscretization, numberOfFactors, 0.1));
+
+		Assertions.assertNull(covarianceModel.getFactorLoadingsAsDouble(), "Factor loadings of differentiable covariance model");
+	}
+
+	private LIBORCovarianceModelFromVolatilityAndCorrelation getDeterministicCovarianceModel(final boolean isWithoutFactorLoadingsAsDouble) {
+		final LIBORVolatilityModel volatilityModel = new LIBORVolatilityModelFourParameterExponentialForm(timeDiscretization, liborPeriodDiscretization, 0.2, 0.0, 0.25, 0.3, false);
+		final LIBORCorrelationModel correlationModel = new LIBORCorrelationModelExponentialDecay(timeDiscretization, liborPeriodDiscretization, numberOfFactors, 0.1);
+
+		if(isWithoutFactorLoadingsAsDouble) {
+			return new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization, volatilityModel, correlationModel) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public double[][][] getFactorLoadingsAsDouble() {
+					return null;
+				}
+			};
+		}
+		else {
+			return new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization, volatilityModel, correlationModel);
+		}
+	}
+
+	private MonteCarloProcess getProcess(final LIBORMarketModelFromCovarianceModel.Measure measure, final LIBORMarketModelFromCovarianceModel.StateSpace stateSpace, final LIBORCovarianceModel covarianceModel) throws CalculationException {
+		final ForwardCurve forwardCurve = ForwardCurveInterpolation.createForwardCurveFromForwards(
+				"forwardCurve", new double[] {0.5 , 1.0 , 2.0 , 5.0 , 40.0}, new double[] {0.05, 0.05, 0.05, 0.05, 0.05}, 0.5);
+
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("measure", measure.name());
+		properties.put("stateSpace", stateSpace.name());
+
+		final LIBORMarketModelFromCovarianceModel model = new LIBORMarketModelFromCovarianceModel(liborPeriodDiscretization, null, forwardCurve, new DiscountCurveFromForwardCurve(forwardCurve),
+				new RandomVariableFromArrayFactory(), covarianceModel, new CalibrationProduct[0], properties);
+
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+
+		return new EulerSchemeFromProcessModel(model, brownianMotion, EulerSchemeFromProcessModel.Scheme.PREDICTOR_CORRECTOR);
+	}
+
+	private MonteCarloProcess getProcess(final LIBORMarketModelFromCovarianceModel.Measure measure, final AtomicInteger numberOfFactorLoadings, final boolean isReference) throws CalculationException {
+		final LIBORMarketModelFromCovarianceModel model;
+		if(isReference) {
+			// The factor loadings are always calculated by the covariance model
+			model = new LIBORMarketModelFromCovarianceModel(liborPeriodDiscretization, null, getForwardCurve(), new DiscountCurveFromForwardCurve(getForwardCurve()),
+					new RandomVariableFromArrayFactory(), getCovarianceModel(numberOfFactorLoadings::incrementAndGet), new CalibrationProduct[0], getProperties(measure)) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public RandomVariable[] getFactorLoading(final MonteCarloProcess process, final int timeIndex, final int componentIndex, final RandomVariable[] realizationAtTimeIndex) {
+					return getCovarianceModel().getFactorLoading(process.getTime(timeIndex), getLiborPeriod(componentIndex), realizationAtTimeIndex);
+				}
+			};
+		}
+		else {
+			model = new LIBORMarketModelFromCovarianceModel(liborPeriodDiscretization, null, getForwardCurve(), new DiscountCurveFromForwardCurve(getForwardCurve()),
+					new RandomVariableFromArrayFactory(), getCovarianceModel(numberOfFactorLoadings::incrementAndGet), new CalibrationProduct[0], getProperties(measure));
+		}
+
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+
+		return new EulerSchemeFromProcessModel(model, brownianMotion, EulerSchemeFromProcessModel.Scheme.EULER);
+	}
+
+	/*
+	 * A model which sets the calling process for the current thread (before calling the covariance model).
+	 */
+	private LIBORMarketModelFromCovarianceModel getModel(final LIBORMarketModelFromCovarianceModel.Measure measure, final Runnable factorLoadingCounter, final ThreadLocal<MonteCarloProcess> processOfThread) throws CalculationException {
+		return new LIBORMarketModelFromCovarianceModel(liborPeriodDiscretization, null, getForwardCurve(), new DiscountCurveFromForwardCurve(getForwardCurve()),
+				new RandomVariableFromArrayFactory(), getCovarianceModel(factorLoadingCounter), new CalibrationProduct[0], getProperties(measure)) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public RandomVariable[] getDrift(final MonteCarloProcess process, final int timeIndex, final RandomVariable[] realizationAtTimeIndex, final RandomVariable[] realizationPredictor) {
+				processOfThread.set(process);
+				return super.getDrift(process, timeIndex, realizationAtTimeIndex, realizationPredictor);
+			}
+
+			@Override
+			public RandomVariable[] getFactorLoading(final MonteCarloProcess process, final int timeIndex, final int componentIndex, final RandomVariable[] realizationAtTimeIndex) {
+				processOfThread.set(process);
+				return super.getFactorLoading(process, timeIndex, componentIndex, realizationAtTimeIndex);
+			}
+		};
+	}
+
+	private ForwardCurve getForwardCurve() {
+		return ForwardCurveInterpolation.createForwardCurveFromForwards(
+				"forwardCurve", new double[] {0.5 , 1.0 , 2.0 , 5.0 , 40.0}, new double[] {0.05, 0.05, 0.05, 0.05, 0.05}, 0.5);
+	}
+
+	private Map<String, Object> getProperties(final LIBORMarketModelFromCovarianceModel.Measure measure) {
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("measure", measure.name());
+		properties.put("stateSpace", LIBORMarketModelFromCovarianceModel.StateSpace.NORMAL.name());
+		return properties;
+	}
+
+	private LIBORCovarianceModel getCovarianceModel(final Runnable factorLoadingCounter) {
+		// A state dependent covariance model counting the calculations of factor loadings
+		return new BlendedLocalVolatilityModel(
+				new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization,
+						new LIBORVolatilityModelFourParameterExponentialForm(timeDiscretization, liborPeriodDiscretization, 0.002, 0.0, 0.25, 0.003, false),
+						new LIBORCorrelationModelExponentialDecay(timeDiscretization, liborPeriodDiscretization, numberOfFactors, 0.1)),
+				getForwardCurve(), 0.5, false) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public RandomVariable[] getFactorLoading(final int timeIndex, final int component, final RandomVariable[] realizationAtTimeIndex) {
+				factorLoadingCounter.run();
+				return super.getFactorLoading(timeIndex, component, realizationAtTimeIndex);
+			}
+		};
+	}
+}
@@ -32,6 +32,7 @@ import net.finmath.montecarlo.interestrate.models.covariance.LIBORCorrelationMod
 import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelFromVolatilityAndCorrelation;
 import net.finmath.montecarlo.interestrate.models.covariance.LIBORVolatilityModelFromGivenMatrix;
 import net.finmath.montecarlo.interestrate.products.AbstractTermStructureMonteCarloProduct;
+import net.finmath.montecarlo.interestrate.products.Portfolio;
 import net.finmath.montecarlo.interestrate.products.Swap;
 import net.finmath.montecarlo.interestrate.products.SwapLeg;
 import net.finmath.montecarlo.interestrate.products.Swaption;
@@ -169,6 +170,41 @@ public class ExposureTest {
 		}
 	}
 
+	@Test
+	public void testConditionalValuesOnTimeDiscretization() throws CalculationException {
+		/*
+		 * Create a portfolio of a receiver swap and a payer swap with notional exchange
+		 */
+		final TimeDiscretizationFromArray tenor = new TimeDiscretizationFromArray(0.0, 40, 0.25);
+		final Schedule schedule = new RegularSchedule(tenor);
+
+		final Notional notional = new NotionalFromConstant(1.0);
+		final AbstractIndex index = new LIBORIndex("forwardCurve", 0.0, 0.25);
+
+		final AbstractTermStructureMonteCarloProduct swapReceiver = new Swap(new SwapLeg(schedule, notional, index, 0.0, false), new SwapLeg(schedule, notional, null, 0.025, false));
+		final AbstractTermStructureMonteCarloProduct swapPayer = new Swap(new SwapLeg(schedule, notional, null, 0.02, true), new SwapLeg(schedule, notional, index, 0.0, true));
+		final Portfolio portfolio = new Portfolio(new AbstractTermStructureMonteCarloProduct[] { swapReceiver, swapPayer }, new double[] { 2.0, 1.0 });
+		final TermStructureMonteCarloProduct portfolioExposureEstimator = new ExposureEstimator(portfolio);
+
+		final LIBORModelMonteCarloSimulationModel lmm = createLIBORMarketModel(Measure.SPOT, 2000, 5, 0.1);
+
+		// Values on the whole time discretization from a single valuation
+		final RandomVariable[] valuesPortfolio = portfolio.getNumeraireRelativeValues(lmm.getTimeDiscretization(), lmm);
+		final RandomVariable[] valuesExposure = portfolio.getConditionalValues(lmm.getTimeDiscretization(), lmm);
+
+		for(int timeIndex=0; timeIndex<lmm.getTimeDiscretization().getNumberOfTimes(); timeIndex++) {
+			final double observationDate = lmm.getTime(timeIndex);
+
+			final RandomVariable valuesPortfolioExpected = portfolio.getValue(observationDate, lmm).div(lmm.getNumeraire(observationDate));
+			Assert.assertEquals("Value at " + observationDate, 0.0, valuesPortfolio[timeIndex].sub(valuesPortfolioExpected).abs().getMax(), 1E-12);
+
+			// The regression may amplify the rounding differences of the (numeraire relative) values
+			final double basisPoint = 1E-4;
+			final RandomVariable valuesExposureExpected = portfolioExposureEstimator.getValue(observationDate, lmm);
+			Assert.assertEquals("Exposure at " + observationDate, 0.0, valuesExposure[timeIndex].sub(valuesExposureExpected).abs().getMax(), basisPoint);
+		}
+	}
+
 	public static LIBORModelMonteCarloSimulationModel createLIBORMarketModel(
 			final Measure measure, final int numberOfPaths, final int numberOfFactors, final double correlationDecayParam) throws CalculationException {
 
@@ -0,0 +1,161 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo.interestrate.products.components;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.interestrate.LIBORMarketModelValuationTest;
+import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * Tests the (concurrent) valuation of nested product collections.
+ *
+ * @author Christian Fries
+ */
+public class ProductCollectionTest {
+
+	private static final int NUMBER_OF_LEVELS = 4;
+	private static final int NUMBER_OF_PRODUCTS_PER_LEVEL = 5;
+
+	private final AtomicInteger numberOfValuations = new AtomicInteger();
+
+	@Test
+	public void testNestedCollectionsWithSingleThread() throws CalculationException {
+		final TermStructureMonteCarloSimulationModel model = LIBORMarketModelValuationTest.createLIBORMarketModel(new RandomVariableFromArrayFactory(), 1000, 1, 0.1);
+
+		final ProductCollection productCollection = createProductCollection(NUMBER_OF_LEVELS, -1);
+		final double expectedValue = Math.pow(NUMBER_OF_PRODUCTS_PER_LEVEL, NUMBER_OF_LEVELS);
+
+		// A single thread must not deadlock, since waiting threads value pending products themselves
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final RandomVariable value = productCollection.getValue(0.0, model, executor);
+			Assertions.assertEquals(expectedValue, value.getAverage(), 0.0, "Value with single thread executor");
+			Assertions.assertEquals((int)expectedValue, numberOfValuations.getAndSet(0), "Number of valuations");
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		final RandomVariable valueSequential = productCollection.getValue(0.0, model, null);
+		Assertions.assertEquals(expectedValue, valueSequential.getAverage(), 0.0, "Value with sequential valuation");
+
+		final RandomVariable valueDefault = productCollection.getValue(0.0, model);
+		Assertions.assertEquals(expectedValue, valueDefault.getAverage(), 0.0, "Value with default executor");
+	}
+
+	@Test
+	public void testFailingProductIsPropagated() throws CalculationException {
+		final TermStructureMonteCarloSimulationModel model = LIBORMarketModelValuationTest.createLIBORMarketModel(new RandomVariableFromArrayFactory(), 1000, 1, 0.1);
+
+		final ProductCollection productCollection = createProductCollection(NUMBER_OF_LEVELS, 7);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Assertions.assertThrows(CalculationException.class, () -> productCollection.getValue(0.0, model, executor));
+			Assertions.assertThrows(CalculationException.class, () -> productCollection.getValue(0.0, model));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testDeprecatedThreadPoolExecutor() throws Exception {
+		// Without a thread pool executor of the valuation, the deprecated accessor returns a shared thread pool
+		final ThreadPoolExecutor sharedExecutor = AbstractProductComponent.getExecutor();
+		Assertions.assertEquals(1.0, sharedExecutor.submit(() -> 1.0).get(), 0.0, "Value calculated by the shared thread pool");
+
+		final AtomicReference<ThreadPoolExecutor> executorOfValuation = new AtomicReference<>();
+		final AbstractProductComponent product = new Leaf(false) {
+			private static final long serialVersionUID = -3279411396347214431L;
+
+			@Override
+			public RandomVariable getValue(final double evaluationTime, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+				executorOfValuation.set(getExecutor());
+				return super.getValue(evaluationTime, model);
+			}
+		};
+
+		final ThreadPoolExecutor executor = (ThreadPoolExecutor)Executors.newFixedThreadPool(2);
+		try {
+			product.getValue(0.0, null, executor);
+			Assertions.assertSame(executor, executorOfValuation.get(), "Thread pool executor of the valuation");
+
+			product.getValue(0.0, null, null);
+			Assertions.assertSame(sharedExecutor, executorOfValuation.get(), "Thread pool executor of a sequential valuation");
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Creates a tree of product collections, where each leaf pays 1.
+	 *
+	 * @param numberOfLevels The depth of the tree.
+	 * @param indexOfFailingProduct The index of a leaf whose valuation throws an exception (-1 if none).
+	 * @return The product collection.
+	 */
+	private ProductCollection createProductCollection(final int numberOfLevels, final int indexOfFailingProduct) {
+		final AtomicInteger leafIndex = new AtomicInteger();
+		return createProductCollection(numberOfLevels, indexOfFailingProduct, leafIndex);
+	}
+
+	private ProductCollection createProductCollection(final int numberOfLevels, final int indexOfFailingProduct, final AtomicInteger leafIndex) {
+		final List<AbstractProductComponent> products = new ArrayList<>();
+		for(int i=0; i<NUMBER_OF_PRODUCTS_PER_LEVEL; i++) {
+			if(numberOfLevels > 1) {
+				products.add(createProductCollection(numberOfLevels-1, indexOfFailingProduct, leafIndex));
+			}
+			else {
+				products.add(new Leaf(leafIndex.getAndIncrement() == indexOfFailingProduct));
+			}
+		}
+		return new ProductCollection(products);
+	}
+
+	private class Leaf extends AbstractProductComponent {
+
+		private static final long serialVersionUID = 6393475040329186651L;
+
+		private final boolean isFailing;
+
+		Leaf(final boolean isFailing) {
+			super("EUR");
+			this.isFailing = isFailing;
+		}
+
+		@Override
+		public Set<String> queryUnderlyings() {
+			return null;
+		}
+
+		@Override
+		public RandomVariable getValue(final double evaluationTime, final TermStructureMonteCarloSimulationModel model) throws CalculationException {
+			if(isFailing) {
+				throw new CalculationException("Valuation failed.");
+			}
+			numberOfValuations.incrementAndGet();
+			return new Scalar(1.0);
+		}
+	}
+}
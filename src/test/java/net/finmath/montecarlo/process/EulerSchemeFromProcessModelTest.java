@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.assetderivativevaluation.models.MultiAssetBlackScholesModel;
+import net.finmath.montecarlo.model.ProcessModel;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel.Scheme;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the evolution of {@link EulerSchemeFromProcessModel} on blocks of paths against the standard evolution.
+ *
+ * @author Christian Fries
+ */
+public class EulerSchemeFromProcessModelTest {
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 20, 0.25);
+
+	@Test
+	public void testPathBlocksBlackScholes() throws CalculationException {
+		final ProcessModel model = new BlackScholesModel(100.0, 0.05, 0.30);
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, 1, 10007, 3141);
+
+		for(final Scheme scheme : Scheme.values()) {
+			final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion, scheme);
+			final MonteCarloProcess processOnPathBlocks = new EulerSchemeFromProcessModel(model, brownianMotion, scheme, 1000);
+
+			assertIdenticalProcess(process, processOnPathBlocks);
+		}
+	}
+
+	@Test
+	public void testPathBlocksMultiAssetWithExecutor() throws CalculationException {
+		final double[] initialValue = new double[] { 100.0, 110 };
+		final double[] volatilities = new double[] { 0.30, 0.20 };
+		final double[][] correlations = new double[][] { { 1.0, 0.4 }, { 0.4, 1.0 } };
+		final ProcessModel model = new MultiAssetBlackScholesModel(initialValue, 0.05, volatilities, correlations);
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, 2, 5000, 3216);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion, Scheme.EULER_FUNCTIONAL);
+			final MonteCarloProcess processOnPathBlocks = new EulerSchemeFromProcessModel(model, brownianMotion, Scheme.EULER_FUNCTIONAL, 333, executor);
+
+			assertIdenticalProcess(process, processOnPathBlocks);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testPathBlocksSinglePrecision() throws CalculationException {
+		final ProcessModel model = new BlackScholesModel(100.0, 0.05, 0.30);
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, 1, 4096, 3141, new RandomVariableFromArrayFactory(false));
+
+		final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion, Scheme.EULER);
+		final MonteCarloProcess processOnPathBlocks = new EulerSchemeFromProcessModel(model, brownianMotion, Scheme.EULER, 1024);
+
+		assertIdenticalProcess(process, processOnPathBlocks);
+	}
+
+	private static void assertIdenticalProcess(final MonteCarloProcess expected, final MonteCarloProcess actual) throws CalculationException {
+		Assertions.assertEquals(expected.getNumberOfPaths(), actual.getNumberOfPaths());
+		for(int timeIndex = 0; timeIndex < expected.getTimeDiscretization().getNumberOfTimes(); timeIndex++) {
+			for(int componentIndex = 0; componentIndex < expected.getNumberOfComponents(); componentIndex++) {
+				final RandomVariable valueExpected = expected.getProcessValue(timeIndex, componentIndex);
+				final RandomVariable valueActual = actual.getProcessValue(timeIndex, componentIndex);
+
+				Assertions.assertEquals(valueExpected.getFiltrationTime(), valueActual.getFiltrationTime(), "Filtration time at time index " + timeIndex);
+				Assertions.assertArrayEquals(valueExpected.getRealizations(), valueActual.getRealizations(), 0.0, "Process at time index " + timeIndex + " and component " + componentIndex);
+			}
+			Assertions.assertEquals(expected.getMonteCarloWeights(timeIndex).getAverage(), actual.getMonteCarloWeights(timeIndex).getAverage(), 0.0);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.BrownianMotionFromRandomNumberGenerator;
+import net.finmath.montecarlo.assetderivativevaluation.MonteCarloAssetModel;
+import net.finmath.montecarlo.assetderivativevaluation.models.MultiAssetBlackScholesModel;
+import net.finmath.montecarlo.assetderivativevaluation.products.EuropeanOption;
+import net.finmath.montecarlo.model.ProcessModel;
+import net.finmath.randomnumbers.SobolSequence;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests {@link MonteCarloProcessFromMemoryMappedFile} against the process it has been written from.
+ *
+ * @author Christian Fries
+ */
+public class MonteCarloProcessFromMemoryMappedFileTest {
+
+	@Test
+	public void testWriteAndRead() throws CalculationException, IOException {
+		final ProcessModel model = new MultiAssetBlackScholesModel(new double[] { 100.0, 110 }, 0.05, new double[] { 0.30, 0.20 }, new double[][] { { 1.0, 0.4 }, { 0.4, 1.0 } });
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(new TimeDiscretizationFromArray(0.0, 20, 0.25), 2, 10007, 3141);
+		final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion);
+
+		final Path file = Files.createTempFile("process", ".bin");
+		MonteCarloProcessFromMemoryMappedFile.write(process, file);
+
+		try(MonteCarloProcessFromMemoryMappedFile processFromFile = new MonteCarloProcessFromMemoryMappedFile(file, model)) {
+			Assertions.assertEquals(process.getTimeDiscretization(), processFromFile.getTimeDiscretization(), "Time discretization");
+			Assertions.assertEquals(process.getNumberOfComponents(), processFromFile.getNumberOfComponents(), "Number of components");
+			Assertions.assertEquals(process.getNumberOfPaths(), processFromFile.getNumberOfPaths(), "Number of paths");
+			Assertions.assertEquals(process.getNumberOfFactors(), processFromFile.getNumberOfFactors(), "Number of factors");
+			Assertions.assertEquals(3141, processFromFile.getSeed(), "Seed");
+
+			for(int timeIndex=0; timeIndex<process.getTimeDiscretization().getNumberOfTimes(); timeIndex++) {
+				for(int componentIndex=0; componentIndex<process.getNumberOfComponents(); componentIndex++) {
+					assertEquals(process.getProcessValue(timeIndex, componentIndex), processFromFile.getProcessValue(timeIndex, componentIndex), "Process value");
+				}
+				assertEquals(process.getMonteCarloWeights(timeIndex), processFromFile.getMonteCarloWeights(timeIndex), "Monte-Carlo weights");
+				assertEquals(model.getNumeraire(process, process.getTime(timeIndex)), processFromFile.getNumeraire(timeIndex), "Numeraire");
+			}
+
+			// The stochastic driver is re-created from the seed
+			final BrownianMotion brownianMotionFromFile = (BrownianMotion)processFromFile.getStochasticDriver();
+			assertEquals(brownianMotion.getBrownianIncrement(7, 1), brownianMotionFromFile.getBrownianIncrement(7, 1), "Brownian increment");
+
+			// Valuation
+			final EuropeanOption option = new EuropeanOption(4.0, 110.0, 1.0, 1);
+			final double value = option.getValue(new MonteCarloAssetModel(process));
+			final double valueFromFile = option.getValue(new MonteCarloAssetModel(processFromFile));
+			Assertions.assertEquals(value, valueFromFile, 1E-12, "Value of European option");
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testCloneWithModifiedData() throws CalculationException, IOException {
+		final ProcessModel model = new MultiAssetBlackScholesModel(new double[] { 100.0, 110 }, 0.05, new double[] { 0.30, 0.20 }, new double[][] { { 1.0, 0.4 }, { 0.4, 1.0 } });
+		final ProcessModel modelModified = new MultiAssetBlackScholesModel(new double[] { 100.0, 110 }, 0.05, new double[] { 0.35, 0.25 }, new double[][] { { 1.0, 0.4 }, { 0.4, 1.0 } });
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(new TimeDiscretizationFromArray(0.0, 20, 0.25), 2, 1000, 3141);
+		final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion);
+
+		final Path file = Files.createTempFile("process", ".bin");
+		MonteCarloProcessFromMemoryMappedFile.write(process, file);
+
+		try(MonteCarloProcessFromMemoryMappedFile processFromFile = new MonteCarloProcessFromMemoryMappedFile(file, model)) {
+			// The clones are re-simulated using the stochastic driver re-created from the seed
+			final MonteCarloProcess processWithModifiedModel = processFromFile.getCloneWithModifiedModel(modelModified);
+			final MonteCarloProcess processWithModifiedModelExpected = new EulerSchemeFromProcessModel(modelModified, brownianMotion);
+
+			final MonteCarloProcess processWithModifiedSeed = processFromFile.getCloneWithModifiedData(Map.of("seed", 1));
+			final MonteCarloProcess processWithModifiedSeedExpected = new EulerSchemeFromProcessModel(model, brownianMotion.getCloneWithModifiedSeed(1));
+
+			final MonteCarloProcess processWithModifiedData = processFromFile.getCloneWithModifiedData(Map.of("model", modelModified));
+
+			for(int timeIndex=0; timeIndex<process.getTimeDiscretization().getNumberOfTimes(); timeIndex++) {
+				for(int componentIndex=0; componentIndex<process.getNumberOfComponents(); componentIndex++) {
+					assertEquals(processWithModifiedModelExpected.getProcessValue(timeIndex, componentIndex), processWithModifiedModel.getProcessValue(timeIndex, componentIndex), "Process value with modified model");
+					assertEquals(processWithModifiedSeedExpected.getProcessValue(timeIndex, componentIndex), processWithModifiedSeed.getProcessValue(timeIndex, componentIndex), "Process value with modified seed");
+					assertEquals(processWithModifiedModelExpected.getProcessValue(timeIndex, componentIndex), processWithModifiedData.getProcessValue(timeIndex, componentIndex), "Process value with modified data");
+				}
+			}
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testCloneWithoutStochasticDriver() throws CalculationException, IOException {
+		final ProcessModel model = new MultiAssetBlackScholesModel(new double[] { 100.0, 110 }, 0.05, new double[] { 0.30, 0.20 }, new double[][] { { 1.0, 0.4 }, { 0.4, 1.0 } });
+		final BrownianMotion brownianMotion = new BrownianMotionFromRandomNumberGenerator(new TimeDiscretizationFromArray(0.0, 20, 0.25), 2, 1000, new SobolSequence(40));
+		final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion);
+
+		final Path file = Files.createTempFile("process", ".bin");
+		MonteCarloProcessFromMemoryMappedFile.write(process, file);
+
+		try(MonteCarloProcessFromMemoryMappedFile processFromFile = new MonteCarloProcessFromMemoryMappedFile(file, model)) {
+			// The stochastic driver is not re-created from the file, hence the paths cannot be re-simulated
+			Assertions.assertNull(processFromFile.getStochasticDriver(), "Stochastic driver");
+			Assertions.assertThrows(UnsupportedOperationException.class, () -> processFromFile.getCloneWithModifiedModel(model));
+			Assertions.assertThrows(UnsupportedOperationException.class, () -> processFromFile.getCloneWithModifiedData(Map.of("seed", 1)));
+
+			// ... unless a stochastic driver is given
+			final MonteCarloProcess processWithStochasticDriver = processFromFile.getCloneWithModifiedData(Map.of("stochasticDriver", brownianMotion));
+			final int lastTimeIndex = process.getTimeDiscretization().getNumberOfTimeSteps();
+			assertEquals(process.getProcessValue(lastTimeIndex, 0), processWithStochasticDriver.getProcessValue(lastTimeIndex, 0), "Process value with given stochastic driver");
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testInvalidFile() throws IOException {
+		final Path file = Files.createTempFile("invalid", ".bin");
+		try {
+			Files.write(file, new byte[100]);
+
+			Assertions.assertThrows(IOException.class, () -> new MonteCarloProcessFromMemoryMappedFile(file, null));
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static void assertEquals(final RandomVariable expected, final RandomVariable actual, final String message) {
+		Assertions.assertEquals(expected.isDeterministic(), actual.isDeterministic(), message + ": is deterministic");
+		Assertions.assertEquals(expected.size(), actual.size(), message + ": size");
+		for(int i=0; i<expected.size(); i++) {
+			Assertions.assertEquals(expected.get(i), actual.get(i), message);
+		}
+	}
+}
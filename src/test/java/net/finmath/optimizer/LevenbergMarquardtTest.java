@@ -8,6 +8,7 @@ package net.finmath.optimizer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -296,4 +297,69 @@ public class LevenbergMarquardtTest {
 
 		Assert.assertEquals(0.0, optimizer.getRootMeanSquaredError(), 2E-4);
 	}
+
+	/**
+	 * Optimization of the Rastrigin function \( f(x) = x^{2} + 10 (1 - \cos(2 \pi x)) \), which has local minima close to the integers
+	 * and the global minimum \( f(0) = 0 \).
+	 *
+	 * A single run starting from 3.1 ends in a local minimum. The multi-start finds the global minimum.
+	 *
+	 * @throws SolverException Thrown if the solver fails to find a solution.
+	 */
+	@Test
+	public void testMultiStartRastriginFunction() throws SolverException {
+		final OptimizerFactoryLevenbergMarquardtMultiStart optimizerFactory = new OptimizerFactoryLevenbergMarquardtMultiStart(1000, 0.0, 20, 4);
+
+		final Optimizer.ObjectiveFunction rastriginFunction = (parameters, values) -> {
+			values[0] = parameters[0] * parameters[0] + 10.0 * (1.0 - Math.cos(2.0 * Math.PI * parameters[0]));
+		};
+
+		final Optimizer singleRun = new OptimizerFactoryLevenbergMarquardt(1000, 0.0, 1).getOptimizer(rastriginFunction, new double[] { 3.1 }, new double[] { 0.0 });
+		singleRun.run();
+
+		final LevenbergMarquardtMultiStart multiStart = (LevenbergMarquardtMultiStart)optimizerFactory.getOptimizer(rastriginFunction, new double[] { 3.1 }, new double[] { -5.0 }, new double[] { 5.0 }, new double[] { 0.0 });
+		multiStart.run();
+
+		System.out.println("Rastrigin function: single run RMSE " + singleRun.getRootMeanSquaredError() + ", multi-start RMSE " + multiStart.getRootMeanSquaredError()
+		+ " (" + multiStart.getNumberOfCancelledRuns() + " dominated runs cancelled).");
+
+		Assert.assertTrue("Single run ends in local minimum", singleRun.getRootMeanSquaredError() > 1.0);
+		Assert.assertEquals(0.0, multiStart.getRootMeanSquaredError(), 2E-4);
+		Assert.assertEquals(0.0, multiStart.getBestFitParameters()[0], 1E-2);
+		Assert.assertTrue("Dominated runs cancelled", multiStart.getNumberOfCancelledRuns() > 0);
+	}
+
+	/**
+	 * Tests that the finite difference derivatives are calculated using the batch valuation of a {@link Optimizer.BatchObjectiveFunction}.
+	 *
+	 * @throws SolverException Thrown if the solver fails to find a solution.
+	 */
+	@Test
+	public void testBatchObjectiveFunction() throws SolverException {
+		final AtomicInteger numberOfBatchValuations = new AtomicInteger();
+
+		final Optimizer.BatchObjectiveFunction objectiveFunction = new Optimizer.BatchObjectiveFunction() {
+			@Override
+			public void setValues(final double[] parameters, final double[] values) {
+				values[0] = parameters[0] * 0.0 + parameters[1];
+				values[1] = parameters[0] * 2.0 + parameters[1];
+			}
+
+			@Override
+			public void setValues(final double[][] parameters, final double[][] values) {
+				numberOfBatchValuations.incrementAndGet();
+				for(int k=0; k<parameters.length; k++) {
+					setValues(parameters[k], values[k]);
+				}
+			}
+		};
+
+		final Optimizer optimizer = new OptimizerFactoryLevenbergMarquardt(100, 0.0, 1).getOptimizer(objectiveFunction, new double[] { 0, 0 }, new double[] { 5, 10 });
+		optimizer.run();
+
+		final double[] bestParameters = optimizer.getBestFitParameters();
+		Assert.assertEquals(2.5, bestParameters[0], 1E-12);
+		Assert.assertEquals(5.0, bestParameters[1], 1E-12);
+		Assert.assertTrue("Derivatives calculated by batch valuation", numberOfBatchValuations.get() > 0);
+	}
 }
@@ -0,0 +1,123 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.randomnumbers;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the sequence and the substreams (jump-ahead) of {@link MersenneTwister} and {@link SobolSequence}.
+ *
+ * @author Christian Fries
+ */
+public class MersenneTwisterTest {
+
+	@Test
+	public void testSequenceAgreesWithCommonsMath() {
+		for(final long seed : new long[] { 0, 3141, -1, 1L << 40, Long.MIN_VALUE }) {
+			final MersenneTwister mersenneTwister = new MersenneTwister(seed);
+			final org.apache.commons.math3.random.MersenneTwister mersenneTwisterCommonsMath = new org.apache.commons.math3.random.MersenneTwister(seed);
+			for(int i=0; i<10000; i++) {
+				Assertions.assertEquals(mersenneTwisterCommonsMath.nextDouble(), mersenneTwister.nextDouble(), 0.0, "Random number " + i + " for seed " + seed);
+			}
+		}
+	}
+
+	@Test
+	public void testJumpAheadAgreesWithStepping() {
+		final int[] state = new int[MersenneTwisterJumpAhead.N];
+		for(int i=0; i<state.length; i++) {
+			state[i] = 1812433253 * i + 0x5DEECE6D;
+		}
+
+		for(final long numberOfSteps : new long[] { 0, 1, 623, 624, 100000, 1234567 }) {
+			for(final int index : new int[] { 0, 17, 623 }) {
+				final int[] stateStepped = state.clone();
+				int indexStepped = index;
+				for(long i=0; i<numberOfSteps; i++) {
+					MersenneTwisterJumpAhead.next(stateStepped, indexStepped);
+					indexStepped = (indexStepped + 1) % MersenneTwisterJumpAhead.N;
+				}
+
+				final int[] stateJumped = state.clone();
+				MersenneTwisterJumpAhead.jump(stateJumped, index, numberOfSteps);
+				int indexJumped = index;
+
+				// The states may differ in bits not influencing the output, hence we compare the generated words
+				for(int i=0; i<2000; i++) {
+					final int wordStepped = MersenneTwisterJumpAhead.next(stateStepped, indexStepped);
+					final int wordJumped = MersenneTwisterJumpAhead.next(stateJumped, indexJumped);
+					Assertions.assertEquals(wordStepped, wordJumped, "Word " + i + " after " + numberOfSteps + " steps from index " + index);
+					indexStepped = (indexStepped + 1) % MersenneTwisterJumpAhead.N;
+					indexJumped = (indexJumped + 1) % MersenneTwisterJumpAhead.N;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSubstreamsReproduceSequence() {
+		final long seed = 3141;
+		final int numberOfSubstreams = 4;
+		final int numbersPerSubstream = 5000000;
+
+		// Generate the sequence in parallel using substreams (the later substreams use the jump-ahead)
+		final double[] sequenceFromSubstreams = new double[numberOfSubstreams * numbersPerSubstream];
+		IntStream.range(0, numberOfSubstreams).parallel().forEach(substream -> {
+			final MersenneTwister mersenneTwister = new MersenneTwister(seed).getSubstream((long)substream * numbersPerSubstream);
+			for(int i=0; i<numbersPerSubstream; i++) {
+				sequenceFromSubstreams[substream * numbersPerSubstream + i] = mersenneTwister.nextDoubleFast();
+			}
+		});
+
+		final MersenneTwister mersenneTwister = new MersenneTwister(seed);
+		for(int i=0; i<sequenceFromSubstreams.length; i++) {
+			Assertions.assertEquals(mersenneTwister.nextDoubleFast(), sequenceFromSubstreams[i], 0.0, "Random number " + i);
+		}
+	}
+
+	@Test
+	public void testSobolSubstreams() {
+		final SobolSequence sobolSequence = new SobolSequence(3);
+		final SobolSequence sobolSequenceSubstream = sobolSequence.getSubstream(1000);
+		final SobolSequence sobolSequenceSubstreamOfSubstream = sobolSequence.getSubstream(400).getSubstream(600);
+
+		for(int i=0; i<1000; i++) {
+			sobolSequence.getNext();
+		}
+		for(int i=0; i<1000; i++) {
+			final double[] expected = sobolSequence.getNext();
+			Assertions.assertArrayEquals(expected, sobolSequenceSubstream.getNext(), 0.0, "Sample " + i);
+			Assertions.assertArrayEquals(expected, sobolSequenceSubstreamOfSubstream.getNext(), 0.0, "Sample " + i);
+		}
+	}
+
+	@Test
+	public void testSkip() {
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141).getSubstream(100);
+		final MersenneTwister mersenneTwisterReference = new MersenneTwister(3141).getSubstream(100);
+		for(int i=0; i<10; i++) {
+			mersenneTwister.nextDouble();
+		}
+
+		// The position is relative to the initial state of the generator, the next number follows the skipped numbers
+		Assertions.assertEquals(10, mersenneTwister.skip(20000000), "Position of first skipped number");
+		Assertions.assertEquals(mersenneTwisterReference.getSubstream(20000010).nextDouble(), mersenneTwister.nextDouble(), 0.0, "Random number after skipped numbers");
+		Assertions.assertEquals(20000011, mersenneTwister.skip(0), "Position after skipped numbers");
+
+		final SobolSequence sobolSequence = new SobolSequence(3).getSubstream(100);
+		final SobolSequence sobolSequenceReference = new SobolSequence(3).getSubstream(100);
+		for(int i=0; i<10; i++) {
+			sobolSequence.getNext();
+		}
+
+		Assertions.assertEquals(10, sobolSequence.skip(1000), "Position of first skipped sample");
+		Assertions.assertArrayEquals(sobolSequenceReference.getSubstream(1010).getNext(), sobolSequence.getNext(), 0.0, "Sample after skipped samples");
+		Assertions.assertEquals(1011, sobolSequence.skip(0), "Position after skipped samples");
+	}
+}
@@ -0,0 +1,695 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.montecarlo.vectorized;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A stochastic random variable (a vector of double realizations) where the arithmetic
+ * operations <code>add</code>, <code>sub</code>, <code>mult</code>, <code>div</code>, <code>addProduct</code>, <code>addSumProduct</code>,
+ * <code>addRatio</code>, <code>subRatio</code>, <code>accrue</code>, <code>discount</code>, <code>floor</code>, <code>cap</code>,
+ * <code>choose</code>, <code>squared</code>, <code>sqrt</code>, <code>invert</code>, <code>abs</code>, <code>exp</code> and <code>log</code>
+ * are implemented using the Java Vector API (<code>jdk.incubator.vector</code>), i.e., with SIMD instructions of the preferred vector
+ * size of the platform (e.g. 8 doubles on AVX-512). These operations return objects of this class, such that a
+ * sequence of operations (e.g. the steps of an Euler scheme) stays vectorized.
+ *
+ * All other operations are inherited from {@link RandomVariableFromDoubleArray} (and return objects of that class).
+ * Operations involving a random variable of a different type are vectorized if that random variable is stochastic
+ * and has the same size (its realizations are obtained via {@link RandomVariable#getRealizations()}), otherwise
+ * they are delegated to {@link RandomVariableFromDoubleArray}.
+ *
+ * The arithmetic operations give results identical to {@link RandomVariableFromDoubleArray}.
+ * The transcendental functions use polynomial approximations:
+ * <ul>
+ * 	<li><code>exp</code>: argument reduction \( x = k \log(2) + r \), \( |r| \leq \log(2)/2 \), and a Taylor polynomial of degree 13 for \( \exp(r) \).
+ * 	The relative error is below 1E-15 (a few ulp) for \( x \in [-708, 709] \).</li>
+ * 	<li><code>log</code>: decomposition \( x = m 2^{e} \), \( m \in [\sqrt{1/2}, \sqrt{2}] \), and the series
+ * 	\( \log(m) = 2 (s + s^{3}/3 + \ldots + s^{21}/21) \) with \( s = (m-1)/(m+1) \).
+ * 	The absolute error is below 1E-15 times \( \max(|\log(x)|,1) \) for positive normal \( x \).</li>
+ * </ul>
+ * Vectors containing arguments outside these ranges (including NaN, infinity, zero, negative and subnormal values) and the
+ * remaining elements not filling a full vector are evaluated with {@link Math#exp(double)} and {@link Math#log(double)}.
+ *
+ * The class requires Java 17 and the JVM option <code>--add-modules jdk.incubator.vector</code>. It should not be
+ * used directly, but via the <code>RandomVariableVectorizedFactory</code>, which loads it reflectively.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableFromDoubleArrayVectorized extends RandomVariableFromDoubleArray {
+
+	private static final long serialVersionUID = 2945238702871203594L;
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	private static final double LOG2E = 1.4426950408889634;
+	private static final double LN2_HI = 6.93147180369123816490e-01;
+	private static final double LN2_LO = 1.90821492927058770002e-10;
+	private static final double SQRT2 = 1.4142135623730951;
+
+	// Adding and subtracting 1.5 * 2^52 rounds to the nearest integer, which is then found in the lower bits of the mantissa.
+	private static final double ROUNDING_SHIFTER = 0x1.8p52;
+	private static final long ROUNDING_SHIFTER_BITS = Double.doubleToRawLongBits(ROUNDING_SHIFTER);
+
+	private static final double EXP_ARGUMENT_MIN = -708.0;
+	private static final double EXP_ARGUMENT_MAX = 709.0;
+
+	private static final long EXPONENT_BIAS = 1023;
+	private static final long MANTISSA_MASK = 0x000FFFFFFFFFFFFFL;
+
+	private final double[] realizations;
+
+	/**
+	 * Create a stochastic random variable.
+	 *
+	 * Important: The realizations array is not cloned (no defensive copy is made).
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations the vector of realizations.
+	 */
+	public RandomVariableFromDoubleArrayVectorized(final double time, final double[] realizations) {
+		super(time, realizations);
+		this.realizations = realizations;
+	}
+
+	/*
+	 * Unary operators
+	 */
+
+	@Override
+	public RandomVariable add(final double value) {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).add(value).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] + value;
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).sub(value).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] - value;
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).mul(value).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] * value;
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).div(value).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] / value;
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariable cap(final double cap) {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).min(cap).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = Math.min(realizations[i], cap);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariable floor(final double floor) {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).max(floor).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = Math.max(realizations[i], floor);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariable squared() {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			final DoubleVector x = DoubleVector.fromArray(SPECIES, realizations, i);
+			x.mul(x).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] * realizations[i];
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).lanewise(VectorOperators.SQRT).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = Math.sqrt(realizations[i]);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariable invert() {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.broadcast(SPECIES, 1.0).div(DoubleVector.fromArray(SPECIES, realizations, i)).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = 1.0/realizations[i];
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariable abs() {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).abs().intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = Math.abs(realizations[i]);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariableFromDoubleArray exp() {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			final DoubleVector x = DoubleVector.fromArray(SPECIES, realizations, i);
+			if(x.compare(VectorOperators.GE, EXP_ARGUMENT_MIN).and(x.compare(VectorOperators.LE, EXP_ARGUMENT_MAX)).allTrue()) {
+				exp(x).intoArray(result, i);
+			}
+			else {
+				for(int j=i; j<i+SPECIES.length(); j++) {
+					result[j] = Math.exp(realizations[j]);
+				}
+			}
+		}
+		for(; i<result.length; i++) {
+			result[i] = Math.exp(realizations[i]);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	@Override
+	public RandomVariableFromDoubleArray log() {
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			final DoubleVector x = DoubleVector.fromArray(SPECIES, realizations, i);
+			if(x.compare(VectorOperators.GE, Double.MIN_NORMAL).and(x.compare(VectorOperators.LE, Double.MAX_VALUE)).allTrue()) {
+				log(x).intoArray(result, i);
+			}
+			else {
+				for(int j=i; j<i+SPECIES.length(); j++) {
+					result[j] = Math.log(realizations[j]);
+				}
+			}
+		}
+		for(; i<result.length; i++) {
+			result[i] = Math.log(realizations[i]);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(getFiltrationTime(), result);
+	}
+
+	/*
+	 * Binary operators
+	 */
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		final double[] argument = getRealizationsOfArgument(randomVariable);
+		if(argument == null) {
+			return super.add(randomVariable);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).add(DoubleVector.fromArray(SPECIES, argument, i)).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] + argument[i];
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(getFiltrationTime(), randomVariable.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		final double[] argument = getRealizationsOfArgument(randomVariable);
+		if(argument == null) {
+			return super.sub(randomVariable);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).sub(DoubleVector.fromArray(SPECIES, argument, i)).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] - argument[i];
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(getFiltrationTime(), randomVariable.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		final double[] argument = getRealizationsOfArgument(randomVariable);
+		if(argument == null) {
+			return super.mult(randomVariable);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).mul(DoubleVector.fromArray(SPECIES, argument, i)).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] * argument[i];
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(getFiltrationTime(), randomVariable.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		if(randomVariable.isDeterministic() && randomVariable.getTypePriority() <= getTypePriority()) {
+			return div(randomVariable.doubleValue());
+		}
+
+		final double[] argument = getRealizationsOfArgument(randomVariable);
+		if(argument == null) {
+			return super.div(randomVariable);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).div(DoubleVector.fromArray(SPECIES, argument, i)).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] / argument[i];
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(getFiltrationTime(), randomVariable.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable randomVariable) {
+		final double[] argument = getRealizationsOfArgument(randomVariable);
+		if(argument == null) {
+			return super.cap(randomVariable);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).min(DoubleVector.fromArray(SPECIES, argument, i)).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = Math.min(realizations[i], argument[i]);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(getFiltrationTime(), randomVariable.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable randomVariable) {
+		final double[] argument = getRealizationsOfArgument(randomVariable);
+		if(argument == null) {
+			return super.floor(randomVariable);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).max(DoubleVector.fromArray(SPECIES, argument, i)).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = Math.max(realizations[i], argument[i]);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(getFiltrationTime(), randomVariable.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		final double[] argument = getRealizationsOfArgument(rate);
+		if(argument == null) {
+			return super.accrue(rate, periodLength);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			final DoubleVector accrualFactor = DoubleVector.fromArray(SPECIES, argument, i).mul(periodLength).add(1.0);
+			DoubleVector.fromArray(SPECIES, realizations, i).mul(accrualFactor).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] * (1 + argument[i] * periodLength);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(getFiltrationTime(), rate.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		final double[] argument = getRealizationsOfArgument(rate);
+		if(argument == null) {
+			return super.discount(rate, periodLength);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			final DoubleVector accrualFactor = DoubleVector.fromArray(SPECIES, argument, i).mul(periodLength).add(1.0);
+			DoubleVector.fromArray(SPECIES, realizations, i).div(accrualFactor).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] / (1.0 + argument[i] * periodLength);
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(getFiltrationTime(), rate.getFiltrationTime()), result);
+	}
+
+	/*
+	 * Ternary operators
+	 */
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		final double[] argument = getRealizationsOfArgument(factor1);
+		if(argument == null) {
+			return super.addProduct(factor1, factor2);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			// Multiplication and addition are not fused to give results identical to the scalar implementation
+			DoubleVector.fromArray(SPECIES, realizations, i).add(DoubleVector.fromArray(SPECIES, argument, i).mul(factor2)).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] + argument[i] * factor2;
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(getFiltrationTime(), factor1.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		if(factor2.isDeterministic() && factor2.getTypePriority() <= getTypePriority()) {
+			return addProduct(factor1, factor2.doubleValue());
+		}
+		if(factor1.isDeterministic() && factor1.getTypePriority() <= getTypePriority()) {
+			return addProduct(factor2, factor1.doubleValue());
+		}
+
+		final double[] argument1 = getRealizationsOfArgument(factor1);
+		final double[] argument2 = getRealizationsOfArgument(factor2);
+		if(argument1 == null || argument2 == null) {
+			return super.addProduct(factor1, factor2);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).add(DoubleVector.fromArray(SPECIES, argument1, i).mul(DoubleVector.fromArray(SPECIES, argument2, i))).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] + argument1[i] * argument2[i];
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(Math.max(getFiltrationTime(), factor1.getFiltrationTime()), factor2.getFiltrationTime()), result);
+	}
+
+	/**
+	 * Applies \( x \mapsto x + \sum_{i=0}^{n-1} factor1_{i} * factor2_{i} \) in a single pass, allocating only the array of the result.
+	 * The result is identical to successive calls of {@link #addProduct(RandomVariable, RandomVariable)}.
+	 *
+	 * @param factor1 The factor 1. A list of random variables (compatible with this random variable).
+	 * @param factor2 The factor 2. A list of random variables (compatible with this random variable).
+	 * @return New random variable with the result of the function.
+	 */
+	@Override
+	public RandomVariable addSumProduct(final RandomVariable[] factor1, final RandomVariable[] factor2) {
+		final double[][] arguments1 = new double[factor1.length][];
+		final double[][] arguments2 = new double[factor2.length][];
+		for(int factorIndex=0; factorIndex<factor1.length; factorIndex++) {
+			arguments1[factorIndex] = getRealizationsOfArgument(factor1[factorIndex]);
+			arguments2[factorIndex] = getRealizationsOfArgument(factor2[factorIndex]);
+			if(arguments1[factorIndex] == null || arguments2[factorIndex] == null) {
+				// Deterministic or incompatible factors - successive addProduct
+				RandomVariable result = this;
+				for(int i=0; i<factor1.length; i++) {
+					result = result.addProduct(factor1[i], factor2[i]);
+				}
+				return result;
+			}
+		}
+
+		double newTime = getFiltrationTime();
+		final double[] result = realizations.clone();
+		for(int factorIndex=0; factorIndex<factor1.length; factorIndex++) {
+			newTime = Math.max(Math.max(newTime, factor1[factorIndex].getFiltrationTime()), factor2[factorIndex].getFiltrationTime());
+			final double[] argument1 = arguments1[factorIndex];
+			final double[] argument2 = arguments2[factorIndex];
+			final int upperBound = SPECIES.loopBound(result.length);
+			int i = 0;
+			for(; i<upperBound; i += SPECIES.length()) {
+				DoubleVector.fromArray(SPECIES, result, i).add(DoubleVector.fromArray(SPECIES, argument1, i).mul(DoubleVector.fromArray(SPECIES, argument2, i))).intoArray(result, i);
+			}
+			for(; i<result.length; i++) {
+				result[i] += argument1[i] * argument2[i];
+			}
+		}
+		return new RandomVariableFromDoubleArrayVectorized(newTime, result);
+	}
+
+	@Override
+	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		final double[] argument1 = getRealizationsOfArgument(numerator);
+		final double[] argument2 = getRealizationsOfArgument(denominator);
+		if(argument1 == null || argument2 == null) {
+			return super.addRatio(numerator, denominator);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).add(DoubleVector.fromArray(SPECIES, argument1, i).div(DoubleVector.fromArray(SPECIES, argument2, i))).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] + argument1[i] / argument2[i];
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(Math.max(getFiltrationTime(), numerator.getFiltrationTime()), denominator.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		final double[] argument1 = getRealizationsOfArgument(numerator);
+		final double[] argument2 = getRealizationsOfArgument(denominator);
+		if(argument1 == null || argument2 == null) {
+			return super.subRatio(numerator, denominator);
+		}
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, realizations, i).sub(DoubleVector.fromArray(SPECIES, argument1, i).div(DoubleVector.fromArray(SPECIES, argument2, i))).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			result[i] = realizations[i] - argument1[i] / argument2[i];
+		}
+		return new RandomVariableFromDoubleArrayVectorized(Math.max(Math.max(getFiltrationTime(), numerator.getFiltrationTime()), denominator.getFiltrationTime()), result);
+	}
+
+	@Override
+	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
+		if(valueIfTriggerNonNegative.getTypePriority() > getTypePriority() || valueIfTriggerNegative.getTypePriority() > getTypePriority()) {
+			return super.choose(valueIfTriggerNonNegative, valueIfTriggerNegative);
+		}
+
+		// Deterministic values are broadcasted, stochastic values are required to have the same size.
+		final double[] nonNegative = valueIfTriggerNonNegative.isDeterministic() ? null : getRealizationsOfArgument(valueIfTriggerNonNegative);
+		final double[] negative = valueIfTriggerNegative.isDeterministic() ? null : getRealizationsOfArgument(valueIfTriggerNegative);
+		if((nonNegative == null && !valueIfTriggerNonNegative.isDeterministic()) || (negative == null && !valueIfTriggerNegative.isDeterministic())) {
+			return super.choose(valueIfTriggerNonNegative, valueIfTriggerNegative);
+		}
+		final double nonNegativeValue = valueIfTriggerNonNegative.isDeterministic() ? valueIfTriggerNonNegative.doubleValue() : Double.NaN;
+		final double negativeValue = valueIfTriggerNegative.isDeterministic() ? valueIfTriggerNegative.doubleValue() : Double.NaN;
+
+		final double[] result = new double[realizations.length];
+		final int upperBound = SPECIES.loopBound(realizations.length);
+		int i = 0;
+		for(; i<upperBound; i += SPECIES.length()) {
+			final VectorMask<Double> isNonNegative = DoubleVector.fromArray(SPECIES, realizations, i).compare(VectorOperators.GE, 0.0);
+			final DoubleVector valuesNonNegative = nonNegative != null ? DoubleVector.fromArray(SPECIES, nonNegative, i) : DoubleVector.broadcast(SPECIES, nonNegativeValue);
+			final DoubleVector valuesNegative = negative != null ? DoubleVector.fromArray(SPECIES, negative, i) : DoubleVector.broadcast(SPECIES, negativeValue);
+			valuesNegative.blend(valuesNonNegative, isNonNegative).intoArray(result, i);
+		}
+		for(; i<result.length; i++) {
+			if(realizations[i] >= 0.0) {
+				result[i] = nonNegative != null ? nonNegative[i] : nonNegativeValue;
+			}
+			else {
+				result[i] = negative != null ? negative[i] : negativeValue;
+			}
+		}
+
+		double newTime = getFiltrationTime();
+		newTime = Math.max(newTime, valueIfTriggerNonNegative.getFiltrationTime());
+		newTime = Math.max(newTime, valueIfTriggerNegative.getFiltrationTime());
+		return new RandomVariableFromDoubleArrayVectorized(newTime, result);
+	}
+
+	/**
+	 * Returns the realizations of the argument of a binary operation, if the operation can be performed by the vectorized
+	 * implementation, that is, if the argument is stochastic, has the same size and does not have a higher type priority.
+	 *
+	 * @param randomVariable The argument of the operation.
+	 * @return The realizations of the argument or null if the operation has to be performed by {@link RandomVariableFromDoubleArray}.
+	 */
+	private double[] getRealizationsOfArgument(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > getTypePriority() || randomVariable.isDeterministic() || randomVariable.size() != realizations.length) {
+			return null;
+		}
+		else if(randomVariable instanceof RandomVariableFromDoubleArrayVectorized) {
+			return ((RandomVariableFromDoubleArrayVectorized)randomVariable).realizations;
+		}
+		else {
+			return randomVariable.getRealizations();
+		}
+	}
+
+	/**
+	 * Vectorized exponential function for arguments in [-708, 709].
+	 *
+	 * @param x The arguments.
+	 * @return The values exp(x).
+	 */
+	private static DoubleVector exp(final DoubleVector x) {
+		// Argument reduction x = k log(2) + r with integer k (found in the lower bits of the shifted value)
+		final DoubleVector shifted = x.mul(LOG2E).add(ROUNDING_SHIFTER);
+		final DoubleVector k = shifted.sub(ROUNDING_SHIFTER);
+		final DoubleVector r = x.sub(k.mul(LN2_HI)).sub(k.mul(LN2_LO));
+
+		// Taylor polynomial of degree 13 (Horner scheme)
+		DoubleVector p = DoubleVector.broadcast(SPECIES, 1.0/6227020800.0);
+		p = p.mul(r).add(1.0/479001600.0);
+		p = p.mul(r).add(1.0/39916800.0);
+		p = p.mul(r).add(1.0/3628800.0);
+		p = p.mul(r).add(1.0/362880.0);
+		p = p.mul(r).add(1.0/40320.0);
+		p = p.mul(r).add(1.0/5040.0);
+		p = p.mul(r).add(1.0/720.0);
+		p = p.mul(r).add(1.0/120.0);
+		p = p.mul(r).add(1.0/24.0);
+		p = p.mul(r).add(1.0/6.0);
+		p = p.mul(r).add(0.5);
+		p = p.mul(r).add(1.0);
+		p = p.mul(r).add(1.0);
+
+		// Scaling by 2^k via the exponent bits
+		final LongVector exponent = shifted.reinterpretAsLongs().sub(ROUNDING_SHIFTER_BITS);
+		final DoubleVector twoToK = exponent.add(EXPONENT_BIAS).lanewise(VectorOperators.LSHL, 52).reinterpretAsDoubles();
+
+		return p.mul(twoToK);
+	}
+
+	/**
+	 * Vectorized natural logarithm for positive normal arguments.
+	 *
+	 * @param x The arguments.
+	 * @return The values log(x).
+	 */
+	private static DoubleVector log(final DoubleVector x) {
+		// Decomposition x = m 2^e with m in [1,2) from the bits of x
+		final LongVector bits = x.reinterpretAsLongs();
+		DoubleVector e = ((DoubleVector)bits.lanewise(VectorOperators.LSHR, 52).sub(EXPONENT_BIAS).convert(VectorOperators.L2D, 0));
+		DoubleVector m = bits.and(MANTISSA_MASK).or(EXPONENT_BIAS << 52).reinterpretAsDoubles();
+
+		// Shift m to [sqrt(1/2), sqrt(2)]
+		final VectorMask<Double> isLarge = m.compare(VectorOperators.GT, SQRT2);
+		m = m.blend(m.mul(0.5), isLarge);
+		e = e.blend(e.add(1.0), isLarge);
+
+		// log(m) = 2 atanh(s) with s = (m-1)/(m+1), |s| <= 0.1716
+		final DoubleVector s = m.sub(1.0).div(m.add(1.0));
+		final DoubleVector z = s.mul(s);
+		DoubleVector p = DoubleVector.broadcast(SPECIES, 1.0/21.0);
+		p = p.mul(z).add(1.0/19.0);
+		p = p.mul(z).add(1.0/17.0);
+		p = p.mul(z).add(1.0/15.0);
+		p = p.mul(z).add(1.0/13.0);
+		p = p.mul(z).add(1.0/11.0);
+		p = p.mul(z).add(1.0/9.0);
+		p = p.mul(z).add(1.0/7.0);
+		p = p.mul(z).add(1.0/5.0);
+		p = p.mul(z).add(1.0/3.0);
+		final DoubleVector logOfM = s.add(s.mul(z).mul(p)).mul(2.0);
+
+		return e.mul(LN2_HI).add(logOfM.add(e.mul(LN2_LO)));
+	}
+}